@@ -1,5 +1,7 @@
 package bnb;
 
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import bnb.rpc.Byteable;
@@ -7,6 +9,8 @@ import bnb.rpc.Byteable;
 public abstract class BnbNode implements Byteable {
 	private BnbNode parent;
 	protected AtomicInteger activeChildCount = new AtomicInteger(0);
+	//the lease on the vassal that this node's subtree was handed out under
+	private long leaseId;
 	
 	/**
 	 * A BnbNode should have an empty constructor after which initFromBytes can be called
@@ -14,6 +18,9 @@ public abstract class BnbNode implements Byteable {
 	
 	public BnbNode(BnbNode parent) {
 		this.parent = parent;
+		if (parent != null) {
+			leaseId = parent.leaseId;
+		}
 	}
 	
 	/**
@@ -42,6 +49,18 @@ public abstract class BnbNode implements Byteable {
 		return parent;
 	}
 	
+	/**
+	 * Which of the lord's leases on the vassal holding this node it falls under.  Children
+	 * get their parent's.  Only means something on vassals, and isn't sent with the node.
+	 */
+	public long getLeaseId() {
+		return leaseId;
+	}
+	
+	public void setLeaseId(long leaseId) {
+		this.leaseId = leaseId;
+	}
+	
 	/**
 	 * Code to be executed when the last of the children is done being computed on
 	 */
@@ -68,10 +87,62 @@ public abstract class BnbNode implements Byteable {
 	
 	public abstract double getCost();
 	
+	/**
+	 * Lower bound on the cost of any solution in this node's subtree.  Only meaningful
+	 * after the node has been evaluated.  Defaults to getCost.
+	 */
+	public double getLowerBound() {
+		return getCost();
+	}
+	
+	/**
+	 * Rough estimate of the number of nodes left to evaluate under this one, used to decide
+	 * how much work to give away when it's stolen.  Returns -1 if the node can't estimate
+	 * it, which is the default.
+	 * 
+	 * @param bestCost
+	 * 		cost of the best known solution
+	 */
+	public double estimateSubtreeSize(double bestCost) {
+		return -1;
+	}
+	
 	public abstract Solution getSolution();
 	
 	public abstract void initFromBytes(byte[] bytes, Problem problem);
 	
+	/**
+	 * Like initFromBytes, but reads the buffer's remaining bytes.  The default copies them
+	 * out into an array.  Nodes that get sent around a lot should override it to read
+	 * straight from the buffer.
+	 */
+	public void initFromBuffer(ByteBuffer buffer, Problem problem) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		initFromBytes(bytes, problem);
+	}
+	
+	/**
+	 * Makes a copy of the node that shares nothing with it, as if it had been sent to
+	 * another vassal, for passing work around inside one JVM.  The default goes through
+	 * toBytes and initFromBytes.
+	 */
+	public BnbNode copyForTransfer(Problem problem) {
+		try {
+			BnbNode copy = getClass().getDeclaredConstructor().newInstance();
+			copy.initFromBytes(toBytes(), problem);
+			return copy;
+		} catch (InstantiationException ex) {
+			throw new IllegalStateException("Couldn't copy " + getClass().getName(), ex);
+		} catch (IllegalAccessException ex) {
+			throw new IllegalStateException("Couldn't copy " + getClass().getName(), ex);
+		} catch (NoSuchMethodException ex) {
+			throw new IllegalStateException("Couldn't copy " + getClass().getName(), ex);
+		} catch (InvocationTargetException ex) {
+			throw new IllegalStateException("Couldn't copy " + getClass().getName(), ex);
+		}
+	}
+	
 	/**
 	 * Returns false when the node shouldn't be stolen (probably because it's too small
 	 * to be worth it).
@@ -0,0 +1,71 @@
+package bnb.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Something for BenchmarkRunner to time.  Each iteration does a fixed amount of work, so
+ * that runs on different commits can be compared op for op.
+ */
+public abstract class Benchmark {
+	private final String name;
+	private final Map<String, String> params = new LinkedHashMap<String, String>();
+
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * What the benchmark was run with, such as the instance, in the order they were added.
+	 */
+	public Map<String, String> getParams() {
+		return params;
+	}
+
+	protected void addParam(String key, Object value) {
+		params.put(key, String.valueOf(value));
+	}
+
+	/**
+	 * How many threads an iteration runs on.
+	 */
+	public int getThreads() {
+		return 1;
+	}
+
+	/**
+	 * Called once, before the first iteration.
+	 */
+	public void setUp() throws Exception {
+	}
+
+	/**
+	 * Called before each iteration, untimed.  For making the nodes an iteration will use up.
+	 */
+	public void prepare() {
+	}
+
+	/**
+	 * Runs one timed iteration.
+	 *
+	 * @return
+	 * 		a checksum of the results, which should be the same every iteration for a
+	 * 		deterministic benchmark.  Also keeps the JIT from throwing the work away.
+	 */
+	public abstract long runIteration();
+
+	/**
+	 * The number of operations an iteration does.  Only called after the first iteration.
+	 */
+	public abstract long getOpsPerIteration();
+
+	/**
+	 * Called once, after the last iteration.
+	 */
+	public void tearDown() {
+	}
+}
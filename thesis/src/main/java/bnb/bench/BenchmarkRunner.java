@@ -0,0 +1,157 @@
+package bnb.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Runs benchmarks for some warmup iterations and then some timed ones, and reports each
+ * as a JSON line: the time per op over the timed iterations, the garbage collections
+ * during them, the bytes allocated per op where the JVM can tell us, and the checksum.
+ * A changed checksum means the code being timed gives different results than it did.
+ */
+public class BenchmarkRunner {
+	private static final Logger LOG = Logger.getLogger(BenchmarkRunner.class);
+
+	public static final int DEFAULT_WARMUP_ITERATIONS = 5;
+	public static final int DEFAULT_ITERATIONS = 10;
+
+	private final int warmupIterations;
+	private final int iterations;
+	private final String label;
+
+	/**
+	 * @param label
+	 * 		added to every result so runs can be told apart, such as a commit id, or null
+	 */
+	public BenchmarkRunner(int warmupIterations, int iterations, String label) {
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.label = label;
+	}
+
+	public String run(Benchmark benchmark) throws Exception {
+		LOG.info("Running " + benchmark.getName() + " " + benchmark.getParams());
+		benchmark.setUp();
+		try {
+			long[] checksums = new long[warmupIterations + iterations];
+			for (int i = 0; i < warmupIterations; i++) {
+				benchmark.prepare();
+				checksums[i] = benchmark.runIteration();
+			}
+
+			boolean countAllocations = allocatedBytes(benchmark) >= 0;
+			long[] iterationNanos = new long[iterations];
+			long gcCountBefore = gcCount();
+			long gcMillisBefore = gcMillis();
+			long allocated = 0;
+			for (int i = 0; i < iterations; i++) {
+				benchmark.prepare();
+				long allocatedBefore = allocatedBytes(benchmark);
+				long startTime = System.nanoTime();
+				checksums[warmupIterations + i] = benchmark.runIteration();
+				iterationNanos[i] = System.nanoTime() - startTime;
+				allocated += allocatedBytes(benchmark) - allocatedBefore;
+			}
+			long gcCount = gcCount() - gcCountBefore;
+			long gcMillis = gcMillis() - gcMillisBefore;
+			if (!countAllocations) {
+				allocated = -1;
+			}
+
+			long checksum = checksums[checksums.length - 1];
+			boolean checksumStable = true;
+			for (long result : checksums) {
+				checksumStable &= result == checksum;
+			}
+			return makeReport(benchmark, iterationNanos, gcCount, gcMillis, allocated, checksum, checksumStable);
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+
+	private String makeReport(Benchmark benchmark, long[] iterationNanos, long gcCount, long gcMillis,
+			long allocated, long checksum, boolean checksumStable) {
+		long ops = benchmark.getOpsPerIteration();
+		double mean = 0;
+		double min = Double.MAX_VALUE;
+		for (long nanos : iterationNanos) {
+			double nsPerOp = (double)nanos / ops;
+			mean += nsPerOp / iterationNanos.length;
+			min = Math.min(min, nsPerOp);
+		}
+		double variance = 0;
+		for (long nanos : iterationNanos) {
+			double diff = (double)nanos / ops - mean;
+			variance += diff * diff / Math.max(1, iterationNanos.length - 1);
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		if (label != null) {
+			sb.append("\"label\": " + quote(label) + ", ");
+		}
+		sb.append("\"benchmark\": " + quote(benchmark.getName()));
+		for (Map.Entry<String, String> param : benchmark.getParams().entrySet()) {
+			sb.append(", " + quote(param.getKey()) + ": " + quote(param.getValue()));
+		}
+		sb.append(", \"threads\": " + benchmark.getThreads());
+		sb.append(", \"iterations\": " + iterationNanos.length);
+		sb.append(", \"opsPerIteration\": " + ops);
+		sb.append(", \"nsPerOp\": " + mean);
+		sb.append(", \"nsPerOpStdDev\": " + Math.sqrt(variance));
+		sb.append(", \"nsPerOpMin\": " + min);
+		sb.append(", \"opsPerSec\": " + (mean > 0 ? 1e9 / mean : 0));
+		sb.append(", \"gcCount\": " + gcCount);
+		sb.append(", \"gcMillis\": " + gcMillis);
+		if (allocated >= 0) {
+			sb.append(", \"bytesPerOp\": " + (double)allocated / (ops * iterationNanos.length));
+		}
+		sb.append(", \"checksum\": " + checksum);
+		sb.append(", \"checksumStable\": " + checksumStable);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static String quote(String s) {
+		return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+
+	private static long gcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, gc.getCollectionTime());
+		}
+		return millis;
+	}
+
+	/**
+	 * What the calling thread has allocated, or -1 if the benchmark runs on other threads
+	 * or the JVM doesn't say.
+	 */
+	private static long allocatedBytes(Benchmark benchmark) {
+		if (benchmark.getThreads() != 1) {
+			return -1;
+		}
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean)threads;
+		if (!sunThreads.isThreadAllocatedMemorySupported() || !sunThreads.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+		return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
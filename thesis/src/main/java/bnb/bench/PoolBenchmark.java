@@ -0,0 +1,122 @@
+package bnb.bench;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bnb.BnbNode;
+import bnb.sim.RecordedTree;
+import bnb.sim.SimNode;
+import bnb.vassal.BestFirstVassalNodePool;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.VassalNodePool;
+
+/**
+ * Has some threads go through a recorded tree with a VassalNodePool, taking nodes and
+ * posting them back the way TaskRunner does.  The nodes are SimNodes, which take no time
+ * to evaluate, so the threads spend their time in the pool and contend for it as hard as
+ * they can.  An op is one node.
+ *
+ * Every node is pruned against the same bound, the best cost the recording found, so
+ * which nodes get evaluated doesn't depend on the order the threads take them in.
+ */
+public class PoolBenchmark extends Benchmark {
+	private final RecordedTree tree;
+	private final double bound;
+	private final NodePoolType poolType;
+	private final int numThreads;
+
+	private long opsPerIteration;
+
+	public PoolBenchmark(RecordedTree tree, String treeName, double bound, NodePoolType poolType,
+			int numThreads) {
+		super("vassalNodePool");
+		this.tree = tree;
+		this.bound = bound;
+		this.poolType = poolType;
+		this.numThreads = numThreads;
+		addParam("tree", treeName);
+		addParam("pool", poolType);
+	}
+
+	@Override
+	public int getThreads() {
+		return numThreads;
+	}
+
+	@Override
+	public long runIteration() {
+		final VassalNodePool pool = poolType.newPool(BestFirstVassalNodePool.DEFAULT_JUMP_RATIO);
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicLong numEvaluated = new AtomicLong();
+		final AtomicLong checksum = new AtomicLong();
+		SimNode root = new SimNode(tree, 0, null);
+		root.evaluate(bound);
+		root.finishEvaluation();
+		pool.post(root);
+
+		Runnable worker = new Runnable() {
+			public void run() {
+				long evaluated = 0;
+				long sum = 0;
+				while (true) {
+					//count ourselves as active before looking, so no one sees the pool empty
+					//and nobody active while we're holding a node
+					active.incrementAndGet();
+					BnbNode next = pool.nextNode();
+					if (next == null) {
+						active.decrementAndGet();
+						if (active.get() == 0 && !pool.hasNextNode()) {
+							break;
+						}
+						Thread.yield();
+						continue;
+					}
+					SimNode node = (SimNode)next;
+					node.evaluate(bound);
+					node.finishEvaluation();
+					evaluated++;
+					sum += node.getId();
+					if (node.isSolution()) {
+						node.whenAllChildrenDone();
+						node.getParent().childDone();
+					} else if (!node.isLeaf()) {
+						pool.post(node);
+					} else {
+						node.whenAllChildrenDone();
+						if (node.getParent() != null) {
+							node.getParent().childDone();
+						}
+					}
+					active.decrementAndGet();
+				}
+				numEvaluated.addAndGet(evaluated);
+				checksum.addAndGet(sum);
+			}
+		};
+
+		if (numThreads == 1) {
+			worker.run();
+		} else {
+			Thread[] threads = new Thread[numThreads];
+			for (int i = 0; i < numThreads; i++) {
+				threads[i] = new Thread(worker, "bench-pool" + i);
+				threads[i].start();
+			}
+			for (Thread thread : threads) {
+				try {
+					thread.join();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		opsPerIteration = numEvaluated.get();
+		return checksum.get();
+	}
+
+	@Override
+	public long getOpsPerIteration() {
+		return opsPerIteration;
+	}
+}
@@ -0,0 +1,51 @@
+package bnb.lord;
+
+import java.util.List;
+
+import bnb.BnbNode;
+
+/**
+ * A job's open nodes and best cost at some point, from which it can be resumed.  The
+ * nodes together cover every part of the search space that hadn't been finished or pruned.
+ */
+public class Checkpoint {
+	private final int jobid;
+	private final int seq;
+	private final long timestamp;
+	private final double bestCost;
+	private final List<BnbNode> nodes;
+
+	public Checkpoint(int jobid, int seq, long timestamp, double bestCost, List<BnbNode> nodes) {
+		this.jobid = jobid;
+		this.seq = seq;
+		this.timestamp = timestamp;
+		this.bestCost = bestCost;
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Id of the job on the lord that took the checkpoint.
+	 */
+	public int getJobID() {
+		return jobid;
+	}
+
+	/**
+	 * Counts up from 0 over the checkpoints taken for a job.
+	 */
+	public int getSeq() {
+		return seq;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public double getBestCost() {
+		return bestCost;
+	}
+
+	public List<BnbNode> getNodes() {
+		return nodes;
+	}
+}
@@ -0,0 +1,350 @@
+package bnb.lord;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.ByteableFactory;
+import bnb.rpc.CodecRegistry;
+import bnb.rpc.VarInt;
+
+/**
+ * Checkpoints appended to a memory-mapped file, with a separate index of where each one
+ * starts.
+ *
+ * Each record in the data file holds a checkpoint's job id, sequence number, time, best
+ * cost, a table of node class names, and the nodes as a class index, a length and the
+ * bytes from toBytes, followed by a CRC32 of all of it.  Each index entry holds a record's
+ * offset and length, its job id, sequence number and time, and the record's CRC.
+ *
+ * A record is forced to disk before its index entry is written, so a crash while
+ * appending leaves at worst a torn record or a torn index entry past the end of the
+ * last good one, and both are ignored and written over.
+ *
+ * Both files are mapped a segment at a time rather than a record at a time, and grow a
+ * segment at a time, so they can have unused space at the end.  Nodes are read back
+ * through the default CodecRegistry.
+ */
+public class CheckpointFile {
+	private static final Logger LOG = Logger.getLogger(CheckpointFile.class);
+
+	private static final int DATA_MAGIC = 0x424e4243; //"BNBC"
+	private static final int INDEX_MAGIC = 0x424e4249; //"BNBI"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	//offset, length, jobid, seq, timestamp, crc
+	private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4 + 4 + 8 + 4;
+
+	//records bigger than this get a segment to themselves
+	private static final int DATA_SEGMENT_SIZE = 16 << 20;
+	private static final int INDEX_SEGMENT_SIZE = 1024 * INDEX_ENTRY_SIZE;
+	//time, job id, seq, cost, number of classes, number of nodes, crc
+	private static final int MIN_RECORD_SIZE = 8 + 4 + 4 + 8 + 4 + 4 + 4;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final RandomAccessFile dataFile;
+	private final RandomAccessFile indexFile;
+	private final FileChannel dataChannel;
+	private final FileChannel indexChannel;
+	private final Segments dataSegments;
+	private final Segments indexSegments;
+
+	private final List<IndexEntry> index;
+	//where the next record and index entry go
+	private long dataEnd;
+	private long indexEnd;
+
+	/**
+	 * Opens the checkpoint file, creating it if it doesn't exist.  The index goes in the
+	 * same directory, with ".idx" added to the name.
+	 */
+	public CheckpointFile(File file) throws IOException {
+		dataFile = new RandomAccessFile(file, "rw");
+		indexFile = new RandomAccessFile(new File(file.getPath() + ".idx"), "rw");
+		dataChannel = dataFile.getChannel();
+		indexChannel = indexFile.getChannel();
+		dataSegments = new Segments(dataChannel, DATA_SEGMENT_SIZE);
+		indexSegments = new Segments(indexChannel, INDEX_SEGMENT_SIZE);
+		index = new ArrayList<IndexEntry>();
+
+		dataEnd = openHeader(dataChannel, DATA_MAGIC);
+		indexEnd = openHeader(indexChannel, INDEX_MAGIC);
+		readIndex();
+	}
+
+	/**
+	 * Writes the header if the file is new, and checks it otherwise.  Returns where the
+	 * contents start.
+	 */
+	private static long openHeader(FileChannel channel, int magic) throws IOException {
+		if (channel.size() < HEADER_SIZE) {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			header.putInt(magic);
+			header.putInt(VERSION);
+			header.force();
+		} else {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt() != magic) {
+				throw new IOException("Not a checkpoint file");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported checkpoint file version " + version);
+			}
+		}
+		return HEADER_SIZE;
+	}
+
+	/**
+	 * Reads index entries up to the first one that's torn or points at a record that
+	 * didn't make it to disk.
+	 */
+	private void readIndex() throws IOException {
+		long numEntries = (indexChannel.size() - HEADER_SIZE) / INDEX_ENTRY_SIZE;
+		if (numEntries <= 0) {
+			return;
+		}
+		for (long i = 0; i < numEntries; i++) {
+			ByteBuffer buffer = indexSegments.slice(HEADER_SIZE + i * INDEX_ENTRY_SIZE, INDEX_ENTRY_SIZE);
+			IndexEntry entry = new IndexEntry(buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+					buffer.getLong(), buffer.getInt());
+			if (entry.offset == 0 && entry.length == 0) {
+				//the unused end of the last segment
+				break;
+			}
+			if (entry.offset != dataEnd || entry.length < MIN_RECORD_SIZE ||
+					entry.offset + entry.length > dataChannel.size() || !recordIntact(entry)) {
+				LOG.warn("Ignoring checkpoints from index entry " + i + " on, which didn't finish writing");
+				break;
+			}
+			index.add(entry);
+			dataEnd = entry.offset + entry.length;
+			indexEnd += INDEX_ENTRY_SIZE;
+		}
+	}
+
+	private boolean recordIntact(IndexEntry entry) throws IOException {
+		ByteBuffer record = dataSegments.slice(entry.offset, entry.length);
+		return crc(record, entry.length - 4) == entry.crc && record.getInt(entry.length - 4) == entry.crc;
+	}
+
+	/**
+	 * CRC of the first length bytes of the buffer, whatever its position.
+	 */
+	private static int crc(ByteBuffer buffer, int length) {
+		ByteBuffer data = buffer.duplicate();
+		data.clear();
+		data.limit(length);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		return (int)crc.getValue();
+	}
+
+	public synchronized void append(Checkpoint checkpoint) throws IOException {
+		//encode the nodes first so we know how much to map
+		Map<String, Integer> classIndexes = new LinkedHashMap<String, Integer>();
+		List<byte[]> nodeBytes = new ArrayList<byte[]>(checkpoint.getNodes().size());
+		int[] nodeClasses = new int[checkpoint.getNodes().size()];
+		int length = 8 + 4 + 4 + 8 + 4;
+		int i = 0;
+		for (BnbNode node : checkpoint.getNodes()) {
+			String className = node.getClass().getName();
+			Integer classIndex = classIndexes.get(className);
+			if (classIndex == null) {
+				classIndex = classIndexes.size();
+				classIndexes.put(className, classIndex);
+				length += 2 + className.getBytes(UTF8).length;
+			}
+			byte[] bytes = node.toBytes();
+			nodeBytes.add(bytes);
+			nodeClasses[i++] = classIndex;
+			length += VarInt.size(classIndex) + VarInt.size(bytes.length) + bytes.length;
+		}
+		length += 4 + 4;
+
+		ByteBuffer record = dataSegments.slice(dataEnd, length);
+		record.putLong(checkpoint.getTimestamp());
+		record.putInt(checkpoint.getJobID());
+		record.putInt(checkpoint.getSeq());
+		record.putDouble(checkpoint.getBestCost());
+		record.putInt(classIndexes.size());
+		for (String className : classIndexes.keySet()) {
+			byte[] nameBytes = className.getBytes(UTF8);
+			record.putShort((short)nameBytes.length);
+			record.put(nameBytes);
+		}
+		record.putInt(nodeBytes.size());
+		for (i = 0; i < nodeBytes.size(); i++) {
+			VarInt.write(record, nodeClasses[i]);
+			VarInt.write(record, nodeBytes.get(i).length);
+			record.put(nodeBytes.get(i));
+		}
+		int crc = crc(record, length - 4);
+		record.putInt(crc);
+		dataSegments.force(dataEnd);
+
+		IndexEntry entry = new IndexEntry(dataEnd, length, checkpoint.getJobID(), checkpoint.getSeq(),
+				checkpoint.getTimestamp(), crc);
+		ByteBuffer indexBuffer = indexSegments.slice(indexEnd, INDEX_ENTRY_SIZE);
+		indexBuffer.putLong(entry.offset);
+		indexBuffer.putInt(entry.length);
+		indexBuffer.putInt(entry.jobid);
+		indexBuffer.putInt(entry.seq);
+		indexBuffer.putLong(entry.timestamp);
+		indexBuffer.putInt(entry.crc);
+		indexSegments.force(indexEnd);
+
+		index.add(entry);
+		dataEnd += length;
+		indexEnd += INDEX_ENTRY_SIZE;
+	}
+
+	public synchronized int getNumCheckpoints() {
+		return index.size();
+	}
+
+	/**
+	 * Returns the most recently written checkpoint, or null if there aren't any.
+	 *
+	 * @param problem
+	 * 		the problem to give the nodes when reading them
+	 */
+	public synchronized Checkpoint readLatest(Problem problem) throws IOException {
+		if (index.isEmpty()) {
+			return null;
+		}
+		return read(index.size() - 1, problem);
+	}
+
+	/**
+	 * @param n
+	 * 		which checkpoint to read, counting from 0 in the order they were written
+	 */
+	public synchronized Checkpoint read(int n, Problem problem) throws IOException {
+		IndexEntry entry = index.get(n);
+		ByteBuffer record = dataSegments.slice(entry.offset, entry.length);
+		long timestamp = record.getLong();
+		int jobid = record.getInt();
+		int seq = record.getInt();
+		double bestCost = record.getDouble();
+		int numClasses = record.getInt();
+		List<ByteableFactory> factories = new ArrayList<ByteableFactory>(numClasses);
+		for (int i = 0; i < numClasses; i++) {
+			byte[] nameBytes = new byte[record.getShort()];
+			record.get(nameBytes);
+			String className = new String(nameBytes, UTF8);
+			try {
+				factories.add(CodecRegistry.getDefault().getFactory(className));
+			} catch (ClassNotFoundException ex) {
+				throw new IOException("invalid class " + className, ex);
+			}
+		}
+		int numNodes = record.getInt();
+		List<BnbNode> nodes = new ArrayList<BnbNode>(numNodes);
+		for (int i = 0; i < numNodes; i++) {
+			ByteableFactory factory = factories.get(VarInt.read(record));
+			int nodeLength = VarInt.read(record);
+			ByteBuffer nodeBuffer = record.slice();
+			nodeBuffer.limit(nodeLength);
+			record.position(record.position() + nodeLength);
+			BnbNode node = (BnbNode)factory.newInstance();
+			node.initFromBuffer(nodeBuffer, problem);
+			nodes.add(node);
+		}
+		return new Checkpoint(jobid, seq, timestamp, bestCost, nodes);
+	}
+
+	/**
+	 * Where the next record goes.
+	 */
+	synchronized long getDataEnd() {
+		return dataEnd;
+	}
+
+	public synchronized void close() throws IOException {
+		dataFile.close();
+		indexFile.close();
+	}
+
+	private static class IndexEntry {
+		private final long offset;
+		private final int length;
+		private final int jobid;
+		private final int seq;
+		private final long timestamp;
+		private final int crc;
+
+		public IndexEntry(long offset, int length, int jobid, int seq, long timestamp, int crc) {
+			this.offset = offset;
+			this.length = length;
+			this.jobid = jobid;
+			this.seq = seq;
+			this.timestamp = timestamp;
+			this.crc = crc;
+		}
+	}
+
+	/**
+	 * A file mapped in segments of at least a given size, each starting where the first
+	 * thing we needed from it did.  Mapping past the end of the file makes it longer.
+	 */
+	private static class Segments {
+		private final FileChannel channel;
+		private final int segmentSize;
+		private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<Long, MappedByteBuffer>();
+
+		public Segments(FileChannel channel, int segmentSize) {
+			this.channel = channel;
+			this.segmentSize = segmentSize;
+		}
+
+		/**
+		 * The given part of the file, mapping a new segment if it isn't all in the one
+		 * that starts closest before it.
+		 */
+		public ByteBuffer slice(long offset, int length) throws IOException {
+			Map.Entry<Long, MappedByteBuffer> segment = segmentFor(offset, length);
+			if (segment == null) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset,
+						Math.max(segmentSize, length));
+				segments.put(offset, buffer);
+				segment = segments.floorEntry(offset);
+			}
+			ByteBuffer slice = segment.getValue().duplicate();
+			slice.position((int)(offset - segment.getKey()));
+			slice.limit(slice.position() + length);
+			return slice.slice();
+		}
+
+		/**
+		 * Forces the segment holding what's at offset to disk.  Slices can't be forced on
+		 * their own.
+		 */
+		public void force(long offset) {
+			segments.floorEntry(offset).getValue().force();
+		}
+
+		private Map.Entry<Long, MappedByteBuffer> segmentFor(long offset, int length) {
+			Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(offset);
+			if (segment == null || offset + length > segment.getKey() + segment.getValue().capacity()) {
+				return null;
+			}
+			return segment;
+		}
+	}
+}
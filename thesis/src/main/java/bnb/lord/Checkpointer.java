@@ -0,0 +1,54 @@
+package bnb.lord;
+
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Checkpoints a job every so often until it's done.
+ */
+public class Checkpointer extends Thread {
+	private static final Logger LOG = Logger.getLogger(Checkpointer.class);
+
+	private final LordJobManager jobManager;
+	private final CheckpointFile file;
+	private final long intervalMillis;
+
+	public Checkpointer(LordJobManager jobManager, CheckpointFile file, long intervalMillis) {
+		super("job " + jobManager.getJobID() + " checkpointer");
+		setDaemon(true);
+		this.jobManager = jobManager;
+		this.file = file;
+		this.intervalMillis = intervalMillis;
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			try {
+				Thread.sleep(intervalMillis);
+			} catch (InterruptedException ex) {
+				return;
+			}
+			if (jobManager.isDone()) {
+				return;
+			}
+
+			long startTime = System.currentTimeMillis();
+			Checkpoint checkpoint = jobManager.checkpoint();
+			if (checkpoint == null || jobManager.isDone()) {
+				continue;
+			}
+			try {
+				file.append(checkpoint);
+			} catch (IOException ex) {
+				LOG.error("Couldn't write checkpoint for job " + jobManager.getJobID(), ex);
+				continue;
+			}
+			long timeTaken = System.currentTimeMillis() - startTime;
+			jobManager.getStats().reportCheckpoint(timeTaken, checkpoint.getNodes().size());
+			LOG.info("Checkpointed " + checkpoint.getNodes().size() + " open nodes for job " +
+					jobManager.getJobID() + " in " + timeTaken + " ms");
+		}
+	}
+}
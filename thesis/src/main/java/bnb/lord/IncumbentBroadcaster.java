@@ -0,0 +1,214 @@
+package bnb.lord;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+
+import bnb.rpc.RpcCallback;
+import bnb.stats.LordJobStats;
+
+/**
+ * Keeps the best cost for a job on the lord and pushes it out to vassals without
+ * blocking whoever reported it.
+ *
+ * We track the best cost each vassal is known to have (from what it's reported to us
+ * and what we've sent it), and don't send costs to vassals that already have one at
+ * least as good.  Sends to each vassal are coalesced: if the cost improves again before
+ * a send to a vassal has started, only the newer cost goes out.
+ */
+public class IncumbentBroadcaster {
+	private static final Logger LOG = Logger.getLogger(IncumbentBroadcaster.class);
+
+	private static final int MAX_SEND_THREADS = 8;
+
+	private final int jobid;
+	private final LordJobStats stats;
+	private final AtomicReference<Incumbent> incumbent;
+	private final Map<Integer, VassalState> vassalStates;
+	private final ExecutorService executor;
+
+	/**
+	 * @param initCost
+	 * 		the cost the job was started with, which every vassal already has
+	 */
+	public IncumbentBroadcaster(int jobid, List<VassalProxy> vassalProxies, double initCost, LordJobStats stats) {
+		this.jobid = jobid;
+		this.stats = stats;
+		incumbent = new AtomicReference<Incumbent>(new Incumbent(initCost, 0));
+		vassalStates = new ConcurrentHashMap<Integer, VassalState>();
+		for (VassalProxy proxy : vassalProxies) {
+			VassalState state = new VassalState(proxy);
+			state.lowerKnownCost(initCost);
+			vassalStates.put(proxy.getVassalIdCache(), state);
+		}
+		int numThreads = Math.max(1, Math.min(vassalProxies.size(), MAX_SEND_THREADS));
+		executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private int count;
+
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "job " + jobid + " incumbent sender " + count++);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	public double getMinCost() {
+		return incumbent.get().cost;
+	}
+
+	/**
+	 * Called when a vassal tells us about its best cost.  If it's better than what we
+	 * have, queues sends to every vassal that might not have it yet and returns true.
+	 * Returns immediately either way.
+	 */
+	public boolean offer(double cost, int sourceVassalId) {
+		noteKnownCost(sourceVassalId, cost);
+
+		Incumbent better = new Incumbent(cost, System.currentTimeMillis());
+		while (true) {
+			Incumbent cur = incumbent.get();
+			if (cost >= cur.cost) {
+				return false;
+			}
+			if (incumbent.compareAndSet(cur, better)) {
+				break;
+			}
+		}
+
+		for (VassalState state : vassalStates.values()) {
+			if (state.getKnownCost() <= cost) {
+				stats.reportIncumbentSendSkipped();
+			} else if (state.scheduled.compareAndSet(false, true)) {
+				executor.execute(new SendTask(state));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Records that the given vassal has a cost at least as good as the given one.
+	 */
+	public void noteKnownCost(int vassalId, double cost) {
+		VassalState state = vassalStates.get(vassalId);
+		if (state != null) {
+			state.lowerKnownCost(cost);
+		}
+	}
+
+	/**
+	 * Starts sending costs to a vassal that's joined the job, and sends it ours now if
+	 * it's better than the one it was started with.
+	 */
+	public void addVassal(VassalProxy proxy, double knownCost) {
+		VassalState state = new VassalState(proxy);
+		state.lowerKnownCost(knownCost);
+		vassalStates.put(proxy.getVassalIdCache(), state);
+		if (getMinCost() < knownCost && state.scheduled.compareAndSet(false, true)) {
+			executor.execute(new SendTask(state));
+		}
+	}
+
+	/**
+	 * Stops sending costs to a vassal that's left the job.
+	 */
+	public void removeVassal(int vassalId) {
+		vassalStates.remove(vassalId);
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private class SendTask implements Runnable {
+		private final VassalState state;
+
+		public SendTask(VassalState state) {
+			this.state = state;
+		}
+
+		@Override
+		public void run() {
+			//anything better that comes in from here on needs another send
+			state.scheduled.set(false);
+			final Incumbent toSend = incumbent.get();
+			if (state.getKnownCost() <= toSend.cost) {
+				stats.reportIncumbentSendSkipped();
+				return;
+			}
+			try {
+				//with an async transport, this returns before the vassal has the cost
+				state.proxy.updateBestSolCostAsync(toSend.cost, jobid, new RpcCallback() {
+					@Override
+					public void onComplete() {
+						state.lowerKnownCost(toSend.cost);
+						stats.reportIncumbentBroadcast(System.currentTimeMillis() - toSend.receivedTime);
+						LOG.debug("Successfully sent best cost " + toSend.cost + " to " + state.proxy.getVassalIdCache());
+					}
+					
+					@Override
+					public void onError(IOException ex) {
+						logFailure(ex);
+					}
+				});
+			} catch (IOException ex) {
+				logFailure(ex);
+			}
+		}
+		
+		private void logFailure(IOException ex) {
+			LOG.warn("Failed to send cost to vassal " + state.proxy.getVassalIdCache(), ex);
+		}
+	}
+
+	private static class VassalState {
+		private final VassalProxy proxy;
+		//bits of the best cost the vassal is known to have
+		private final AtomicLong knownCostBits;
+		//true while there's a send to this vassal waiting to start
+		private final AtomicBoolean scheduled;
+
+		public VassalState(VassalProxy proxy) {
+			this.proxy = proxy;
+			knownCostBits = new AtomicLong(Double.doubleToLongBits(Double.MAX_VALUE));
+			scheduled = new AtomicBoolean();
+		}
+
+		public double getKnownCost() {
+			return Double.longBitsToDouble(knownCostBits.get());
+		}
+
+		public void lowerKnownCost(double cost) {
+			while (true) {
+				long curBits = knownCostBits.get();
+				if (cost >= Double.longBitsToDouble(curBits)) {
+					return;
+				}
+				if (knownCostBits.compareAndSet(curBits, Double.doubleToLongBits(cost))) {
+					return;
+				}
+			}
+		}
+	}
+
+	private static class Incumbent {
+		private final double cost;
+		//when the lord heard about it
+		private final long receivedTime;
+
+		public Incumbent(double cost, long receivedTime) {
+			this.cost = cost;
+			this.receivedTime = receivedTime;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package bnb.lord;
+
+import java.util.PriorityQueue;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+import bnb.Problem;
+
+/**
+ * Runs jobs on the lord's vassals a limited number at a time.  Waiting jobs are started
+ * as running ones finish, highest priority first and then in the order they were
+ * submitted.
+ *
+ * Every job runs on the same vassals, which split their slots between the jobs running
+ * on them by weight, and move threads from jobs that run out of work to ones that have
+ * it (see SlotAllocator).  The vassals should be told not to exit when they have no
+ * jobs, since there can be a gap before the next one starts.
+ */
+public class JobScheduler {
+	private static final Logger LOG = Logger.getLogger(JobScheduler.class);
+
+	private final LordRunner lord;
+	private final int numVassals;
+	private final int maxRunning;
+
+	private final PriorityQueue<ScheduledJob> waiting;
+	private int numRunning;
+	private long nextSeq;
+
+	/**
+	 * @param numVassals
+	 * 		the number of vassals to run each job on, which are waited for if they haven't
+	 * 		registered yet
+	 * @param maxRunning
+	 * 		the most jobs to run at once
+	 */
+	public JobScheduler(LordRunner lord, int numVassals, int maxRunning) {
+		this.lord = lord;
+		this.numVassals = numVassals;
+		this.maxRunning = maxRunning;
+		waiting = new PriorityQueue<ScheduledJob>();
+	}
+
+	/**
+	 * Queues a job, and starts it if fewer than the most jobs are running.
+	 *
+	 * @param weight
+	 * 		the job's share of each vassal's slots relative to the other jobs running with it
+	 * @param priority
+	 * 		jobs with higher priorities are started first
+	 */
+	public synchronized ScheduledJob submit(BnbNode root, Problem spec, double bestCost, double weight,
+			int priority) {
+		ScheduledJob job = new ScheduledJob(root, spec, bestCost, weight, priority, nextSeq++);
+		waiting.add(job);
+		startWaiting();
+		return job;
+	}
+
+	public synchronized int getNumWaiting() {
+		return waiting.size();
+	}
+
+	public synchronized int getNumRunning() {
+		return numRunning;
+	}
+
+	private synchronized void startWaiting() {
+		while (numRunning < maxRunning && !waiting.isEmpty()) {
+			numRunning++;
+			new JobThread(waiting.poll()).start();
+		}
+	}
+
+	private synchronized void finished() {
+		numRunning--;
+		startWaiting();
+	}
+
+	/**
+	 * Starts a job on the lord and waits for it to finish, off of the submitter's thread.
+	 */
+	private class JobThread extends Thread {
+		private final ScheduledJob job;
+
+		public JobThread(ScheduledJob job) {
+			super("scheduled job " + job.seq);
+			setDaemon(true);
+			this.job = job;
+		}
+
+		@Override
+		public void run() {
+			try {
+				LOG.info("Starting scheduled job " + job.seq + " with weight " + job.weight + " after waiting " +
+						(System.currentTimeMillis() - job.submitTime) + " ms");
+				int jobid = lord.runJobWhenEnoughVassals(job.root, job.spec, job.initCost, numVassals, job.weight);
+				job.started(jobid);
+				job.finished(lord.awaitJob(jobid));
+			} finally {
+				finished();
+			}
+		}
+	}
+
+	/**
+	 * A job that's been submitted to the scheduler.
+	 */
+	public static class ScheduledJob implements Comparable<ScheduledJob> {
+		private final BnbNode root;
+		private final Problem spec;
+		private final double initCost;
+		private final double weight;
+		private final int priority;
+		private final long seq;
+		private final long submitTime;
+
+		//-1 until the job's started on the lord
+		private int jobid = -1;
+		private boolean done;
+		private double bestCost;
+
+		private ScheduledJob(BnbNode root, Problem spec, double initCost, double weight, int priority, long seq) {
+			this.root = root;
+			this.spec = spec;
+			this.initCost = initCost;
+			this.weight = weight;
+			this.priority = priority;
+			this.seq = seq;
+			submitTime = System.currentTimeMillis();
+		}
+
+		private synchronized void started(int jobid) {
+			this.jobid = jobid;
+			notifyAll();
+		}
+
+		private synchronized void finished(double bestCost) {
+			this.bestCost = bestCost;
+			done = true;
+			notifyAll();
+		}
+
+		/**
+		 * Blocks until the job has started, and returns its id on the lord.
+		 */
+		public synchronized int awaitJobID() throws InterruptedException {
+			while (jobid == -1) {
+				wait();
+			}
+			return jobid;
+		}
+
+		/**
+		 * Blocks until the job is done, and returns its best cost.
+		 */
+		public synchronized double awaitDone() throws InterruptedException {
+			while (!done) {
+				wait();
+			}
+			return bestCost;
+		}
+
+		public synchronized boolean isDone() {
+			return done;
+		}
+
+		public int getPriority() {
+			return priority;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+
+		@Override
+		public int compareTo(ScheduledJob other) {
+			if (priority != other.priority) {
+				return priority > other.priority ? -1 : 1;
+			}
+			return seq < other.seq ? -1 : (seq == other.seq ? 0 : 1);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package bnb.lord;
+
+import java.util.List;
+
+/**
+ * Hands out the work of vassals in a job that stop sending heartbeats, until the job
+ * is done.
+ */
+public class LeaseMonitor extends Thread {
+	public static final long DEFAULT_TIMEOUT = 10000;
+
+	private final LordJobManager jobManager;
+	private final long timeout;
+
+	/**
+	 * @param timeout
+	 * 		how long a vassal can go without a heartbeat before its work is handed out
+	 */
+	public LeaseMonitor(LordJobManager jobManager, long timeout) {
+		super("job " + jobManager.getJobID() + " lease monitor");
+		setDaemon(true);
+		this.jobManager = jobManager;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public void run() {
+		while (!jobManager.isDone()) {
+			try {
+				Thread.sleep(timeout / 4);
+			} catch (InterruptedException ex) {
+				return;
+			}
+			List<Integer> expired = jobManager.getLeases().expired(System.currentTimeMillis(), timeout);
+			for (int vassalId : expired) {
+				jobManager.vassalLost(vassalId, "no heartbeat in " + timeout + " ms");
+			}
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package bnb.lord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import bnb.BnbNode;
+
+/**
+ * The subtrees each vassal in a job is responsible for, so that a vassal's work can be
+ * handed to the others if it goes away.
+ *
+ * A lease is a batch of nodes given to a vassal: its start nodes, or nodes it got from
+ * the lord or stole from a peer.  Its id is picked by the vassal when it asks for the
+ * work, and the ids a vassal picks only go up.  A vassal's heartbeats list the leases it
+ * still has nodes from, the highest lease id it's received, and the ids of requests for
+ * work that failed on its end.  A lease at or under the highest id received that isn't
+ * listed is done, either because its subtrees were finished or because the nodes left
+ * in it were given away under other leases.  A lease whose request failed never made it
+ * to the vassal, and is given back.  Its id is remembered so that if the nodes turn up
+ * late they aren't granted, and the vassal only has to report it once.
+ *
+ * Nodes stolen from a vassal are still part of its leases until they've been granted
+ * to the thief, so heartbeats aren't applied while we're stealing from the vassal.
+ */
+public class LeaseTable {
+
+	private final Map<Integer, VassalLeases> vassals;
+	//false when vassals aren't being watched, so there's no point holding onto nodes
+	private volatile boolean keepingNodes = true;
+
+	public LeaseTable() {
+		vassals = new HashMap<Integer, VassalLeases>();
+	}
+
+	/**
+	 * Stops holding onto the nodes in new leases, for when lost vassals won't be noticed.
+	 */
+	public void stopKeepingNodes() {
+		keepingNodes = false;
+	}
+
+	/**
+	 * Starts tracking the vassal, as if it had just sent a heartbeat.  Returns false if
+	 * it's already been tracked, including if it was lost or released.
+	 */
+	public synchronized boolean addVassal(int vassalId, long now) {
+		if (vassals.containsKey(vassalId)) {
+			return false;
+		}
+		vassals.put(vassalId, new VassalLeases(now));
+		return true;
+	}
+
+	/**
+	 * Records that the vassal is responsible for the given nodes.  Returns false without
+	 * recording them if the vassal's been lost or has said the request for them failed.  The nodes shouldn't be changed after
+	 * this, since they're what gets handed out again if the vassal goes away.
+	 */
+	public synchronized boolean grant(int vassalId, long leaseId, List<BnbNode> nodes) {
+		VassalLeases state = vassals.get(vassalId);
+		if (state == null || state.lost || state.failed.contains(leaseId)) {
+			return false;
+		}
+		if (keepingNodes && !nodes.isEmpty()) {
+			state.leases.put(leaseId, new ArrayList<BnbNode>(nodes));
+		}
+		return true;
+	}
+
+	/**
+	 * Applies a heartbeat from the vassal.  Returns the nodes from leases that never made
+	 * it to the vassal, which are no longer its responsibility, or null if the vassal
+	 * has been lost.
+	 */
+	public synchronized List<BnbNode> heartbeat(int vassalId, List<Long> liveLeases, long maxLeaseReceived,
+			List<Long> failedLeases, long now) {
+		VassalLeases state = vassals.get(vassalId);
+		if (state == null || state.lost) {
+			return null;
+		}
+		state.lastHeartbeat = now;
+
+		List<BnbNode> orphans = new ArrayList<BnbNode>();
+		for (Long leaseId : failedLeases) {
+			state.failed.add(leaseId);
+			List<BnbNode> nodes = state.leases.remove(leaseId);
+			if (nodes != null) {
+				orphans.addAll(nodes);
+			}
+		}
+		if (state.stealsInProgress == 0) {
+			Set<Long> live = new HashSet<Long>(liveLeases);
+			Iterator<Long> iter = state.leases.keySet().iterator();
+			while (iter.hasNext()) {
+				long leaseId = iter.next();
+				if (leaseId <= maxLeaseReceived && !live.contains(leaseId)) {
+					iter.remove();
+				}
+			}
+		}
+		return orphans;
+	}
+
+	/**
+	 * Called before asking the vassal for nodes, and followed by a call to endSteal once
+	 * the nodes have been granted to someone else.
+	 */
+	public synchronized void beginSteal(int vassalId) {
+		VassalLeases state = vassals.get(vassalId);
+		if (state != null) {
+			state.stealsInProgress++;
+		}
+	}
+
+	public synchronized void endSteal(int vassalId) {
+		VassalLeases state = vassals.get(vassalId);
+		if (state != null) {
+			state.stealsInProgress--;
+		}
+	}
+
+	/**
+	 * Returns the vassals we haven't heard from in longer than the timeout, and haven't
+	 * already been lost.
+	 */
+	public synchronized List<Integer> expired(long now, long timeout) {
+		List<Integer> expired = new ArrayList<Integer>();
+		for (Map.Entry<Integer, VassalLeases> entry : vassals.entrySet()) {
+			VassalLeases state = entry.getValue();
+			if (!state.lost && now - state.lastHeartbeat > timeout) {
+				expired.add(entry.getKey());
+			}
+		}
+		return expired;
+	}
+
+	/**
+	 * Marks the vassal as lost and returns the nodes from all the leases it held.  Returns
+	 * null if it was already lost.  Anything we hear from it afterward is turned away.
+	 */
+	public synchronized List<BnbNode> revoke(int vassalId) {
+		VassalLeases state = vassals.get(vassalId);
+		if (state == null || state.lost) {
+			return null;
+		}
+		state.lost = true;
+		List<BnbNode> orphans = new ArrayList<BnbNode>();
+		for (List<BnbNode> nodes : state.leases.values()) {
+			orphans.addAll(nodes);
+		}
+		state.leases.clear();
+		return orphans;
+	}
+
+	/**
+	 * Marks the vassal as gone and forgets its leases without handing them back, for a
+	 * vassal that's given back all of its open nodes itself.  Returns false if it was
+	 * already lost.
+	 */
+	public synchronized boolean release(int vassalId) {
+		VassalLeases state = vassals.get(vassalId);
+		if (state == null || state.lost) {
+			return false;
+		}
+		state.lost = true;
+		state.leases.clear();
+		return true;
+	}
+
+	public synchronized boolean isLost(int vassalId) {
+		VassalLeases state = vassals.get(vassalId);
+		return state == null || state.lost;
+	}
+
+	public synchronized int getNumLost() {
+		int numLost = 0;
+		for (VassalLeases state : vassals.values()) {
+			if (state.lost) {
+				numLost++;
+			}
+		}
+		return numLost;
+	}
+
+	/**
+	 * Number of the vassal's leases we haven't heard are done.
+	 */
+	public synchronized int getNumLeases(int vassalId) {
+		VassalLeases state = vassals.get(vassalId);
+		return state == null ? 0 : state.leases.size();
+	}
+
+	private static class VassalLeases {
+		private final Map<Long, List<BnbNode>> leases;
+		private final Set<Long> failed;
+		private long lastHeartbeat;
+		private int stealsInProgress;
+		private boolean lost;
+
+		public VassalLeases(long now) {
+			leases = new HashMap<Long, List<BnbNode>>();
+			failed = new HashSet<Long>();
+			lastHeartbeat = now;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package bnb.lord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import bnb.vassal.LoadSummary;
+
+/**
+ * The latest load each vassal in a job has told us about, along with its requests for
+ * work and its heartbeats, for picking who to steal from.
+ *
+ * Vassals are tried biggest frontier first, except that among the ones with frontiers at
+ * least half the size of the biggest, the one with the best open bound goes first, and
+ * then the one with the shallowest nodes.  Vassals we haven't heard from come after the
+ * ones with work, and vassals that said they were out of work come last, since they might
+ * have gotten some since.
+ */
+public class LoadIndex {
+
+	/** Frontiers at least this fraction of the biggest are ordered by bound. */
+	public static final double LARGE_FRACTION = .5;
+
+	private final ConcurrentHashMap<Integer, LoadSummary> loads;
+
+	public LoadIndex() {
+		loads = new ConcurrentHashMap<Integer, LoadSummary>();
+	}
+
+	public void update(int vassalId, LoadSummary load) {
+		loads.put(vassalId, load);
+	}
+
+	/**
+	 * Returns null if we haven't heard from the vassal.
+	 */
+	public LoadSummary get(int vassalId) {
+		return loads.get(vassalId);
+	}
+
+	public void remove(int vassalId) {
+		loads.remove(vassalId);
+	}
+
+	/**
+	 * Takes the nodes stolen from the vassal off its frontier until it tells us again.
+	 */
+	public void tookNodes(int vassalId, int numNodes) {
+		LoadSummary load = loads.get(vassalId);
+		if (load != null) {
+			//if it's reported since, the new report wins
+			loads.replace(vassalId, load, load.without(numNodes));
+		}
+	}
+
+	/**
+	 * Adds up the loads we've heard about, plus some nodes of our own, for a sub-lord to
+	 * tell its parent how much work its group has.
+	 */
+	public LoadSummary aggregate(int numOwnNodes) {
+		int frontierSize = numOwnNodes;
+		int shallowestDepth = -1;
+		double bestOpenBound = Double.MAX_VALUE;
+		for (LoadSummary load : loads.values()) {
+			frontierSize += load.getFrontierSize();
+			if (compareDepths(load.getShallowestDepth(), shallowestDepth) < 0) {
+				shallowestDepth = load.getShallowestDepth();
+			}
+			bestOpenBound = Math.min(bestOpenBound, load.getBestOpenBound());
+		}
+		return new LoadSummary(frontierSize, shallowestDepth, bestOpenBound);
+	}
+
+	/**
+	 * Returns the given vassals in the order they should be stolen from.
+	 */
+	public List<VassalProxy> rankVictims(List<VassalProxy> candidates) {
+		List<VassalProxy> large = new ArrayList<VassalProxy>();
+		List<VassalProxy> small = new ArrayList<VassalProxy>();
+		List<VassalProxy> unknown = new ArrayList<VassalProxy>();
+		List<VassalProxy> empty = new ArrayList<VassalProxy>();
+		//loads can change as we go, so take one look at each
+		final Map<VassalProxy, LoadSummary> seen = new IdentityHashMap<VassalProxy, LoadSummary>();
+		int maxFrontier = 0;
+		for (VassalProxy proxy : candidates) {
+			LoadSummary load = loads.get(proxy.getVassalIdCache());
+			if (load == null) {
+				unknown.add(proxy);
+			} else if (load.getFrontierSize() == 0) {
+				empty.add(proxy);
+			} else {
+				seen.put(proxy, load);
+				maxFrontier = Math.max(maxFrontier, load.getFrontierSize());
+			}
+		}
+		for (VassalProxy proxy : candidates) {
+			if (!seen.containsKey(proxy)) {
+				continue;
+			}
+			if (seen.get(proxy).getFrontierSize() >= maxFrontier * LARGE_FRACTION) {
+				large.add(proxy);
+			} else {
+				small.add(proxy);
+			}
+		}
+
+		Collections.sort(large, new Comparator<VassalProxy>() {
+			@Override
+			public int compare(VassalProxy p1, VassalProxy p2) {
+				LoadSummary l1 = seen.get(p1);
+				LoadSummary l2 = seen.get(p2);
+				int cmp = Double.compare(l1.getBestOpenBound(), l2.getBestOpenBound());
+				if (cmp != 0) {
+					return cmp;
+				}
+				cmp = compareDepths(l1.getShallowestDepth(), l2.getShallowestDepth());
+				if (cmp != 0) {
+					return cmp;
+				}
+				return l2.getFrontierSize() - l1.getFrontierSize();
+			}
+		});
+		Collections.sort(small, new Comparator<VassalProxy>() {
+			@Override
+			public int compare(VassalProxy p1, VassalProxy p2) {
+				return seen.get(p2).getFrontierSize() - seen.get(p1).getFrontierSize();
+			}
+		});
+
+		List<VassalProxy> ranked = new ArrayList<VassalProxy>(candidates.size());
+		ranked.addAll(large);
+		ranked.addAll(small);
+		ranked.addAll(unknown);
+		ranked.addAll(empty);
+		return ranked;
+	}
+
+	/**
+	 * Shallower first, with unknown depths last.
+	 */
+	private static int compareDepths(int d1, int d2) {
+		if (d1 < 0 || d2 < 0) {
+			return (d1 < 0 ? 1 : 0) - (d2 < 0 ? 1 : 0);
+		}
+		return d1 - d2;
+	}
+}
@@ -0,0 +1,81 @@
+package bnb.lord;
+
+import java.io.IOException;
+import java.util.List;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.InProcessCluster;
+import bnb.rpc.RpcCallback;
+import bnb.rpc.VassalPublic;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
+
+/**
+ * Calls straight into a vassal in the same JVM.
+ */
+public class LocalVassalProxy extends VassalProxy {
+
+	private final InProcessCluster cluster;
+	private final int vassalId;
+
+	public LocalVassalProxy(InProcessCluster cluster, int vassalId) {
+		super(vassalId);
+		this.cluster = cluster;
+		this.vassalId = vassalId;
+	}
+
+	private VassalPublic getVassal() throws IOException {
+		cluster.checkUp(vassalId);
+		return cluster.getVassal(vassalId);
+	}
+
+	@Override
+	public int getVassalId() {
+		return vassalId;
+	}
+
+	@Override
+	public int getNumSlots() throws IOException {
+		return getVassal().getNumSlots();
+	}
+
+	@Override
+	public void updateBestSolCost(double bestCost, int jobid) throws IOException {
+		getVassal().updateBestSolCost(bestCost, jobid);
+	}
+
+	@Override
+	public void updateBestSolCostAsync(double bestCost, int jobid, RpcCallback callback) throws IOException {
+		updateBestSolCost(bestCost, jobid);
+		callback.onComplete();
+	}
+
+	@Override
+	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int nthreads,
+			NodePoolType nodePoolType, double jumpRatio, List<PeerAddress> peers, double weight) throws IOException {
+		Problem vassalSpec = cluster.transferProblem(spec);
+		getVassal().startJobTasks(cluster.transfer(nodes, vassalSpec), vassalSpec, bestCost, jobid, nthreads,
+				nodePoolType, jumpRatio, peers, weight);
+	}
+
+	@Override
+	public void beginCheckpoint(int jobid) throws IOException {
+		getVassal().beginCheckpoint(jobid);
+	}
+
+	@Override
+	public List<BnbNode> checkpoint(LordJobManager jobManager) throws IOException {
+		return cluster.receive(getVassal().checkpoint(jobManager.getJobID()), jobManager.getProblem());
+	}
+
+	@Override
+	public List<BnbNode> drainJob(LordJobManager jobManager) throws IOException {
+		return cluster.transfer(getVassal().drainJob(jobManager.getJobID()), jobManager.getProblem());
+	}
+
+	@Override
+	public List<BnbNode> stealWork(LordJobManager jobManager) throws IOException {
+		return cluster.transfer(getVassal().stealWork(jobManager.getJobID()), jobManager.getProblem());
+	}
+}
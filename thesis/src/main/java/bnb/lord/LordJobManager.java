@@ -4,139 +4,734 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.log4j.Logger;
 
 import bnb.BnbNode;
 import bnb.Problem;
 import bnb.stats.LordJobStats;
+import bnb.stats.MetricsRegistry;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
+import bnb.vassal.LoadSummary;
+import bnb.vassal.StealPolicy;
+import bnb.vassal.VassalJobManager;
 
 public class LordJobManager {
 	private static final Logger LOG = Logger.getLogger(LordJobManager.class);
+	private static final Tracer TRACER = Tracer.getDefault();
 	
-	private static final int MAX_FAILED_STEAL_ATTEMPTS = 3;
+	//how long a request for work waits before trying again when nobody it could steal from
+	//has said they have work
+	private static final long NO_VICTIMS_WAIT = 10;
+	//the thief id for nodes stolen to be passed up to a parent lord
+	private static final int PARENT = -1;
 	
-	private double minCost = Double.MAX_VALUE;
 	private final int jobid;
 	private final Problem problem;
 	private final List<VassalProxy> vassalProxies;
 	private final List<BnbNode> unevaluated;
 	
 	private final LordJobStats stats;
+	private final IncumbentBroadcaster incumbents;
+	private final LeaseTable leases;
 	
 	//for who to steal work from policy
 	private final ConcurrentHashMap<Integer, Boolean> hasWorkMap;
-	private final LinkedBlockingQueue<VassalProxy> nextVassalQueue;
+	private final LoadIndex loads;
+	//where the list of victims starts, so vassals we know nothing about take turns
+	private final AtomicInteger nextVictim;
+	//vassals whose work we're taking back so they can leave the job
+	private final Set<Integer> draining;
+	
+	//set when we're a sub-lord's group, for work it can't find in the group
+	private volatile ParentLink parent;
+	//one request at a time goes up to the parent
+	private final ReentrantLock parentLock;
+	
+	//where the stats report goes when we're done, or null to only log a summary
+	private volatile File statsDir;
 	
-	private boolean failed;
 	private boolean done;
+	private int nextCheckpointSeq;
+	//what a checkpoint that's been begun found, guarded by this
+	private PendingCheckpoint pendingCheckpoint;
 	
 	
-	public LordJobManager(int jobid, List<BnbNode> unevaluated, Problem problem, List<VassalProxy> vassalProxies, LordJobStats stats) {
+	public LordJobManager(int jobid, List<BnbNode> unevaluated, Problem problem, List<VassalProxy> vassalProxies, 
+			double bestCost, LordJobStats stats) {
 		this.jobid = jobid;
 		this.unevaluated = unevaluated;
 		this.problem = problem;
-		this.vassalProxies = vassalProxies;
+		//vassals can join while the job runs
+		this.vassalProxies = new CopyOnWriteArrayList<VassalProxy>(vassalProxies);
 		this.stats = stats;
+		incumbents = new IncumbentBroadcaster(jobid, vassalProxies, bestCost, stats);
+		leases = new LeaseTable();
 		
 		hasWorkMap = new ConcurrentHashMap<Integer, Boolean>();
-		nextVassalQueue = new LinkedBlockingQueue<VassalProxy>();
+		loads = new LoadIndex();
+		nextVictim = new AtomicInteger();
+		draining = Collections.synchronizedSet(new HashSet<Integer>());
+		parentLock = new ReentrantLock();
+		long now = System.currentTimeMillis();
 		for (VassalProxy proxy : vassalProxies) {
 			hasWorkMap.put(proxy.getVassalIdCache(), true);
-			nextVassalQueue.add(proxy);
+			leases.addVassal(proxy.getVassalIdCache(), now);
+		}
+	}
+	
+	/**
+	 * Adds a vassal to the job while it's running.  It should be started on the job with
+	 * no nodes afterward, so that it asks for work right away.  It isn't counted as having
+	 * work until it gets some, so it doesn't hold up the end of the job.  Returns false if
+	 * the job is done or the vassal has already been in it.
+	 * 
+	 * @param bestCost
+	 * 		the cost the vassal will be started with
+	 */
+	public synchronized boolean addVassal(VassalProxy proxy, double bestCost) {
+		int vassalId = proxy.getVassalIdCache();
+		if (done || !leases.addVassal(vassalId, System.currentTimeMillis())) {
+			return false;
 		}
+		vassalProxies.add(proxy);
+		incumbents.addVassal(proxy, bestCost);
+		stats.reportVassalJoined();
+		LOG.info("Vassal " + vassalId + " joined job " + jobid);
+		return true;
+	}
+	
+	/**
+	 * Makes this the job of a sub-lord's group, which gets the work it runs out of from
+	 * the given parent, and passes better costs up to it.  Should be called before the
+	 * vassals are started.
+	 */
+	public void setParent(ParentLink parent) {
+		this.parent = parent;
+	}
+	
+	/**
+	 * Sets the directory our stats report is written to when the job is done.
+	 */
+	public void setStatsDir(File statsDir) {
+		this.statsDir = statsDir;
+	}
+	
+	/**
+	 * Records the nodes a vassal is being started with.
+	 */
+	public void grantInitialLease(int vassalId, List<BnbNode> nodes) {
+		leases.grant(vassalId, VassalJobManager.INITIAL_LEASE, nodes);
 	}
 		
 	/**
 	 * 
 	 * @param vassalId
 	 * 		The id of the vassal that's asking for work.
+	 * @param leaseId
+	 * 		the id the vassal picked for the lease on whatever we give it
 	 * @return
 	 */
-	public List<BnbNode> askForWork(int vassalId) {
+	public List<BnbNode> askForWork(int vassalId, long leaseId) {
+		long span = TRACER.begin(Span.LORD_ASK_FOR_WORK);
+		List<BnbNode> nodes = findWork(vassalId, leaseId);
+		TRACER.end(Span.LORD_ASK_FOR_WORK, span, jobid, vassalId, nodes.size(), 0, Tracer.flowId(vassalId, leaseId));
+		return nodes;
+	}
+	
+	private List<BnbNode> findWork(int vassalId, long leaseId) {
 		long startTime = System.currentTimeMillis();
-		hasWorkMap.remove(vassalId);
-		
-		if (failed) {
+		if (draining.contains(vassalId)) {
+			//it's counted as having work until its nodes are back
 			return new LinkedList<BnbNode>();
 		}
+		hasWorkMap.remove(vassalId);
 		
-//		LOG.info("lord about to deal with request for work");
-		//if we have nodes here, return one of them
-		synchronized(this) {
-			if (unevaluated.size() > 0) {
-				BnbNode node = unevaluated.remove(0);
-				hasWorkMap.put(vassalId, true);
-				LOG.info("Sending back work from unevaluated list to vassal " + vassalId + "; unevaluated.size()=" + unevaluated.size());
-				return Arrays.asList(node);
-			}
+		if (leases.isLost(vassalId)) {
+			LOG.warn("Turning away request for work from lost vassal " + vassalId);
+			return new LinkedList<BnbNode>();
 		}
 		
-		//store the number of times we fail to reach a particular proxy so we don't
-		//continue doing this forever if one is down
-		Map<VassalProxy, Integer> failedAttempts = new HashMap<VassalProxy, Integer>();
 		int totalFailedAttempts = 0;
+		Iterator<VassalProxy> victims = Collections.<VassalProxy>emptyList().iterator();
+		ParentLink parent = this.parent;
 		while (true) {
-			//check every time because it could've filled up since we started
-			if (hasWorkMap.size() == 0) {
-				done();
-				return new LinkedList<BnbNode>();
+			//check every time because work could've been handed back from a lost vassal,
+			//or the others could've run out, since we started
+			boolean groupOutOfWork;
+			synchronized(this) {
+				if (done) {
+					return new LinkedList<BnbNode>();
+				}
+				if (unevaluated.size() > 0) {
+					List<BnbNode> nodes = takeUnevaluatedShare();
+					if (!grant(vassalId, leaseId, nodes)) {
+						return new LinkedList<BnbNode>();
+					}
+					hasWorkMap.put(vassalId, true);
+					LOG.info("Sending back " + nodes.size() + " nodes from unevaluated list to vassal " + vassalId + "; unevaluated.size()=" + unevaluated.size());
+					reportStolenWork(nodes);
+					return nodes;
+				}
+				groupOutOfWork = hasWorkMap.size() == 0;
+				if (groupOutOfWork && parent == null) {
+					done();
+					return new LinkedList<BnbNode>();
+				}
+			}
+			if (groupOutOfWork) {
+				//the whole group is out, so only the parent can have work
+				List<BnbNode> nodes = askParent(parent, vassalId, leaseId, false);
+				if (nodes != null) {
+					return nodes;
+				}
+				//someone in the group got work while we waited, or the parent couldn't be
+				//reached and we'll try again
 			}
 			
-			//TODO: what if we get back to the beginning?
-			//TODO: is remove blocking? we want it to be
-			VassalProxy proxy = nextVassalQueue.remove();
-			Integer numFailedAttempts = failedAttempts.get(proxy);
-			if (numFailedAttempts != null && numFailedAttempts >= MAX_FAILED_STEAL_ATTEMPTS) {
-				LOG.info("Failed to contact vassal " + proxy.getVassalIdCache() + " " + MAX_FAILED_STEAL_ATTEMPTS + " times, aborting job");
-				failed = true;
-				System.exit(0);
+			if (!victims.hasNext()) {
+				//loads will have changed since we last looked
+				List<VassalProxy> ranked = rankVictims(vassalId);
+				//if nobody's said they have work, whoever has it is on its way in or out or
+				//is down to nodes too small to give away, so wait rather than ask again
+				if (ranked.isEmpty() || isOutOfWork(ranked.get(0))) {
+					try {
+						Thread.sleep(NO_VICTIMS_WAIT);
+					} catch (InterruptedException ex) {
+						LOG.error("Interrupted waiting for vassals with work in job " + jobid);
+						return new LinkedList<BnbNode>();
+					}
+					if (ranked.isEmpty()) {
+						continue;
+					}
+				}
+				victims = ranked.iterator();
+			}
+			VassalProxy proxy = victims.next();
+			if (draining.contains(vassalId)) {
 				return new LinkedList<BnbNode>();
 			}
+			if (!hasWorkMap.containsKey(proxy.getVassalIdCache())) {
+				//ran out since we ranked it
+				continue;
+			}
 			
-//			LOG.info("considering contacting vassal " + proxy.getVassalIdCache() + " for work on behalf of vassal " + vassalId);
-			nextVassalQueue.add(proxy);
-			if (hasWorkMap.containsKey(proxy.getVassalIdCache())) {
-				try {
-					List<BnbNode> stolenWork = proxy.stealWork(this);
-					if (stolenWork.size() > 0) {
-						//TODO: synchronize this?
-//						LOG.info("stole work from " + proxy.getVassalIdCache() + " for " + vassalId + ". first node's depth is " + stolenWork.get(0).getDepth()); 
-						hasWorkMap.put(vassalId, true); //TODO: defer this until after we've sent our response?
-						long finishTime = System.currentTimeMillis();
-						stats.reportWorkStolen((int)(finishTime-startTime), totalFailedAttempts);
-						return stolenWork;
-					} else {
-//						LOG.warn("vassal " + proxy.getVassalIdCache() + " that allegedly had work actually doesn't. request from " + vassalId);
-						//there's a specific race condition in which this can happen:
-						//two threads going to the same one?
-//						if (failedAttempts.containsKey(proxy)) {
-//							failedAttempts.put(proxy, failedAttempts.get(proxy)+1);
-//						} else {
-//							failedAttempts.put(proxy, 1);
-//						}
-						totalFailedAttempts++;
+			try {
+				List<BnbNode> stolenWork = stealFor(proxy, vassalId, leaseId);
+				if (stolenWork.size() > 0) {
+					hasWorkMap.put(vassalId, true); //TODO: defer this until after we've sent our response?
+					long finishTime = System.currentTimeMillis();
+					stats.reportWorkStolen((int)(finishTime-startTime), totalFailedAttempts);
+					reportStolenWork(stolenWork);
+					return stolenWork;
+				} else {
+					//there's a specific race condition in which this can happen:
+					//two threads going to the same one?
+					totalFailedAttempts++;
+				}
+			} catch (IOException ex) {
+				LOG.error("problem stealing work from vassal " + proxy.getVassalIdCache(), ex);
+				totalFailedAttempts++;
+			}
+		}
+	}
+	
+	private boolean isOutOfWork(VassalProxy proxy) {
+		LoadSummary load = loads.get(proxy.getVassalIdCache());
+		return load != null && load.getFrontierSize() == 0;
+	}
+	
+	/**
+	 * The other vassals that might have work, in the order to steal from them.
+	 */
+	private List<VassalProxy> rankVictims(int thiefId) {
+		List<VassalProxy> candidates = new ArrayList<VassalProxy>();
+		List<VassalProxy> all = new ArrayList<VassalProxy>(vassalProxies);
+		int start = all.isEmpty() ? 0 : (nextVictim.getAndIncrement() & Integer.MAX_VALUE) % all.size();
+		for (int i = 0; i < all.size(); i++) {
+			VassalProxy proxy = all.get((start + i) % all.size());
+			int victimId = proxy.getVassalIdCache();
+			if (victimId != thiefId && hasWorkMap.containsKey(victimId) && !leases.isLost(victimId)) {
+				candidates.add(proxy);
+			}
+		}
+		return loads.rankVictims(candidates);
+	}
+	
+	/**
+	 * For a vassal that still has work but is running low.  Tries the unevaluated nodes,
+	 * then each other vassal that might have work once, best victim first, skipping the
+	 * ones that have said they're out of work.  Gives up with an empty list rather than
+	 * waiting for work to turn up.  Doesn't count the vassal as out of work, so it never
+	 * ends the job.
+	 */
+	public List<BnbNode> prefetchWork(int vassalId, long leaseId) {
+		long span = TRACER.begin(Span.LORD_PREFETCH);
+		List<BnbNode> nodes = findPrefetchWork(vassalId, leaseId);
+		TRACER.end(Span.LORD_PREFETCH, span, jobid, vassalId, nodes.size(), 0, Tracer.flowId(vassalId, leaseId));
+		return nodes;
+	}
+	
+	private List<BnbNode> findPrefetchWork(int vassalId, long leaseId) {
+		long startTime = System.currentTimeMillis();
+		if (done || leases.isLost(vassalId) || draining.contains(vassalId)) {
+			return new LinkedList<BnbNode>();
+		}
+		
+		synchronized(this) {
+			if (unevaluated.size() > 0) {
+				List<BnbNode> nodes = takeUnevaluatedShare();
+				if (!grant(vassalId, leaseId, nodes)) {
+					return new LinkedList<BnbNode>();
+				}
+				LOG.info("Prefetching " + nodes.size() + " nodes from unevaluated list for vassal " + vassalId);
+				reportStolenWork(nodes);
+				return nodes;
+			}
+		}
+		
+		int numFailedAttempts = 0;
+		for (VassalProxy proxy : rankVictims(vassalId)) {
+			LoadSummary load = loads.get(proxy.getVassalIdCache());
+			if (load != null && load.getFrontierSize() == 0) {
+				//the rest said they're out of work too
+				break;
+			}
+			try {
+				List<BnbNode> stolenWork = stealFor(proxy, vassalId, leaseId);
+				if (stolenWork.size() > 0) {
+					long finishTime = System.currentTimeMillis();
+					stats.reportWorkStolen((int)(finishTime-startTime), numFailedAttempts);
+					reportStolenWork(stolenWork);
+					return stolenWork;
+				}
+			} catch (IOException ex) {
+				LOG.warn("problem prefetching work from vassal " + proxy.getVassalIdCache(), ex);
+			}
+			numFailedAttempts++;
+		}
+		//only what the group can't serve goes up, and only one prefetch at a time, since
+		//the parent treats the group as one vassal
+		ParentLink parent = this.parent;
+		if (parent != null && parentLock.tryLock()) {
+			try {
+				List<BnbNode> nodes = askParent(parent, vassalId, leaseId, true);
+				if (nodes != null) {
+					return nodes;
+				}
+			} finally {
+				parentLock.unlock();
+			}
+		}
+		return new LinkedList<BnbNode>();
+	}
+	
+	/**
+	 * Asks the parent for work for a vassal in the group, and grants it what comes back.
+	 * An ask that isn't a prefetch is for when the group is out of work, and ends the job
+	 * here if the parent has nothing.  Returns null if there's no answer: the group wasn't
+	 * out of work by the time it was our turn, or the parent couldn't be reached.
+	 */
+	private List<BnbNode> askParent(ParentLink parent, int vassalId, long leaseId, boolean prefetch) {
+		parentLock.lock();
+		try {
+			LoadSummary load = LoadSummary.EMPTY;
+			synchronized(this) {
+				if (done || leases.isLost(vassalId) || draining.contains(vassalId)) {
+					return new LinkedList<BnbNode>();
+				}
+				if (prefetch) {
+					load = loads.aggregate(unevaluated.size());
+				} else if (!unevaluated.isEmpty() || hasWorkMap.size() > 0) {
+					return null;
+				}
+			}
+			List<BnbNode> nodes = parent.askForWork(getMinCost(), prefetch, load);
+			if (nodes == null) {
+				if (!prefetch) {
+					try {
+						Thread.sleep(NO_VICTIMS_WAIT);
+					} catch (InterruptedException ex) {
+						LOG.error("Interrupted waiting for parent lord in job " + jobid);
 					}
-				} catch (IOException ex) {
-					LOG.error("problem stealing work from vassal " + proxy.getVassalIdCache(), ex);
-					if (failedAttempts.containsKey(proxy)) {
-						failedAttempts.put(proxy, failedAttempts.get(proxy)+1);
-					} else {
-						failedAttempts.put(proxy, 1);
+				}
+				return null;
+			}
+			if (nodes.isEmpty()) {
+				if (!prefetch) {
+					synchronized(this) {
+						done();
 					}
-					totalFailedAttempts++;
 				}
+				return nodes;
+			}
+			synchronized(this) {
+				if (!grant(vassalId, leaseId, nodes)) {
+					return new LinkedList<BnbNode>();
+				}
+				hasWorkMap.put(vassalId, true);
+			}
+			LOG.info("Got " + nodes.size() + " nodes from parent lord for vassal " + vassalId);
+			reportStolenWork(nodes);
+			return nodes;
+		} finally {
+			parentLock.unlock();
+		}
+	}
+	
+	/**
+	 * For a parent lord stealing from our group: gives up unevaluated nodes or nodes stolen
+	 * from the vassal with the most work, trying each vassal that might have work once.
+	 * Nothing is granted here, since the nodes leave the group.
+	 */
+	public List<BnbNode> stealForParent() {
+		synchronized(this) {
+			if (done) {
+				return new LinkedList<BnbNode>();
+			}
+			if (unevaluated.size() > 0) {
+				List<BnbNode> nodes = takeUnevaluatedShare();
+				reportStolenWork(nodes);
+				return nodes;
+			}
+		}
+		for (VassalProxy proxy : rankVictims(PARENT)) {
+			if (isOutOfWork(proxy)) {
+				break;
+			}
+			try {
+				List<BnbNode> stolenWork = stealFor(proxy, PARENT, 0);
+				if (stolenWork.size() > 0) {
+					reportStolenWork(stolenWork);
+					return stolenWork;
+				}
+			} catch (IOException ex) {
+				LOG.warn("problem stealing work for parent lord from vassal " + proxy.getVassalIdCache(), ex);
+			}
+		}
+		return new LinkedList<BnbNode>();
+	}
+	
+	/**
+	 * Steals from the victim and grants what we get to the thief.  If the victim can't be
+	 * reached, it's treated as lost, since nodes it gave up might not have made it back to
+	 * us.  If the thief has been lost, what we get goes in the unevaluated list and we
+	 * return nothing.  Nodes stolen for the parent aren't granted to anyone here.
+	 */
+	private List<BnbNode> stealFor(VassalProxy victim, int thiefId, long leaseId) throws IOException {
+		int victimId = victim.getVassalIdCache();
+		leases.beginSteal(victimId);
+		try {
+			long span = TRACER.begin(Span.STEAL);
+			List<BnbNode> stolen = victim.stealWork(this);
+			TRACER.end(Span.STEAL, span, jobid, thiefId, victimId, stolen.size());
+			if (stolen.isEmpty()) {
+				//so it isn't tried first again until it tells us it has work
+				loads.update(victimId, LoadSummary.EMPTY);
+			} else {
+				loads.tookNodes(victimId, stolen.size());
+			}
+			if (thiefId == PARENT) {
+				return stolen;
+			}
+			synchronized(this) {
+				if (!grant(thiefId, leaseId, stolen)) {
+					return new LinkedList<BnbNode>();
+				}
+			}
+			if (!stolen.isEmpty()) {
+				//whatever the thief said about its load is out of date
+				loads.remove(thiefId);
+			}
+			return stolen;
+		} catch (IOException ex) {
+			vassalLost(victimId, "failed to steal from it: " + ex.getMessage());
+			throw ex;
+		} finally {
+			leases.endSteal(victimId);
+		}
+	}
+	
+	/**
+	 * Grants the nodes to the vassal, or puts them back in the unevaluated list and returns
+	 * false if it's been lost or is being drained.  Should be called while synchronized on this.
+	 */
+	private boolean grant(int vassalId, long leaseId, List<BnbNode> nodes) {
+		if (!draining.contains(vassalId) && leases.grant(vassalId, leaseId, nodes)) {
+			return true;
+		}
+		LOG.warn("Vassal " + vassalId + " was lost or gave up while getting work, keeping " + nodes.size() + " nodes");
+		unevaluated.addAll(nodes);
+		return false;
+	}
+	
+	/**
+	 * Called by a vassal giving nodes straight to another vassal, before it sends them.
+	 * Returns false, so that the donor keeps the nodes, if either of them has been lost or
+	 * the thief has already given up on them.
+	 */
+	public boolean leasePeerWork(int donorId, int thiefId, long leaseId, List<BnbNode> nodes) {
+		if (leases.isLost(donorId) || draining.contains(thiefId)) {
+			return false;
+		}
+		return leases.grant(thiefId, leaseId, nodes);
+	}
+	
+	/**
+	 * Applies a heartbeat from a vassal.  Work from requests that failed on the vassal's
+	 * end goes back in the unevaluated list.  Returns false if the vassal has been lost, in
+	 * which case it should stop working on the job, since its work has been handed out.
+	 */
+	public boolean heartbeat(int vassalId, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases) {
+		List<BnbNode> orphans = leases.heartbeat(vassalId, liveLeases, maxLeaseReceived, failedLeases,
+				System.currentTimeMillis());
+		if (orphans == null) {
+			return false;
+		}
+		if (!orphans.isEmpty()) {
+			LOG.warn("Requeueing " + orphans.size() + " nodes that didn't make it to vassal " + vassalId);
+			synchronized(this) {
+				unevaluated.addAll(orphans);
+			}
+			stats.reportRequeued(orphans.size());
+		}
+		return true;
+	}
+	
+	/**
+	 * Hands out the work a vassal was responsible for to the others, through the
+	 * unevaluated list.  From here on the vassal is left out of the job.
+	 */
+	public void vassalLost(int vassalId, String reason) {
+		List<BnbNode> orphans;
+		synchronized(this) {
+			orphans = leases.revoke(vassalId);
+			if (orphans == null) {
+				return;
+			}
+			unevaluated.addAll(orphans);
+			//after adding to unevaluated, so that vassals waiting for work don't decide
+			//there's none left
+			hasWorkMap.remove(vassalId);
+		}
+		loads.remove(vassalId);
+		incumbents.removeVassal(vassalId);
+		stats.reportVassalLost(orphans.size());
+		LOG.warn("Lost vassal " + vassalId + " (" + reason + "), requeueing " + orphans.size() + 
+				" nodes from its leases");
+	}
+	
+	/**
+	 * Takes back the vassal's open nodes and lets it leave the job, for when capacity is
+	 * being shrunk.  Its nodes go in the unevaluated list for the others.  It gets no more
+	 * work in the meantime, and is counted as having work until its nodes are back, so
+	 * the job can't end while they're on their way.  If it can't be reached, it's treated
+	 * as lost instead.  Returns false if it isn't in the job or the job is done.
+	 */
+	public boolean drainVassal(int vassalId) {
+		VassalProxy proxy = null;
+		for (VassalProxy vassal : vassalProxies) {
+			if (vassal.getVassalIdCache() == vassalId) {
+				proxy = vassal;
+			}
+		}
+		synchronized(this) {
+			if (proxy == null || done || leases.isLost(vassalId) || !draining.add(vassalId)) {
+				return false;
+			}
+		}
+		
+		List<BnbNode> nodes;
+		leases.beginSteal(vassalId);
+		try {
+			nodes = proxy.drainJob(this);
+		} catch (IOException ex) {
+			draining.remove(vassalId);
+			vassalLost(vassalId, "failed to drain it: " + ex.getMessage());
+			return true;
+		} finally {
+			leases.endSteal(vassalId);
+		}
+		synchronized(this) {
+			unevaluated.addAll(nodes);
+			leases.release(vassalId);
+			hasWorkMap.remove(vassalId);
+			draining.remove(vassalId);
+		}
+		loads.remove(vassalId);
+		incumbents.removeVassal(vassalId);
+		stats.reportVassalDrained(nodes.size());
+		LOG.info("Drained vassal " + vassalId + " from job " + jobid + ", requeueing its " + nodes.size() + 
+				" open nodes");
+		return true;
+	}
+	
+	public LeaseTable getLeases() {
+		return leases;
+	}
+	
+	/**
+	 * What the vassals have told us about their loads.
+	 */
+	public LoadIndex getLoads() {
+		return loads;
+	}
+	
+	/**
+	 * Takes about one vassal's share of the estimated work in unevaluated, at least one node.
+	 */
+	private List<BnbNode> takeUnevaluatedShare() {
+		double share = StealPolicy.estimateWork(unevaluated, getMinCost()) / vassalProxies.size();
+		List<BnbNode> nodes = new ArrayList<BnbNode>();
+		double work = 0;
+		while (!unevaluated.isEmpty() && (nodes.isEmpty() || work < share)) {
+			BnbNode node = unevaluated.remove(0);
+			work += StealPolicy.estimateWork(node, getMinCost());
+			nodes.add(node);
+		}
+		return nodes;
+	}
+	
+	private void reportStolenWork(List<BnbNode> nodes) {
+		stats.reportStolenBatch(nodes.size(), StealPolicy.estimateWork(nodes, getMinCost()));
+	}
+	
+	public synchronized boolean isDone() {
+		return done;
+	}
+	
+	public synchronized int getNumUnevaluated() {
+		return unevaluated.size();
+	}
+	
+	/**
+	 * Ends the job here without waiting for the vassals, for when the parent lord has
+	 * handed our group's work to others.  Vassals that ask for work from here on get
+	 * none, so they finish what they have and stop.
+	 */
+	public void abandon() {
+		LOG.warn("Abandoning job " + jobid + ", the parent lord has handed our work out");
+		synchronized(this) {
+			unevaluated.clear();
+			done();
+		}
+	}
+	
+	/**
+	 * Takes back every vassal's open nodes and ends the job here, for when a parent lord
+	 * is taking our group out of the job.  Returns the nodes for the parent to hand out.
+	 * The nodes of a vassal that can't be drained come back from its leases, the same as
+	 * when it's lost.
+	 */
+	public List<BnbNode> drainAll() {
+		for (VassalProxy proxy : vassalProxies) {
+			drainVassal(proxy.getVassalIdCache());
+		}
+		synchronized(this) {
+			List<BnbNode> nodes = new ArrayList<BnbNode>(unevaluated);
+			unevaluated.clear();
+			done();
+			return nodes;
+		}
+	}
+	
+	/**
+	 * Collects the open nodes from our unevaluated list and from every vassal.  Returns
+	 * null if a vassal couldn't be checkpointed, since the rest wouldn't cover its part
+	 * of the search.
+	 * 
+	 * Every vassal is told to start keeping copies of the nodes it gives away before any
+	 * of them is checkpointed.  So a node that's on its way from one vassal to another is
+	 * in the checkpoint of the one that gave it away, even if the one it's going to has
+	 * already been checkpointed.
+	 */
+	public Checkpoint checkpoint() {
+		List<BnbNode> open;
+		try {
+			beginCheckpoint();
+			open = finishCheckpoint();
+		} catch (IOException ex) {
+			LOG.warn("Couldn't checkpoint job " + jobid, ex);
+			return null;
+		}
+		if (open == null) {
+			return null;
+		}
+		synchronized(this) {
+			return new Checkpoint(jobid, nextCheckpointSeq++, System.currentTimeMillis(), getMinCost(), open);
+		}
+	}
+	
+	/**
+	 * The first half of a checkpoint: copies our unevaluated list and tells every vassal
+	 * to start keeping copies of what it gives away.  A sub-lord does this when its parent
+	 * lord begins a checkpoint, so that nodes the group gives up after this are still in
+	 * its part of the checkpoint.
+	 */
+	public void beginCheckpoint() throws IOException {
+		PendingCheckpoint pending = new PendingCheckpoint();
+		synchronized(this) {
+			//a vassal lost after this has its nodes put in unevaluated after we've copied it,
+			//and one that joins after this can get nodes from a vassal we've checkpointed
+			pending.numLost = leases.getNumLost();
+			pending.numVassals = vassalProxies.size();
+			for (VassalProxy proxy : vassalProxies) {
+				if (!leases.isLost(proxy.getVassalIdCache())) {
+					pending.live.add(proxy);
+				}
+			}
+			for (BnbNode node : unevaluated) {
+				pending.open.add(node.copyForTransfer(problem));
 			}
-//			else {
-//				LOG.info("skipping vassal " + proxy.getVassalIdCache() + " because it does not have work");
-//			}
+			pendingCheckpoint = pending;
+		}
+		for (VassalProxy proxy : pending.live) {
+			proxy.beginCheckpoint(jobid);
+		}
+	}
+	
+	/**
+	 * The second half of a checkpoint: collects the open nodes from every vassal.  Returns
+	 * null if vassals joined or left since beginCheckpoint.
+	 */
+	public List<BnbNode> finishCheckpoint() throws IOException {
+		PendingCheckpoint pending;
+		synchronized(this) {
+			pending = pendingCheckpoint;
+			pendingCheckpoint = null;
+		}
+		if (pending == null) {
+			throw new IOException("No checkpoint begun for job " + jobid);
+		}
+		for (VassalProxy proxy : pending.live) {
+			pending.open.addAll(proxy.checkpoint(this));
+		}
+		synchronized(this) {
+			if (leases.getNumLost() != pending.numLost || vassalProxies.size() != pending.numVassals) {
+				LOG.warn("Vassals joined or left while checkpointing job " + jobid + ", skipping checkpoint");
+				return null;
+			}
+			return pending.open;
+		}
+	}
+	
+	public synchronized void awaitDone() {
+		while (!done) {
+			try {
+				wait();
+			} catch (InterruptedException ex) { }
 		}
 	}
 	
@@ -147,22 +742,30 @@ public class LordJobManager {
 				return;
 			} else {
 				done = true;
+				notifyAll();
 				stats.finished();
+				incumbents.shutdown();
 				LOG.info("Computation completed!");
-				LOG.info("Best cost: " + minCost);
+				LOG.info("Best cost: " + incumbents.getMinCost());
 				LOG.info("Stats: \n" + stats.makeReportSummary());
 				
+				MetricsRegistry.getDefault().unregister(stats);
+				TRACER.flush();
+				
 				//report stats
-				String report = stats.makeReport();
-				File statsFile = new File("/home/sryza/logs/lord" + System.currentTimeMillis() + ".log");
-				try {
-					FileWriter fos = new FileWriter(statsFile);
-					fos.write(report);
-					fos.close();
-				} catch (Exception ex) {
-					LOG.error("Error reporting stats", ex);
+				File statsDir = this.statsDir;
+				if (statsDir != null) {
+					String report = stats.makeReport();
+					File statsFile = new File(statsDir, "lord" + System.currentTimeMillis() + ".log");
+					try {
+						FileWriter fos = new FileWriter(statsFile);
+						fos.write(report);
+						fos.close();
+					} catch (Exception ex) {
+						LOG.error("Error reporting stats", ex);
+					}
+					LOG.info("Completed writing out stats file");
 				}
-				LOG.info("Completed writing out stats file");
 			}
 		}
 	}
@@ -179,21 +782,43 @@ public class LordJobManager {
 		return stats;
 	}
 	
-	//TODO: need this synchronization?
-	public synchronized void updateMinCost(double cost, VassalProxy source) {
-		if (cost < minCost) {
+	/**
+	 * Hands the cost off to be sent out to the other vassals if it's the best we've seen.
+	 * Doesn't wait for the sends, so the vassal isn't held up by slow peers.
+	 */
+	public void updateMinCost(double cost, VassalProxy source) {
+		if (incumbents.offer(cost, source.getVassalIdCache())) {
+			stats.reportIncumbent(cost);
 			LOG.info("lord received better min cost from vassal " + source.getVassalIdCache() + ": " + cost);
-			this.minCost = Math.min(cost, minCost);
-			for (VassalProxy vassalProxy : vassalProxies) {
-				if (vassalProxy != source) {
-					try {
-						vassalProxy.updateBestSolCost(minCost, jobid);
-						LOG.debug("Successfully sent best cost " + minCost + " to " + vassalProxy.getVassalId());
-					} catch (IOException ex) {
-						LOG.warn("Failed to send cost " + minCost + " to vassalProxy", ex);
-					}
-				}
+			ParentLink parent = this.parent;
+			if (parent != null) {
+				parent.sendBestSolCost(cost);
 			}
 		}
 	}
+	
+	/**
+	 * For a cost that's come down from the parent lord, which goes out to every vassal
+	 * in the group but not back up.
+	 */
+	public void updateMinCostFromParent(double cost) {
+		if (incumbents.offer(cost, PARENT)) {
+			stats.reportIncumbent(cost);
+			LOG.info("lord received better min cost from parent lord: " + cost);
+		}
+	}
+	
+	public double getMinCost() {
+		return incumbents.getMinCost();
+	}
+	
+	/**
+	 * What beginCheckpoint found, for finishCheckpoint.
+	 */
+	private static class PendingCheckpoint {
+		private final List<BnbNode> open = new ArrayList<BnbNode>();
+		private final List<VassalProxy> live = new ArrayList<VassalProxy>();
+		private int numLost;
+		private int numVassals;
+	}
 }
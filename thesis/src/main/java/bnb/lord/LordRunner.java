@@ -1,17 +1,18 @@
 package bnb.lord;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.apache.thrift.TProcessor;
 import org.apache.thrift.server.TServer;
-import org.apache.thrift.server.TThreadPoolServer;
-import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
 
 import bnb.Problem;
@@ -19,14 +20,26 @@ import bnb.BnbNode;
 import bnb.rpc.LordPublic;
 import bnb.rpc.ThriftLord;
 import bnb.rpc.LordThriftWrapper;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.TransportConfig;
 import bnb.stats.LordJobStats;
+import bnb.stats.MetricsRegistry;
+import bnb.trace.Tracer;
+import bnb.vassal.LoadSummary;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
 
 public class LordRunner implements LordPublic {
 	
 	private static final Logger LOG = Logger.getLogger(LordRunner.class);
 	
+	/** a job's share of each vassal's slots when it's the only weight given */
+	public static final double DEFAULT_WEIGHT = 1.0;
+	
 	private int nextJobid;
 	private final Map<Integer, LordJobManager> jobMap;
+	//what each job's vassals were started with, for starting vassals that join later
+	private final Map<Integer, JobSettings> jobSettings;
 	private final Map<Integer, VassalProxy> vassalMap;
 	private final int port;
 	
@@ -34,8 +47,23 @@ public class LordRunner implements LordPublic {
 	
 	private Object waitToRunCondVar = new Object();
 	
+	/** null means let each vassal use its own default */
+	private NodePoolType nodePoolType;
+	private double jumpRatio = -1;
+	private boolean peerStealing;
+	private TransportConfig transportConfig = TransportConfig.DEFAULT;
+	private CheckpointFile checkpointFile;
+	private long checkpointInterval;
+	private long leaseTimeout = LeaseMonitor.DEFAULT_TIMEOUT;
+	private volatile boolean joinRunningJobs = true;
+	private int startParallelism = Runtime.getRuntime().availableProcessors();
+	private boolean expandOnVassals;
+	private File statsDir;
+	
 	public LordRunner(int port) {
-		jobMap = new HashMap<Integer, LordJobManager>();
+		//jobs can be started from several threads at once by a JobScheduler
+		jobMap = new ConcurrentHashMap<Integer, LordJobManager>();
+		jobSettings = new ConcurrentHashMap<Integer, JobSettings>();
 		vassalMap = new HashMap<Integer, VassalProxy>();
 		this.port = port;
 	}
@@ -52,6 +80,10 @@ public class LordRunner implements LordPublic {
 			synchronized (vassalMap) {
 				vassalMap.put(id, proxy);
 			}
+			synchronized(waitToRunCondVar) {
+				waitToRunCondVar.notify();
+			}
+			joinRunningJobs(proxy);
 		}
 	}
 	
@@ -61,15 +93,172 @@ public class LordRunner implements LordPublic {
 		synchronized (vassalMap) {
 			vassalMap.put(id, proxy);
 		}
+		joinRunningJobs(proxy);
+	}
+	
+	/**
+	 * Sets whether vassals that register while jobs are running are added to them, which
+	 * is the default.  If not, they only get jobs started after they register.
+	 */
+	public void setJoinRunningJobs(boolean joinRunningJobs) {
+		this.joinRunningJobs = joinRunningJobs;
+	}
+	
+	/**
+	 * Starts a newly registered vassal on every job that's running, with no nodes so that
+	 * it steals right away.
+	 */
+	private void joinRunningJobs(VassalProxy proxy) {
+		if (!joinRunningJobs) {
+			return;
+		}
+		for (LordJobManager jobManager : jobMap.values()) {
+			JobSettings settings = jobSettings.get(jobManager.getJobID());
+			double bestCost = jobManager.getMinCost();
+			if (settings == null || !jobManager.addVassal(proxy, bestCost)) {
+				continue;
+			}
+			int jobid = jobManager.getJobID();
+			List<PeerAddress> peers = new ArrayList<PeerAddress>();
+			if (!settings.peers.isEmpty()) {
+				peers.addAll(settings.peers);
+				peers.add(new PeerAddress(proxy.getHost(), proxy.getPort(), proxy.getVassalIdCache()));
+			}
+			try {
+				LOG.info("Adding vassal " + proxy.getVassalIdCache() + " to running job " + jobid);
+				proxy.startJobTasks(new LinkedList<BnbNode>(), jobManager.getProblem(), bestCost, jobid,
+						proxy.getNumSlots(), settings.nodePoolType, settings.jumpRatio, peers, settings.weight);
+			} catch (IOException ex) {
+				LOG.error("Failed to start job tasks on vassal " + proxy.getVassalIdCache(), ex);
+				jobManager.vassalLost(proxy.getVassalIdCache(), "couldn't start job on it");
+			}
+		}
+	}
+	
+	/**
+	 * Takes the vassal out of the jobs it's in, handing its open nodes to the other
+	 * vassals, and stops giving it new jobs.  The vassal stays up, and can be stopped
+	 * once this returns.
+	 */
+	public void drainVassal(int id) {
+		synchronized(vassalMap) {
+			vassalMap.remove(id);
+		}
+		for (LordJobManager jobManager : jobMap.values()) {
+			if (jobManager.drainVassal(id)) {
+				LOG.info("Drained vassal " + id + " from job " + jobManager.getJobID());
+			}
+		}
+	}
+	
+	@Override
+	public void unregisterVassal(int id) {
+		LOG.info("Unregistering vassal " + id);
+		drainVassal(id);
+	}
+	
+	/**
+	 * Sets the kind of node pool vassals should use for jobs run after this call.
+	 * null means each vassal uses its own default.
+	 */
+	public void setNodePoolType(NodePoolType nodePoolType) {
+		this.nodePoolType = nodePoolType;
+	}
+	
+	/**
+	 * Sets the ratio to a dive's bound to the best open bound past which best-first
+	 * pools jump to the best open node.  Non-positive means each vassal uses its own default.
+	 */
+	public void setJumpRatio(double jumpRatio) {
+		this.jumpRatio = jumpRatio;
+	}
+	
+	/**
+	 * Sets whether vassals in jobs run after this call steal work straight from each other
+	 * before asking the lord.  The lord still detects when the job is done and collects
+	 * best costs.
+	 */
+	public void setPeerStealing(boolean peerStealing) {
+		this.peerStealing = peerStealing;
+	}
+	
+	/**
+	 * Sets how the lord's server and its connections to vassals that register with it
+	 * talk.  Should be called before start, and match what the vassals use.
+	 */
+	public void setTransportConfig(TransportConfig transportConfig) {
+		this.transportConfig = transportConfig;
+	}
+	
+	/**
+	 * Has jobs run after this call checkpointed to the given file every so often.  null
+	 * turns checkpointing off.
+	 */
+	public void setCheckpointing(CheckpointFile checkpointFile, long intervalMillis) {
+		this.checkpointFile = checkpointFile;
+		this.checkpointInterval = intervalMillis;
+	}
+	
+	/**
+	 * Sets how long a vassal in jobs run after this call can go without a heartbeat
+	 * before its work is handed to the others.  0 means never, which is for when vassals
+	 * don't send heartbeats.  The lord doesn't keep leased nodes then, so the work of a
+	 * vassal that can't be reached is lost.
+	 */
+	public void setLeaseTimeout(long leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+	}
+	
+	/**
+	 * Sets how many threads the lord expands the top of the tree on for jobs run after
+	 * this call.
+	 */
+	public void setStartParallelism(int startParallelism) {
+		this.startParallelism = startParallelism;
+	}
+	
+	/**
+	 * Sets whether jobs run after this call skip expanding the tree on the lord, and hand
+	 * the root to the first vassal for the others to steal from.
+	 */
+	public void setExpandOnVassals(boolean expandOnVassals) {
+		this.expandOnVassals = expandOnVassals;
+	}
+	
+	/**
+	 * Sets the directory jobs run after this call write their stats reports to when
+	 * they're done.  null, the default, means only a summary is logged.
+	 */
+	public void setStatsDir(File statsDir) {
+		this.statsDir = statsDir;
 	}
 	
 	public LordJobStats getStats(int jobId) {
 		return jobMap.get(jobId).getStats();
 	}
 	
+	LordJobManager getJobManager(int jobid) {
+		return jobMap.get(jobid);
+	}
+	
+	/**
+	 * The slots of every vassal registered with us, for a sub-lord to tell its parent.
+	 */
+	public int getTotalSlots() throws IOException {
+		List<VassalProxy> vassals;
+		synchronized(vassalMap) {
+			vassals = new ArrayList<VassalProxy>(vassalMap.values());
+		}
+		int totalSlots = 0;
+		for (VassalProxy vassal : vassals) {
+			totalSlots += vassal.getNumSlots();
+		}
+		return totalSlots;
+	}
+	
 	@Override
 	public void registerVassal(String hostname, int port, int id) {
-		VassalProxy proxy = new VassalProxy(hostname, port, id);
+		VassalProxy proxy = new VassalProxy(hostname, port, id, transportConfig);
 		LOG.info("Registering vassal " + id);
 		synchronized(vassalMap) {
 			vassalMap.put(id, proxy);
@@ -77,18 +266,14 @@ public class LordRunner implements LordPublic {
 		synchronized(waitToRunCondVar) {
 			waitToRunCondVar.notify();
 		}
+		joinRunningJobs(proxy);
 	}
 	
 	private void startServer(int port) {
-		TServerSocket serverSocket;
 		try {
-			serverSocket = new TServerSocket(port);
-			TThreadPoolServer.Args args = new TThreadPoolServer.Args(serverSocket);
 			LordThriftWrapper lordThriftWrapper = new LordThriftWrapper(this);
 			TProcessor processor = new ThriftLord.Processor<LordThriftWrapper>(lordThriftWrapper);
-			args.processor(processor);
-//			args.processorFactory(new TProcessorFactory(processor));
-			server = new TThreadPoolServer(args);
+			server = transportConfig.newServer(port, processor, "Lord Thrift Server");
 			Thread serverThread = new Thread("Lord Thrift Server") {
 				public void run() {
 					server.serve();
@@ -104,8 +289,27 @@ public class LordRunner implements LordPublic {
 	 * Runs a job when a required number of vassals have checked in to the lord.
 	 * @numVassals
 	 * 		the number of unique vassals to wait for to run the job
+	 * @return
+	 * 		the job's id
+	 */
+	public int runJobWhenEnoughVassals(BnbNode root, Problem spec, double bestCost, int numVassals) {
+		return runJobWhenEnoughVassals(root, spec, bestCost, numVassals, DEFAULT_WEIGHT);
+	}
+	
+	/**
+	 * @param weight
+	 * 		the job's share of each vassal's slots relative to other jobs running on it
+	 */
+	public int runJobWhenEnoughVassals(BnbNode root, Problem spec, double bestCost, int numVassals,
+			double weight) {
+		waitForVassals(numVassals);
+		return runJob(root, spec, bestCost, pickVassals(numVassals), 0, weight);
+	}
+	
+	/**
+	 * Blocks until at least the given number of vassals have registered.
 	 */
-	public void runJobWhenEnoughVassals(BnbNode root, Problem spec, double bestCost, int numVassals) {
+	public void waitForVassals(int numVassals) {
 		synchronized(waitToRunCondVar) {
 			while (vassalMap.size() < numVassals) {
 				try {
@@ -115,25 +319,138 @@ public class LordRunner implements LordPublic {
 			}
 		}
 		LOG.info("Done waiting for vassals to register");
-		runJob(root, spec, bestCost, numVassals, 0);
 	}
 	
-	public void runJob(BnbNode root, Problem spec, double bestCost, int numVassals, int minNodesToSave) {		
+	public int runJob(BnbNode root, Problem spec, double bestCost, int numVassals, int minNodesToSave) {		
+		return runJob(root, spec, bestCost, pickVassals(numVassals), minNodesToSave);
+	}
+	
+	private List<VassalProxy> pickVassals(int numVassals) {
 		List<VassalProxy> vassals = new LinkedList<VassalProxy>();
-		Iterator<VassalProxy> iter = vassalMap.values().iterator();
-		for (int i = 0; i < numVassals; i++) {
-			vassals.add(iter.next());
+		synchronized(vassalMap) {
+			Iterator<VassalProxy> iter = vassalMap.values().iterator();
+			for (int i = 0; i < numVassals; i++) {
+				vassals.add(iter.next());
+			}
 		}
-		runJob(root, spec, bestCost, vassals, minNodesToSave);
+		return vassals;
 	}
 	
-	public void runJob(BnbNode root, Problem spec, double bestCost, List<VassalProxy> vassalServers, 
+	public int runJob(BnbNode root, Problem spec, double bestCost, List<VassalProxy> vassalServers, 
 			int minNodesToSave) {
-		int jobid = nextJobid++;
+		return runJob(root, spec, bestCost, vassalServers, minNodesToSave, DEFAULT_WEIGHT);
+	}
+	
+	public int runJob(BnbNode root, Problem spec, double bestCost, List<VassalProxy> vassalServers, 
+			int minNodesToSave, double weight) {
+		LordJobStats stats = new LordJobStats();
+		stats.setCodecStats(RpcUtil.getCodecStats());
+		stats.aboutToStart();
+		
+		checkRegistered(vassalServers);
+		//TODO: what happens if slots free up during this?
+		List<BnbNode> startNodes;
+		if (expandOnVassals) {
+			startNodes = new LinkedList<BnbNode>();
+			startNodes.add(root);
+		} else {
+			Starter starter = new Starter(startParallelism);
+			//used to be using totalSlots for the last arg, but not for now
+			startNodes = new LinkedList<BnbNode>(starter.startEvaluation(spec, bestCost, root, 
+					vassalServers.size() + minNodesToSave));
+			bestCost = starter.getBestCost();
+		}
+		stats.finishedStartEvaluation(startNodes.size());
+		LOG.info("extra start nodes: " + (startNodes.size() - vassalServers.size()));
+		
+		//vassals left without a node steal from the others
+		List<List<BnbNode>> vassalNodes = new ArrayList<List<BnbNode>>();
+		for (int i = 0; i < vassalServers.size(); i++) {
+			List<BnbNode> nodePool = new LinkedList<BnbNode>();
+			if (!startNodes.isEmpty()) {
+				nodePool.add(startNodes.remove(0));
+			}
+			vassalNodes.add(nodePool);
+		}
+		return startJob(vassalNodes, startNodes, spec, bestCost, vassalServers, nodePoolType, jumpRatio, weight,
+				null, stats);
+	}
+	
+	/**
+	 * Resumes a job from a checkpoint when a required number of vassals have checked in.
+	 * The checkpoint's open nodes are dealt out to the vassals instead of starting from
+	 * the root.
+	 * 
+	 * @return
+	 * 		the new job's id
+	 */
+	public int resumeJobWhenEnoughVassals(Checkpoint checkpoint, Problem spec, int numVassals) {
+		waitForVassals(numVassals);
+		return resumeJob(checkpoint, spec, pickVassals(numVassals));
+	}
+	
+	/**
+	 * @param checkpoint
+	 * 		read with the same problem as spec
+	 */
+	public int resumeJob(Checkpoint checkpoint, Problem spec, List<VassalProxy> vassalServers) {
+		LordJobStats stats = new LordJobStats();
+		stats.setCodecStats(RpcUtil.getCodecStats());
+		stats.aboutToStart();
 		
+		checkRegistered(vassalServers);
+		LOG.info("Resuming job " + checkpoint.getJobID() + " from checkpoint " + checkpoint.getSeq() + " with " + 
+				checkpoint.getNodes().size() + " open nodes and best cost " + checkpoint.getBestCost());
+		stats.finishedStartEvaluation(checkpoint.getNodes().size());
+		List<List<BnbNode>> vassalNodes = new ArrayList<List<BnbNode>>();
+		for (int i = 0; i < vassalServers.size(); i++) {
+			vassalNodes.add(new LinkedList<BnbNode>());
+		}
+		int i = 0;
+		for (BnbNode node : checkpoint.getNodes()) {
+			vassalNodes.get(i++ % vassalNodes.size()).add(node);
+		}
+		return startJob(vassalNodes, new LinkedList<BnbNode>(), spec, checkpoint.getBestCost(), vassalServers,
+				nodePoolType, jumpRatio, DEFAULT_WEIGHT, null, stats);
+	}
+	
+	/**
+	 * Runs a job handed down by a parent lord, for when we're a sub-lord.  The nodes are
+	 * dealt out to every vassal registered with us, waiting for at least one.  Work the
+	 * vassals can't get from each other comes from the parent through the given link.
+	 * 
+	 * @param nodePoolType
+	 * 		what the parent asked for, which overrides ours
+	 * @return
+	 * 		the job's id in our group
+	 */
+	public int runSubJob(List<BnbNode> nodes, Problem spec, double bestCost, NodePoolType nodePoolType,
+			double jumpRatio, double weight, ParentLink parent) {
 		LordJobStats stats = new LordJobStats();
+		stats.setCodecStats(RpcUtil.getCodecStats());
 		stats.aboutToStart();
 		
+		waitForVassals(1);
+		List<VassalProxy> vassalServers;
+		synchronized(vassalMap) {
+			vassalServers = new ArrayList<VassalProxy>(vassalMap.values());
+		}
+		LOG.info("Starting job " + parent.getParentJobId() + " from parent lord on " + vassalServers.size() +
+				" vassals with " + nodes.size() + " nodes");
+		stats.finishedStartEvaluation(nodes.size());
+		List<List<BnbNode>> vassalNodes = new ArrayList<List<BnbNode>>();
+		for (int i = 0; i < vassalServers.size(); i++) {
+			vassalNodes.add(new LinkedList<BnbNode>());
+		}
+		int i = 0;
+		for (BnbNode node : nodes) {
+			vassalNodes.get(i++ % vassalNodes.size()).add(node);
+		}
+		return startJob(vassalNodes, new LinkedList<BnbNode>(), spec, bestCost, vassalServers, nodePoolType,
+				jumpRatio, weight, parent, stats);
+	}
+	
+	private void checkRegistered(List<VassalProxy> vassalServers) {
 		for (VassalProxy vassal : vassalServers) {
 			try {
 				if (!vassalMap.containsKey(vassal.getVassalId())) {
@@ -144,29 +461,75 @@ public class LordRunner implements LordPublic {
 				LOG.error("Couldn't reach vassal", ex);
 			}
 		}
-		//TODO: what happens if slots free up during this?
-		Starter starter = new Starter();
-		//used to be using totalSlots for the last arg, but not for now
-		List<BnbNode> startNodes = starter.startEvaluation(spec, bestCost, root, 
-				vassalServers.size() + minNodesToSave);
-		LOG.info("extra start nodes: " + (startNodes.size() - vassalServers.size()));
+	}
+	
+	/**
+	 * @param vassalNodes
+	 * 		the nodes to start each vassal with, in the same order as vassalServers
+	 * @param unevaluated
+	 * 		nodes for the lord to hand out when vassals ask for work
+	 * @param parent
+	 * 		null unless we're a sub-lord
+	 */
+	private int startJob(List<List<BnbNode>> vassalNodes, List<BnbNode> unevaluated, Problem spec, 
+			double bestCost, List<VassalProxy> vassalServers, NodePoolType nodePoolType, double jumpRatio,
+			double weight, ParentLink parent, LordJobStats stats) {
+		int jobid;
+		synchronized(this) {
+			jobid = nextJobid++;
+		}
+		List<PeerAddress> peers = new ArrayList<PeerAddress>();
+		if (peerStealing) {
+			for (VassalProxy vassal : vassalServers) {
+				peers.add(new PeerAddress(vassal.getHost(), vassal.getPort(), vassal.getVassalIdCache()));
+			}
+		}
 		
-		LordJobManager jobManager = new LordJobManager(jobid, startNodes, spec, vassalServers, stats);
+		stats.setMetricsName((port >= 0 ? "lord" + port : "lord") + "-job" + jobid);
+		MetricsRegistry.getDefault().register(stats);
+		LordJobManager jobManager = new LordJobManager(jobid, unevaluated, spec, vassalServers, bestCost, stats);
+		jobManager.setStatsDir(statsDir);
+		if (parent != null) {
+			jobManager.setParent(parent);
+			parent.start(jobManager);
+		}
+		if (leaseTimeout <= 0) {
+			jobManager.getLeases().stopKeepingNodes();
+		}
+		jobSettings.put(jobid, new JobSettings(nodePoolType, jumpRatio, weight, peers));
 		jobMap.put(jobid, jobManager);
+		Iterator<List<BnbNode>> nodesIter = vassalNodes.iterator();
 		for (VassalProxy vassal : vassalServers) {
-			List<BnbNode> nodePool = new LinkedList<BnbNode>();
-			BnbNode node = startNodes.remove(0);
-			nodePool.add(node);
-			
+			List<BnbNode> nodePool = nodesIter.next();
+			jobManager.grantInitialLease(vassal.getVassalIdCache(), nodePool);
 			try {
 				LOG.info("About to start job " + jobid + " on vassal " + vassal.getVassalIdCache());
-				vassal.startJobTasks(nodePool, spec, bestCost, jobid, vassal.getNumSlots());
+				vassal.startJobTasks(nodePool, spec, bestCost, jobid, vassal.getNumSlots(), nodePoolType, jumpRatio,
+						peers, weight);
 			} catch (IOException ex) {
 				LOG.error("Failed to start job tasks on vassal " + vassal.getVassalIdCache(), ex);
+				jobManager.vassalLost(vassal.getVassalIdCache(), "couldn't start job on it");
 			}
 		}
 		
 		stats.finishedSendingInitialWork();
+		//a sub-lord's group is checkpointed as part of its parent's checkpoints
+		if (checkpointFile != null && parent == null) {
+			new Checkpointer(jobManager, checkpointFile, checkpointInterval).start();
+		}
+		if (leaseTimeout > 0) {
+			new LeaseMonitor(jobManager, leaseTimeout).start();
+		}
+		return jobid;
+	}
+	
+	/**
+	 * Blocks until the given job is done, and returns its best cost.
+	 */
+	public double awaitJob(int jobid) {
+		LordJobManager jobManager = jobMap.get(jobid);
+		jobManager.awaitDone();
+		return jobManager.getMinCost();
 	}
 
 	@Override
@@ -185,7 +548,8 @@ public class LordRunner implements LordPublic {
 	}
 
 	@Override
-	public List<BnbNode> askForWork(int jobid, int vassalid, double bestCost) {
+	public List<BnbNode> askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId,
+			LoadSummary load) {
 		LordJobManager jobManager = jobMap.get(jobid);
 		//TODO: if jobManager is null we should throw an exception
 		VassalProxy vassal = vassalMap.get(vassalid);
@@ -194,6 +558,70 @@ public class LordRunner implements LordPublic {
 		} else {
 			jobManager.updateMinCost(bestCost, vassal);
 		}
-		return jobManager.askForWork(vassalid);
+		if (load != null) {
+			jobManager.getLoads().update(vassalid, load);
+		}
+		if (prefetch) {
+			return jobManager.prefetchWork(vassalid, leaseId);
+		}
+		return jobManager.askForWork(vassalid, leaseId);
+	}
+
+	@Override
+	public boolean heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived,
+			List<Long> failedLeases, LoadSummary load) {
+		LordJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null) {
+			LOG.error("Lord couldn't locate job with id " + jobid);
+			return false;
+		}
+		if (load != null) {
+			jobManager.getLoads().update(vassalid, load);
+		}
+		return jobManager.heartbeat(vassalid, liveLeases, maxLeaseReceived, failedLeases);
+	}
+
+	@Override
+	public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<BnbNode> nodes) {
+		LordJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null) {
+			LOG.error("Lord couldn't locate job with id " + jobid);
+			return false;
+		}
+		return jobManager.leasePeerWork(donorid, thiefid, leaseId, nodes);
+	}
+
+	@Override
+	public Problem getProblem(int jobid) throws IOException {
+		LordJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null) {
+			throw new IOException("No job with id " + jobid);
+		}
+		return jobManager.getProblem();
+	}
+	
+	/**
+	 * Ours, corrected to our parent's if we're a sub-lord that's synced with it.
+	 */
+	@Override
+	public long getTimeMicros() {
+		return Tracer.getDefault().correctedNowMicros();
+	}
+	
+	/**
+	 * What a job's vassals were started with.
+	 */
+	private static class JobSettings {
+		private final NodePoolType nodePoolType;
+		private final double jumpRatio;
+		private final double weight;
+		private final List<PeerAddress> peers;
+		
+		public JobSettings(NodePoolType nodePoolType, double jumpRatio, double weight, List<PeerAddress> peers) {
+			this.nodePoolType = nodePoolType;
+			this.jumpRatio = jumpRatio;
+			this.weight = weight;
+			this.peers = peers;
+		}
 	}
 }
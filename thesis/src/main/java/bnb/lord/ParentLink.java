@@ -0,0 +1,227 @@
+package bnb.lord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
+import bnb.vassal.Heartbeater;
+import bnb.vassal.LeaseReport;
+import bnb.vassal.LoadSummary;
+import bnb.vassal.LordProxy;
+import bnb.vassal.VassalJobManager;
+
+/**
+ * A sub-lord's connection to the lord above it for one job, which the sub-lord's group
+ * works on as one of that lord's vassals.  Work the group can't find among its own
+ * vassals is asked for from the parent, better costs found in the group are passed up,
+ * and heartbeats keep the parent from handing the group's work to others.
+ *
+ * The parent's leases are tracked for the group as a whole: every lease we've been
+ * granted is reported live until the job is done here, since nodes from it could be
+ * anywhere in the group.  If the group is lost, the parent hands all of them out again,
+ * which repeats some work but doesn't lose any.
+ */
+public class ParentLink {
+	private static final Logger LOG = Logger.getLogger(ParentLink.class);
+
+	/** how often heartbeats go to the parent unless told otherwise */
+	public static final long DEFAULT_HEARTBEAT_INTERVAL = Heartbeater.DEFAULT_INTERVAL;
+
+	private final LordProxy parent;
+	private final int parentJobId;
+	private final int subLordId;
+	private final Problem problem;
+	private final long heartbeatInterval;
+
+	private final AtomicLong nextLeaseId = new AtomicLong(VassalJobManager.INITIAL_LEASE + 1);
+	//guarded by this
+	private final Set<Long> receivedLeases = new LinkedHashSet<Long>();
+	private final List<Long> failedLeases = new ArrayList<Long>();
+	private long maxLeaseReceived = VassalJobManager.INITIAL_LEASE;
+
+	//the best cost waiting to go up, so that costs found while a send is out are coalesced
+	private final AtomicLong pendingCostBits = new AtomicLong(Double.doubleToLongBits(Double.MAX_VALUE));
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	//only touched by the sender thread
+	private double sentCost = Double.MAX_VALUE;
+	private final ExecutorService costSender;
+
+	private volatile LordJobManager jobManager;
+
+	/**
+	 * @param parentJobId
+	 * 		the job's id on the parent, which differs from its id in our group
+	 * @param subLordId
+	 * 		our id among the parent's vassals
+	 * @param problem
+	 * 		what nodes from the parent are read with
+	 */
+	public ParentLink(LordProxy parent, int parentJobId, int subLordId, Problem problem, long heartbeatInterval) {
+		this.parent = parent;
+		this.parentJobId = parentJobId;
+		this.subLordId = subLordId;
+		this.problem = problem;
+		this.heartbeatInterval = heartbeatInterval;
+		//the nodes we're started with
+		receivedLeases.add(VassalJobManager.INITIAL_LEASE);
+		costSender = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "job " + parentJobId + " parent cost sender");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	public int getParentJobId() {
+		return parentJobId;
+	}
+
+	/**
+	 * Starts heartbeats to the parent for the given job, which runs until it's done.
+	 * Should be called before the job's vassals are started.
+	 */
+	public void start(LordJobManager jobManager) {
+		this.jobManager = jobManager;
+		new HeartbeatThread().start();
+	}
+
+	/**
+	 * The group's job, or null if it hasn't been started.
+	 */
+	public LordJobManager getJobManager() {
+		return jobManager;
+	}
+
+	/**
+	 * Asks the parent for work for the group.  An ask that isn't a prefetch tells the
+	 * parent the whole group is out of work, so that an empty answer means the job is done.
+	 * Returns null if the parent couldn't be reached.
+	 */
+	public List<BnbNode> askForWork(double bestCost, boolean prefetch, LoadSummary load) {
+		long leaseId = nextLeaseId.getAndIncrement();
+		long span = Tracer.getDefault().begin(Span.ASK_PARENT);
+		try {
+			List<BnbNode> nodes = parent.askForWork(parentJobId, subLordId, problem, bestCost, prefetch, leaseId,
+					load);
+			Tracer.getDefault().end(Span.ASK_PARENT, span, parentJobId, subLordId, nodes.size(), 0,
+					Tracer.flowId(subLordId, leaseId));
+			if (!nodes.isEmpty()) {
+				synchronized(this) {
+					receivedLeases.add(leaseId);
+					maxLeaseReceived = Math.max(maxLeaseReceived, leaseId);
+				}
+			}
+			return nodes;
+		} catch (IOException ex) {
+			LOG.warn("Couldn't ask parent lord for work for job " + parentJobId, ex);
+			synchronized(this) {
+				failedLeases.add(leaseId);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Passes a better cost found in the group up to the parent without waiting for it.
+	 */
+	public void sendBestSolCost(double cost) {
+		while (true) {
+			long cur = pendingCostBits.get();
+			if (cost >= Double.longBitsToDouble(cur)) {
+				break;
+			}
+			if (pendingCostBits.compareAndSet(cur, Double.doubleToLongBits(cost))) {
+				break;
+			}
+		}
+		if (!scheduled.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			costSender.execute(new Runnable() {
+				@Override
+				public void run() {
+					//a cost that comes in after this gets its own send
+					scheduled.set(false);
+					double cost = Double.longBitsToDouble(pendingCostBits.get());
+					if (cost >= sentCost) {
+						return;
+					}
+					try {
+						parent.sendBestSolCost(cost, parentJobId, subLordId);
+						sentCost = cost;
+					} catch (IOException ex) {
+						LOG.warn("Couldn't send best cost to parent lord for job " + parentJobId, ex);
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			//the job's over, so the parent doesn't need it
+		}
+	}
+
+	private synchronized LeaseReport makeLeaseReport() {
+		int numOwnNodes = jobManager.getNumUnevaluated();
+		return new LeaseReport(new ArrayList<Long>(receivedLeases), maxLeaseReceived,
+				new ArrayList<Long>(failedLeases), jobManager.getLoads().aggregate(numOwnNodes));
+	}
+
+	private synchronized void leaseReportDelivered(LeaseReport report) {
+		failedLeases.removeAll(report.getFailedLeases());
+	}
+
+	/**
+	 * Like a vassal's Heartbeater, but for the whole group.  If the parent has given up on
+	 * us, the job is abandoned here, since the parent has handed its work to others.
+	 */
+	private class HeartbeatThread extends Thread {
+
+		public HeartbeatThread() {
+			super("job " + parentJobId + " parent heartbeater");
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				try {
+					Thread.sleep(heartbeatInterval);
+				} catch (InterruptedException ex) {
+					return;
+				}
+				if (jobManager.isDone()) {
+					costSender.shutdown();
+					return;
+				}
+
+				LeaseReport report = makeLeaseReport();
+				try {
+					if (!parent.heartbeat(parentJobId, subLordId, report)) {
+						jobManager.abandon();
+						costSender.shutdown();
+						return;
+					}
+					leaseReportDelivered(report);
+				} catch (IOException ex) {
+					LOG.warn("Couldn't send heartbeat to parent lord for job " + parentJobId, ex);
+				}
+			}
+		}
+	}
+}
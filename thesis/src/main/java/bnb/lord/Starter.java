@@ -1,39 +1,228 @@
 package bnb.lord;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.log4j.Logger;
 
 import bnb.Problem;
 import bnb.BnbNode;
+import bnb.vassal.StealPolicy;
 
+/**
+ * Expands the top of the tree on the lord to get pieces to start the vassals with.
+ * Nodes are evaluated on a fork-join pool, so the expansion doesn't take longer the more
+ * vassals there are to make pieces for.
+ */
 public class Starter {
+	private static final Logger LOG = Logger.getLogger(Starter.class);
+
+	private final int parallelism;
+	//best cost of any solution found while expanding, which bounds the rest of the expansion
+	private volatile double bestCost;
+
+	public Starter() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism
+	 * 		how many threads to evaluate nodes on
+	 */
+	public Starter(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive, was " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
 	/**
-	 * Breadth-first searches through the tree to create an initial partitioning
-	 * of the problem.  Returns a list of nodes with size >= count.
-	 * 
+	 * Expands the tree until it's split into at least count pieces, or it runs out of
+	 * nodes to expand.  If the nodes can estimate their subtree sizes, every node with more
+	 * than 1/count of the root's estimated work is expanded, so that the pieces are about
+	 * the same size, and the biggest pieces come first.  Otherwise the tree is expanded a
+	 * level at a time, as many levels as it takes to get count nodes.
+	 *
+	 * Solutions found along the way aren't among the pieces, but their best cost is
+	 * available from getBestCost.
+	 *
 	 * @param spec
 	 * @param bestCost
 	 * @param root
 	 * @param count
 	 * @return
-	 * 		two lists - the first is a set of evaluated nodes to distribute to processes,
-	 * 		the second of which is the remaining set of unevaluated nodes
+	 * 		the pieces, which may be evaluated or not
 	 */
 	public List<BnbNode> startEvaluation(Problem spec, double bestCost, BnbNode root, int count) {
-		//TODO: what if we exhaust all the nodes during this part
+		this.bestCost = bestCost;
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			evaluate(root);
+			double rootWork = root.estimateSubtreeSize(bestCost);
+			List<BnbNode> pieces;
+			if (rootWork < 0) {
+				pieces = expandByLevel(pool, root, count);
+			} else {
+				pieces = expandByWork(pool, root, rootWork, count);
+			}
+			if (pieces.size() < count) {
+				LOG.warn("Only found " + pieces.size() + " start nodes for " + count + " wanted");
+			}
+			return pieces;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Best cost of the solutions found during the last startEvaluation, or the cost it
+	 * was given if it didn't find a better one.
+	 */
+	public double getBestCost() {
+		return bestCost;
+	}
+
+	private List<BnbNode> expandByWork(ForkJoinPool pool, BnbNode root, double rootWork, int count) {
+		//estimates too big for a double come out infinite, and are always split
+		double targetWork = Math.min(rootWork, Double.MAX_VALUE) / count;
+		List<BnbNode> pieces = new ArrayList<BnbNode>();
+		pieces.add(root);
+		while (true) {
+			pieces = pool.invoke(new ExpandTask(pieces, targetWork));
+			//if pruning left too few pieces, split the ones we have more finely
+			if (pieces.size() >= count || !anyExpandable(pieces) || targetWork == 0) {
+				break;
+			}
+			targetWork /= 2;
+		}
+		final double cost = bestCost;
+		Collections.sort(pieces, new Comparator<BnbNode>() {
+			@Override
+			public int compare(BnbNode n1, BnbNode n2) {
+				return Double.compare(StealPolicy.estimateWork(n2, cost), StealPolicy.estimateWork(n1, cost));
+			}
+		});
+		LOG.info("Split the root into " + pieces.size() + " pieces with estimated work under " + targetWork);
+		return pieces;
+	}
+
+	private List<BnbNode> expandByLevel(ForkJoinPool pool, BnbNode root, int count) {
 		LinkedList<BnbNode> nodes = new LinkedList<BnbNode>();
 		nodes.add(root);
-		
-		while (nodes.size() < count) {
-			BnbNode node = nodes.removeFirst();
-			node.evaluate(bestCost);
-			//TODO: shouldn't care about recreating remaining children for tsp?
-			while (node.hasNextChild()) {
-				BnbNode child = node.nextChild(false);
-				nodes.addLast(child);
+		while (nodes.size() < count && anyExpandable(nodes)) {
+			pool.invoke(new EvaluateLevelTask(nodes));
+			LinkedList<BnbNode> children = new LinkedList<BnbNode>();
+			for (BnbNode node : nodes) {
+				addChildren(node, children);
 			}
+			nodes = children;
 		}
-		
 		return nodes;
 	}
+
+	private boolean anyExpandable(List<BnbNode> nodes) {
+		for (BnbNode node : nodes) {
+			if (!node.isEvaluated() || node.hasNextChild()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void evaluate(BnbNode node) {
+		if (!node.isEvaluated()) {
+			node.evaluate(bestCost);
+		}
+		if (node.isSolution()) {
+			foundSolution(node.getCost());
+		}
+	}
+
+	private synchronized void foundSolution(double cost) {
+		if (cost < bestCost) {
+			LOG.info("Found solution with cost " + cost + " while expanding");
+			bestCost = cost;
+		}
+	}
+
+	private static void addChildren(BnbNode node, List<BnbNode> children) {
+		//TODO: shouldn't care about recreating remaining children for tsp?
+		while (node.hasNextChild()) {
+			children.add(node.nextChild(false));
+		}
+	}
+
+	/**
+	 * Evaluates each node, and expands the ones with more than the target work, returning
+	 * the pieces under them.
+	 */
+	private class ExpandTask extends RecursiveTask<List<BnbNode>> {
+		private static final long serialVersionUID = 1L;
+
+		private final List<BnbNode> nodes;
+		private final double targetWork;
+
+		public ExpandTask(List<BnbNode> nodes, double targetWork) {
+			this.nodes = nodes;
+			this.targetWork = targetWork;
+		}
+
+		@Override
+		protected List<BnbNode> compute() {
+			if (nodes.size() > 1) {
+				List<ExpandTask> tasks = new ArrayList<ExpandTask>(nodes.size());
+				for (BnbNode node : nodes) {
+					tasks.add(new ExpandTask(Collections.singletonList(node), targetWork));
+				}
+				invokeAll(tasks);
+				List<BnbNode> pieces = new ArrayList<BnbNode>();
+				for (ExpandTask task : tasks) {
+					pieces.addAll(task.join());
+				}
+				return pieces;
+			}
+
+			BnbNode node = nodes.get(0);
+			evaluate(node);
+			if (!node.hasNextChild()) {
+				//solved or pruned
+				return Collections.emptyList();
+			}
+			if (StealPolicy.estimateWork(node, bestCost) <= targetWork) {
+				return Collections.singletonList(node);
+			}
+			List<BnbNode> children = new ArrayList<BnbNode>();
+			addChildren(node, children);
+			return new ExpandTask(children, targetWork).compute();
+		}
+	}
+
+	private class EvaluateLevelTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<BnbNode> nodes;
+
+		public EvaluateLevelTask(List<BnbNode> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		protected void compute() {
+			if (nodes.size() == 1) {
+				evaluate(nodes.get(0));
+				return;
+			}
+			List<EvaluateLevelTask> tasks = new ArrayList<EvaluateLevelTask>(nodes.size());
+			for (BnbNode node : nodes) {
+				tasks.add(new EvaluateLevelTask(Collections.singletonList(node)));
+			}
+			invokeAll(tasks);
+		}
+	}
 }
@@ -0,0 +1,222 @@
+package bnb.lord;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.transport.TTransportException;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.ThriftData;
+import bnb.rpc.ThriftVassal;
+import bnb.rpc.TransportConfig;
+import bnb.rpc.VassalPublic;
+import bnb.rpc.VassalThriftWrapper;
+import bnb.vassal.LordProxy;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
+
+/**
+ * A lord for a group of vassals that's itself one of the vassals of a parent lord, so
+ * that lords can be stacked in a tree and no one lord has to serve the whole cluster.
+ *
+ * Toward its vassals it's an ordinary lord: they register with the LordRunner it wraps
+ * and steal from each other through it.  Toward the parent it's a vassal with the slots of
+ * its whole group.  A job the parent starts on it is run on its vassals, and requests for
+ * work go up to the parent only when the group has nothing to give, through a ParentLink.
+ * Better costs found in the group go up once, and costs from the parent go out to the
+ * group.  When the parent steals from us, we steal from our vassals for it.  Since a
+ * sub-lord looks like any other vassal, sub-lords can have sub-lords of their own.
+ *
+ * Vassals of other groups can't steal from us directly, so peer stealing only happens
+ * within a group.
+ */
+public class SubLordRunner implements VassalPublic {
+	private static final Logger LOG = Logger.getLogger(SubLordRunner.class);
+
+	private final LordProxy parent;
+	private final LordRunner group;
+	private final int id;
+	private final int port;
+	private volatile TransportConfig transportConfig = TransportConfig.DEFAULT;
+	private volatile long heartbeatInterval = ParentLink.DEFAULT_HEARTBEAT_INTERVAL;
+
+	//by the parent's job ids
+	private final Map<Integer, ParentLink> links;
+	private TServer server;
+
+	/**
+	 * @param parent
+	 * 		the lord above us
+	 * @param group
+	 * 		the lord our vassals register with, which should be started separately
+	 * @param id
+	 * 		our id among the parent's vassals
+	 * @param port
+	 * 		where the parent reaches us, or -1 if it's in the same JVM
+	 */
+	public SubLordRunner(LordProxy parent, LordRunner group, int id, int port) {
+		this.parent = parent;
+		this.group = group;
+		this.id = id;
+		this.port = port;
+		links = new ConcurrentHashMap<Integer, ParentLink>();
+	}
+
+	/**
+	 * Sets how our server talks to the parent.  Should be called before start.
+	 */
+	public void setTransportConfig(TransportConfig transportConfig) {
+		this.transportConfig = transportConfig;
+	}
+
+	public void setHeartbeatInterval(long heartbeatInterval) {
+		this.heartbeatInterval = heartbeatInterval;
+	}
+
+	public LordRunner getGroup() {
+		return group;
+	}
+
+	/**
+	 * Starts our server and registers with the parent.  The group should have its vassals
+	 * by now, since the parent starts jobs on us with the slots we have when we register.
+	 */
+	public void start() {
+		startServer();
+		try {
+			String hostname = InetAddress.getLocalHost().getHostName();
+			parent.registerVassal(hostname, port, id);
+			LOG.info("Registered with parent lord as " + hostname + ":" + port);
+		} catch (UnknownHostException ex) {
+			LOG.error("Failed to retrieve hostname, not going to register with parent lord", ex);
+		} catch (IOException ex) {
+			LOG.error("Failed to register with parent lord", ex);
+		}
+	}
+
+	private void startServer() {
+		try {
+			VassalThriftWrapper vassalThriftWrapper = new VassalThriftWrapper(this);
+			TProcessor processor = new ThriftVassal.Processor<VassalThriftWrapper>(vassalThriftWrapper);
+			server = transportConfig.newServer(port, processor, "Sub-lord Thrift Server");
+			Thread serverThread = new Thread("Sub-lord Thrift Server") {
+				public void run() {
+					server.serve();
+				}
+			};
+			serverThread.start();
+		} catch (TTransportException ex) {
+			LOG.error("Trouble making server socket", ex);
+		}
+	}
+
+	public void stop() {
+		if (server != null) {
+			server.stop();
+		}
+	}
+
+	/**
+	 * Our group's job for the parent's job, or null if it hasn't been started.
+	 */
+	private LordJobManager findJobManager(int parentJobId) {
+		ParentLink link = links.get(parentJobId);
+		return (link == null) ? null : link.getJobManager();
+	}
+
+	private LordJobManager getJobManager(int parentJobId) throws IOException {
+		LordJobManager jobManager = findJobManager(parentJobId);
+		if (jobManager == null) {
+			throw new IOException("No job for parent job " + parentJobId);
+		}
+		return jobManager;
+	}
+
+	/**
+	 * Our group's id for the parent's job, or -1 if we aren't running it.
+	 */
+	public int getGroupJobId(int parentJobId) {
+		LordJobManager jobManager = findJobManager(parentJobId);
+		return (jobManager == null) ? -1 : jobManager.getJobID();
+	}
+
+	@Override
+	public void updateBestSolCost(double bestCost, int jobid) {
+		LordJobManager jobManager = findJobManager(jobid);
+		if (jobManager == null) {
+			LOG.warn("Got best cost for parent job " + jobid + " that we aren't running");
+			return;
+		}
+		jobManager.updateMinCostFromParent(bestCost);
+	}
+
+	/**
+	 * The thread count and peers are the parent's view of us as one vassal, and are
+	 * ignored.  Our vassals each use their own slots, and steal from each other through us.
+	 */
+	@Override
+	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int nThreads,
+			NodePoolType nodePoolType, double jumpRatio, List<PeerAddress> peers, double weight) throws IOException {
+		ParentLink link = new ParentLink(parent, jobid, id, spec, heartbeatInterval);
+		//the parent's other vassals can steal from us while we start the group
+		links.put(jobid, link);
+		int groupJobId = group.runSubJob(nodes, spec, bestCost, nodePoolType, jumpRatio, weight, link);
+		LOG.info("Running parent job " + jobid + " as job " + groupJobId + " in our group");
+	}
+
+	@Override
+	public int getNumSlots() throws IOException {
+		return group.getTotalSlots();
+	}
+
+	@Override
+	public List<BnbNode> stealWork(int jobid) {
+		LordJobManager jobManager = findJobManager(jobid);
+		if (jobManager == null) {
+			return new LinkedList<BnbNode>();
+		}
+		return jobManager.stealForParent();
+	}
+
+	/**
+	 * Vassals outside our group steal from us through the parent.
+	 */
+	@Override
+	public List<BnbNode> stealWorkFromPeer(int jobid, int thiefId, double bestCost, long leaseId) {
+		return new LinkedList<BnbNode>();
+	}
+
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public void beginCheckpoint(int jobid) throws IOException {
+		getJobManager(jobid).beginCheckpoint();
+	}
+
+	@Override
+	public List<ThriftData> checkpoint(int jobid) throws IOException {
+		List<BnbNode> open = getJobManager(jobid).finishCheckpoint();
+		if (open == null) {
+			throw new IOException("Vassals joined or left the group while checkpointing");
+		}
+		return RpcUtil.nodesToThriftData(open);
+	}
+
+	@Override
+	public List<BnbNode> drainJob(int jobid) throws IOException {
+		return getJobManager(jobid).drainAll();
+	}
+}
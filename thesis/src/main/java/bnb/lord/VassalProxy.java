@@ -4,47 +4,82 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
-import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.async.AsyncMethodCallback;
 
 import bnb.BnbNode;
 import bnb.Problem;
+import bnb.rpc.AsyncClientPool;
+import bnb.rpc.ClientPool;
+import bnb.rpc.CodecRegistry;
+import bnb.rpc.RpcCallback;
 import bnb.rpc.RpcUtil;
 import bnb.rpc.ThriftData;
+import bnb.rpc.ThriftPeer;
+import bnb.rpc.ThriftTypeId;
 import bnb.rpc.ThriftVassal;
+import bnb.rpc.TransportConfig;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
 
 public class VassalProxy {
 
-	private ThriftVassal.Client vassalClient;
-	private TSocket socket;
-	private int numSlotsCache = -1;
-	private int idCache = -1;
+	private final String host;
+	private final int port;
+	private final TransportConfig config;
+
+	//new costs and work stealing each get their own connection, so they don't wait
+	//behind each other
+	private final ClientPool<ThriftVassal.Client> pool;
+	//for sending new costs without tying up a thread, if the config allows it
+	private AsyncClientPool<ThriftVassal.AsyncClient> asyncPool;
+	private volatile int numSlotsCache = -1;
+	private volatile int idCache = -1;
 	
 	public VassalProxy(String host, int port) {
-		socket = new TSocket(host, port);
-		TProtocol protocol = new TBinaryProtocol(socket);
-		vassalClient = new ThriftVassal.Client(protocol);
+		this(host, port, TransportConfig.DEFAULT);
+	}
+	
+	public VassalProxy(String host, int port, TransportConfig config) {
+		this.host = host;
+		this.port = port;
+		this.config = config;
+		pool = new ClientPool<ThriftVassal.Client>(host, port, config, new ThriftVassal.Client.Factory());
+	}
+	
+	public VassalProxy(String host, int port, int idCache, TransportConfig config) {
+		this(host, port, config);
+		this.idCache = idCache;
 	}
 	
-	public VassalProxy(String host, int port, int idCache) {
-		this (host, port);
+	/**
+	 * For subclasses that don't go over the network.
+	 */
+	protected VassalProxy(int idCache) {
+		host = "localhost";
+		port = -1;
+		config = TransportConfig.DEFAULT;
+		pool = null;
 		this.idCache = idCache;
 	}
 	
 	public int getVassalId() throws IOException {
 		if (idCache == -1) {
-			synchronized(this) {
+			boolean healthy = false;
+			try {
+				ThriftVassal.Client client = pool.borrow();
 				try {
-					if (!socket.isOpen()) {
-						socket.open();
-					}
-					idCache = vassalClient.getVassalId();
-				} catch (TException ex) {
-					throw new IOException("send exception", ex);
+					idCache = client.getVassalId();
+					healthy = true;
+				} finally {
+					pool.returnClient(client, healthy);
 				}
+			} catch (TException ex) {
+				throw new IOException("send exception", ex);
 			}
 		}
 		return idCache;
@@ -54,61 +89,224 @@ public class VassalProxy {
 		return idCache;
 	}
 	
+	public String getHost() {
+		return host;
+	}
+	
+	public int getPort() {
+		return port;
+	}
+	
 	public int getNumSlots() throws IOException {
 		if (numSlotsCache == -1) {
-			synchronized(this) {
+			boolean healthy = false;
+			try {
+				ThriftVassal.Client client = pool.borrow();
 				try {
-					if (!socket.isOpen()) {
-						socket.open();
-					}
-					numSlotsCache = vassalClient.getNumSlots();
-				} catch (TException ex) {
-					throw new IOException("send exception", ex);
+					numSlotsCache = client.getNumSlots();
+					healthy = true;
+				} finally {
+					pool.returnClient(client, healthy);
 				}
+			} catch (TException ex) {
+				throw new IOException("send exception", ex);
 			}
 		}
 		return numSlotsCache;
 	}
 	
-	public synchronized void updateBestSolCost(double bestCost, int jobid)
+	public void updateBestSolCost(double bestCost, int jobid)
 		throws IOException {
+		boolean healthy = false;
 		try {
-			if (!socket.isOpen()) {
-				socket.open();
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				client.updateBestSolCost(bestCost, jobid);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
 			}
-			vassalClient.updateBestSolCost(bestCost, jobid);
 		} catch (TException ex) {
 			throw new IOException("send exception", ex);
 		}
 	}
-
-	public synchronized void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int nthreads)
+	
+	/**
+	 * Sends the cost without waiting for the vassal to get it, if the transport is
+	 * configured for async calls.  Otherwise sends it synchronously and calls the callback
+	 * before returning.
+	 */
+	public void updateBestSolCostAsync(double bestCost, int jobid, final RpcCallback callback) 
 		throws IOException {
+		if (!config.isAsync()) {
+			updateBestSolCost(bestCost, jobid);
+			callback.onComplete();
+			return;
+		}
+		
+		final AsyncClientPool<ThriftVassal.AsyncClient> asyncPool = getAsyncPool();
+		final ThriftVassal.AsyncClient client = asyncPool.borrow();
+		try {
+			client.updateBestSolCost(bestCost, jobid, 
+					new AsyncMethodCallback<ThriftVassal.AsyncClient.updateBestSolCost_call>() {
+				@Override
+				public void onComplete(ThriftVassal.AsyncClient.updateBestSolCost_call response) {
+					asyncPool.returnClient(client);
+					try {
+						response.getResult();
+					} catch (TException ex) {
+						callback.onError(new IOException("send exception", ex));
+						return;
+					}
+					callback.onComplete();
+				}
+	
+				@Override
+				public void onError(Exception ex) {
+					asyncPool.returnClient(client);
+					callback.onError(new IOException("send exception", ex));
+				}
+			});
+		} catch (TException ex) {
+			asyncPool.returnClient(client);
+			throw new IOException("send exception", ex);
+		}
+	}
+	
+	private synchronized AsyncClientPool<ThriftVassal.AsyncClient> getAsyncPool() throws IOException {
+		if (asyncPool == null) {
+			ThriftVassal.AsyncClient.Factory factory = new ThriftVassal.AsyncClient.Factory(
+					AsyncClientPool.getManager(), config.getProtocolFactory());
+			asyncPool = new AsyncClientPool<ThriftVassal.AsyncClient>(host, port, config, factory);
+		}
+		return asyncPool;
+	}
+
+	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int nthreads,
+			NodePoolType nodePoolType, double jumpRatio, List<PeerAddress> peers, double weight) throws IOException {
 		try {
-			if (!socket.isOpen()) {
-				socket.open();
-			}
 			List<ThriftData> nodesData = new ArrayList<ThriftData>(nodes.size());
 			for (BnbNode node : nodes) {
 				nodesData.add(RpcUtil.toThriftData(node));
 			}
 			ThriftData problemData = RpcUtil.toThriftData(spec);
-			vassalClient.startJobTasks(nodesData, problemData, bestCost, jobid, nthreads);
+			String poolTypeName = (nodePoolType == null) ? "" : nodePoolType.name();
+			List<ThriftPeer> thriftPeers = new ArrayList<ThriftPeer>(peers.size());
+			for (PeerAddress peer : peers) {
+				thriftPeers.add(new ThriftPeer(peer.getHostname(), peer.getPort(), peer.getVassalId()));
+			}
+			List<ThriftTypeId> typeIds = new ArrayList<ThriftTypeId>();
+			for (Map.Entry<String, Integer> entry : CodecRegistry.getDefault().getTypeIds().entrySet()) {
+				typeIds.add(new ThriftTypeId(entry.getKey(), entry.getValue()));
+			}
+			boolean healthy = false;
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				client.startJobTasks(nodesData, problemData, bestCost, jobid, nthreads, poolTypeName, jumpRatio,
+						thriftPeers, typeIds, weight);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
 		} catch (TException ex) {
 			throw new IOException("send exception", ex);
 		}
 	}
 
-	public synchronized List<BnbNode> stealWork(LordJobManager jobManager) throws IOException {
+	public void beginCheckpoint(int jobid) throws IOException {
+		boolean healthy = false;
+		try {
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				client.beginCheckpoint(jobid);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		}
+	}
+	
+	public List<BnbNode> checkpoint(LordJobManager jobManager) throws IOException {
+		try {
+			List<ThriftData> nodesData;
+			boolean healthy = false;
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				nodesData = client.checkpoint(jobManager.getJobID());
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+			List<BnbNode> nodes = new ArrayList<BnbNode>(nodesData.size());
+			for (ThriftData nodeData : nodesData) {
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, jobManager.getProblem()));
+			}
+			return nodes;
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		} catch (ClassNotFoundException ex) {
+			throw new IOException("class not found", ex);
+		} catch (InstantiationException e) {
+			throw new IOException("trouble instantiating", e);
+		} catch (IllegalAccessException e) {
+			throw new IOException("illegal access", e);
+		} catch (InvocationTargetException e) {
+			throw new IOException("", e);
+		} catch (NoSuchMethodException e) {
+			throw new IOException("", e);
+		}
+	}
+	
+	public List<BnbNode> drainJob(LordJobManager jobManager) throws IOException {
+		try {
+			List<ThriftData> nodesData;
+			boolean healthy = false;
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				nodesData = client.drainJob(jobManager.getJobID());
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+			List<BnbNode> nodes = new ArrayList<BnbNode>(nodesData.size());
+			for (ThriftData nodeData : nodesData) {
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, jobManager.getProblem()));
+			}
+			return nodes;
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		} catch (ClassNotFoundException ex) {
+			throw new IOException("class not found", ex);
+		} catch (InstantiationException e) {
+			throw new IOException("trouble instantiating", e);
+		} catch (IllegalAccessException e) {
+			throw new IOException("illegal access", e);
+		} catch (InvocationTargetException e) {
+			throw new IOException("", e);
+		} catch (NoSuchMethodException e) {
+			throw new IOException("", e);
+		}
+	}
+	
+	public List<BnbNode> stealWork(LordJobManager jobManager) throws IOException {
+		long span = Tracer.getDefault().begin(Span.RPC_STEAL_WORK);
 		try {
-			if (!socket.isOpen()) {
-				socket.open();
+			List<ThriftData> nodesData;
+			boolean healthy = false;
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				nodesData = client.stealWork(jobManager.getJobID());
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
 			}
-			List<ThriftData> nodesData = vassalClient.stealWork(jobManager.getJobID());
 			List<BnbNode> nodes = new ArrayList<BnbNode>();
 			for (ThriftData nodeData : nodesData) {
 				nodes.add((BnbNode)RpcUtil.nodeFromThriftData(nodeData, jobManager.getProblem()));
 			}
+			Tracer.getDefault().end(Span.RPC_STEAL_WORK, span, jobManager.getJobID(), idCache, nodes.size());
 			return nodes;
 		} catch (TException ex) {
 			throw new IOException("send exception", ex);
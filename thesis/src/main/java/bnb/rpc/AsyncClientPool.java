@@ -0,0 +1,117 @@
+package bnb.rpc;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.apache.thrift.async.TAsyncClient;
+import org.apache.thrift.async.TAsyncClientFactory;
+import org.apache.thrift.async.TAsyncClientManager;
+import org.apache.thrift.transport.TNonblockingSocket;
+
+/**
+ * Async clients for one peer.  An async client can only have one call going at a time,
+ * so we hand out a different one to each caller, up to the config's max.  All of them
+ * share one TAsyncClientManager, whose thread handles the responses.
+ */
+public class AsyncClientPool<C extends TAsyncClient> {
+	
+	private static TAsyncClientManager manager;
+	
+	private final String host;
+	private final int port;
+	private final int maxConnections;
+	private final TAsyncClientFactory<C> factory;
+	
+	private final LinkedList<C> idle;
+	private final Map<C, TNonblockingSocket> sockets;
+	private boolean closed;
+	
+	/**
+	 * @param factory
+	 * 		should make clients that use getManager()
+	 */
+	public AsyncClientPool(String host, int port, TransportConfig config, TAsyncClientFactory<C> factory) {
+		if (!config.isAsync()) {
+			throw new IllegalArgumentException("transport isn't configured for async calls: " + config);
+		}
+		this.host = host;
+		this.port = port;
+		this.maxConnections = config.getMaxConnections();
+		this.factory = factory;
+		idle = new LinkedList<C>();
+		sockets = new IdentityHashMap<C, TNonblockingSocket>();
+	}
+	
+	public static synchronized TAsyncClientManager getManager() throws IOException {
+		if (manager == null) {
+			manager = new TAsyncClientManager();
+		}
+		return manager;
+	}
+	
+	/**
+	 * Returns a client with no call in progress.  It should be given back with returnClient
+	 * once its call is done.
+	 */
+	public C borrow() throws IOException {
+		synchronized (this) {
+			while (true) {
+				if (closed) {
+					throw new IOException("connection pool closed");
+				}
+				if (!idle.isEmpty()) {
+					return idle.removeLast();
+				}
+				if (sockets.size() < maxConnections) {
+					break;
+				}
+				try {
+					wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new IOException("interrupted waiting for a connection to " + host + ":" + port);
+				}
+			}
+			//connecting happens on the manager's thread, so this doesn't block
+			TNonblockingSocket socket = new TNonblockingSocket(host, port);
+			C client = factory.getAsyncClient(socket);
+			sockets.put(client, socket);
+			return client;
+		}
+	}
+	
+	/**
+	 * Closes the client's connection if its call failed.
+	 */
+	public void returnClient(C client) {
+		TNonblockingSocket toClose = null;
+		synchronized (this) {
+			if (client.hasError() || closed) {
+				toClose = sockets.remove(client);
+			} else {
+				idle.addLast(client);
+			}
+			notify();
+		}
+		if (toClose != null) {
+			toClose.close();
+		}
+	}
+	
+	public void close() {
+		LinkedList<TNonblockingSocket> toClose = new LinkedList<TNonblockingSocket>();
+		synchronized (this) {
+			closed = true;
+			for (C client : idle) {
+				toClose.add(sockets.remove(client));
+			}
+			idle.clear();
+			notifyAll();
+		}
+		for (TNonblockingSocket socket : toClose) {
+			socket.close();
+		}
+	}
+}
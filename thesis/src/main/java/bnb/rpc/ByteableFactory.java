@@ -0,0 +1,9 @@
+package bnb.rpc;
+
+/**
+ * Makes empty instances of a Byteable class for initFromBytes to be called on, so that
+ * decoding doesn't have to go through reflection.
+ */
+public interface ByteableFactory {
+	public Byteable newInstance();
+}
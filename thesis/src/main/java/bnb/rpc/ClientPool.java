@@ -0,0 +1,106 @@
+package bnb.rpc;
+
+import java.util.LinkedList;
+
+import org.apache.thrift.TServiceClient;
+import org.apache.thrift.TServiceClientFactory;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * Connections to one peer, so that calls to it don't have to wait behind each other.
+ * Opens connections as they're needed, up to the config's max, after which callers wait
+ * for one to be returned.
+ */
+public class ClientPool<C extends TServiceClient> {
+	
+	private final String host;
+	private final int port;
+	private final TransportConfig config;
+	private final TServiceClientFactory<C> factory;
+	
+	private final LinkedList<C> idle;
+	//idle and borrowed
+	private int numOpen;
+	private boolean closed;
+	
+	public ClientPool(String host, int port, TransportConfig config, TServiceClientFactory<C> factory) {
+		this.host = host;
+		this.port = port;
+		this.config = config;
+		this.factory = factory;
+		idle = new LinkedList<C>();
+	}
+	
+	/**
+	 * Returns an open client that no one else is using.  It should be given back with
+	 * returnClient.
+	 */
+	public C borrow() throws TTransportException {
+		synchronized (this) {
+			while (true) {
+				if (closed) {
+					throw new TTransportException(TTransportException.NOT_OPEN, "connection pool closed");
+				}
+				if (!idle.isEmpty()) {
+					return idle.removeLast();
+				}
+				if (numOpen < config.getMaxConnections()) {
+					numOpen++;
+					break;
+				}
+				try {
+					wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new TTransportException("interrupted waiting for a connection to " + host + ":" + port);
+				}
+			}
+		}
+		
+		//connect without holding up everyone else
+		try {
+			return factory.getClient(config.getProtocolFactory().getProtocol(config.openTransport(host, port)));
+		} catch (TTransportException ex) {
+			synchronized (this) {
+				numOpen--;
+				notify();
+			}
+			throw ex;
+		}
+	}
+	
+	/**
+	 * @param healthy
+	 * 		false if the call failed, in which case we close the connection instead of
+	 * 		reusing it
+	 */
+	public void returnClient(C client, boolean healthy) {
+		synchronized (this) {
+			if (healthy && !closed) {
+				idle.addLast(client);
+				notify();
+				return;
+			}
+			numOpen--;
+			notify();
+		}
+		client.getInputProtocol().getTransport().close();
+	}
+	
+	/**
+	 * Closes idle connections now and borrowed ones when they're returned.
+	 */
+	public void close() {
+		LinkedList<C> toClose;
+		synchronized (this) {
+			closed = true;
+			toClose = new LinkedList<C>(idle);
+			numOpen -= idle.size();
+			idle.clear();
+			notifyAll();
+		}
+		for (C client : toClose) {
+			client.getInputProtocol().getTransport().close();
+		}
+	}
+}
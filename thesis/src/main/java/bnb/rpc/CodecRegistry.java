@@ -0,0 +1,197 @@
+package bnb.rpc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Maps the node and problem classes sent over the wire to small integer type ids, so
+ * that ThriftData doesn't have to carry class names, and to factories, so that decoding
+ * doesn't have to look classes up by name.
+ *
+ * Each side registers factories for the classes it knows about.  The lord's registry
+ * hands out the type ids, and sends them to vassals in startJobTasks, which adopt them.
+ * Classes without a type id are sent by name as before.
+ */
+public class CodecRegistry {
+	private static final Logger LOG = Logger.getLogger(CodecRegistry.class);
+	
+	private static final CodecRegistry DEFAULT = new CodecRegistry();
+	
+	private final Map<String, ByteableFactory> factories;
+	//replaced as a whole, so that decoding never sees a change half made
+	private volatile TypeIdTable table;
+	private int nextTypeId = 1;
+	
+	public CodecRegistry() {
+		factories = new ConcurrentHashMap<String, ByteableFactory>();
+		table = new TypeIdTable();
+	}
+	
+	/**
+	 * The registry used by RpcUtil.
+	 */
+	public static CodecRegistry getDefault() {
+		return DEFAULT;
+	}
+	
+	/**
+	 * Registers the factory for the given class and gives the class the next type id.
+	 */
+	public synchronized void register(Class<? extends Byteable> clazz, ByteableFactory factory) {
+		String className = clazz.getName();
+		factories.put(className, factory);
+		TypeIdTable newTable = new TypeIdTable(table);
+		Integer typeId = newTable.typeIds.get(className);
+		newTable.put(className, typeId != null ? typeId : nextTypeId++, factory);
+		table = newTable;
+	}
+	
+	/**
+	 * Takes on the given type ids, as received from the lord.  Classes that we don't have
+	 * factories for are instantiated reflectively.  Ids we gave out ourselves give way to
+	 * the lord's, but ids adopted before are never taken back, since nodes under them may
+	 * still be on their way to us.
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		if the given ids conflict with ones we've adopted before, in which case none
+	 * 		of them are taken on
+	 */
+	public synchronized void adoptTypeIds(Map<String, Integer> newTypeIds) {
+		TypeIdTable newTable = new TypeIdTable(table);
+		for (Map.Entry<String, Integer> entry : newTypeIds.entrySet()) {
+			String className = entry.getKey();
+			int typeId = entry.getValue();
+			Integer curTypeId = table.typeIds.get(className);
+			if (table.adopted.contains(className) && !curTypeId.equals(typeId)) {
+				throw new IllegalArgumentException("Type id " + typeId + " for " + className
+						+ " conflicts with adopted type id " + curTypeId);
+			}
+			String curClassName = table.classNames.get(typeId);
+			if (curClassName != null && !curClassName.equals(className) && table.adopted.contains(curClassName)) {
+				throw new IllegalArgumentException("Type id " + typeId + " for " + className
+						+ " is already adopted for " + curClassName);
+			}
+			
+			ByteableFactory factory = factories.get(className);
+			if (factory == null) {
+				try {
+					factory = new ReflectiveFactory(Class.forName(className));
+				} catch (ClassNotFoundException ex) {
+					LOG.warn("No class " + className + " for type id " + typeId);
+					continue;
+				}
+			}
+			newTable.put(className, typeId, factory);
+			newTable.adopted.add(className);
+			nextTypeId = Math.max(nextTypeId, typeId + 1);
+		}
+		table = newTable;
+	}
+	
+	/**
+	 * Returns 0 if the class doesn't have a type id.
+	 */
+	public int getTypeId(Class<?> clazz) {
+		Integer typeId = table.typeIds.get(clazz.getName());
+		return typeId == null ? 0 : typeId;
+	}
+	
+	public Map<String, Integer> getTypeIds() {
+		return Collections.unmodifiableMap(table.typeIds);
+	}
+	
+	/**
+	 * Returns null if nothing is registered under the type id.
+	 */
+	public Byteable newInstance(int typeId) {
+		ByteableFactory factory = table.factoriesById.get(typeId);
+		return factory == null ? null : factory.newInstance();
+	}
+	
+	/**
+	 * The factory registered for the named class, or one that makes instances reflectively
+	 * if there isn't one.  For data that names its classes because type ids don't outlast
+	 * a run, such as checkpoints.
+	 */
+	public ByteableFactory getFactory(String className) throws ClassNotFoundException {
+		ByteableFactory factory = factories.get(className);
+		return factory != null ? factory : new ReflectiveFactory(Class.forName(className));
+	}
+	
+	/**
+	 * Type ids both ways, and the factories under them.  Only changed before it's published.
+	 */
+	private static class TypeIdTable {
+		private final Map<String, Integer> typeIds;
+		private final Map<Integer, String> classNames;
+		private final Map<Integer, ByteableFactory> factoriesById;
+		//classes whose type ids came from a lord
+		private final Set<String> adopted;
+		
+		public TypeIdTable() {
+			typeIds = new HashMap<String, Integer>();
+			classNames = new HashMap<Integer, String>();
+			factoriesById = new HashMap<Integer, ByteableFactory>();
+			adopted = new HashSet<String>();
+		}
+		
+		public TypeIdTable(TypeIdTable other) {
+			typeIds = new HashMap<String, Integer>(other.typeIds);
+			classNames = new HashMap<Integer, String>(other.classNames);
+			factoriesById = new HashMap<Integer, ByteableFactory>(other.factoriesById);
+			adopted = new HashSet<String>(other.adopted);
+		}
+		
+		/**
+		 * Gives the class the type id, taking it from whatever class had it before.
+		 */
+		public void put(String className, int typeId, ByteableFactory factory) {
+			Integer oldTypeId = typeIds.get(className);
+			if (oldTypeId != null && oldTypeId != typeId) {
+				classNames.remove(oldTypeId);
+				factoriesById.remove(oldTypeId);
+			}
+			String oldClassName = classNames.get(typeId);
+			if (oldClassName != null && !oldClassName.equals(className)) {
+				//it'll be sent by name until it gets another
+				typeIds.remove(oldClassName);
+			}
+			typeIds.put(className, typeId);
+			classNames.put(typeId, className);
+			factoriesById.put(typeId, factory);
+		}
+	}
+	
+	/**
+	 * Looks the class up once instead of every time we decode.
+	 */
+	private static class ReflectiveFactory implements ByteableFactory {
+		private final Class<?> clazz;
+		
+		public ReflectiveFactory(Class<?> clazz) {
+			this.clazz = clazz;
+		}
+		
+		@Override
+		public Byteable newInstance() {
+			try {
+				return (Byteable)clazz.getDeclaredConstructor().newInstance();
+			} catch (InstantiationException ex) {
+				throw new IllegalStateException("Couldn't instantiate " + clazz.getName(), ex);
+			} catch (IllegalAccessException ex) {
+				throw new IllegalStateException("Couldn't instantiate " + clazz.getName(), ex);
+			} catch (NoSuchMethodException ex) {
+				throw new IllegalStateException("Couldn't instantiate " + clazz.getName(), ex);
+			} catch (InvocationTargetException ex) {
+				throw new IllegalStateException("Couldn't instantiate " + clazz.getName(), ex);
+			}
+		}
+	}
+}
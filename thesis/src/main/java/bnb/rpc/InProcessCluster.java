@@ -0,0 +1,193 @@
+package bnb.rpc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.lord.LocalVassalProxy;
+import bnb.lord.LordRunner;
+import bnb.vassal.LocalLordProxy;
+import bnb.vassal.VassalRunner;
+
+/**
+ * Connects a lord and its vassals inside one JVM with direct method calls, so that runs
+ * can be timed without the network.  Neither the lord nor the vassals start servers.
+ *
+ * Nodes that change hands are still copied, because a node can share structures with
+ * nodes that stay behind.  By default they're copied with BnbNode.copyForTransfer.  In
+ * serialization mode they go through toBytes and initFromBytes the same way they would
+ * over thrift, so that comparing the two modes, and then a run over loopback, splits the
+ * time spent between serialization, RPC, and computation.
+ */
+public class InProcessCluster {
+
+	private final LordRunner lord;
+	private final Map<Integer, VassalPublic> vassals;
+	private final Set<Integer> downVassals;
+	private final boolean serialize;
+
+	private final AtomicLong transferNanos = new AtomicLong();
+	private final AtomicLong numTransferred = new AtomicLong();
+
+	public InProcessCluster(LordRunner lord, boolean serialize) {
+		this.lord = lord;
+		this.serialize = serialize;
+		vassals = new ConcurrentHashMap<Integer, VassalPublic>();
+		downVassals = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+	}
+
+	/**
+	 * Makes a vassal that talks to our lord and registers it.  Settings like the node pool
+	 * type can be made on the returned runner before a job is run.
+	 */
+	public VassalRunner addVassal(int vassalId, int numSlots, OutputStream statsOs) {
+		VassalRunner vassal = new VassalRunner(new LocalLordProxy(this), numSlots, vassalId, -1, statsOs);
+		vassal.setInProcessCluster(this);
+		vassals.put(vassalId, vassal);
+		lord.registerVassal(new LocalVassalProxy(this, vassalId), vassalId);
+		return vassal;
+	}
+
+	/**
+	 * Registers a vassal that isn't a VassalRunner, such as a sub-lord, with our lord.  It
+	 * should talk to the lord through a LocalLordProxy on this cluster.
+	 */
+	public void addVassal(int vassalId, VassalPublic vassal) {
+		vassals.put(vassalId, vassal);
+		lord.registerVassal(new LocalVassalProxy(this, vassalId), vassalId);
+	}
+
+	public LordRunner getLord() {
+		return lord;
+	}
+
+	public VassalPublic getVassal(int vassalId) {
+		return vassals.get(vassalId);
+	}
+
+	/**
+	 * Makes the vassal act as if its machine went away: it stops working, and calls to
+	 * it or from it fail from here on.  Vassals that aren't VassalRunners just can't be
+	 * reached.
+	 */
+	public void killVassal(int vassalId) {
+		downVassals.add(vassalId);
+		VassalPublic vassal = vassals.get(vassalId);
+		if (vassal instanceof VassalRunner) {
+			((VassalRunner)vassal).abandonJobs();
+		}
+	}
+
+	/**
+	 * Throws an IOException if the vassal has been killed.
+	 */
+	public void checkUp(int vassalId) throws IOException {
+		if (downVassals.contains(vassalId)) {
+			throw new IOException("vassal " + vassalId + " is down");
+		}
+	}
+
+	public boolean isSerializing() {
+		return serialize;
+	}
+
+	/**
+	 * Copies the nodes for the side that's receiving them.
+	 *
+	 * @param problem
+	 * 		the receiving side's problem
+	 */
+	public List<BnbNode> transfer(List<BnbNode> nodes, Problem problem) throws IOException {
+		long startTime = System.nanoTime();
+		List<BnbNode> copies = new ArrayList<BnbNode>(nodes.size());
+		if (serialize) {
+			try {
+				for (ThriftData nodeData : RpcUtil.nodesToThriftData(nodes)) {
+					copies.add(RpcUtil.nodeFromThriftData(nodeData, problem));
+				}
+			} catch (ClassNotFoundException ex) {
+				throw new IOException("invalid class", ex);
+			} catch (InstantiationException ex) {
+				throw new IOException("invalid class", ex);
+			} catch (IllegalAccessException ex) {
+				throw new IOException("invalid class", ex);
+			} catch (InvocationTargetException ex) {
+				throw new IOException("invalid class", ex);
+			} catch (NoSuchMethodException ex) {
+				throw new IOException("invalid class", ex);
+			}
+		} else {
+			for (BnbNode node : nodes) {
+				copies.add(node.copyForTransfer(problem));
+			}
+		}
+		transferNanos.addAndGet(System.nanoTime() - startTime);
+		numTransferred.addAndGet(nodes.size());
+		return copies;
+	}
+
+	/**
+	 * Decodes nodes that the sending side has already encoded, such as a checkpoint's.
+	 *
+	 * @param problem
+	 * 		the receiving side's problem
+	 */
+	public List<BnbNode> receive(List<ThriftData> nodesData, Problem problem) throws IOException {
+		long startTime = System.nanoTime();
+		List<BnbNode> nodes = new ArrayList<BnbNode>(nodesData.size());
+		try {
+			for (ThriftData nodeData : nodesData) {
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, problem));
+			}
+		} catch (ClassNotFoundException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (InstantiationException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (IllegalAccessException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (InvocationTargetException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (NoSuchMethodException ex) {
+			throw new IOException("invalid class", ex);
+		}
+		transferNanos.addAndGet(System.nanoTime() - startTime);
+		numTransferred.addAndGet(nodes.size());
+		return nodes;
+	}
+
+	/**
+	 * Problems go through bytes in either mode, since they're only sent once per job, and
+	 * vassals count on what initFromBytes sets up.
+	 */
+	public Problem transferProblem(Problem problem) throws IOException {
+		try {
+			return RpcUtil.problemFromThriftData(RpcUtil.toThriftData(problem));
+		} catch (ClassNotFoundException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (InstantiationException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (IllegalAccessException ex) {
+			throw new IOException("invalid class", ex);
+		}
+	}
+
+	/**
+	 * Total time spent copying nodes between the lord and vassals.
+	 */
+	public long getTransferNanos() {
+		return transferNanos.get();
+	}
+
+	public long getNumTransferred() {
+		return numTransferred.get();
+	}
+}
@@ -4,11 +4,68 @@ import java.io.IOException;
 import java.util.List;
 
 import bnb.BnbNode;
+import bnb.Problem;
+import bnb.vassal.LoadSummary;
 
 public interface LordPublic {
 	public void sendBestSolCost(double cost, int jobid, int vassalId) throws IOException;
 	
-	public List<BnbNode> askForWork(int jobid, int vassalid, double bestCost) throws IOException;
+	/**
+	 * @param prefetch
+	 * 		true if the vassal still has work and is asking ahead of running out.  the lord
+	 * 		won't count it as idle, and returns an empty list if no work is easy to find
+	 * 		instead of taking that to mean the job is done
+	 * @param leaseId
+	 * 		the id the vassal picked for the lease on the work it gets back, higher than
+	 * 		any it's picked before
+	 * @param load
+	 * 		how much work the vassal has left, or null if it didn't say
+	 */
+	public List<BnbNode> askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId,
+			LoadSummary load) throws IOException;
 	
 	public void registerVassal(String hostname, int port, int id) throws IOException;
+	
+	/**
+	 * Takes the vassal out of every job it's in, taking back its open nodes, and stops
+	 * giving it new jobs.
+	 */
+	public void unregisterVassal(int id) throws IOException;
+	
+	/**
+	 * Sent by each vassal every so often while it's working on a job.  Returns false if
+	 * the lord has given up on the vassal and handed its work out, in which case it should
+	 * stop working on the job.
+	 * 
+	 * @param liveLeases
+	 * 		the leases the vassal still has nodes from
+	 * @param maxLeaseReceived
+	 * 		the highest lease id the vassal has received work under
+	 * @param failedLeases
+	 * 		the lease ids of every request for work that failed on the vassal's end
+	 * @param load
+	 * 		how much work the vassal has, or null if it didn't say
+	 */
+	public boolean heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived,
+			List<Long> failedLeases, LoadSummary load) throws IOException;
+	
+	/**
+	 * Called by a vassal that's about to give nodes straight to another vassal, so that
+	 * the lord knows who has them.  Returns false if the donor should keep them.
+	 * 
+	 * @param leaseId
+	 * 		the lease id the thief picked
+	 */
+	public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<BnbNode> nodes)
+		throws IOException;
+	
+	/**
+	 * The job's problem, for reading nodes sent for it.
+	 */
+	public Problem getProblem(int jobid) throws IOException;
+	
+	/**
+	 * The time in microseconds on the top lord's clock, for lining up traces.
+	 */
+	public long getTimeMicros() throws IOException;
 }
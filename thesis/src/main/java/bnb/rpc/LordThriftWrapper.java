@@ -1,6 +1,7 @@
 package bnb.rpc;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +9,8 @@ import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
 
 import bnb.BnbNode;
+import bnb.Problem;
+import bnb.vassal.LoadSummary;
 
 /**
  * Wrapper between interface that thrift expects to see and LordRunner functionality
@@ -34,15 +37,11 @@ public class LordThriftWrapper implements ThriftLord.Iface {
 	}
 
 	@Override
-	public List<ThriftData> askForWork(int jobid, int vassalid, double bestCost) 
-			throws TException {
+	public List<ThriftData> askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId,
+			ThriftLoad load) throws TException {
 		try {
-			List<BnbNode> nodes = lord.askForWork(jobid, vassalid, bestCost);
-			List<ThriftData> nodesData = new ArrayList<ThriftData>(nodes.size());
-			for (BnbNode node : nodes) {
-				nodesData.add(RpcUtil.toThriftData(node));
-			}
-			return nodesData;
+			List<BnbNode> nodes = lord.askForWork(jobid, vassalid, bestCost, prefetch, leaseId, fromThriftLoad(load));
+			return RpcUtil.nodesToThriftData(nodes);
 		} catch (IOException ex) {
 			LOG.error("IOException where we shouldn't really have one", ex);
 			throw new TException(ex);
@@ -59,4 +58,72 @@ public class LordThriftWrapper implements ThriftLord.Iface {
 			throw new TException(ex);
 		}
 	}
+
+	@Override
+	public void unregisterVassal(int vassalid) throws TException {
+		try {
+			lord.unregisterVassal(vassalid);
+		} catch (IOException ex) {
+			LOG.error("IOException where we shouldn't really have one", ex);
+			throw new TException(ex);
+		}
+	}
+
+	@Override
+	public boolean heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived,
+			List<Long> failedLeases, ThriftLoad load) throws TException {
+		try {
+			return lord.heartbeat(jobid, vassalid, liveLeases, maxLeaseReceived, failedLeases, fromThriftLoad(load));
+		} catch (IOException ex) {
+			LOG.error("IOException where we shouldn't really have one", ex);
+			throw new TException(ex);
+		}
+	}
+
+	@Override
+	public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodesData)
+			throws TException {
+		try {
+			List<BnbNode> nodes = new ArrayList<BnbNode>(nodesData.size());
+			Problem problem = lord.getProblem(jobid);
+			for (ThriftData nodeData : nodesData) {
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, problem));
+			}
+			return lord.leaseWork(jobid, donorid, thiefid, leaseId, nodes);
+		} catch (IOException ex) {
+			LOG.error("IOException where we shouldn't really have one", ex);
+			throw new TException(ex);
+		} catch (ClassNotFoundException ex) {
+			LOG.error("Node class not found");
+			throw new TException(ex);
+		} catch (InstantiationException e) {
+			throw new TException("trouble instantiating", e);
+		} catch (IllegalAccessException e) {
+			throw new TException("illegal access what?", e);
+		} catch (InvocationTargetException e) {
+			throw new TException("", e);
+		} catch (NoSuchMethodException e) {
+			throw new TException("", e);
+		}
+	}
+
+	@Override
+	public long getTimeMicros() throws TException {
+		try {
+			return lord.getTimeMicros();
+		} catch (IOException ex) {
+			LOG.error("IOException where we shouldn't really have one", ex);
+			throw new TException(ex);
+		}
+	}
+
+	/**
+	 * Vassals that don't send a load leave it null.
+	 */
+	private static LoadSummary fromThriftLoad(ThriftLoad load) {
+		if (load == null) {
+			return null;
+		}
+		return new LoadSummary(load.getFrontierSize(), load.getShallowestDepth(), load.getBestOpenBound());
+	}
 }
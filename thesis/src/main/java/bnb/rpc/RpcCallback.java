@@ -0,0 +1,13 @@
+package bnb.rpc;
+
+import java.io.IOException;
+
+/**
+ * Told how an async call that doesn't return anything turned out.  Called from the thread
+ * that handles async responses, so shouldn't block.
+ */
+public interface RpcCallback {
+	public void onComplete();
+	
+	public void onError(IOException ex);
+}
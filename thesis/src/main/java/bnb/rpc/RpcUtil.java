@@ -2,31 +2,140 @@ package bnb.rpc;
 
 import java.lang.reflect.InvocationTargetException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import bnb.BnbNode;
 import bnb.Problem;
+import bnb.stats.CodecStats;
 
 public class RpcUtil {
+	private static final CodecStats CODEC_STATS = new CodecStats();
+	
+	public static CodecStats getCodecStats() {
+		return CODEC_STATS;
+	}
+	
 	public static Problem problemFromThriftData(ThriftData problemData) throws ClassNotFoundException, 
 		InstantiationException, IllegalAccessException {
-		Object o = Class.forName(problemData.className).newInstance();
-		Problem problem = (Problem)o;
-		problem.initFromBytes(problemData.bytes.array());
+		Problem problem = (Problem)newInstance(problemData, CodecRegistry.getDefault());
+		problem.initFromBytes(toByteArray(problemData.bytes));
 		return problem;
 	}
 
 	public static BnbNode nodeFromThriftData(ThriftData nodeData, Problem problem)
 		throws ClassNotFoundException, InstantiationException, IllegalAccessException, IllegalArgumentException, 
 		InvocationTargetException, NoSuchMethodException, SecurityException {
-		//have to pass in Problem to newInstance
-		BnbNode node = (BnbNode)Class.forName(nodeData.className).newInstance();
-		node.initFromBytes(nodeData.bytes.array(), problem);
-		return node;
+		return nodeFromThriftData(nodeData, problem, CodecRegistry.getDefault());
 	}
 
+	/**
+	 * Looks type ids up in the given registry instead of the default one.
+	 */
+	public static BnbNode nodeFromThriftData(ThriftData nodeData, Problem problem, CodecRegistry registry)
+		throws ClassNotFoundException, InstantiationException, IllegalAccessException, IllegalArgumentException, 
+		InvocationTargetException, NoSuchMethodException, SecurityException {
+		long startTime = System.nanoTime();
+		BnbNode node = (BnbNode)newInstance(nodeData, registry);
+		//duplicate so that reading doesn't move the position of the struct's buffer
+		node.initFromBuffer(nodeData.bytes.duplicate(), problem);
+		CODEC_STATS.reportDecoded(System.nanoTime() - startTime);
+		return node;
+	}
+	
+	/**
+	 * Goes through the given CodecRegistry if the data has a type id, and falls back
+	 * to looking the class up by name.
+	 * 
+	 * @throws ClassNotFoundException
+	 * 		if the data only has a type id, and nothing is registered under it here
+	 */
+	private static Object newInstance(ThriftData data, CodecRegistry registry) throws ClassNotFoundException, 
+		InstantiationException, IllegalAccessException {
+		if (data.typeId > 0) {
+			Byteable instance = registry.newInstance(data.typeId);
+			if (instance != null) {
+				return instance;
+			}
+			if (data.className == null) {
+				//the sender's type ids don't match ours, such as when we haven't adopted
+				//the lord's yet
+				throw new ClassNotFoundException("Nothing registered for type id " + data.typeId
+						+ ", and no class name was sent with it");
+			}
+		}
+		CODEC_STATS.reportReflectiveDecode();
+		return Class.forName(data.className).newInstance();
+	}
 	
+	/**
+	 * Sends the type id instead of the class name if the class has one.
+	 */
 	public static ThriftData toThriftData(Byteable byteable) {
-		return new ThriftData(byteable.getClass().getName(), 
-				ByteBuffer.wrap(byteable.toBytes()));
+		return toThriftData(byteable, CodecRegistry.getDefault());
+	}
+	
+	/**
+	 * Takes the type id from the given registry instead of the default one.
+	 */
+	public static ThriftData toThriftData(Byteable byteable, CodecRegistry registry) {
+		long startTime = System.nanoTime();
+		byte[] bytes = byteable.toBytes();
+		ThriftData data = wrap(byteable.getClass(), bytes, registry);
+		CODEC_STATS.reportEncoded(bytes.length, System.nanoTime() - startTime);
+		return data;
+	}
+	
+	/**
+	 * For bytes that toBytes has already made, such as a spilled node's.
+	 */
+	public static ThriftData toThriftData(Class<? extends Byteable> clazz, byte[] bytes) {
+		return wrap(clazz, bytes, CodecRegistry.getDefault());
+	}
+	
+	private static ThriftData wrap(Class<?> clazz, byte[] bytes, CodecRegistry registry) {
+		ThriftData data = new ThriftData();
+		data.setBytes(bytes);
+		int typeId = registry.getTypeId(clazz);
+		if (typeId > 0) {
+			data.setTypeId(typeId);
+		} else {
+			data.setClassName(clazz.getName());
+		}
+		return data;
+	}
+	
+	/**
+	 * For sending a batch of stolen work.
+	 */
+	public static List<ThriftData> nodesToThriftData(List<BnbNode> nodes) {
+		List<ThriftData> nodesData = new ArrayList<ThriftData>(nodes.size());
+		int numBytes = 0;
+		for (BnbNode node : nodes) {
+			ThriftData nodeData = toThriftData(node);
+			numBytes += nodeData.bytes.remaining() + 4;
+			if (nodeData.className != null) {
+				numBytes += nodeData.className.length();
+			}
+			nodesData.add(nodeData);
+		}
+		if (!nodes.isEmpty()) {
+			CODEC_STATS.reportBatchSent(numBytes);
+		}
+		return nodesData;
+	}
+	
+	/**
+	 * Returns the buffer's remaining bytes, without copying if the buffer is exactly a
+	 * whole array.
+	 */
+	public static byte[] toByteArray(ByteBuffer buffer) {
+		if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 
+				&& buffer.remaining() == buffer.array().length) {
+			return buffer.array();
+		}
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package bnb.rpc;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.server.THsHaServer;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.apache.thrift.transport.TTransportFactory;
+
+/**
+ * How lords and vassals talk to each other.  Everyone in a run needs the same framing and
+ * protocol, since servers and clients are both built from this.
+ *
+ * Async calls always write frames, so they need framed servers.  So do nonblocking servers,
+ * which read requests with a selector thread and hand them to a pool of workers, so that
+ * idle connections don't each tie up a thread.
+ */
+public class TransportConfig {
+	
+	public static final int DEFAULT_MAX_CONNECTIONS = 4;
+	
+	/** Unframed binary protocol, which is what we always used to use. */
+	public static final TransportConfig DEFAULT = new TransportConfig(false, false, false, DEFAULT_MAX_CONNECTIONS);
+	
+	private final boolean framed;
+	private final boolean compact;
+	private final boolean async;
+	private final int maxConnections;
+	private final boolean nonblockingServer;
+	private final int serverThreads;
+	
+	/**
+	 * @param maxConnections
+	 * 		most connections a proxy keeps open to one peer, so at most this many calls to
+	 * 		the peer proceed at once
+	 */
+	public TransportConfig(boolean framed, boolean compact, boolean async, int maxConnections) {
+		this(framed, compact, async, maxConnections, false, 0);
+	}
+	
+	/**
+	 * @param serverThreads
+	 * 		number of workers for a nonblocking server, or 0 to start them as requests come
+	 * 		in.  A lord's askForWork holds a worker until it finds work, so a lord with fewer
+	 * 		workers than vassals waiting for work at once can stall
+	 */
+	public TransportConfig(boolean framed, boolean compact, boolean async, int maxConnections, 
+			boolean nonblockingServer, int serverThreads) {
+		if (async && !framed) {
+			throw new IllegalArgumentException("async calls need a framed transport");
+		}
+		if (nonblockingServer && !framed) {
+			throw new IllegalArgumentException("nonblocking servers need a framed transport");
+		}
+		if (maxConnections < 1) {
+			throw new IllegalArgumentException("max connections must be positive, was " + maxConnections);
+		}
+		if (serverThreads < 0) {
+			throw new IllegalArgumentException("server threads can't be negative, was " + serverThreads);
+		}
+		this.framed = framed;
+		this.compact = compact;
+		this.async = async;
+		this.maxConnections = maxConnections;
+		this.nonblockingServer = nonblockingServer;
+		this.serverThreads = serverThreads;
+	}
+	
+	/**
+	 * Parses a comma separated list of "framed", "compact", "async", "nonblocking", 
+	 * "workers=" the number of nonblocking server threads, and the max number of 
+	 * connections per peer, e.g. "compact,async,nonblocking,workers=32,8".  Anything left
+	 * out gets the default.  "async" and "nonblocking" imply "framed".
+	 */
+	public static TransportConfig parse(String spec) {
+		boolean framed = false;
+		boolean compact = false;
+		boolean async = false;
+		int maxConnections = DEFAULT_MAX_CONNECTIONS;
+		boolean nonblockingServer = false;
+		int serverThreads = 0;
+		for (String option : spec.split(",")) {
+			option = option.trim().toLowerCase();
+			if (option.equals("framed")) {
+				framed = true;
+			} else if (option.equals("compact")) {
+				compact = true;
+			} else if (option.equals("async")) {
+				async = true;
+				framed = true;
+			} else if (option.equals("nonblocking")) {
+				nonblockingServer = true;
+				framed = true;
+			} else if (option.startsWith("workers=")) {
+				serverThreads = Integer.parseInt(option.substring("workers=".length()));
+			} else if (option.matches("\\d+")) {
+				maxConnections = Integer.parseInt(option);
+			} else if (!option.equals("binary") && !option.isEmpty()) {
+				throw new IllegalArgumentException("Unknown transport option " + option);
+			}
+		}
+		return new TransportConfig(framed, compact, async, maxConnections, nonblockingServer, serverThreads);
+	}
+	
+	public boolean isFramed() {
+		return framed;
+	}
+	
+	public boolean isCompact() {
+		return compact;
+	}
+	
+	public boolean isAsync() {
+		return async;
+	}
+	
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+	
+	public boolean isNonblockingServer() {
+		return nonblockingServer;
+	}
+	
+	public int getServerThreads() {
+		return serverThreads;
+	}
+	
+	public TProtocolFactory getProtocolFactory() {
+		return compact ? new TCompactProtocol.Factory() : new TBinaryProtocol.Factory();
+	}
+	
+	/**
+	 * For blocking servers.  Nonblocking servers do their own framing.
+	 */
+	public TTransportFactory getTransportFactory() {
+		return framed ? new TFramedTransport.Factory() : new TTransportFactory();
+	}
+	
+	public TTransport openTransport(String host, int port) throws TTransportException {
+		TTransport transport = new TSocket(host, port);
+		if (framed) {
+			transport = new TFramedTransport(transport);
+		}
+		transport.open();
+		return transport;
+	}
+	
+	/**
+	 * Makes a server that serves the processor on the port.  Call serve to start it.
+	 * 
+	 * @param name
+	 * 		prefix for the names of the server's worker threads
+	 */
+	public TServer newServer(int port, TProcessor processor, final String name) throws TTransportException {
+		if (!nonblockingServer) {
+			TThreadPoolServer.Args args = new TThreadPoolServer.Args(new TServerSocket(port));
+			args.processor(processor);
+			args.transportFactory(getTransportFactory());
+			args.protocolFactory(getProtocolFactory());
+			return new TThreadPoolServer(args);
+		}
+		
+		THsHaServer.Args args = new THsHaServer.Args(new TNonblockingServerSocket(port));
+		args.processor(processor);
+		args.protocolFactory(getProtocolFactory());
+		ThreadFactory threadFactory = new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable r) {
+				return new Thread(r, name + " worker " + count.getAndIncrement());
+			}
+		};
+		if (serverThreads > 0) {
+			args.executorService(Executors.newFixedThreadPool(serverThreads, threadFactory));
+		} else {
+			args.executorService(Executors.newCachedThreadPool(threadFactory));
+		}
+		return new THsHaServer(args);
+	}
+	
+	@Override
+	public String toString() {
+		return "TransportConfig[framed=" + framed + ",compact=" + compact + ",async=" + async 
+			+ ",maxConnections=" + maxConnections + ",nonblockingServer=" + nonblockingServer 
+			+ ",serverThreads=" + serverThreads + "]";
+	}
+}
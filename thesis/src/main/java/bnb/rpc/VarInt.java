@@ -0,0 +1,57 @@
+package bnb.rpc;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable length ints, 7 bits per byte with the high bit set on every byte but the last,
+ * so small values take a single byte.  Negative values should be zigzag encoded first, or
+ * they'll take five bytes.
+ */
+public class VarInt {
+	
+	public static final int MAX_BYTES = 5;
+	
+	public static void write(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte)value);
+	}
+	
+	public static int read(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("varint longer than " + MAX_BYTES + " bytes");
+	}
+	
+	/**
+	 * Maps ints of small magnitude to small unsigned ints: 0, -1, 1, -2, ... go to
+	 * 0, 1, 2, 3, ...
+	 */
+	public static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+	
+	public static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	/**
+	 * Number of bytes write would take.
+	 */
+	public static int size(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+}
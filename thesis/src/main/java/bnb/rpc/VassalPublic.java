@@ -5,15 +5,60 @@ import java.util.List;
 
 import bnb.BnbNode;
 import bnb.Problem;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
 
 public interface VassalPublic {
 	public void updateBestSolCost(double bestCost, int jobid) throws IOException;
 	
-	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int nThreads) throws IOException;
+	/**
+	 * @param nodePoolType
+	 * 		the kind of node pool to use for the job, or null for the vassal's default
+	 * @param jumpRatio
+	 * 		for best-first pools, how much worse than the best open bound a dive's bound
+	 * 		has to get before jumping.  non-positive values mean the vassal's default
+	 * @param peers
+	 * 		the vassals working on the job, which the vassal can steal from directly.  may
+	 * 		include the vassal itself.  empty if all stealing should go through the lord
+	 * @param weight
+	 * 		the job's share of the vassal's slots relative to the other jobs running on it
+	 */
+	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int nThreads,
+			NodePoolType nodePoolType, double jumpRatio, List<PeerAddress> peers, double weight) throws IOException;
 	
 	public int getNumSlots() throws IOException;
 	
     public List<BnbNode> stealWork(int jobid) throws IOException;
     
+    /**
+     * Called by another vassal stealing work directly.  Returns an empty list if we
+     * have nothing to give or aren't working on the job anymore.
+     * 
+     * @param bestCost
+     * 		the thief's best cost
+     * @param leaseId
+     * 		the id the thief picked for the lease on what it gets, which we register with
+     * 		the lord before giving it anything
+     */
+    public List<BnbNode> stealWorkFromPeer(int jobid, int thiefId, double bestCost, long leaseId)
+    	throws IOException;
+    
     public int getId() throws IOException;
+    
+    /**
+     * Starts keeping copies of the nodes we give away, until checkpoint is called.
+     */
+    public void beginCheckpoint(int jobid) throws IOException;
+    
+    /**
+     * Returns our open nodes for the job and the nodes we've given away since
+     * beginCheckpoint, encoded, since they're only going to be sent or written out.
+     */
+    public List<ThriftData> checkpoint(int jobid) throws IOException;
+    
+    /**
+     * Stops work on the job and returns our open nodes for the lord to hand to the other
+     * vassals, so that we can leave the job without losing any of it.
+     */
+    public List<BnbNode> drainJob(int jobid) throws IOException;
 }
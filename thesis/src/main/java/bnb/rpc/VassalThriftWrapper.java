@@ -3,13 +3,17 @@ package bnb.rpc;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
 
 import bnb.BnbNode;
 import bnb.Problem;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
 
 public class VassalThriftWrapper implements ThriftVassal.Iface {
 	private static final Logger LOG = Logger.getLogger(VassalThriftWrapper.class);
@@ -32,15 +36,32 @@ public class VassalThriftWrapper implements ThriftVassal.Iface {
 
 	@Override
 	public void startJobTasks(List<ThriftData> nodesData, ThriftData problemData,
-			double bestCost, int jobid, int nthreads)
-			throws TException {
+			double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio,
+			List<ThriftPeer> thriftPeers, List<ThriftTypeId> typeIds, double weight) throws TException {
 		try {
+			if (typeIds != null && !typeIds.isEmpty()) {
+				Map<String, Integer> typeIdMap = new HashMap<String, Integer>();
+				for (ThriftTypeId typeId : typeIds) {
+					typeIdMap.put(typeId.getClassName(), typeId.getTypeId());
+				}
+				CodecRegistry.getDefault().adoptTypeIds(typeIdMap);
+			}
 			Problem problem = (Problem)RpcUtil.problemFromThriftData(problemData);
 			List<BnbNode> nodes = new ArrayList<BnbNode>(nodesData.size());
 			for (ThriftData nodeData : nodesData) {
 				nodes.add((BnbNode)RpcUtil.nodeFromThriftData(nodeData, problem));
 			}
-			vassal.startJobTasks(nodes, problem, bestCost, jobid, nthreads);
+			NodePoolType poolType = null;
+			if (nodePoolType != null && nodePoolType.length() > 0) {
+				poolType = NodePoolType.valueOf(nodePoolType);
+			}
+			List<PeerAddress> peers = new ArrayList<PeerAddress>();
+			if (thriftPeers != null) {
+				for (ThriftPeer peer : thriftPeers) {
+					peers.add(new PeerAddress(peer.getHostname(), peer.getPort(), peer.getVassalid()));
+				}
+			}
+			vassal.startJobTasks(nodes, problem, bestCost, jobid, nthreads, poolType, jumpRatio, peers, weight);
 		} catch (IOException ex) {
 			LOG.error("IOException where we shouldn't really have one", ex);
 			throw new TException(ex);
@@ -66,11 +87,19 @@ public class VassalThriftWrapper implements ThriftVassal.Iface {
 	public List<ThriftData> stealWork(int jobid) throws TException {
 		try {
 			List<BnbNode> nodes = vassal.stealWork(jobid);
-			List<ThriftData> nodesData = new ArrayList<ThriftData>(nodes.size());
-			for (BnbNode node : nodes) {
-				nodesData.add(RpcUtil.toThriftData(node));
-			}
-			return nodesData;
+			return RpcUtil.nodesToThriftData(nodes);
+		} catch (IOException ex) {
+			LOG.error("IOException where we shouldn't really have one", ex);
+			throw new TException(ex);
+		}
+	}
+
+	@Override
+	public List<ThriftData> stealWorkFromPeer(int jobid, int thiefid, double bestCost, long leaseId)
+			throws TException {
+		try {
+			List<BnbNode> nodes = vassal.stealWorkFromPeer(jobid, thiefid, bestCost, leaseId);
+			return RpcUtil.nodesToThriftData(nodes);
 		} catch (IOException ex) {
 			LOG.error("IOException where we shouldn't really have one", ex);
 			throw new TException(ex);
@@ -87,6 +116,36 @@ public class VassalThriftWrapper implements ThriftVassal.Iface {
 		}
 	}
 	
+	@Override
+	public void beginCheckpoint(int jobid) throws TException {
+		try {
+			vassal.beginCheckpoint(jobid);
+		} catch (IOException ex) {
+			LOG.error("Couldn't begin checkpoint", ex);
+			throw new TException(ex);
+		}
+	}
+
+	@Override
+	public List<ThriftData> checkpoint(int jobid) throws TException {
+		try {
+			return vassal.checkpoint(jobid);
+		} catch (IOException ex) {
+			LOG.error("Couldn't checkpoint", ex);
+			throw new TException(ex);
+		}
+	}
+	
+	@Override
+	public List<ThriftData> drainJob(int jobid) throws TException {
+		try {
+			return RpcUtil.nodesToThriftData(vassal.drainJob(jobid));
+		} catch (IOException ex) {
+			LOG.error("Couldn't drain", ex);
+			throw new TException(ex);
+		}
+	}
+	
 	@Override
 	public int getVassalId() throws TException {
 		try {
@@ -0,0 +1,274 @@
+package bnb.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import bnb.Problem;
+
+/**
+ * A search tree as a real run explored it, for the Simulator to replay.  Each node has
+ * the time it took to evaluate, the bound it got, and its children in the order they
+ * were handed out.  Nodes are numbered in the order they were handed out, so the root is
+ * 0 and a node's children come after it.  Kept in flat arrays, since trees can have
+ * millions of nodes.
+ *
+ * It's the Problem of the SimNodes over it, so they can be sent around like any other
+ * nodes.
+ */
+public class RecordedTree implements Problem {
+	private static final Logger LOG = Logger.getLogger(RecordedTree.class);
+
+	/** The node turned out to be a solution. */
+	public static final int SOLUTION = 1;
+	/** BnbNode.isLeaf was true. */
+	public static final int LEAF = 2;
+	/** BnbNode.dontSteal was true. */
+	public static final int DONT_STEAL = 4;
+	/** It was closed because its bound was no better than the incumbent at the time. */
+	public static final int BOUNDED = 8;
+
+	private static final int MAGIC = 0x626e6274;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private double upperBound;
+	private int numNodes;
+	private int[] parents;
+	private long[] evalNanos;
+	private double[] bounds;
+	private double[] costs;
+	private double[] estimates;
+	private int[] depths;
+	private byte[] flags;
+
+	//built by finish
+	private int[] childStarts;
+	private int[] children;
+
+	/**
+	 * Should only be called right before initFromBytes or read.
+	 */
+	public RecordedTree() {
+		this(Double.MAX_VALUE);
+	}
+
+	/**
+	 * @param upperBound
+	 * 		the incumbent the recorded run started with
+	 */
+	public RecordedTree(double upperBound) {
+		this.upperBound = upperBound;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		parents = new int[capacity];
+		evalNanos = new long[capacity];
+		bounds = new double[capacity];
+		costs = new double[capacity];
+		estimates = new double[capacity];
+		depths = new int[capacity];
+		flags = new byte[capacity];
+	}
+
+	/**
+	 * Adds a node, returning its id.  Its parent has to have been added already.
+	 *
+	 * @param parent
+	 * 		-1 for the root
+	 * @param estimate
+	 * 		what BnbNode.estimateSubtreeSize said right after it was evaluated
+	 */
+	public int addNode(int parent, long nanos, double bound, double cost, double estimate, int depth, int nodeFlags) {
+		if (parent >= numNodes || (parent < 0 && numNodes > 0)) {
+			throw new IllegalArgumentException("Bad parent " + parent + " for node " + numNodes);
+		}
+		if (numNodes == parents.length) {
+			int capacity = parents.length * 2;
+			parents = Arrays.copyOf(parents, capacity);
+			evalNanos = Arrays.copyOf(evalNanos, capacity);
+			bounds = Arrays.copyOf(bounds, capacity);
+			costs = Arrays.copyOf(costs, capacity);
+			estimates = Arrays.copyOf(estimates, capacity);
+			depths = Arrays.copyOf(depths, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+		}
+		int id = numNodes++;
+		parents[id] = parent;
+		evalNanos[id] = nanos;
+		bounds[id] = bound;
+		costs[id] = cost;
+		estimates[id] = estimate;
+		depths[id] = depth;
+		flags[id] = (byte)nodeFlags;
+		childStarts = null;
+		return id;
+	}
+
+	/**
+	 * Indexes the children of each node.  Called on its own by the methods that need it.
+	 */
+	public void finish() {
+		if (childStarts != null) {
+			return;
+		}
+		childStarts = new int[numNodes + 1];
+		for (int i = 1; i < numNodes; i++) {
+			childStarts[parents[i] + 1]++;
+		}
+		for (int i = 0; i < numNodes; i++) {
+			childStarts[i + 1] += childStarts[i];
+		}
+		children = new int[Math.max(0, numNodes - 1)];
+		int[] next = Arrays.copyOf(childStarts, numNodes);
+		//ids go up in the order children were handed out, so they stay in that order
+		for (int i = 1; i < numNodes; i++) {
+			children[next[parents[i]]++] = i;
+		}
+	}
+
+	public double getUpperBound() {
+		return upperBound;
+	}
+
+	public int size() {
+		return numNodes;
+	}
+
+	public int getParent(int id) {
+		return parents[id];
+	}
+
+	public long getEvalNanos(int id) {
+		return evalNanos[id];
+	}
+
+	public double getBound(int id) {
+		return bounds[id];
+	}
+
+	public double getCost(int id) {
+		return costs[id];
+	}
+
+	public double getEstimate(int id) {
+		return estimates[id];
+	}
+
+	public int getDepth(int id) {
+		return depths[id];
+	}
+
+	public boolean hasFlag(int id, int flag) {
+		return (flags[id] & flag) != 0;
+	}
+
+	public int getNumChildren(int id) {
+		finish();
+		return childStarts[id + 1] - childStarts[id];
+	}
+
+	/**
+	 * The id of the node's nth child.
+	 */
+	public int getChild(int id, int n) {
+		finish();
+		return children[childStarts[id] + n];
+	}
+
+	/**
+	 * What it took the recorded run to evaluate every node, one after another.
+	 */
+	public long getTotalEvalNanos() {
+		long total = 0;
+		for (int i = 0; i < numNodes; i++) {
+			total += evalNanos[i];
+		}
+		return total;
+	}
+
+	public void write(File file) throws IOException {
+		DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			write(dos);
+		} finally {
+			dos.close();
+		}
+	}
+
+	public static RecordedTree read(File file) throws IOException {
+		DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			RecordedTree tree = new RecordedTree();
+			tree.read(dis);
+			return tree;
+		} finally {
+			dis.close();
+		}
+	}
+
+	public void write(DataOutputStream dos) throws IOException {
+		dos.writeInt(MAGIC);
+		dos.writeDouble(upperBound);
+		dos.writeInt(numNodes);
+		for (int i = 0; i < numNodes; i++) {
+			dos.writeInt(parents[i]);
+			dos.writeLong(evalNanos[i]);
+			dos.writeDouble(bounds[i]);
+			dos.writeDouble(costs[i]);
+			dos.writeDouble(estimates[i]);
+			dos.writeInt(depths[i]);
+			dos.writeByte(flags[i]);
+		}
+	}
+
+	public void read(DataInputStream dis) throws IOException {
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a recorded tree");
+		}
+		upperBound = dis.readDouble();
+		int size = dis.readInt();
+		allocate(Math.max(1, size));
+		numNodes = 0;
+		for (int i = 0; i < size; i++) {
+			int parent = dis.readInt();
+			long nanos = dis.readLong();
+			double bound = dis.readDouble();
+			double cost = dis.readDouble();
+			double estimate = dis.readDouble();
+			int depth = dis.readInt();
+			addNode(parent, nanos, bound, cost, estimate, depth, dis.readByte());
+		}
+	}
+
+	@Override
+	public byte[] toBytes() {
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			write(new DataOutputStream(baos));
+			return baos.toByteArray();
+		} catch (IOException ex) {
+			LOG.error("IOException writing to byte array, this should never happen", ex);
+			return null;
+		}
+	}
+
+	@Override
+	public void initFromBytes(byte[] bytes) {
+		try {
+			read(new DataInputStream(new ByteArrayInputStream(bytes)));
+		} catch (IOException ex) {
+			LOG.error("IOException reading from byte array, this should never happen", ex);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package bnb.sim;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.Solution;
+
+/**
+ * A node of a RecordedTree, which the node pools can work with like any other node.
+ * Evaluating it looks up what the recorded run found instead of doing the work, and
+ * prunes it against the bound it's given, so a replay that finds a better incumbent
+ * sooner prunes more.  A node the recorded run pruned has no children to replay, so it
+ * stays closed even if the replay's incumbent is worse, and is counted as unrecorded.
+ *
+ * The Simulator evaluates a node when a task thread starts on it and finishes it when
+ * the evaluation time has gone by.  In between, it's evaluated but has no children to
+ * hand out.
+ */
+public class SimNode extends BnbNode {
+	private static final Logger LOG = Logger.getLogger(SimNode.class);
+
+	private RecordedTree tree;
+	private int id;
+	private boolean evaluated;
+	private boolean inProgress;
+	private boolean bounded;
+	private boolean unrecorded;
+	private int nextChild;
+
+	/**
+	 * Should only be called right before initFromBytes.
+	 */
+	public SimNode() {
+		super(null);
+	}
+
+	public SimNode(RecordedTree tree, int id, SimNode parent) {
+		super(parent);
+		this.tree = tree;
+		this.id = id;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public long getEvalNanos() {
+		return tree.getEvalNanos(id);
+	}
+
+	@Override
+	public void evaluate(double bound) {
+		if (evaluated) {
+			LOG.warn("node about to be reevaluated");
+		}
+		evaluated = true;
+		inProgress = true;
+		boolean solution = tree.hasFlag(id, RecordedTree.SOLUTION);
+		if (tree.getBound(id) >= bound) {
+			bounded = true;
+		} else if (!solution && tree.getNumChildren(id) == 0 && !tree.hasFlag(id, RecordedTree.LEAF)) {
+			//closed in the recorded run, whether by its bound or not
+			bounded = true;
+			unrecorded = tree.hasFlag(id, RecordedTree.BOUNDED);
+		}
+	}
+
+	/**
+	 * Makes the node's children available.
+	 */
+	public void finishEvaluation() {
+		inProgress = false;
+	}
+
+	/**
+	 * Whether the replay would have explored under the node but the recorded run didn't.
+	 */
+	public boolean isUnrecorded() {
+		return unrecorded;
+	}
+
+	/**
+	 * Whether the node was pruned when it was evaluated.
+	 */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	@Override
+	public boolean isEvaluated() {
+		return evaluated;
+	}
+
+	@Override
+	public BnbNode nextChild(boolean alwaysCopy) {
+		activeChildCount.getAndIncrement();
+		return new SimNode(tree, tree.getChild(id, nextChild++), this);
+	}
+
+	@Override
+	public boolean hasNextChild() {
+		return evaluated && !inProgress && !bounded && !isSolution() && nextChild < tree.getNumChildren(id);
+	}
+
+	@Override
+	public boolean isLeaf() {
+		return tree.hasFlag(id, RecordedTree.LEAF);
+	}
+
+	@Override
+	public boolean isSolution() {
+		if (!evaluated) {
+			throw new IllegalStateException("Sim node not yet evaluated.");
+		}
+		return !bounded && tree.hasFlag(id, RecordedTree.SOLUTION);
+	}
+
+	@Override
+	public double getCost() {
+		return tree.getCost(id);
+	}
+
+	@Override
+	public double getLowerBound() {
+		return tree.getBound(id);
+	}
+
+	/**
+	 * What the recorded node estimated, less the children that have been handed out.
+	 */
+	@Override
+	public double estimateSubtreeSize(double bestCost) {
+		double estimate = tree.getEstimate(id);
+		if (!evaluated || estimate < 0) {
+			return estimate;
+		}
+		if (bounded || isSolution()) {
+			return 1;
+		}
+		int numChildren = tree.getNumChildren(id);
+		if (numChildren == 0) {
+			return 1;
+		}
+		return 1 + (estimate - 1) * (numChildren - nextChild) / numChildren;
+	}
+
+	@Override
+	public void whenAllChildrenDone() {
+	}
+
+	/**
+	 * Replays don't keep solutions, only their costs.
+	 */
+	@Override
+	public Solution getSolution() {
+		return null;
+	}
+
+	@Override
+	public boolean dontSteal() {
+		return tree.hasFlag(id, RecordedTree.DONT_STEAL);
+	}
+
+	@Override
+	public int getDepth() {
+		return tree.getDepth(id);
+	}
+
+	/**
+	 * Copies the node's place in the tree, without going through bytes.
+	 */
+	@Override
+	public BnbNode copyForTransfer(Problem problem) {
+		SimNode copy = new SimNode(tree, id, null);
+		copy.copyStateFrom(this);
+		return copy;
+	}
+
+	private void copyStateFrom(SimNode node) {
+		evaluated = node.evaluated;
+		inProgress = node.inProgress;
+		bounded = node.bounded;
+		unrecorded = node.unrecorded;
+		nextChild = node.nextChild;
+	}
+
+	@Override
+	public byte[] toBytes() {
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(baos);
+			dos.writeInt(id);
+			dos.writeInt(nextChild);
+			dos.writeBoolean(evaluated);
+			dos.writeBoolean(inProgress);
+			dos.writeBoolean(bounded);
+			dos.writeBoolean(unrecorded);
+			return baos.toByteArray();
+		} catch (IOException ex) {
+			LOG.error("IOException writing to byte array, this should never happen", ex);
+			return null;
+		}
+	}
+
+	@Override
+	public void initFromBytes(byte[] bytes, Problem problem) {
+		try {
+			DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+			tree = (RecordedTree)problem;
+			id = dis.readInt();
+			nextChild = dis.readInt();
+			evaluated = dis.readBoolean();
+			inProgress = dis.readBoolean();
+			bounded = dis.readBoolean();
+			unrecorded = dis.readBoolean();
+		} catch (IOException ex) {
+			LOG.error("IOException reading from byte array, this should never happen", ex);
+		}
+	}
+}
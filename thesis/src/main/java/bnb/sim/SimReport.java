@@ -0,0 +1,127 @@
+package bnb.sim;
+
+/**
+ * What happened in a simulated run.  Times are simulated nanoseconds.
+ */
+public class SimReport {
+	long makespanNanos;
+	int numThreads;
+	long busyNanos;
+	long nodesEvaluated;
+	long nodesPruned;
+	long unrecordedNodes;
+	long asks;
+	long prefetches;
+	long emptyPrefetches;
+	long stealAttempts;
+	long steals;
+	long nodesStolen;
+	long incumbentsFound;
+	double bestCost = Double.MAX_VALUE;
+	long timeToBestNanos;
+	long events;
+
+	/**
+	 * From the start until the last task thread stops.
+	 */
+	public long getMakespanNanos() {
+		return makespanNanos;
+	}
+
+	/**
+	 * The fraction of the task threads' time, up to the makespan, that they weren't
+	 * evaluating nodes.
+	 */
+	public double getIdleFraction() {
+		if (makespanNanos == 0 || numThreads == 0) {
+			return 0;
+		}
+		return 1 - (double)busyNanos / ((double)makespanNanos * numThreads);
+	}
+
+	public long getBusyNanos() {
+		return busyNanos;
+	}
+
+	public long getNodesEvaluated() {
+		return nodesEvaluated;
+	}
+
+	public long getNodesPruned() {
+		return nodesPruned;
+	}
+
+	/**
+	 * Nodes the replay would have explored under if the recorded run had, which it
+	 * treated as closed.  If this is big, the replay explored less than a real run would
+	 * have, and its makespan is too short.
+	 */
+	public long getUnrecordedNodes() {
+		return unrecordedNodes;
+	}
+
+	/**
+	 * Requests for work from vassals that were out, not counting prefetches.
+	 */
+	public long getAsks() {
+		return asks;
+	}
+
+	public long getPrefetches() {
+		return prefetches;
+	}
+
+	public long getEmptyPrefetches() {
+		return emptyPrefetches;
+	}
+
+	/**
+	 * Times the lord tried to steal from a vassal.
+	 */
+	public long getStealAttempts() {
+		return stealAttempts;
+	}
+
+	/**
+	 * Steals that got nodes.
+	 */
+	public long getSteals() {
+		return steals;
+	}
+
+	public long getNodesStolen() {
+		return nodesStolen;
+	}
+
+	public double getBestCost() {
+		return bestCost;
+	}
+
+	public long getTimeToBestNanos() {
+		return timeToBestNanos;
+	}
+
+	/**
+	 * In a JSON format.
+	 */
+	public String makeReport() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"makespanMillis\": " + makespanNanos / 1000000.0);
+		sb.append(", \"idleFraction\": " + getIdleFraction());
+		sb.append(", \"nodesEvaluated\": " + nodesEvaluated);
+		sb.append(", \"nodesPruned\": " + nodesPruned);
+		sb.append(", \"unrecordedNodes\": " + unrecordedNodes);
+		sb.append(", \"asks\": " + asks);
+		sb.append(", \"prefetches\": " + prefetches);
+		sb.append(", \"emptyPrefetches\": " + emptyPrefetches);
+		sb.append(", \"stealAttempts\": " + stealAttempts);
+		sb.append(", \"steals\": " + steals);
+		sb.append(", \"nodesStolen\": " + nodesStolen);
+		sb.append(", \"incumbentsFound\": " + incumbentsFound);
+		sb.append(", \"bestCost\": " + (bestCost == Double.MAX_VALUE ? "null" : String.valueOf(bestCost)));
+		sb.append(", \"timeToBestMillis\": " + timeToBestNanos / 1000000.0);
+		sb.append(", \"events\": " + events);
+		sb.append("}");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,739 @@
+package bnb.sim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+import bnb.lord.LoadIndex;
+import bnb.lord.VassalProxy;
+import bnb.vassal.BestFirstVassalNodePool;
+import bnb.vassal.Heartbeater;
+import bnb.vassal.LoadSummary;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.StealPolicy;
+import bnb.vassal.VassalJobManager;
+import bnb.vassal.VassalNodePool;
+
+/**
+ * Replays a RecordedTree on a simulated lord and vassals, for trying out scheduling
+ * settings without a cluster.  Time is simulated: evaluating a node takes as long as it
+ * did when it was recorded, and every message takes the given latency, so a run takes
+ * about as long as it takes the real node pools to go through the tree once.
+ *
+ * The vassals use the real node pools and steal policies, and the lord picks victims
+ * with a real LoadIndex.  Around them, the simulator follows what TaskRunner,
+ * VassalJobManager and LordJobManager do: task threads ask for work when their pool is
+ * empty, with one request out per vassal, prefetch below the watermark, and send load
+ * summaries with prefetches and heartbeats.  The lord steals for a vassal from the other
+ * vassals in the order the LoadIndex ranks them, and ends the job once none of them has
+ * work.  Incumbents go to the lord and then out to the other vassals.  The root starts
+ * on the first vassal, as when the lord has vassals expand it, and the other vassals
+ * start out asking for work.  Checkpoints, leases, peer stealing and sub-lords aren't
+ * simulated.
+ *
+ * Everything happens on one thread, in time order, so runs with SIMPLE, BEST_FIRST and
+ * LDS pools always come out the same.  WORK_STEALING pools keep a deque for each thread
+ * that uses them, so each simulated task thread calls them from a thread of its own.
+ */
+public class Simulator {
+	private static final Logger LOG = Logger.getLogger(Simulator.class);
+
+	/** one way, a round trip on a local network */
+	public static final long DEFAULT_RPC_LATENCY_NANOS = 100 * 1000;
+
+	//as in TaskRunner
+	private static final int EVAL_TIME_REPORT_INTERVAL = 256;
+	//as in LordJobManager
+	private static final long NO_VICTIMS_WAIT_NANOS = 10 * 1000000L;
+
+	private final RecordedTree tree;
+
+	private int numVassals = 1;
+	private int numThreads = 1;
+	private NodePoolType nodePoolType = NodePoolType.SIMPLE;
+	private double jumpRatio = BestFirstVassalNodePool.DEFAULT_JUMP_RATIO;
+	private long rpcLatencyNanos = DEFAULT_RPC_LATENCY_NANOS;
+	private long transferNanosPerNode;
+	private int prefetchWatermark = VassalJobManager.DEFAULT_PREFETCH_WATERMARK;
+	private long heartbeatNanos = Heartbeater.DEFAULT_INTERVAL * 1000000;
+	private double evalTimeScale = 1;
+	private boolean broadcastIncumbents = true;
+	private double stealWorthFactor = StealPolicy.DEFAULT_WORTH_FACTOR;
+	private int maxStealBatchSize = StealPolicy.DEFAULT_MAX_BATCH_SIZE;
+
+	//for a run
+	private PriorityQueue<Event> events;
+	private long now;
+	private long numScheduled;
+	private SimReport report;
+	private Vassal[] vassals;
+	private List<VassalProxy> vassalKeys;
+	private LoadIndex loads;
+	private Set<Integer> hasWork;
+	private int nextVictim;
+	private int stealsInFlight;
+	private boolean lordDone;
+	private double lordBestCost;
+	private List<ExecutorService> executors;
+
+	public Simulator(RecordedTree tree) {
+		this.tree = tree;
+		tree.finish();
+	}
+
+	public void setNumVassals(int numVassals) {
+		this.numVassals = numVassals;
+	}
+
+	/**
+	 * Task threads on each vassal.
+	 */
+	public void setNumThreads(int numThreads) {
+		this.numThreads = numThreads;
+	}
+
+	public void setNodePoolType(NodePoolType nodePoolType) {
+		this.nodePoolType = nodePoolType;
+	}
+
+	public void setJumpRatio(double jumpRatio) {
+		this.jumpRatio = jumpRatio;
+	}
+
+	/**
+	 * How long every message takes to get where it's going.
+	 */
+	public void setRpcLatencyNanos(long rpcLatencyNanos) {
+		this.rpcLatencyNanos = rpcLatencyNanos;
+	}
+
+	/**
+	 * Added to a message's latency for each node it carries.
+	 */
+	public void setTransferNanosPerNode(long transferNanosPerNode) {
+		this.transferNanosPerNode = transferNanosPerNode;
+	}
+
+	/**
+	 * 0 turns prefetching off.
+	 */
+	public void setPrefetchWatermark(int prefetchWatermark) {
+		this.prefetchWatermark = prefetchWatermark;
+	}
+
+	public void setHeartbeatNanos(long heartbeatNanos) {
+		this.heartbeatNanos = heartbeatNanos;
+	}
+
+	/**
+	 * Multiplies the recorded evaluation times, for machines faster or slower than the
+	 * one the tree was recorded on.
+	 */
+	public void setEvalTimeScale(double evalTimeScale) {
+		this.evalTimeScale = evalTimeScale;
+	}
+
+	/**
+	 * If false, vassals only know about the incumbents they find themselves.
+	 */
+	public void setBroadcastIncumbents(boolean broadcastIncumbents) {
+		this.broadcastIncumbents = broadcastIncumbents;
+	}
+
+	public void setStealPolicy(double worthFactor, int maxBatchSize) {
+		this.stealWorthFactor = worthFactor;
+		this.maxStealBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Replays the tree from the start.  Can be called again after changing settings.
+	 */
+	public SimReport run() {
+		events = new PriorityQueue<Event>();
+		now = 0;
+		numScheduled = 0;
+		report = new SimReport();
+		report.numThreads = numVassals * numThreads;
+		loads = new LoadIndex();
+		hasWork = new HashSet<Integer>();
+		nextVictim = 0;
+		stealsInFlight = 0;
+		lordDone = false;
+		lordBestCost = tree.getUpperBound();
+		executors = new ArrayList<ExecutorService>();
+		vassals = new Vassal[numVassals];
+		vassalKeys = new ArrayList<VassalProxy>();
+		for (int i = 0; i < numVassals; i++) {
+			vassals[i] = new Vassal(i);
+			vassalKeys.add(new VassalKey(i));
+		}
+
+		try {
+			for (int i = 0; i < numVassals; i++) {
+				if (i == 0 && tree.size() > 0) {
+					startWithRoot(vassals[0]);
+				} else {
+					vassals[i].start();
+				}
+			}
+			while (!events.isEmpty()) {
+				Event event = events.poll();
+				now = event.time;
+				event.fire();
+				report.events++;
+			}
+		} finally {
+			for (ExecutorService executor : executors) {
+				executor.shutdownNow();
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * Evaluates the root before starting the vassal's task threads, as
+	 * VassalRunner.startJobTasks does with the nodes it's given.
+	 */
+	private void startWithRoot(final Vassal vassal) {
+		SimNode root = new SimNode(tree, 0, null);
+		root.evaluate(vassal.bestCost);
+		root.finishEvaluation();
+		report.nodesEvaluated++;
+		if (root.isSolution()) {
+			vassal.foundIncumbent(root.getCost());
+		} else if (!root.isLeaf()) {
+			vassal.pool.post(root);
+			hasWork.add(vassal.id);
+		}
+		schedule(Math.round(root.getEvalNanos() * evalTimeScale), new Event() {
+			public void fire() {
+				vassal.start();
+			}
+		});
+	}
+
+	private void schedule(long delay, Event event) {
+		event.time = now + delay;
+		event.seq = numScheduled++;
+		events.add(event);
+	}
+
+	private long messageNanos(int numNodes) {
+		return rpcLatencyNanos + transferNanosPerNode * numNodes;
+	}
+
+	private List<BnbNode> copyForTransfer(List<BnbNode> nodes) {
+		List<BnbNode> copies = new ArrayList<BnbNode>(nodes.size());
+		for (BnbNode node : nodes) {
+			copies.add(node.copyForTransfer(tree));
+		}
+		return copies;
+	}
+
+	/**
+	 * Something that happens at a point in simulated time.  Ties go in the order they
+	 * were scheduled.
+	 */
+	private abstract static class Event implements Comparable<Event> {
+		private long time;
+		private long seq;
+
+		public abstract void fire();
+
+		@Override
+		public int compareTo(Event other) {
+			if (time != other.time) {
+				return time < other.time ? -1 : 1;
+			}
+			return seq < other.seq ? -1 : (seq == other.seq ? 0 : 1);
+		}
+	}
+
+	/**
+	 * Stands in for a vassal in the LoadIndex, which only needs its id.
+	 */
+	private static class VassalKey extends VassalProxy {
+		public VassalKey(int vassalId) {
+			super(vassalId);
+		}
+	}
+
+	private class Vassal {
+		private final int id;
+		private final VassalNodePool pool;
+		private final StealPolicy policy;
+		private final List<TaskThread> threads = new ArrayList<TaskThread>();
+		private final LinkedList<TaskThread> idle = new LinkedList<TaskThread>();
+		private double bestCost = tree.getUpperBound();
+		private boolean fetching;
+		private boolean completed;
+
+		public Vassal(int id) {
+			this.id = id;
+			pool = nodePoolType.newPool(jumpRatio);
+			policy = new StealPolicy(stealWorthFactor, maxStealBatchSize);
+			policy.updateBestCost(bestCost);
+			for (int i = 0; i < numThreads; i++) {
+				threads.add(new TaskThread(this, i));
+			}
+		}
+
+		public void start() {
+			for (TaskThread thread : threads) {
+				thread.step();
+			}
+			if (heartbeatNanos > 0) {
+				schedule(heartbeatNanos, new Event() {
+					public void fire() {
+						heartbeat(this);
+					}
+				});
+			}
+		}
+
+		private void heartbeat(Event again) {
+			if (completed) {
+				return;
+			}
+			final LoadSummary load = LoadSummary.of(pool.snapshot(), 0);
+			schedule(rpcLatencyNanos, new Event() {
+				public void fire() {
+					loads.update(id, load);
+				}
+			});
+			schedule(heartbeatNanos, again);
+		}
+
+		/**
+		 * Like VassalJobManager.maybePrefetch.
+		 */
+		public void maybePrefetch() {
+			if (prefetchWatermark <= 0 || fetching || completed || pool.size() >= prefetchWatermark) {
+				return;
+			}
+			startFetch(null);
+		}
+
+		/**
+		 * @param fetcher
+		 * 		the task thread that's out of work, or null for a prefetch
+		 */
+		public void startFetch(TaskThread fetcher) {
+			fetching = true;
+			boolean prefetch = fetcher == null;
+			if (prefetch) {
+				report.prefetches++;
+			} else {
+				report.asks++;
+			}
+			final WorkRequest request = new WorkRequest(this, fetcher);
+			final double cost = bestCost;
+			final LoadSummary load = prefetch ? LoadSummary.of(pool.snapshot(), 0) : LoadSummary.EMPTY;
+			schedule(rpcLatencyNanos, new Event() {
+				public void fire() {
+					lordUpdateMinCost(cost);
+					loads.update(id, load);
+					request.start();
+				}
+			});
+		}
+
+		public void receiveWork(WorkRequest request, List<BnbNode> nodes) {
+			fetching = false;
+			if (request.isPrefetch()) {
+				if (nodes.isEmpty()) {
+					report.emptyPrefetches++;
+				}
+				for (BnbNode node : nodes) {
+					pool.post(node);
+				}
+			} else if (nodes.isEmpty()) {
+				LOG.debug("Vassal " + id + " out of work at " + now);
+				completed = true;
+			} else {
+				policy.reportStealLatency((now - request.sentTime) / 1000000);
+				for (BnbNode node : nodes) {
+					request.fetcher.post(node);
+				}
+			}
+			//whoever was waiting on the request checks the pool again, as in awaitFetch
+			List<TaskThread> waiting = new ArrayList<TaskThread>(idle);
+			idle.clear();
+			for (TaskThread thread : waiting) {
+				thread.step();
+			}
+		}
+
+		public List<BnbNode> giveWork() {
+			if (completed) {
+				return Collections.emptyList();
+			}
+			return pool.stealNodes(policy);
+		}
+
+		public void foundIncumbent(final double cost) {
+			if (cost >= bestCost) {
+				return;
+			}
+			updateBestCost(cost);
+			report.incumbentsFound++;
+			if (cost < report.bestCost) {
+				report.bestCost = cost;
+				report.timeToBestNanos = now;
+			}
+			schedule(rpcLatencyNanos, new Event() {
+				public void fire() {
+					lordUpdateMinCost(cost);
+				}
+			});
+		}
+
+		public void updateBestCost(double cost) {
+			if (cost < bestCost) {
+				bestCost = cost;
+				policy.updateBestCost(cost);
+			}
+		}
+	}
+
+	private class TaskThread {
+		private final Vassal vassal;
+		private final ExecutorService executor;
+		private int numEvaluated;
+		private long unreportedEvalNanos;
+
+		public TaskThread(Vassal vassal, int index) {
+			this.vassal = vassal;
+			if (nodePoolType == NodePoolType.WORK_STEALING) {
+				final String name = "sim-vassal" + vassal.id + "-task" + index;
+				executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, name);
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+				executors.add(executor);
+			} else {
+				executor = null;
+			}
+		}
+
+		/**
+		 * Takes the next node and starts on it, or waits for work, as in TaskRunner.run.
+		 */
+		public void step() {
+			BnbNode next = nextNode();
+			if (next == null) {
+				if (vassal.completed) {
+					report.makespanNanos = Math.max(report.makespanNanos, now);
+					return;
+				}
+				vassal.idle.add(this);
+				if (!vassal.fetching) {
+					vassal.startFetch(this);
+				}
+				return;
+			}
+			final SimNode node = (SimNode)next;
+			node.evaluate(vassal.bestCost);
+			final long nanos = Math.round(node.getEvalNanos() * evalTimeScale);
+			schedule(nanos, new Event() {
+				public void fire() {
+					finishEvaluation(node, nanos);
+				}
+			});
+		}
+
+		private void finishEvaluation(SimNode node, long nanos) {
+			node.finishEvaluation();
+			report.busyNanos += nanos;
+			report.nodesEvaluated++;
+			if (node.isBounded()) {
+				report.nodesPruned++;
+			}
+			if (node.isUnrecorded()) {
+				report.unrecordedNodes++;
+			}
+			unreportedEvalNanos += nanos;
+			numEvaluated++;
+			if (numEvaluated % EVAL_TIME_REPORT_INTERVAL == 0) {
+				vassal.policy.reportEvaluations(EVAL_TIME_REPORT_INTERVAL, unreportedEvalNanos);
+				unreportedEvalNanos = 0;
+			}
+			if (node.isSolution()) {
+				if (node.getCost() < vassal.bestCost) {
+					vassal.foundIncumbent(node.getCost());
+					node.whenAllChildrenDone();
+					node.getParent().childDone();
+				}
+			} else if (!node.isLeaf()) {
+				post(node);
+			} else {
+				node.whenAllChildrenDone();
+				if (node.getParent() != null) {
+					node.getParent().childDone();
+				}
+			}
+			vassal.maybePrefetch();
+			step();
+		}
+
+		private BnbNode nextNode() {
+			if (executor == null) {
+				return vassal.pool.nextNode();
+			}
+			return call(new Callable<BnbNode>() {
+				public BnbNode call() {
+					return vassal.pool.nextNode();
+				}
+			});
+		}
+
+		public void post(final BnbNode node) {
+			if (executor == null) {
+				vassal.pool.post(node);
+				return;
+			}
+			call(new Callable<Void>() {
+				public Void call() {
+					vassal.pool.post(node);
+					return null;
+				}
+			});
+		}
+
+		private <T> T call(Callable<T> callable) {
+			try {
+				return executor.submit(callable).get();
+			} catch (InterruptedException ex) {
+				throw new IllegalStateException("Interrupted calling node pool", ex);
+			} catch (ExecutionException ex) {
+				throw new IllegalStateException("Node pool failed", ex.getCause());
+			}
+		}
+	}
+
+	private void lordUpdateMinCost(final double cost) {
+		if (cost >= lordBestCost) {
+			return;
+		}
+		lordBestCost = cost;
+		if (!broadcastIncumbents) {
+			return;
+		}
+		for (final Vassal vassal : vassals) {
+			schedule(rpcLatencyNanos, new Event() {
+				public void fire() {
+					vassal.updateBestCost(cost);
+				}
+			});
+		}
+	}
+
+	/**
+	 * The other vassals that might have work, in the order to steal from them, as in
+	 * LordJobManager.rankVictims.
+	 */
+	private List<VassalProxy> rankVictims(int thiefId) {
+		List<VassalProxy> candidates = new ArrayList<VassalProxy>();
+		int start = vassalKeys.isEmpty() ? 0 : (nextVictim++ & Integer.MAX_VALUE) % vassalKeys.size();
+		for (int i = 0; i < vassalKeys.size(); i++) {
+			VassalProxy key = vassalKeys.get((start + i) % vassalKeys.size());
+			int victimId = key.getVassalIdCache();
+			if (victimId != thiefId && hasWork.contains(victimId)) {
+				candidates.add(key);
+			}
+		}
+		return loads.rankVictims(candidates);
+	}
+
+	private boolean isOutOfWork(VassalProxy key) {
+		LoadSummary load = loads.get(key.getVassalIdCache());
+		return load != null && load.getFrontierSize() == 0;
+	}
+
+	/**
+	 * A vassal's request for work, as the lord works through it.  Follows
+	 * LordJobManager.askForWork, or prefetchWork for a prefetch.
+	 */
+	private class WorkRequest {
+		private final Vassal thief;
+		private final TaskThread fetcher;
+		private final long sentTime;
+		private Iterator<VassalProxy> victims;
+
+		public WorkRequest(Vassal thief, TaskThread fetcher) {
+			this.thief = thief;
+			this.fetcher = fetcher;
+			this.sentTime = now;
+		}
+
+		public boolean isPrefetch() {
+			return fetcher == null;
+		}
+
+		public void start() {
+			if (isPrefetch()) {
+				if (lordDone) {
+					reply(Collections.<BnbNode>emptyList());
+					return;
+				}
+				victims = rankVictims(thief.id).iterator();
+			} else {
+				hasWork.remove(thief.id);
+			}
+			next();
+		}
+
+		private void next() {
+			if (isPrefetch()) {
+				nextForPrefetch();
+				return;
+			}
+			while (true) {
+				if (lordDone) {
+					reply(Collections.<BnbNode>emptyList());
+					return;
+				}
+				//work on its way to a vassal still counts
+				if (hasWork.isEmpty() && stealsInFlight == 0) {
+					LOG.debug("Job done at " + now);
+					lordDone = true;
+					reply(Collections.<BnbNode>emptyList());
+					return;
+				}
+				if (victims == null || !victims.hasNext()) {
+					final List<VassalProxy> ranked = rankVictims(thief.id);
+					if (ranked.isEmpty() || isOutOfWork(ranked.get(0))) {
+						schedule(NO_VICTIMS_WAIT_NANOS, new Event() {
+							public void fire() {
+								victims = ranked.iterator();
+								next();
+							}
+						});
+						return;
+					}
+					victims = ranked.iterator();
+				}
+				int victimId = victims.next().getVassalIdCache();
+				if (!hasWork.contains(victimId)) {
+					//ran out since we ranked it
+					continue;
+				}
+				stealFrom(vassals[victimId]);
+				return;
+			}
+		}
+
+		private void nextForPrefetch() {
+			if (victims.hasNext()) {
+				VassalProxy key = victims.next();
+				if (!isOutOfWork(key)) {
+					stealFrom(vassals[key.getVassalIdCache()]);
+					return;
+				}
+			}
+			reply(Collections.<BnbNode>emptyList());
+		}
+
+		private void stealFrom(final Vassal victim) {
+			stealsInFlight++;
+			report.stealAttempts++;
+			schedule(rpcLatencyNanos, new Event() {
+				public void fire() {
+					final List<BnbNode> stolen = copyForTransfer(victim.giveWork());
+					schedule(messageNanos(stolen.size()), new Event() {
+						public void fire() {
+							stolen(victim, stolen);
+						}
+					});
+				}
+			});
+		}
+
+		private void stolen(Vassal victim, List<BnbNode> nodes) {
+			stealsInFlight--;
+			if (nodes.isEmpty()) {
+				//so it isn't tried first again until it tells us it has work
+				loads.update(victim.id, LoadSummary.EMPTY);
+				next();
+				return;
+			}
+			loads.tookNodes(victim.id, nodes.size());
+			loads.remove(thief.id);
+			hasWork.add(thief.id);
+			report.steals++;
+			report.nodesStolen += nodes.size();
+			reply(nodes);
+		}
+
+		private void reply(final List<BnbNode> nodes) {
+			schedule(messageNanos(nodes.size()), new Event() {
+				public void fire() {
+					thief.receiveWork(WorkRequest.this, nodes);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Replays a recorded tree under each combination of the given settings, printing a
+	 * line of JSON for each.  Lists are comma-separated.
+	 *
+	 * args: treeFile numVassals numThreads [nodePoolTypes] [rpcLatencyMicros]
+	 * 		[prefetchWatermarks] [evalTimeScale]
+	 */
+	public static void main(String[] args) throws IOException {
+		RecordedTree tree = RecordedTree.read(new File(args[0]));
+		LOG.info("Read " + tree.size() + " nodes, which took " + tree.getTotalEvalNanos() / 1000000
+				+ " ms to evaluate when recorded");
+		String[] numVassalsList = args[1].split(",");
+		String[] numThreadsList = args[2].split(",");
+		String[] poolTypes = (args.length > 3 ? args[3] : NodePoolType.SIMPLE.name()).split(",");
+		String[] latencies = (args.length > 4 ? args[4] : String.valueOf(DEFAULT_RPC_LATENCY_NANOS / 1000)).split(",");
+		String[] watermarks = (args.length > 5 ? args[5]
+				: String.valueOf(VassalJobManager.DEFAULT_PREFETCH_WATERMARK)).split(",");
+		double evalTimeScale = args.length > 6 ? Double.parseDouble(args[6]) : 1;
+
+		Simulator sim = new Simulator(tree);
+		sim.setEvalTimeScale(evalTimeScale);
+		for (String numVassals : numVassalsList) {
+			for (String numThreads : numThreadsList) {
+				for (String poolType : poolTypes) {
+					for (String latency : latencies) {
+						for (String watermark : watermarks) {
+							sim.setNumVassals(Integer.parseInt(numVassals));
+							sim.setNumThreads(Integer.parseInt(numThreads));
+							sim.setNodePoolType(NodePoolType.valueOf(poolType.toUpperCase()));
+							sim.setRpcLatencyNanos(Long.parseLong(latency) * 1000);
+							sim.setPrefetchWatermark(Integer.parseInt(watermark));
+							long startTime = System.currentTimeMillis();
+							SimReport report = sim.run();
+							long simMillis = System.currentTimeMillis() - startTime;
+							System.out.println("{\"numVassals\": " + numVassals + ", \"numThreads\": " + numThreads
+									+ ", \"nodePoolType\": \"" + poolType.toUpperCase() + "\", \"rpcLatencyMicros\": "
+									+ latency + ", \"prefetchWatermark\": " + watermark + ", \"simMillis\": "
+									+ simMillis + ", \"report\": " + report.makeReport() + "}");
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package bnb.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+
+/**
+ * Runs a search on one thread and records the tree it explores, for the Simulator.  It
+ * goes through the nodes the way a vassal with a SimpleVassalNodePool and one task
+ * runner would, depth-first taking children in order, and handles evaluated nodes the
+ * way TaskRunner does, so the tree is the one a real run of that kind explores.
+ */
+public class TreeRecorder {
+	private static final Logger LOG = Logger.getLogger(TreeRecorder.class);
+
+	private static final int LOG_INTERVAL = 100000;
+
+	private final double upperBound;
+	private double bestCost;
+	private RecordedTree tree;
+
+	/**
+	 * @param upperBound
+	 * 		the incumbent to start with, as given to the lord
+	 */
+	public TreeRecorder(double upperBound) {
+		this.upperBound = upperBound;
+	}
+
+	public RecordedTree record(BnbNode root) {
+		tree = new RecordedTree(upperBound);
+		bestCost = upperBound;
+		List<BnbNode> stack = new ArrayList<BnbNode>();
+		List<Integer> ids = new ArrayList<Integer>();
+		int rootId = evaluate(root, -1);
+		if (handleEvaluated(root)) {
+			stack.add(root);
+			ids.add(rootId);
+		}
+		while (!stack.isEmpty()) {
+			int top = stack.size() - 1;
+			BnbNode parent = stack.get(top);
+			if (!parent.hasNextChild()) {
+				stack.remove(top);
+				ids.remove(top);
+				continue;
+			}
+			BnbNode child = parent.nextChild(false);
+			int id = evaluate(child, ids.get(top));
+			if (handleEvaluated(child)) {
+				stack.add(child);
+				ids.add(id);
+			}
+		}
+		tree.finish();
+		LOG.info("Recorded " + tree.size() + " nodes, best cost " + bestCost);
+		return tree;
+	}
+
+	public double getBestCost() {
+		return bestCost;
+	}
+
+	private int evaluate(BnbNode node, int parentId) {
+		double bound = bestCost;
+		long startTime = System.nanoTime();
+		node.evaluate(bound);
+		long nanos = System.nanoTime() - startTime;
+
+		boolean solution = node.isSolution();
+		int flags = 0;
+		if (solution) {
+			flags |= RecordedTree.SOLUTION;
+		}
+		if (node.isLeaf()) {
+			flags |= RecordedTree.LEAF;
+		}
+		if (node.dontSteal()) {
+			flags |= RecordedTree.DONT_STEAL;
+		}
+		if (!solution && !node.hasNextChild() && node.getLowerBound() >= bound) {
+			flags |= RecordedTree.BOUNDED;
+		}
+		int id = tree.addNode(parentId, nanos, node.getLowerBound(), node.getCost(),
+				node.estimateSubtreeSize(bound), node.getDepth(), flags);
+		if ((id + 1) % LOG_INTERVAL == 0) {
+			LOG.info("Recorded " + (id + 1) + " nodes");
+		}
+		return id;
+	}
+
+	/**
+	 * Does what TaskRunner does with an evaluated node.  Returns true if it would be
+	 * posted to the pool.
+	 */
+	private boolean handleEvaluated(BnbNode node) {
+		if (node.isSolution()) {
+			if (node.getCost() < bestCost) {
+				LOG.info("new best cost: " + node.getCost());
+				bestCost = node.getCost();
+				node.whenAllChildrenDone();
+				if (node.getParent() != null) {
+					node.getParent().childDone();
+				}
+			}
+			return false;
+		}
+		if (!node.isLeaf()) {
+			return true;
+		}
+		node.whenAllChildrenDone();
+		if (node.getParent() != null) {
+			node.getParent().childDone();
+		}
+		return false;
+	}
+}
@@ -0,0 +1,69 @@
+package bnb.stats;
+
+/**
+ * How many bytes we send for nodes and how long it takes to encode and decode them.  Kept for
+ * the whole process rather than per job, since the proxies doing the encoding and
+ * decoding don't know about jobs' stats.
+ */
+public class CodecStats {
+	private StripedCounter bytesEncoded = new StripedCounter();
+	private LogHistogram encodeNanos = new LogHistogram();
+	private LogHistogram decodeNanos = new LogHistogram();
+	private StripedCounter numReflectiveDecodes = new StripedCounter();
+	//bytes of node data in each batch of stolen work we send
+	private LogHistogram batchBytes = new LogHistogram();
+	private EventRing recentBatchBytes = new EventRing(1);
+	
+	public void reportEncoded(int numBytes, long nanos) {
+		bytesEncoded.add(numBytes);
+		encodeNanos.record(nanos);
+	}
+	
+	public void reportDecoded(long nanos) {
+		decodeNanos.record(nanos);
+	}
+	
+	/**
+	 * Called when we had to look a class up by name to decode it.
+	 */
+	public void reportReflectiveDecode() {
+		numReflectiveDecodes.increment();
+	}
+	
+	public void reportBatchSent(int numBytes) {
+		batchBytes.record(numBytes);
+		recentBatchBytes.record(numBytes);
+	}
+	
+	public double meanEncodeNanos() {
+		return encodeNanos.getMean();
+	}
+	
+	public double meanDecodeNanos() {
+		return decodeNanos.getMean();
+	}
+	
+	public double meanBatchBytes() {
+		return batchBytes.getMean();
+	}
+	
+	/**
+	 * In a JSON format.  batchBytes only has the most recent batches.
+	 */
+	public String makeReport() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"numEncoded\": " + encodeNanos.getCount());
+		sb.append(", \"bytesEncoded\": " + bytesEncoded.get());
+		sb.append(", \"meanEncodeNanos\": " + meanEncodeNanos());
+		sb.append(", \"numDecoded\": " + decodeNanos.getCount());
+		sb.append(", \"meanDecodeNanos\": " + meanDecodeNanos());
+		sb.append(", \"numReflectiveDecodes\": " + numReflectiveDecodes.get());
+		sb.append(", \"meanBatchBytes\": " + meanBatchBytes());
+		sb.append(", \"batchBytes\": " + recentBatchBytes.getColumn(0));
+		sb.append(", \"encodeNanosHist\": " + encodeNanos.makeReport());
+		sb.append(", \"decodeNanosHist\": " + decodeNanos.makeReport());
+		sb.append(", \"batchBytesHist\": " + batchBytes.makeReport());
+		sb.append("}");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,89 @@
+package bnb.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The most recent events of some kind, each a few longs wide, in a fixed amount of
+ * memory.  Older events are written over once it's full, but they're still counted.
+ * Recording never blocks.  A read that races with recording can see an event that's
+ * only partly written, which is fine for stats.
+ */
+public class EventRing {
+	/** how many events a ring keeps unless told otherwise */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final int capacity;
+	private final int width;
+	private final AtomicLongArray values;
+	private final AtomicLong numRecorded = new AtomicLong();
+
+	/**
+	 * @param width
+	 * 		the number of longs in each event
+	 */
+	public EventRing(int width) {
+		this(width, DEFAULT_CAPACITY);
+	}
+
+	public EventRing(int width, int capacity) {
+		this.width = width;
+		this.capacity = capacity;
+		values = new AtomicLongArray(width * capacity);
+	}
+
+	public void record(long value) {
+		int base = slot();
+		values.set(base, value);
+	}
+
+	public void record(long value0, long value1) {
+		int base = slot();
+		values.set(base, value0);
+		values.set(base + 1, value1);
+	}
+
+	public void record(long value0, long value1, long value2) {
+		int base = slot();
+		values.set(base, value0);
+		values.set(base + 1, value1);
+		values.set(base + 2, value2);
+	}
+
+	private int slot() {
+		return (int)(numRecorded.getAndIncrement() % capacity) * width;
+	}
+
+	/**
+	 * Every event ever recorded, including the ones written over.
+	 */
+	public long getNumRecorded() {
+		return numRecorded.get();
+	}
+
+	/**
+	 * One of the values of each event we still have, oldest first.
+	 */
+	public List<Long> getColumn(int column) {
+		long end = numRecorded.get();
+		long start = Math.max(0, end - capacity);
+		List<Long> result = new ArrayList<Long>((int)(end - start));
+		for (long i = start; i < end; i++) {
+			result.add(values.get((int)(i % capacity) * width + column));
+		}
+		return result;
+	}
+
+	/**
+	 * Like getColumn, for values recorded with Double.doubleToLongBits.
+	 */
+	public List<Double> getDoubleColumn(int column) {
+		List<Double> result = new ArrayList<Double>();
+		for (long bits : getColumn(column)) {
+			result.add(Double.longBitsToDouble(bits));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,130 @@
+package bnb.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts of non-negative values in buckets whose width grows with the value, so that a
+ * fixed amount of memory covers any range with the same relative precision.  Values
+ * under 16 get a bucket each, and every power of two after that is split into 16
+ * buckets, so quantiles are off by at most 1/16 of the value.  Recording takes a couple
+ * of atomic adds and never blocks, and the histogram can be read while it's being
+ * recorded into.
+ */
+public class LogHistogram {
+	private static final int SUB_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	//enough for any non-negative long
+	private static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+	private final StripedCounter count = new StripedCounter();
+	private final StripedCounter sum = new StripedCounter();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * Negative values are counted as 0.
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		buckets.incrementAndGet(bucketIndex(value));
+		count.increment();
+		sum.add(value);
+		long cur;
+		while (value < (cur = min.get()) && !min.compareAndSet(cur, value)) { }
+		while (value > (cur = max.get()) && !max.compareAndSet(cur, value)) { }
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BITS;
+		int mantissa = (int)(value >>> shift);
+		return (shift + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+	}
+
+	/**
+	 * The biggest value that goes in the given bucket.
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getSum() {
+		return sum.get();
+	}
+
+	public double getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : (double)getSum() / n;
+	}
+
+	/**
+	 * 0 if nothing's been recorded.
+	 */
+	public long getMin() {
+		long value = min.get();
+		return value == Long.MAX_VALUE ? 0 : value;
+	}
+
+	public long getMax() {
+		long value = max.get();
+		return value == Long.MIN_VALUE ? 0 : value;
+	}
+
+	/**
+	 * The value that the given percent of the recorded values are at or under, to within
+	 * a bucket.  0 if nothing's been recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] counts = new long[NUM_BUCKETS];
+		long total = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.min(bucketUpperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * In a JSON format.
+	 */
+	public String makeReport() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"count\": " + getCount());
+		sb.append(", \"mean\": " + getMean());
+		sb.append(", \"min\": " + getMin());
+		sb.append(", \"p50\": " + getValueAtPercentile(50));
+		sb.append(", \"p90\": " + getValueAtPercentile(90));
+		sb.append(", \"p99\": " + getValueAtPercentile(99));
+		sb.append(", \"p999\": " + getValueAtPercentile(99.9));
+		sb.append(", \"max\": " + getMax());
+		sb.append("}");
+		return sb.toString();
+	}
+}
@@ -1,15 +1,60 @@
 package bnb.stats;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-public class LordJobStats {
+/**
+ * Stats for one job on the lord, which can be read while the job runs.  Like
+ * VassalJobStats, they're kept in a fixed amount of memory, so the report's lists only
+ * have the most recent samples.
+ */
+public class LordJobStats implements MetricsSource {
 	
-	private long startTime;
-	private long finishedInitialTime;
-	private long finishTime;
-	private ThreadLocalCount askedForWorkCount = new ThreadLocalCount();
-	private ThreadLocalList<WorkTheft> workThefts = new ThreadLocalList<WorkTheft>();
+	private volatile String metricsName = "lord-job";
+	private volatile long startTime;
+	private volatile long finishedInitialTime;
+	//when the lord finished expanding the top of the tree, and how many pieces it made
+	private volatile long finishedStartTime;
+	private volatile int numStartNodes;
+	private volatile long finishTime;
+	private StripedCounter askedForWorkCount = new StripedCounter();
+	//when each theft finished, how long it took, and how many vassals had nothing to give
+	private EventRing workThefts = new EventRing(3);
+	private LogHistogram workTheftLats = new LogHistogram();
+	private ThreadLocal<Boolean> stealingThread = new ThreadLocal<Boolean>();
+	private StripedCounter numWorkStealingThreads = new StripedCounter();
+	//when we heard of each better cost, and the cost
+	private EventRing incumbents = new EventRing(2);
+	private volatile double bestCost = Double.MAX_VALUE;
+	//time from the lord receiving an incumbent to a vassal acknowledging it
+	private EventRing recentIncumbentBroadcastLats = new EventRing(1);
+	private LogHistogram incumbentBroadcastLats = new LogHistogram();
+	private StripedCounter incumbentSendsSkipped = new StripedCounter();
+	//nodes in each batch and the estimated work in it, as double bits
+	private EventRing stolenBatches = new EventRing(2);
+	private LogHistogram stolenBatchSizes = new LogHistogram();
+	//time to collect and write each checkpoint, and the number of nodes in it
+	private EventRing checkpoints = new EventRing(2);
+	private StripedCounter vassalsLost = new StripedCounter();
+	//nodes put back in the unevaluated list from lost vassals and failed requests for work
+	private StripedCounter nodesRequeued = new StripedCounter();
+	//vassals added to and taken out of the job while it ran, and the open nodes taken back
+	private StripedCounter vassalsJoined = new StripedCounter();
+	private StripedCounter vassalsDrained = new StripedCounter();
+	private StripedCounter nodesDrained = new StripedCounter();
+	private CodecStats codecStats;
+	
+	/**
+	 * What the job is listed as in a MetricsRegistry.  Should be set before registering.
+	 */
+	public void setMetricsName(String metricsName) {
+		this.metricsName = metricsName;
+	}
+	
+	@Override
+	public String getMetricsName() {
+		return metricsName;
+	}
 	
 //	private AtomicInteger totalWorkStolenTime = new AtomicInteger();
 //	private AtomicInteger numWorkSteals = new AtomicInteger();
@@ -23,13 +68,108 @@ public class LordJobStats {
 	 * 		the number of clients who were reached and had no work to donate
 	 */
 	public void reportWorkStolen(int timeTaken, int numFailedAttempts) {
-		workThefts.add(new WorkTheft(timeTaken, System.currentTimeMillis(), numFailedAttempts));
+		workThefts.record(System.currentTimeMillis(), timeTaken, numFailedAttempts);
+		workTheftLats.record(timeTaken);
+		if (stealingThread.get() == null) {
+			stealingThread.set(Boolean.TRUE);
+			numWorkStealingThreads.increment();
+		}
+	}
+	
+	/**
+	 * Called when the job's best cost improves.
+	 */
+	public void reportIncumbent(double cost) {
+		incumbents.record(System.currentTimeMillis(), Double.doubleToLongBits(cost));
+		bestCost = cost;
+	}
+	
+	/**
+	 * @param latency
+	 * 		time in milliseconds from the lord receiving the incumbent to the vassal
+	 * 		acknowledging it
+	 */
+	public void reportIncumbentBroadcast(long latency) {
+		incumbentBroadcastLats.record(latency);
+		recentIncumbentBroadcastLats.record(latency);
+	}
+	
+	/**
+	 * Called when we don't send an incumbent to a vassal because it already has one at
+	 * least as good.
+	 */
+	public void reportIncumbentSendSkipped() {
+		incumbentSendsSkipped.increment();
+	}
+	
+	/**
+	 * Called whenever we hand work to a vassal, whether it came from another vassal or
+	 * from the lord's own nodes.
+	 * @param numNodes
+	 * 		number of nodes in the batch
+	 * @param estimatedWork
+	 * 		estimated number of nodes in their subtrees
+	 */
+	public void reportStolenBatch(int numNodes, double estimatedWork) {
+		stolenBatches.record(numNodes, Double.doubleToLongBits(estimatedWork));
+		stolenBatchSizes.record(numNodes);
+	}
+	
+	/**
+	 * @param timeTaken
+	 * 		time in milliseconds to collect the open nodes and write them out
+	 * @param numNodes
+	 * 		number of open nodes saved
+	 */
+	public void reportCheckpoint(long timeTaken, int numNodes) {
+		checkpoints.record(timeTaken, numNodes);
+	}
+	
+	/**
+	 * @param numRequeued
+	 * 		number of nodes from the vassal's leases put back in the unevaluated list
+	 */
+	public void reportVassalLost(int numRequeued) {
+		vassalsLost.increment();
+		nodesRequeued.add(numRequeued);
+	}
+	
+	/**
+	 * For nodes put back in the unevaluated list because they never made it to a vassal.
+	 */
+	public void reportRequeued(int numRequeued) {
+		nodesRequeued.add(numRequeued);
+	}
+	
+	public void reportVassalJoined() {
+		vassalsJoined.increment();
+	}
+	
+	/**
+	 * @param numNodes
+	 * 		number of open nodes the vassal gave back
+	 */
+	public void reportVassalDrained(int numNodes) {
+		vassalsDrained.increment();
+		nodesDrained.add(numNodes);
+	}
+	
+	/**
+	 * Stats on encoding and decoding nodes to include in the report.
+	 */
+	public void setCodecStats(CodecStats codecStats) {
+		this.codecStats = codecStats;
 	}
 	
 	public void aboutToStart() {
 		startTime = System.currentTimeMillis();
 	}
 	
+	public void finishedStartEvaluation(int numStartNodes) {
+		finishedStartTime = System.currentTimeMillis();
+		this.numStartNodes = numStartNodes;
+	}
+	
 	public void finishedSendingInitialWork() {
 		finishedInitialTime = System.currentTimeMillis();
 	}
@@ -42,119 +182,138 @@ public class LordJobStats {
 		finishTime = System.currentTimeMillis();
 	}
 	
+	/**
+	 * Milliseconds from starting the job to finishing it.
+	 */
+	public long getTotalTime() {
+		return finishTime - startTime;
+	}
+	
 	public String makeReportSummary() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("Total time: " + (finishTime - startTime) + "\n");
 		sb.append("Initialization time: " + (finishedInitialTime - startTime) + "\n");
+		sb.append("Start expansion time: " + (finishedStartTime - startTime) + "\n");
+		sb.append("Start nodes: " + numStartNodes + "\n");
 		sb.append("Finish time: " + finishTime + "\n");
-		sb.append("# Work Stealing Threads: " + workThefts.getLists().size() + "\n");
+		sb.append("# Work Stealing Threads: " + numWorkStealingThreads.get() + "\n");
 		sb.append("Total work stolen time: " + sumWorkStolenTime() + "\n");
 		sb.append("Times work stolen: " + sumTimesWorkStolen() + "\n");
+		sb.append("Mean stolen batch size: " + meanStolenBatchSize() + "\n");
+		if (codecStats != null) {
+			sb.append("Mean stolen batch bytes: " + codecStats.meanBatchBytes() + "\n");
+			sb.append("Mean decode nanos per node: " + codecStats.meanDecodeNanos() + "\n");
+		}
+		sb.append("Incumbents sent: " + incumbentBroadcastLats.getCount() + "\n");
+		sb.append("Incumbent sends skipped: " + incumbentSendsSkipped.get() + "\n");
+		sb.append("Checkpoints: " + checkpoints.getNumRecorded() + "\n");
+		sb.append("Vassals lost: " + vassalsLost.get() + "\n");
+		sb.append("Nodes requeued: " + nodesRequeued.get() + "\n");
+		sb.append("Vassals joined: " + vassalsJoined.get() + "\n");
+		sb.append("Vassals drained: " + vassalsDrained.get() + "\n");
 		return sb.toString();
 	}
 	
+	/**
+	 * In a JSON format.  The lists of samples only have the most recent ones.
+	 */
 	public String makeReport() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("{");
-		sb.append("\"totalTime\":" + (finishTime - startTime));
+		sb.append("\"totalTime\":" + elapsedTime());
 		sb.append(",\n");
 		sb.append("\"initTime\": " + (finishedInitialTime - startTime));
 		sb.append(",\n");
+		sb.append("\"startExpansionTime\": " + (finishedStartTime - startTime));
+		sb.append(",\n");
+		sb.append("\"numStartNodes\": " + numStartNodes);
+		sb.append(",\n");
 		sb.append("\"finish time\": " + finishTime);
 		sb.append(",\n");
-		sb.append("\"numWorkStealingThreads\": " + workThefts.getLists().size());
+		sb.append("\"numWorkStealingThreads\": " + numWorkStealingThreads.get());
 		sb.append(",\n");
 		sb.append("\"totalWorkStealingTime\": " + sumWorkStolenTime());
 		sb.append(",\n");
 		sb.append("\"numWorkThefts\": " + sumTimesWorkStolen());
 		sb.append(",\n");
-		sb.append("\"numFailedAttempts\":[");
-		for (List<WorkTheft> list : workThefts.getLists()) {
-			for (WorkTheft theft : list) {
-				sb.append(theft.numFailedAttempts+",");
-			}
-		}
-		if (sb.length() > 1) { //remove trailing comma
-			sb.deleteCharAt(sb.length()-1);
-		}
-		sb.append("]");
+		sb.append("\"numFailedAttempts\": " + workThefts.getColumn(2));
 		sb.append(",\n");
-		sb.append("\"stealTimes\":[");
-		for (List<WorkTheft> list : workThefts.getLists()) {
-			for (WorkTheft theft : list) {
-				sb.append(theft.endTime+",");
-			}
-		}
-		if (sb.length() > 1) { //remove trailing comma
-			sb.deleteCharAt(sb.length()-1);
-		}
-		sb.append("]");
+		sb.append("\"stealTimes\": " + workThefts.getColumn(0));
 		sb.append(",\n");
-		sb.append("\"stealsTimeTaken\":[");
-		for (List<WorkTheft> list : workThefts.getLists()) {
-			for (WorkTheft theft : list) {
-				sb.append(theft.timeTaken+",");
-			}
-		}
-		if (sb.length() > 1) { //remove trailing comma
-			sb.deleteCharAt(sb.length()-1);
+		sb.append("\"stealsTimeTaken\": " + workThefts.getColumn(1));
+		sb.append(",\n");
+		sb.append("\"incumbentBroadcastLats\": " + recentIncumbentBroadcastLats.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"numIncumbentSendsSkipped\": " + incumbentSendsSkipped.get());
+		sb.append(",\n");
+		sb.append("\"stolenBatchSizes\": " + stolenBatches.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"stolenBatchWork\": " + stolenBatches.getDoubleColumn(1));
+		sb.append(",\n");
+		sb.append("\"checkpointTimes\": " + checkpoints.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"checkpointSizes\": " + checkpoints.getColumn(1));
+		sb.append(",\n");
+		sb.append("\"incumbentTimes\": " + incumbents.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"incumbentCosts\": " + incumbents.getDoubleColumn(1));
+		sb.append(",\n");
+		sb.append("\"workTheftLatHist\": " + workTheftLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"incumbentBroadcastLatHist\": " + incumbentBroadcastLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"stolenBatchSizeHist\": " + stolenBatchSizes.makeReport());
+		sb.append(",\n");
+		sb.append("\"vassalsLost\": " + vassalsLost.get());
+		sb.append(",\n");
+		sb.append("\"nodesRequeued\": " + nodesRequeued.get());
+		sb.append(",\n");
+		sb.append("\"vassalsJoined\": " + vassalsJoined.get());
+		sb.append(",\n");
+		sb.append("\"vassalsDrained\": " + vassalsDrained.get());
+		sb.append(",\n");
+		sb.append("\"nodesDrained\": " + nodesDrained.get());
+		if (codecStats != null) {
+			sb.append(",\n");
+			sb.append("\"codec\": " + codecStats.makeReport());
 		}
-		sb.append("]");
 		sb.append("}");
 		return sb.toString();
 	}
 	
-	private int sumWorkStolenTime() {
-		int sum = 0;
-		List<List<WorkTheft>> lists = workThefts.getLists();
-		for (List<WorkTheft> list : lists) {
-			for (WorkTheft theft : list) {
-				sum += theft.timeTaken;
-			}
-		}
-		return sum;
+	/**
+	 * The total time once we're finished, and the time so far until then.
+	 */
+	private long elapsedTime() {
+		long end = (finishTime != 0) ? finishTime : System.currentTimeMillis();
+		return (startTime == 0) ? 0 : end - startTime;
 	}
 	
-	private int sumTimesWorkStolen() {
-		int sum = 0;
-		List<List<WorkTheft>> lists = workThefts.getLists();
-		for (List<WorkTheft> list : lists) {
-			sum += list.size();
-		}
-		return sum;
+	private long sumWorkStolenTime() {
+		return workTheftLats.getSum();
 	}
 	
-	private List<Integer> getWorkStealTimeTakens() {
-		List<Integer> timeTakens = new ArrayList<Integer>();
-		List<List<WorkTheft>> lists = workThefts.getLists();
-		for (List<WorkTheft> list : lists) {
-			for (WorkTheft theft : list) {
-				timeTakens.add(theft.timeTaken);
-			}
-		}
-		return timeTakens;
+	private long sumTimesWorkStolen() {
+		return workTheftLats.getCount();
 	}
 	
-	private List<Long> getWorkStealTimes() {
-		List<Long> times = new ArrayList<Long>();
-		List<List<WorkTheft>> lists = workThefts.getLists();
-		for (List<WorkTheft> list : lists) {
-			for (WorkTheft theft : list) {
-				times.add(theft.endTime);
-			}
-		}
-		return times;
-	}
-	
-	private class WorkTheft {
-		public int timeTaken;
-		public long endTime;
-		public int numFailedAttempts;
-		
-		public WorkTheft(int duration, long endTime, int numFailedAttempts) {
-			this.timeTaken = duration;
-			this.endTime = endTime;
-			this.numFailedAttempts = numFailedAttempts;
-		}
+	private double meanStolenBatchSize() {
+		return stolenBatchSizes.getMean();
+	}
+	
+	@Override
+	public Map<String, Number> getMetrics() {
+		Map<String, Number> metrics = new LinkedHashMap<String, Number>();
+		metrics.put("elapsedTime", elapsedTime());
+		metrics.put("numAskedForWork", askedForWorkCount.get());
+		metrics.put("numWorkThefts", sumTimesWorkStolen());
+		metrics.put("workTheftLatP50", workTheftLats.getValueAtPercentile(50));
+		metrics.put("workTheftLatP99", workTheftLats.getValueAtPercentile(99));
+		metrics.put("meanStolenBatchSize", meanStolenBatchSize());
+		metrics.put("numIncumbents", incumbents.getNumRecorded());
+		metrics.put("bestCost", bestCost);
+		metrics.put("vassalsLost", vassalsLost.get());
+		metrics.put("nodesRequeued", nodesRequeued.get());
+		return metrics;
 	}
 }
@@ -0,0 +1,161 @@
+package bnb.stats;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The stats of the jobs running in this process, for watching them while they run.
+ * Each is also registered with the platform MBean server as bnb:type=JobStats,name=...,
+ * with an attribute for each of its metrics and one for its whole report.
+ */
+public class MetricsRegistry {
+	private static final Logger LOG = Logger.getLogger(MetricsRegistry.class);
+	
+	private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+	
+	private final Map<String, MetricsSource> sources = new ConcurrentSkipListMap<String, MetricsSource>();
+	
+	/**
+	 * The registry for the process, which a MetricsServer serves.
+	 */
+	public static MetricsRegistry getDefault() {
+		return DEFAULT;
+	}
+	
+	/**
+	 * Replaces anything already registered under the same name.
+	 */
+	public void register(MetricsSource source) {
+		String name = source.getMetricsName();
+		sources.put(name, source);
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = objectName(name);
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(new SourceMBean(source), objectName);
+		} catch (JMException ex) {
+			LOG.warn("Couldn't register " + name + " with JMX", ex);
+		}
+	}
+	
+	/**
+	 * Does nothing if the source has since been replaced by another with its name.
+	 */
+	public void unregister(MetricsSource source) {
+		String name = source.getMetricsName();
+		if (!sources.remove(name, source)) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+		} catch (InstanceNotFoundException ex) {
+			//someone else took it out
+		} catch (JMException ex) {
+			LOG.warn("Couldn't unregister " + name + " from JMX", ex);
+		}
+	}
+	
+	/**
+	 * Returns null if nothing's registered under the name.
+	 */
+	public MetricsSource get(String name) {
+		return sources.get(name);
+	}
+	
+	/**
+	 * In order of name.
+	 */
+	public List<MetricsSource> getSources() {
+		return new ArrayList<MetricsSource>(sources.values());
+	}
+	
+	private static ObjectName objectName(String name) throws JMException {
+		return new ObjectName("bnb:type=JobStats,name=" + ObjectName.quote(name));
+	}
+	
+	/**
+	 * Shows a source's metrics as read-only attributes.  Which metrics there are is looked
+	 * up each time, so that ones that show up partway through a job are seen.
+	 */
+	private static class SourceMBean implements DynamicMBean {
+		private static final String REPORT = "Report";
+		
+		private final MetricsSource source;
+		
+		public SourceMBean(MetricsSource source) {
+			this.source = source;
+		}
+		
+		@Override
+		public Object getAttribute(String attribute) throws AttributeNotFoundException {
+			if (REPORT.equals(attribute)) {
+				return source.makeReport();
+			}
+			Number value = source.getMetrics().get(attribute);
+			if (value == null) {
+				throw new AttributeNotFoundException(attribute);
+			}
+			return value;
+		}
+		
+		@Override
+		public AttributeList getAttributes(String[] attributes) {
+			AttributeList list = new AttributeList();
+			for (String attribute : attributes) {
+				try {
+					list.add(new Attribute(attribute, getAttribute(attribute)));
+				} catch (AttributeNotFoundException ex) {
+					//left out, as the interface allows
+				}
+			}
+			return list;
+		}
+		
+		@Override
+		public MBeanInfo getMBeanInfo() {
+			Map<String, Number> metrics = source.getMetrics();
+			List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+			for (Map.Entry<String, Number> metric : metrics.entrySet()) {
+				attributes.add(new MBeanAttributeInfo(metric.getKey(), metric.getValue().getClass().getName(),
+						metric.getKey(), true, false, false));
+			}
+			attributes.add(new MBeanAttributeInfo(REPORT, String.class.getName(),
+					"all the stats, in a JSON format", true, false, false));
+			return new MBeanInfo(source.getClass().getName(), "Stats for " + source.getMetricsName(),
+					attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, null, null);
+		}
+		
+		@Override
+		public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+			throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+		}
+		
+		@Override
+		public AttributeList setAttributes(AttributeList attributes) {
+			return new AttributeList();
+		}
+		
+		@Override
+		public Object invoke(String actionName, Object[] params, String[] signature) {
+			throw new UnsupportedOperationException(actionName);
+		}
+	}
+}
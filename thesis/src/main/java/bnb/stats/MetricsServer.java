@@ -0,0 +1,130 @@
+package bnb.stats;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import bnb.trace.Tracer;
+
+/**
+ * Serves the stats in a MetricsRegistry over HTTP, as JSON.  GET /metrics returns every
+ * source's report by name, and GET /metrics/name returns just that one.  GET /trace
+ * returns what the process's Tracer has, for TraceMerger.
+ */
+public class MetricsServer {
+	private static final Logger LOG = Logger.getLogger(MetricsServer.class);
+	
+	private static final String PATH = "/metrics";
+	private static final String TRACE_PATH = "/trace";
+	
+	private final int port;
+	private final MetricsRegistry registry;
+	private HttpServer server;
+	
+	public MetricsServer(int port, MetricsRegistry registry) {
+		this.port = port;
+		this.registry = registry;
+	}
+	
+	public void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext(PATH, new MetricsHandler());
+		server.createContext(TRACE_PATH, new TraceHandler());
+		//the default executor answers on the server's own thread, which is plenty here
+		server.start();
+		LOG.info("Serving metrics on port " + port);
+	}
+	
+	public void stop() {
+		if (server != null) {
+			server.stop(0);
+		}
+	}
+	
+	private String makeReport(String path) {
+		if (path.equals(PATH) || path.equals(PATH + "/")) {
+			List<MetricsSource> sources = registry.getSources();
+			StringBuilder sb = new StringBuilder("{");
+			for (MetricsSource source : sources) {
+				if (sb.length() > 1) {
+					sb.append(",\n");
+				}
+				sb.append("\"" + source.getMetricsName() + "\": " + source.makeReport());
+			}
+			sb.append("}");
+			return sb.toString();
+		}
+		if (!path.startsWith(PATH + "/")) {
+			return null;
+		}
+		MetricsSource source = registry.get(path.substring(PATH.length() + 1));
+		return (source == null) ? null : source.makeReport();
+	}
+	
+	/**
+	 * Returns null for a path that isn't found.
+	 */
+	private String makeTrace(String path) throws IOException {
+		if (!path.equals(TRACE_PATH)) {
+			return null;
+		}
+		StringWriter writer = new StringWriter();
+		Tracer.getDefault().writeTo(writer);
+		return writer.toString();
+	}
+	
+	private abstract class JsonHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!"GET".equals(exchange.getRequestMethod())) {
+					exchange.sendResponseHeaders(405, -1);
+					return;
+				}
+				String report = makeBody(exchange.getRequestURI().getPath());
+				if (report == null) {
+					exchange.sendResponseHeaders(404, -1);
+					return;
+				}
+				byte[] body = report.getBytes("UTF-8");
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, body.length);
+				OutputStream os = exchange.getResponseBody();
+				os.write(body);
+				os.close();
+			} catch (RuntimeException ex) {
+				LOG.error("Trouble serving " + exchange.getRequestURI(), ex);
+				exchange.sendResponseHeaders(500, -1);
+			} finally {
+				exchange.close();
+			}
+		}
+		
+		/**
+		 * Returns null for a path that isn't found.
+		 */
+		protected abstract String makeBody(String path) throws IOException;
+	}
+	
+	private class MetricsHandler extends JsonHandler {
+		@Override
+		protected String makeBody(String path) {
+			return makeReport(path);
+		}
+	}
+	
+	private class TraceHandler extends JsonHandler {
+		@Override
+		protected String makeBody(String path) throws IOException {
+			return makeTrace(path);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package bnb.stats;
+
+import java.util.Map;
+
+/**
+ * Stats that can be read while they're being recorded, for watching a job as it runs.
+ */
+public interface MetricsSource {
+	/**
+	 * What we're listed as in a MetricsRegistry.
+	 */
+	String getMetricsName();
+	
+	/**
+	 * Everything we have, in a JSON format.
+	 */
+	String makeReport();
+	
+	/**
+	 * A few numbers worth watching, by name, for JMX.
+	 */
+	Map<String, Number> getMetrics();
+}
@@ -0,0 +1,42 @@
+package bnb.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count that many threads can add to at once without fighting over one cache line.
+ * Each thread adds to one of a fixed number of stripes picked by its id, and reads add
+ * up the stripes, so a read that races with adds sees some of them.
+ */
+public class StripedCounter {
+	//longs between stripes, so that each is on its own cache line
+	private static final int PADDING = 8;
+	private static final int NUM_STRIPES = numStripes();
+
+	private final AtomicLongArray stripes = new AtomicLongArray(NUM_STRIPES * PADDING);
+
+	private static int numStripes() {
+		int wanted = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+		return Integer.highestOneBit(wanted - 1) << 1;
+	}
+
+	private static int stripe() {
+		long id = Thread.currentThread().getId();
+		return ((int)(id ^ (id >>> 32)) & (NUM_STRIPES - 1)) * PADDING;
+	}
+
+	public void add(long amount) {
+		stripes.addAndGet(stripe(), amount);
+	}
+
+	public void increment() {
+		add(1);
+	}
+
+	public long get() {
+		long sum = 0;
+		for (int i = 0; i < NUM_STRIPES; i++) {
+			sum += stripes.get(i * PADDING);
+		}
+		return sum;
+	}
+}
@@ -1,39 +1,130 @@
 package bnb.stats;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import org.apache.log4j.Logger;
-
-public class VassalJobStats {
+/**
+ * Stats for one job on one vassal, which can be read while the job runs.  Everything is
+ * kept in a fixed amount of memory: distributions go in histograms, and the report's
+ * lists of samples only have the most recent EventRing.DEFAULT_CAPACITY of them.
+ */
+public class VassalJobStats implements MetricsSource {
+	
+	/** the least time in milliseconds the recent evaluation rate is taken over */
+	private static final long RATE_WINDOW = 1000;
 	
-	private static final Logger LOG = Logger.getLogger(VassalJobStats.class);
+	private volatile String metricsName = "vassal-job";
 	
 	private ThreadLocal<Long> askForWorkStart;
 	private ThreadLocal<Long> nextNodeStart;
 	
-	//TODO: probably can just be a regular list
-	private ThreadLocalList<Long> askForWorkLats;
-	private ThreadLocalList<Long> nextNodeLats;
+	private LogHistogram askForWorkLats;
+	private EventRing recentAskForWorkLats;
+	private LogHistogram nextNodeLats;
+	
+	//each thread's times it started and stopped working, and how long it sat idle
+	private ThreadLocal<ThreadState> threadState;
+	private List<ThreadState> threadStates;
+	private LogHistogram idleTimes;
+	
+	private StripedCounter totalStealTime;
+	//when work was stolen, how long it took, and 1 if it was from a peer
+	private EventRing steals;
+	private LogHistogram workStealLats;
+	//steals straight from other vassals
+	private LogHistogram peerStealLats;
+	private StripedCounter failedPeerSteals;
+	//background requests for work made before running out, and how many nodes they got
+	private EventRing prefetches;
+	private LogHistogram prefetchLats;
+	//times a task runner waited on a request that was already out instead of sending one
+	private StripedCounter joinedFetches;
 	
-	private ThreadLocalList<Long> toggleWorkingTimes;
+	private LogHistogram evalNanos;
+	//for the recent rate, guarded by this
+	private long prevRateTime;
+	private long prevRateCount;
+	private long lastRateTime;
+	private long lastRateCount;
 	
-	private ThreadLocalCount totalStealTime;
-	private ThreadLocalList<Long> workStolenTimes;//logged after work has been stolen
-	private ThreadLocalList<Integer> workStealLats;
+	//when we found each incumbent, and its cost
+	private EventRing incumbents;
+	private volatile double bestCost = Double.MAX_VALUE;
+	//time from finding an incumbent to the lord acknowledging it
+	private EventRing recentIncumbentSendLats;
+	private LogHistogram incumbentSendLats;
+	//how long each checkpoint held up the task runners, in microseconds
+	private EventRing recentCheckpointPauses;
+	private LogHistogram checkpointPauses;
+	private EventRing recentLeaseReportTimes;
+	private LogHistogram leaseReportTimes;
+	//how many threads the slot allocator gave the job, each time it changed
+	private EventRing targetThreads;
+	//nodes in the pool on the heap and spilled out of it, at each heartbeat
+	private EventRing frontier;
+	private volatile long numNodesSpilled;
+	private volatile long numNodesRestored;
+	private volatile int peakSpillBytes;
 	
-	private int numEvaluated;
+	private volatile int numEvaluated = -1;
 	
-	private long doneTime;
+	private CodecStats codecStats;
+	
+	private final long startTime;
+	private volatile long doneTime;
 	
 	public VassalJobStats() {
-		askForWorkLats = new ThreadLocalList<Long>();
+		askForWorkLats = new LogHistogram();
+		recentAskForWorkLats = new EventRing(1);
 		askForWorkStart = new ThreadLocal<Long>();
-		nextNodeLats = new ThreadLocalList<Long>();
+		nextNodeLats = new LogHistogram();
 		nextNodeStart = new ThreadLocal<Long>();
-		toggleWorkingTimes = new ThreadLocalList<Long>();
-		totalStealTime = new ThreadLocalCount();
-		workStealLats = new ThreadLocalList<Integer>();
-		workStolenTimes = new ThreadLocalList<Long>();
+		threadStates = new CopyOnWriteArrayList<ThreadState>();
+		threadState = new ThreadLocal<ThreadState>() {
+			@Override
+			protected ThreadState initialValue() {
+				ThreadState state = new ThreadState();
+				threadStates.add(state);
+				return state;
+			}
+		};
+		idleTimes = new LogHistogram();
+		totalStealTime = new StripedCounter();
+		steals = new EventRing(3);
+		workStealLats = new LogHistogram();
+		peerStealLats = new LogHistogram();
+		failedPeerSteals = new StripedCounter();
+		prefetches = new EventRing(2);
+		prefetchLats = new LogHistogram();
+		joinedFetches = new StripedCounter();
+		evalNanos = new LogHistogram();
+		incumbents = new EventRing(2);
+		recentIncumbentSendLats = new EventRing(1);
+		incumbentSendLats = new LogHistogram();
+		recentCheckpointPauses = new EventRing(1);
+		checkpointPauses = new LogHistogram();
+		recentLeaseReportTimes = new EventRing(1);
+		leaseReportTimes = new LogHistogram();
+		targetThreads = new EventRing(1);
+		frontier = new EventRing(2);
+		startTime = System.currentTimeMillis();
+		prevRateTime = startTime;
+		lastRateTime = startTime;
+	}
+	
+	/**
+	 * What the job is listed as in a MetricsRegistry.  Should be set before registering.
+	 */
+	public void setMetricsName(String metricsName) {
+		this.metricsName = metricsName;
+	}
+	
+	@Override
+	public String getMetricsName() {
+		return metricsName;
 	}
 	
 	public void reportNextNodeStart() {
@@ -41,7 +132,7 @@ public class VassalJobStats {
 	}
 	
 	public void reportNextNodeEnd() {
-		nextNodeLats.add(System.currentTimeMillis()-nextNodeStart.get());
+		nextNodeLats.record(System.currentTimeMillis()-nextNodeStart.get());
 	}
 	
 	public void reportAskForWorkStart() {
@@ -52,21 +143,136 @@ public class VassalJobStats {
 	 * TODO: maybe report depth of node stolen
 	 */
 	public void reportAskForWorkEnd() {
-		askForWorkLats.add(System.currentTimeMillis()-askForWorkStart.get());
+		long latency = System.currentTimeMillis()-askForWorkStart.get();
+		askForWorkLats.record(latency);
+		recentAskForWorkLats.record(latency);
 	}
 
 	public void reportWorkStolen(int timeTaken) {
 		totalStealTime.add(timeTaken);
-		workStealLats.add(timeTaken);
-		workStolenTimes.add(System.currentTimeMillis());
+		workStealLats.record(timeTaken);
+		steals.record(System.currentTimeMillis(), timeTaken, 0);
+	}
+	
+	/**
+	 * Called after successfully stealing work directly from another vassal.
+	 */
+	public void reportPeerWorkStolen(int timeTaken) {
+		totalStealTime.add(timeTaken);
+		peerStealLats.record(timeTaken);
+		steals.record(System.currentTimeMillis(), timeTaken, 1);
+	}
+	
+	/**
+	 * Called when a peer we tried to steal from had nothing to give or couldn't be reached.
+	 */
+	public void reportFailedPeerSteal() {
+		failedPeerSteals.increment();
+	}
+	
+	/**
+	 * @param timeTaken
+	 * 		time in milliseconds the prefetch took
+	 * @param numNodes
+	 * 		number of nodes it brought back, possibly 0
+	 */
+	public void reportPrefetch(int timeTaken, int numNodes) {
+		prefetchLats.record(timeTaken);
+		prefetches.record(timeTaken, numNodes);
+	}
+	
+	public void reportJoinedFetch() {
+		joinedFetches.increment();
 	}
 	
 	public void reportWorking() {
-		toggleWorkingTimes.add(System.currentTimeMillis());
+		long now = System.currentTimeMillis();
+		ThreadState state = threadState.get();
+		state.toggles.record(now);
+		if (state.idleSince >= 0) {
+			idleTimes.record(now - state.idleSince);
+			state.idleSince = -1;
+		}
 	}
 	
 	public void reportNotWorking() {
-		toggleWorkingTimes.add(System.currentTimeMillis());
+		long now = System.currentTimeMillis();
+		ThreadState state = threadState.get();
+		state.toggles.record(now);
+		state.idleSince = now;
+	}
+	
+	/**
+	 * @param nanos
+	 * 		how long it took to evaluate a node
+	 */
+	public void reportEvaluated(long nanos) {
+		evalNanos.record(nanos);
+	}
+	
+	/**
+	 * Called when this vassal finds a solution better than any it knew of.
+	 */
+	public void reportNewIncumbent(double cost) {
+		incumbents.record(System.currentTimeMillis(), Double.doubleToLongBits(cost));
+		bestCost = cost;
+	}
+	
+	/**
+	 * @param latency
+	 * 		time in milliseconds from finding the incumbent to the lord acknowledging it
+	 */
+	public void reportIncumbentSent(long latency) {
+		incumbentSendLats.record(latency);
+		recentIncumbentSendLats.record(latency);
+	}
+	
+	/**
+	 * @param micros
+	 * 		how long the task runners were held up while we copied the open nodes
+	 */
+	public void reportCheckpointPause(long micros) {
+		checkpointPauses.record(micros);
+		recentCheckpointPauses.record(micros);
+	}
+	
+	/**
+	 * @param micros
+	 * 		how long it took to find which leases still have nodes, which task runners
+	 * 		don't wait for
+	 */
+	public void reportLeaseReportTime(long micros) {
+		leaseReportTimes.record(micros);
+		recentLeaseReportTimes.record(micros);
+	}
+	
+	public void reportTargetThreads(int numThreads) {
+		targetThreads.record(numThreads);
+	}
+	
+	public void reportFrontier(int numResident, int numSpilled) {
+		frontier.record(numResident, numSpilled);
+	}
+	
+	/**
+	 * @param numSpilled
+	 * 		total nodes written out of the heap over the job
+	 * @param numRestored
+	 * 		total nodes read back in
+	 * @param peakBytes
+	 * 		most of the spill arena in use at once
+	 */
+	public void reportSpilling(long numSpilled, long numRestored, int peakBytes) {
+		numNodesSpilled = numSpilled;
+		numNodesRestored = numRestored;
+		peakSpillBytes = peakBytes;
+	}
+	
+	/**
+	 * Stats on encoding and decoding nodes to include in the report.
+	 */
+	public void setCodecStats(CodecStats codecStats) {
+		this.codecStats = codecStats;
 	}
 	
 	public void reportDone() {
@@ -76,108 +282,177 @@ public class VassalJobStats {
 	public void reportNumEvaluated(int numEvaluated) {
 		this.numEvaluated = numEvaluated;
 	}
+	
+	/**
+	 * The count the job gave us when it finished, or the nodes we've been told about
+	 * so far.
+	 */
+	private long getNumEvaluated() {
+		return numEvaluated >= 0 ? numEvaluated : evalNanos.getCount();
+	}
+	
+	/**
+	 * Nodes per second over the whole job, up to when it finished.
+	 */
+	private double nodesPerSec() {
+		long end = (doneTime != 0) ? doneTime : System.currentTimeMillis();
+		return end == startTime ? 0 : getNumEvaluated() * 1000.0 / (end - startTime);
+	}
+	
+	/**
+	 * Nodes per second between the last two reads at least RATE_WINDOW apart, so that
+	 * reads close together don't see a rate over no time.
+	 */
+	private synchronized double recentNodesPerSec() {
+		long now = System.currentTimeMillis();
+		if (now - lastRateTime >= RATE_WINDOW) {
+			prevRateTime = lastRateTime;
+			prevRateCount = lastRateCount;
+			lastRateTime = now;
+			lastRateCount = evalNanos.getCount();
+		}
+		if (lastRateTime == prevRateTime) {
+			return 0;
+		}
+		return (lastRateCount - prevRateCount) * 1000.0 / (lastRateTime - prevRateTime);
+	}
+	
+	/**
+	 * Each thread's start and stop times.  A ring that's been written over starts at a
+	 * start time, so that the times still pair up.
+	 */
+	private List<List<Long>> toggleWorkingLists() {
+		List<List<Long>> lists = new ArrayList<List<Long>>();
+		for (ThreadState state : threadStates) {
+			long numLost = state.toggles.getNumRecorded() - EventRing.DEFAULT_CAPACITY;
+			List<Long> toggles = state.toggles.getColumn(0);
+			if (numLost > 0 && numLost % 2 == 1 && !toggles.isEmpty()) {
+				toggles.remove(0);
+			}
+			lists.add(toggles);
+		}
+		return lists;
+	}
+	
+	/**
+	 * The latencies of the recent steals of the given kind.
+	 */
+	private List<Long> stealLats(boolean peer) {
+		List<Long> lats = steals.getColumn(1);
+		List<Long> peers = steals.getColumn(2);
+		List<Long> result = new ArrayList<Long>();
+		for (int i = 0; i < lats.size() && i < peers.size(); i++) {
+			if ((peers.get(i) == 1) == peer) {
+				result.add(lats.get(i));
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public Map<String, Number> getMetrics() {
+		Map<String, Number> metrics = new LinkedHashMap<String, Number>();
+		metrics.put("numEvaluated", getNumEvaluated());
+		metrics.put("nodesPerSec", nodesPerSec());
+		metrics.put("recentNodesPerSec", recentNodesPerSec());
+		metrics.put("evalNanosP50", evalNanos.getValueAtPercentile(50));
+		metrics.put("evalNanosP99", evalNanos.getValueAtPercentile(99));
+		metrics.put("numWorkSteals", workStealLats.getCount());
+		metrics.put("workStealLatP50", workStealLats.getValueAtPercentile(50));
+		metrics.put("workStealLatP99", workStealLats.getValueAtPercentile(99));
+		metrics.put("numPeerSteals", peerStealLats.getCount());
+		metrics.put("totalIdleTime", idleTimes.getSum());
+		metrics.put("numIncumbents", incumbents.getNumRecorded());
+		metrics.put("bestCost", bestCost);
+		return metrics;
+	}
 		
 	/**
-	 * In a JSON format.
+	 * In a JSON format.  The lists of samples only have the most recent ones.
 	 */
 	public String makeReport() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("{\"askForWork_latencies\":");
-		sb.append(askForWorkLats.getAll());
+		sb.append(recentAskForWorkLats.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"numEvaluated\": " + getNumEvaluated());
+		sb.append(",\n");
+		sb.append("\"toggleWorkingLists\": " + toggleWorkingLists());
+		sb.append(",\n");
+		sb.append("\"workStealLats\": " + stealLats(false));
+		sb.append(",\n");
+		sb.append("\"workStolenTimes\": " + steals.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"peerStealLats\": " + stealLats(true));
+		sb.append(",\n");
+		sb.append("\"numFailedPeerSteals\": " + failedPeerSteals.get());
+		sb.append(",\n");
+		sb.append("\"prefetchLats\": " + prefetches.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"prefetchSizes\": " + prefetches.getColumn(1));
 		sb.append(",\n");
-		sb.append("\"numEvaluated\": " + numEvaluated);
+		sb.append("\"numJoinedFetches\": " + joinedFetches.get());
 		sb.append(",\n");
-		List<List<Long>> toggleWorkingLists = toggleWorkingTimes.getLists();
-		sb.append("\"toggleWorkingLists\": " + toggleWorkingLists);
+		sb.append("\"totalStealTime\": " + totalStealTime.get());
 		sb.append(",\n");
-		sb.append("\"workStealLats\": " + workStealLats.getAll());
+		sb.append("\"incumbentTimes\": " + incumbents.getColumn(0));
 		sb.append(",\n");
-		sb.append("\"workStolenTimes\": " + workStolenTimes.getAll());
+		sb.append("\"incumbentCosts\": " + incumbents.getDoubleColumn(1));
 		sb.append(",\n");
-		sb.append("\"totalStealTime\": " + totalStealTime.getCount());
+		sb.append("\"incumbentSendLats\": " + recentIncumbentSendLats.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"checkpointPauses\": " + recentCheckpointPauses.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"leaseReportTimes\": " + recentLeaseReportTimes.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"targetThreads\": " + targetThreads.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"residentNodes\": " + frontier.getColumn(0));
+		sb.append(",\n");
+		sb.append("\"spilledNodes\": " + frontier.getColumn(1));
+		sb.append(",\n");
+		sb.append("\"numNodesSpilled\": " + numNodesSpilled);
+		sb.append(",\n");
+		sb.append("\"numNodesRestored\": " + numNodesRestored);
+		sb.append(",\n");
+		sb.append("\"peakSpillBytes\": " + peakSpillBytes);
+		sb.append(",\n");
+		sb.append("\"nodesPerSec\": " + nodesPerSec());
+		sb.append(",\n");
+		sb.append("\"evalNanosHist\": " + evalNanos.makeReport());
+		sb.append(",\n");
+		sb.append("\"idleTimeHist\": " + idleTimes.makeReport());
+		sb.append(",\n");
+		sb.append("\"workStealLatHist\": " + workStealLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"peerStealLatHist\": " + peerStealLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"prefetchLatHist\": " + prefetchLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"askForWorkLatHist\": " + askForWorkLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"nextNodeLatHist\": " + nextNodeLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"incumbentSendLatHist\": " + incumbentSendLats.makeReport());
+		sb.append(",\n");
+		sb.append("\"checkpointPauseHist\": " + checkpointPauses.makeReport());
+		sb.append(",\n");
+		sb.append("\"leaseReportTimeHist\": " + leaseReportTimes.makeReport());
+		sb.append(",\n");
+		sb.append("\"startTime\": " + startTime);
 		sb.append(",\n");
 		sb.append("\"doneTime\": " + doneTime);
-		
-//		
-//		sb.append("\"time_spent\": ");
-//		if (workStartLists.size() != workStopLists.size()) {
-//			sb.append("\"workStartLists.size() != workStopLists.size()\"");
-//		} else {
-//			List<Long> totalWorkingTimes = new ArrayList<Long>();
-//			List<Long> totalTimes = new ArrayList<Long>();
-//			boolean failed = false;
-//			loop:
-//			for (int i = 0; i < workStartLists.size(); i++) {
-//				long totalWorkingTime = 0;
-//				
-//				List<Long> startTimesList = workStartLists.get(i);
-//				List<Long> stopTimesList = workStopLists.get(i);
-//				Iterator<Long> startTimesIter = startTimesList.iterator();
-//				Iterator<Long> stopTimesIter = stopTimesList.iterator();
-//				while (startTimesIter.hasNext()) {
-//					if (!stopTimesIter.hasNext()) {
-//						sb.append("\"no accompanying stop time for start time\"");
-//						failed = true;
-//						break loop;
-//					}
-//					long startTime = startTimesIter.next();
-//					long stopTime = stopTimesIter.next();
-//					if (stopTime < startTime) {
-//						sb.append("\"stopTime < startTime\"");
-//						failed = true;
-//						break loop;
-//					}
-//					
-//					totalWorkingTime += startTime - stopTime;
-//				}
-//				totalWorkingTimes.add(totalWorkingTime);
-//				totalTimes.add(stopTimesList.get(stopTimesList.size()-1) - startTimesList.get(0));
-//			}
-//			if (!failed) {
-//				sb.append("[" + totalWorkingTimes + ", " + totalTimes + "]");
-//			}
-//		}
-		
+		if (codecStats != null) {
+			sb.append(",\n");
+			sb.append("\"codec\": " + codecStats.makeReport());
+		}
 		sb.append("}");
 		return sb.toString();
 	}
-		
-	/**
-	 * Calculates statistics on a list of numbers and appends them in
-	 * human readable form to the given StringBuilder.
-	 */
-	private void makeReportOnList(List<Long> list, StringBuilder sb) {
-		long max = Integer.MIN_VALUE;
-		long min = Integer.MAX_VALUE;
-		long sum = 0;
-		for (Long val : list) {
-			sum += val;
-			if (val > max) {
-				max = val;
-			}
-			if (val < min) {
-				min = val;
-			}
-		}
-		double avg = sum / list.size();
-		double sumSquareDist = 0.0;
-		for (Long val : list) {
-			sumSquareDist += (val - avg) * (val - avg);
-		}
-		double var = sumSquareDist / list.size();
-		
-		sb.append("{");
-		sb.append("\"count\": " + list.size());
-		sb.append(", ");
-		sb.append("\"max\": " + max);
-		sb.append(", ");
-		sb.append("\"min\": " + min + "\n");
-		sb.append(", ");
-		sb.append("\"sum\": " + sum + "\n");
-		sb.append(", ");
-		sb.append("\"avg\": " + avg + "\n");
-		sb.append(", ");
-		sb.append("\"var\": " + var + "\n");
-		sb.append("}");
+	
+	private static class ThreadState {
+		public final EventRing toggles = new EventRing(1);
+		//only touched by the thread
+		public long idleSince = -1;
 	}
 }
@@ -0,0 +1,49 @@
+package bnb.trace;
+
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+
+import bnb.vassal.LordProxy;
+
+/**
+ * Finds how far our clock is from the top lord's, for putting our trace on the same
+ * timeline as everyone else's.  Asks our lord for its time a few times, and takes the
+ * answer that came back fastest, assuming it was read halfway through the round trip.
+ * A lord that's a sub-lord answers with its parent's time, so every process ends up
+ * offset to the top lord.
+ */
+public class ClockSync {
+	private static final Logger LOG = Logger.getLogger(ClockSync.class);
+	
+	public static final int DEFAULT_ROUNDS = 8;
+	
+	/**
+	 * Sets the tracer's clock offset to the lord's.  Leaves it alone if the lord can't be
+	 * reached.
+	 */
+	public static void sync(Tracer tracer, LordProxy lord) {
+		try {
+			long offset = estimateOffset(tracer, lord, DEFAULT_ROUNDS);
+			tracer.setClockOffset(offset);
+			LOG.info("Clock offset to lord is " + offset + " micros");
+		} catch (IOException ex) {
+			LOG.warn("Couldn't get time from lord, trace times won't line up with its", ex);
+		}
+	}
+	
+	public static long estimateOffset(Tracer tracer, LordProxy lord, int rounds) throws IOException {
+		long bestRoundTrip = Long.MAX_VALUE;
+		long bestOffset = 0;
+		for (int i = 0; i < rounds; i++) {
+			long sent = tracer.nowMicros();
+			long lordTime = lord.getTimeMicros();
+			long received = tracer.nowMicros();
+			if (received - sent < bestRoundTrip) {
+				bestRoundTrip = received - sent;
+				bestOffset = lordTime - (sent + received) / 2;
+			}
+		}
+		return bestOffset;
+	}
+}
@@ -0,0 +1,76 @@
+package bnb.trace;
+
+/**
+ * The kinds of spans we trace, with the names they're shown under and what their
+ * arguments mean.  Spans that happen for every node are sampled, and the rest are all
+ * recorded while tracing is on, so that both ends of a request for work show up.
+ */
+public enum Span {
+	//task runners
+	EVALUATE("evaluate", "vassal", true, Flow.NONE),
+	//held up by a checkpoint or drain
+	PAUSE_WAIT("pauseWait", "vassal", false, Flow.NONE),
+	IDLE("idle", "vassal", false, Flow.NONE),
+	//waiting on a request for work another task runner sent
+	FETCH_WAIT("fetchWait", "vassal", false, Flow.NONE),
+	ASK_LORD("askLord", "vassal", false, Flow.OUT, "nodes"),
+	PREFETCH("prefetch", "vassal", false, Flow.OUT, "nodes"),
+	PEER_STEAL("peerSteal", "vassal", false, Flow.OUT, "victim", "nodes"),
+	//a vassal giving up nodes to the lord, or straight to another vassal
+	GIVE_WORK("giveWork", "vassal", false, Flow.NONE, "nodes"),
+	GIVE_PEER_WORK("givePeerWork", "vassal", false, Flow.IN, "thief", "nodes"),
+	
+	LORD_ASK_FOR_WORK("askForWork", "lord", false, Flow.IN, "nodes"),
+	LORD_PREFETCH("prefetchWork", "lord", false, Flow.IN, "nodes"),
+	STEAL("stealFor", "lord", false, Flow.NONE, "victim", "nodes"),
+	ASK_PARENT("askParent", "lord", false, Flow.OUT, "nodes"),
+	
+	RPC_ASK_FOR_WORK("rpc.askForWork", "rpc", false, Flow.NONE, "nodes"),
+	//from the lord, with the victim as the vassal
+	RPC_STEAL_WORK("rpc.stealWork", "rpc", false, Flow.NONE, "nodes"),
+	RPC_PEER_STEAL("rpc.stealWorkFromPeer", "rpc", false, Flow.NONE, "victim", "nodes"),
+	RPC_HEARTBEAT("rpc.heartbeat", "rpc", false, Flow.NONE);
+	
+	/**
+	 * Whether a span starts or ends an arrow from a vassal's request for work to whoever
+	 * served it.
+	 */
+	public enum Flow { NONE, OUT, IN }
+	
+	private final String displayName;
+	private final String category;
+	private final boolean sampled;
+	private final Flow flow;
+	private final String[] argNames;
+	
+	private Span(String displayName, String category, boolean sampled, Flow flow, String... argNames) {
+		this.displayName = displayName;
+		this.category = category;
+		this.sampled = sampled;
+		this.flow = flow;
+		this.argNames = argNames;
+	}
+	
+	public String getDisplayName() {
+		return displayName;
+	}
+	
+	public String getCategory() {
+		return category;
+	}
+	
+	public boolean isSampled() {
+		return sampled;
+	}
+	
+	public Flow getFlow() {
+		return flow;
+	}
+	
+	/**
+	 * What the span's arguments are, up to two.
+	 */
+	public String[] getArgNames() {
+		return argNames;
+	}
+}
@@ -0,0 +1,79 @@
+package bnb.trace;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the traces written by Tracer on several machines into one trace on the top lord's
+ * clock, which Chrome's trace viewer (chrome://tracing) or Perfetto can open.
+ * 
+ * args: outputFile traceFile...
+ */
+public class TraceMerger {
+	
+	private static final Pattern OFFSET = Pattern.compile("\"clockOffsetMicros\": (-?\\d+)");
+	private static final Pattern TS = Pattern.compile("\"ts\": (-?\\d+)");
+	
+	public static void main(String[] args) throws IOException {
+		File[] inputs = new File[args.length - 1];
+		for (int i = 1; i < args.length; i++) {
+			inputs[i - 1] = new File(args[i]);
+		}
+		Writer writer = new BufferedWriter(new FileWriter(args[0]));
+		try {
+			merge(inputs, writer);
+		} finally {
+			writer.close();
+		}
+	}
+	
+	public static void merge(File[] inputs, Writer writer) throws IOException {
+		writer.write("{\"traceEvents\": [");
+		boolean first = true;
+		for (File input : inputs) {
+			BufferedReader reader = new BufferedReader(new FileReader(input));
+			try {
+				long offset = 0;
+				String line;
+				while ((line = reader.readLine()) != null) {
+					Matcher offsetMatcher = OFFSET.matcher(line);
+					if (line.startsWith("{\"otherData\"") && offsetMatcher.find()) {
+						offset = Long.parseLong(offsetMatcher.group(1));
+						continue;
+					}
+					if (!line.startsWith("{\"ph\"")) {
+						continue;
+					}
+					if (line.endsWith(",")) {
+						line = line.substring(0, line.length() - 1);
+					}
+					writer.write(first ? "\n" : ",\n");
+					writer.write(shift(line, offset));
+					first = false;
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		writer.write("\n]}\n");
+	}
+	
+	/**
+	 * Moves the event's time onto the top lord's clock.
+	 */
+	static String shift(String event, long offset) {
+		Matcher matcher = TS.matcher(event);
+		if (!matcher.find()) {
+			return event;
+		}
+		long ts = Long.parseLong(matcher.group(1)) + offset;
+		return event.substring(0, matcher.start(1)) + ts + event.substring(matcher.end(1));
+	}
+}
@@ -0,0 +1,330 @@
+package bnb.trace;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Records spans of what the lord and vassals are doing, for seeing on a timeline why a
+ * job sits idle.  Each thread writes to a ring of its own, so recording doesn't wait on
+ * anything, and only the most recent spans are kept.  Spans that happen for every node
+ * are sampled.  Tracing is off until it's enabled, and costs a volatile read per span
+ * while it's off.
+ *
+ * Traces are written in Chrome's trace event format, with times on this process's
+ * clock.  The clock offset to the top lord goes along with them, so that TraceMerger can
+ * put traces from several machines on one timeline.  A vassal's request for work and the
+ * lord serving it are linked by a flow event, keyed by the vassal and the lease it asked
+ * under.
+ */
+public class Tracer {
+	private static final Logger LOG = Logger.getLogger(Tracer.class);
+
+	/** spans each thread keeps */
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+	//past this many threads' rings, the rings of threads that have exited are dropped,
+	//oldest first, since each job starts its own task runners and prefetch thread
+	private static final int MAX_BUFFERS = 64;
+
+	private static final Tracer DEFAULT = new Tracer(DEFAULT_BUFFER_SIZE);
+
+	private final int bufferSize;
+	//0 means off, 1 records every span
+	private volatile int sampleEvery;
+	private volatile long clockOffsetMicros;
+	private volatile int pid;
+	private volatile String processName = "bnb";
+	private volatile File output;
+
+	private final long baseMicros;
+	private final long baseNanos;
+
+	private final List<Buffer> buffers = new CopyOnWriteArrayList<Buffer>();
+	private final ThreadLocal<Buffer> buffer = new ThreadLocal<Buffer>() {
+		@Override
+		protected Buffer initialValue() {
+			Buffer buffer = new Buffer(Thread.currentThread(), bufferSize);
+			buffers.add(buffer);
+			if (buffers.size() > MAX_BUFFERS) {
+				for (Buffer old : buffers) {
+					if (!old.thread.isAlive()) {
+						buffers.remove(old);
+						break;
+					}
+				}
+			}
+			return buffer;
+		}
+	};
+
+	public Tracer(int bufferSize) {
+		this.bufferSize = bufferSize;
+		baseMicros = System.currentTimeMillis() * 1000;
+		baseNanos = System.nanoTime();
+	}
+
+	/**
+	 * The tracer for the process, which the lord and vassals record to.
+	 */
+	public static Tracer getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Starts recording.
+	 * @param sampleEvery
+	 * 		record one in this many of the spans that happen for every node
+	 */
+	public void enable(int sampleEvery) {
+		this.sampleEvery = Math.max(1, sampleEvery);
+	}
+
+	public void disable() {
+		sampleEvery = 0;
+	}
+
+	public boolean isEnabled() {
+		return sampleEvery > 0;
+	}
+
+	/**
+	 * How we're shown in the trace.  Each process in a merged trace should have its own pid.
+	 */
+	public void setProcess(int pid, String processName) {
+		this.pid = pid;
+		this.processName = processName;
+	}
+
+	/**
+	 * Where flush writes the trace, or null for nowhere.
+	 */
+	public void setOutput(File output) {
+		this.output = output;
+	}
+
+	/**
+	 * Sets what to add to our clock to get the top lord's.
+	 */
+	public void setClockOffset(long micros) {
+		clockOffsetMicros = micros;
+	}
+
+	public long getClockOffset() {
+		return clockOffsetMicros;
+	}
+
+	/**
+	 * Microseconds since the epoch, as near as the wall clock was when we started, but
+	 * never going backwards.
+	 */
+	public long nowMicros() {
+		return baseMicros + (System.nanoTime() - baseNanos) / 1000;
+	}
+
+	/**
+	 * The time on the top lord's clock.
+	 */
+	public long correctedNowMicros() {
+		return nowMicros() + clockOffsetMicros;
+	}
+
+	/**
+	 * Identifies a request for work on both ends.
+	 */
+	public static long flowId(int vassalId, long leaseId) {
+		return ((long)(vassalId + 1) << 32) | (leaseId & 0xffffffffL);
+	}
+
+	/**
+	 * Returns what to pass to end, which is negative if the span isn't being recorded.
+	 */
+	public long begin(Span span) {
+		int every = sampleEvery;
+		if (every <= 0) {
+			return -1;
+		}
+		if (span.isSampled() && every > 1 && !buffer.get().sample(every)) {
+			return -1;
+		}
+		return nowMicros();
+	}
+
+	public void end(Span span, long start, int jobid, int vassalId) {
+		end(span, start, jobid, vassalId, 0, 0, 0);
+	}
+
+	public void end(Span span, long start, int jobid, int vassalId, long arg0) {
+		end(span, start, jobid, vassalId, arg0, 0, 0);
+	}
+
+	public void end(Span span, long start, int jobid, int vassalId, long arg0, long arg1) {
+		end(span, start, jobid, vassalId, arg0, arg1, 0);
+	}
+
+	/**
+	 * @param flowId
+	 * 		from flowId, for spans with a flow
+	 */
+	public void end(Span span, long start, int jobid, int vassalId, long arg0, long arg1, long flowId) {
+		if (start < 0) {
+			return;
+		}
+		buffer.get().record(span, start, nowMicros() - start, jobid, vassalId, arg0, arg1, flowId);
+	}
+
+	/**
+	 * Writes the trace to the output, if there is one.  The lord and vassals in a process
+	 * each flush when they finish a job, so the trace is written beside the output and
+	 * moved over it, so that a reader never sees half of one.
+	 */
+	public synchronized void flush() {
+		File output = this.output;
+		if (output == null || !isEnabled()) {
+			return;
+		}
+		File temp = new File(output.getPath() + ".tmp");
+		try {
+			Writer writer = new BufferedWriter(new FileWriter(temp));
+			try {
+				writeTo(writer);
+			} finally {
+				writer.close();
+			}
+			if (!temp.renameTo(output)) {
+				output.delete();
+				if (!temp.renameTo(output)) {
+					throw new IOException("Couldn't move " + temp + " to " + output);
+				}
+			}
+		} catch (IOException ex) {
+			LOG.error("Couldn't write trace to " + output, ex);
+		}
+	}
+
+	/**
+	 * Writes the spans we have, one event to a line, for TraceMerger.
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		int pid = this.pid;
+		writer.write("{\"otherData\": {\"process\": \"" + processName + "\", \"pid\": " + pid
+				+ ", \"clockOffsetMicros\": " + clockOffsetMicros + "},\n");
+		writer.write("\"traceEvents\": [\n");
+		writer.write("{\"ph\": \"M\", \"name\": \"process_name\", \"pid\": " + pid + ", \"tid\": 0, "
+				+ "\"args\": {\"name\": \"" + processName + "\"}}");
+		StringBuilder sb = new StringBuilder();
+		for (Buffer buffer : buffers) {
+			writer.write(",\n{\"ph\": \"M\", \"name\": \"thread_name\", \"pid\": " + pid + ", \"tid\": "
+					+ buffer.thread.getId() + ", \"args\": {\"name\": \"" + escape(buffer.thread.getName()) + "\"}}");
+			long end = buffer.count;
+			for (long n = Math.max(0, end - bufferSize); n < end; n++) {
+				sb.setLength(0);
+				buffer.appendEvent((int)(n % bufferSize), pid, sb);
+				writer.write(sb.toString());
+			}
+		}
+		writer.write("\n]}\n");
+	}
+
+	private static String escape(String s) {
+		return s.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	/**
+	 * One thread's spans, written only by that thread.  A reader racing with the writer
+	 * can see a span that's being written over, which is fine for a trace.
+	 */
+	private static class Buffer {
+		private final Thread thread;
+		private final Span[] spans;
+		private final long[] starts;
+		private final long[] durations;
+		private final int[] jobids;
+		private final int[] vassalIds;
+		private final long[] args0;
+		private final long[] args1;
+		private final long[] flowIds;
+		//spans ever recorded, written after each span so readers see it whole
+		private volatile long count;
+		private int sampleCounter;
+
+		public Buffer(Thread thread, int size) {
+			this.thread = thread;
+			spans = new Span[size];
+			starts = new long[size];
+			durations = new long[size];
+			jobids = new int[size];
+			vassalIds = new int[size];
+			args0 = new long[size];
+			args1 = new long[size];
+			flowIds = new long[size];
+		}
+
+		/**
+		 * True once in every given number of calls.
+		 */
+		public boolean sample(int every) {
+			if (++sampleCounter < every) {
+				return false;
+			}
+			sampleCounter = 0;
+			return true;
+		}
+
+		public void record(Span span, long start, long duration, int jobid, int vassalId, long arg0, long arg1,
+				long flowId) {
+			long n = count;
+			int i = (int)(n % spans.length);
+			spans[i] = span;
+			starts[i] = start;
+			durations[i] = duration;
+			jobids[i] = jobid;
+			vassalIds[i] = vassalId;
+			args0[i] = arg0;
+			args1[i] = arg1;
+			flowIds[i] = flowId;
+			count = n + 1;
+		}
+
+		public void appendEvent(int i, int pid, StringBuilder sb) {
+			Span span = spans[i];
+			if (span == null) {
+				return;
+			}
+			long start = starts[i];
+			sb.append(",\n{\"ph\": \"X\", \"cat\": \"").append(span.getCategory());
+			sb.append("\", \"name\": \"").append(span.getDisplayName());
+			sb.append("\", \"ts\": ").append(start);
+			sb.append(", \"dur\": ").append(durations[i]);
+			sb.append(", \"pid\": ").append(pid);
+			sb.append(", \"tid\": ").append(thread.getId());
+			sb.append(", \"args\": {\"job\": ").append(jobids[i]);
+			sb.append(", \"vassal\": ").append(vassalIds[i]);
+			String[] argNames = span.getArgNames();
+			if (argNames.length > 0) {
+				sb.append(", \"").append(argNames[0]).append("\": ").append(args0[i]);
+			}
+			if (argNames.length > 1) {
+				sb.append(", \"").append(argNames[1]).append("\": ").append(args1[i]);
+			}
+			sb.append("}}");
+			if (span.getFlow() != Span.Flow.NONE && flowIds[i] != 0) {
+				sb.append(",\n{\"ph\": \"").append(span.getFlow() == Span.Flow.OUT ? "s" : "f");
+				sb.append("\", \"cat\": \"lease\", \"name\": \"lease\", \"id\": ").append(flowIds[i]);
+				//the lord's end ties to the span it's in rather than the next one
+				if (span.getFlow() == Span.Flow.IN) {
+					sb.append(", \"bp\": \"e\"");
+				}
+				sb.append(", \"ts\": ").append(start);
+				sb.append(", \"pid\": ").append(pid);
+				sb.append(", \"tid\": ").append(thread.getId());
+				sb.append("}");
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package bnb.tsp;
+
+import java.util.Collection;
+
+/**
+ * A problem's edges as parallel arrays of city ids and distances, in the order of the
+ * collection they were made from.  Read only once made, so threads can share it.
+ */
+public class EdgeArrays {
+	public final int[] node1;
+	public final int[] node2;
+	public final int[] dist;
+
+	public EdgeArrays(Collection<Edge> edges) {
+		node1 = new int[edges.size()];
+		node2 = new int[edges.size()];
+		dist = new int[edges.size()];
+		int i = 0;
+		for (Edge edge : edges) {
+			node1[i] = edge.node1.id;
+			node2[i] = edge.node2.id;
+			dist[i] = edge.dist;
+			i++;
+		}
+	}
+
+	public int size() {
+		return dist.length;
+	}
+}
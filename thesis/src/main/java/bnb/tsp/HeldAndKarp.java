@@ -10,13 +10,20 @@ import java.util.PriorityQueue;
 
 import org.apache.log4j.Logger;
 
+/**
+ * TspNode bounds with HeldKarpWorkspace, which gives the same bounds without allocating.
+ * This is the plainer version it's checked against.
+ */
 public class HeldAndKarp {
 	
 	private static final Logger LOG = Logger.getLogger(HeldAndKarp.class);
 	
-	private static final int MAX_ITERATIONS = 5;
-	private static final int MAX_CHANGES = 5;
-	private static final double LIMIT = .5;
+	static final int MAX_ITERATIONS = 5;
+	static final int MAX_CHANGES = 5;
+	static final double LIMIT = .5;
+	//when there's no upper bound to aim the step size at, aim this far above the current bound.
+	//aiming at a huge minCost overflows the node weights
+	static final double NO_UPPER_BOUND_TARGET_GAP = .05;
 	
 	/**
 	 * 
@@ -188,7 +195,11 @@ public class HeldAndKarp {
 				if (nodeEdges[endNode.id] == 1) {
 					numOptimalNumEdges++;
 				}
-				double stepSize = stepScale * (minCost - cost) / (sumSquareDiffs);
+				double target = minCost;
+				if (target >= Integer.MAX_VALUE) {
+					target = cost + Math.max(1, Math.abs(cost) * NO_UPPER_BOUND_TARGET_GAP);
+				}
+				double stepSize = stepScale * (target - cost) / (sumSquareDiffs);
 				
 				if (numOptimalNumEdges == remainingNodesList.size()+2-1) { //-1 for oneTreeNode, +2 for start/end
 					LOG.info("Held & Karp found tour at remainingNodesList.size()=" + remainingNodesList.size());
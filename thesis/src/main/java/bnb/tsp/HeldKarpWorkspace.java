@@ -0,0 +1,445 @@
+package bnb.tsp;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Computes the same bound as HeldAndKarp.bound, on int arrays that each thread keeps and
+ * reuses, so that once they've grown to the problem's size it doesn't allocate anything.
+ * The edges are indexes into the problem's EdgeArrays.
+ *
+ * The bound depends on which of the edges with equal weighted costs each one tree takes,
+ * since that decides the cities' degrees and so the next weights.  HeldAndKarp takes them
+ * in the order a PriorityQueue gives them up, so the heap here is built and popped the
+ * way PriorityQueue does it, which gives the same order and the same bounds.
+ *
+ * Not thread safe.  Use get() for the calling thread's.
+ */
+public class HeldKarpWorkspace {
+	private static final Logger LOG = Logger.getLogger(HeldKarpWorkspace.class);
+
+	private static final ThreadLocal<HeldKarpWorkspace> WORKSPACES = new ThreadLocal<HeldKarpWorkspace>() {
+		@Override
+		protected HeldKarpWorkspace initialValue() {
+			return new HeldKarpWorkspace();
+		}
+	};
+
+	//edges the bound can use, in the order of the problem's edges
+	private int[] usable = new int[0];
+	private int numUsable;
+	//each usable edge's distance less its cities' weights, by position in usable
+	private int[] keys = new int[0];
+	//positions in usable, kept as PriorityQueue would keep them
+	private int[] heap = new int[0];
+	private int heapSize;
+
+	//for each city, its cheapest and second cheapest usable edges, or -1
+	private int[] bestEdges0 = new int[0];
+	private int[] bestEdges1 = new int[0];
+	private int[] nodeEdges = new int[0];
+	private int[] unionParents = new int[0];
+	private int[] unionRanks = new int[0];
+	private int[] remaining = new int[0];
+	private int numRemaining;
+
+	//the one tree's edges, the oneTreeNode's two first
+	private int[] chosen = new int[0];
+	private int numChosen;
+	private int[] adjacent0 = new int[0];
+	private int[] adjacent1 = new int[0];
+	private int[] adjacentCount = new int[0];
+	private int[] tour = new int[0];
+	private int tourLength;
+
+	public static HeldKarpWorkspace get() {
+		return WORKSPACES.get();
+	}
+
+	/**
+	 * Takes the same arguments as HeldAndKarp.bound, except the tour.  If the bound finds
+	 * an optimal tour, getTourLength is more than 0 until the next call, and addTourTo gives
+	 * the tour.
+	 *
+	 * @param nodeWeights
+	 * 		updated in place, as HeldAndKarp.bound does
+	 */
+	public int bound(City startNode, City endNode, boolean[] remainingVector, EdgeArrays edges,
+			double minCost, List<City> remainingNodesList, int numCities, int curTourCost, int[] nodeWeights) {
+		ensureCapacity(numCities, edges.size());
+		tourLength = 0;
+		int start = startNode.id;
+		int end = endNode.id;
+		int[] node1 = edges.node1;
+		int[] node2 = edges.node2;
+		int[] dist = edges.dist;
+
+		//compute edges we can still use
+		numUsable = 0;
+		for (int e = 0; e < edges.size(); e++) {
+			int n1 = node1[e];
+			int n2 = node2[e];
+			if ((n1 == start && n2 == end) || (n1 == end && n2 == start)) {
+				continue;
+			}
+			//ignore all edges that touch interior nodes in the path-so-far
+			if (n1 != start && n1 != end && !remainingVector[n1]) {
+				continue;
+			}
+			if (n2 != start && n2 != end && !remainingVector[n2]) {
+				continue;
+			}
+			usable[numUsable++] = e;
+		}
+
+		Arrays.fill(bestEdges0, 0, numCities, -1);
+		Arrays.fill(bestEdges1, 0, numCities, -1);
+		for (int u = 0; u < numUsable; u++) {
+			int e = usable[u];
+			boolean touchesStartOrEnd = touches(edges, e, start, end);
+			offerBestEdge(edges, node1[e], e, touchesStartOrEnd, start, end);
+			offerBestEdge(edges, node2[e], e, touchesStartOrEnd, start, end);
+		}
+
+		numRemaining = 0;
+		for (City city : remainingNodesList) {
+			remaining[numRemaining++] = city.id;
+		}
+
+		int oneTreeNode = -1;
+		int oneTreeNodeTarget1 = -1;
+		int oneTreeNodeTarget2 = -1;
+		int maxSummedMinCost = Integer.MIN_VALUE;
+		for (int i = 0; i < numRemaining; i++) {
+			int city = remaining[i];
+			if (bestEdges1[city] != -1) {
+				int summedMinCost = dist[bestEdges0[city]] + dist[bestEdges1[city]];
+				if (summedMinCost > maxSummedMinCost) {
+					oneTreeNode = city;
+					oneTreeNodeTarget1 = otherEnd(edges, bestEdges0[city], city);
+					oneTreeNodeTarget2 = otherEnd(edges, bestEdges1[city], city);
+					maxSummedMinCost = summedMinCost;
+				}
+			}
+		}
+		int oneTreeEdge0 = bestEdges0[oneTreeNode];
+		int oneTreeEdge1 = bestEdges1[oneTreeNode];
+
+		nodeWeights[oneTreeNode] = 0;
+
+		int bestBound = Integer.MIN_VALUE;
+		int weightsSum = 0;
+		for (int i = 0; i < numRemaining; i++) {
+			weightsSum += nodeWeights[remaining[i]];
+		}
+		double stepScale = 2.0;
+		double stepChange = .5;
+		for (int c = 0; c < HeldAndKarp.MAX_CHANGES; c++) {
+			for (int j = 0; j < HeldAndKarp.MAX_ITERATIONS; j++) {
+				Arrays.fill(nodeEdges, 0, numCities, 0);
+				//calculate one-tree bound
+				chosen[0] = oneTreeEdge0;
+				chosen[1] = oneTreeEdge1;
+				numChosen = 2;
+				int mstCost = mstCost(edges, start, end, oneTreeNode, nodeWeights);
+				int cost = 2 * weightsSum + curTourCost + mstCost + maxSummedMinCost;
+				//include weights from one-tree edges
+				cost -= nodeWeights[oneTreeNodeTarget1];
+				cost -= nodeWeights[oneTreeNodeTarget2];
+
+				if (cost > bestBound) {
+					bestBound = cost;
+					if (bestBound >= minCost) {
+						return bestBound;
+					}
+				}
+
+				//compute step size
+				int sumSquareDiffs = 0;
+				int numOptimalNumEdges = 0;
+				for (int i = 0; i < numRemaining; i++) {
+					int node = remaining[i];
+					if (node == oneTreeNode) {
+						continue;
+					}
+					int optimalNumEdges = (node == node1[oneTreeEdge0] || node == node2[oneTreeEdge0] ||
+							node == node1[oneTreeEdge1] || node == node2[oneTreeEdge1]) ? 1 : 2;
+					if (nodeEdges[node] == optimalNumEdges) {
+						numOptimalNumEdges++;
+					}
+					sumSquareDiffs += (optimalNumEdges - nodeEdges[node]) * (optimalNumEdges - nodeEdges[node]);
+				}
+				sumSquareDiffs += (1 - nodeEdges[start]) * (1 - nodeEdges[start]);
+				if (nodeEdges[start] == 1) {
+					numOptimalNumEdges++;
+				}
+				sumSquareDiffs += (1 - nodeEdges[end]) * (1 - nodeEdges[end]);
+				if (nodeEdges[end] == 1) {
+					numOptimalNumEdges++;
+				}
+				double target = minCost;
+				if (target >= Integer.MAX_VALUE) {
+					target = cost + Math.max(1, Math.abs(cost) * HeldAndKarp.NO_UPPER_BOUND_TARGET_GAP);
+				}
+				double stepSize = stepScale * (target - cost) / (sumSquareDiffs);
+
+				if (numOptimalNumEdges == numRemaining + 2 - 1) { //-1 for oneTreeNode, +2 for start/end
+					LOG.info("Held & Karp found tour at remainingNodesList.size()=" + numRemaining);
+					buildTour(edges, start, end, numCities);
+					return cost;
+				}
+
+				if (stepSize < HeldAndKarp.LIMIT) {
+					return bestBound;
+				}
+
+				//update weights
+				weightsSum = 0;
+				for (int i = 0; i < numRemaining; i++) {
+					int city = remaining[i];
+					if (city != oneTreeNode) {
+						nodeWeights[city] += stepSize * (2 - nodeEdges[city]);
+						weightsSum += nodeWeights[city];
+					}
+				}
+			}
+			stepScale = stepScale * stepChange;
+		}
+
+		return bestBound;
+	}
+
+	/**
+	 * The number of cities in the tour the last bound found, or 0 if it didn't find one.
+	 */
+	public int getTourLength() {
+		return tourLength;
+	}
+
+	/**
+	 * Adds the tour the last bound found, from the city after the end node to the one
+	 * before the start node, as HeldAndKarp.bound fills its tour.
+	 */
+	public void addTourTo(List<City> tourList, City[] cities) {
+		for (int i = 0; i < tourLength; i++) {
+			tourList.add(cities[tour[i]]);
+		}
+	}
+
+	private static boolean touches(EdgeArrays edges, int e, int start, int end) {
+		return edges.node1[e] == start || edges.node1[e] == end || edges.node2[e] == start ||
+			edges.node2[e] == end;
+	}
+
+	private static int otherEnd(EdgeArrays edges, int e, int city) {
+		return edges.node1[e] == city ? edges.node2[e] : edges.node1[e];
+	}
+
+	/**
+	 * Keeps the city's two cheapest edges, without letting both touch the start or end
+	 * node, which would make a cycle with the path.
+	 */
+	private void offerBestEdge(EdgeArrays edges, int city, int e, boolean touchesStartOrEnd, int start, int end) {
+		int[] dist = edges.dist;
+		int bestEdge = bestEdges0[city];
+		int secondBestEdge = bestEdges1[city];
+		boolean bestEdgeTouchesStartOrEnd = bestEdge != -1 && touches(edges, bestEdge, start, end);
+		if (bestEdge == -1 || dist[e] < dist[bestEdge]) {
+			if (!touchesStartOrEnd || !bestEdgeTouchesStartOrEnd) {
+				bestEdges1[city] = bestEdge;
+			}
+			bestEdges0[city] = e;
+		} else if (secondBestEdge == -1 || dist[e] < dist[secondBestEdge]) {
+			if (!touchesStartOrEnd || !bestEdgeTouchesStartOrEnd) {
+				bestEdges1[city] = e;
+			}
+		}
+	}
+
+	/**
+	 * HeldAndKarp.mstCost over the usable edges, adding the edges it takes to chosen.
+	 */
+	private int mstCost(EdgeArrays edges, int start, int end, int oneTreeNode, int[] nodeWeights) {
+		int[] node1 = edges.node1;
+		int[] node2 = edges.node2;
+		heapSize = 0;
+		for (int u = 0; u < numUsable; u++) {
+			int e = usable[u];
+			keys[u] = edges.dist[e] - nodeWeights[node1[e]] - nodeWeights[node2[e]];
+			siftUp(heapSize++, u);
+		}
+
+		for (int i = 0; i < numRemaining; i++) {
+			unionParents[remaining[i]] = remaining[i];
+			unionRanks[remaining[i]] = 0;
+		}
+		unionParents[start] = start;
+		unionRanks[start] = 0;
+		unionParents[end] = end;
+		unionRanks[end] = 0;
+		//startNode and endNode are already connected by the rest of the path
+		union(start, end);
+
+		int totalCost = 0;
+		int numEdges = 0;
+		while (numEdges < numRemaining-1-1+2-1 && heapSize > 0) {
+			int u = poll();
+			int e = usable[u];
+			if (node1[e] == oneTreeNode || node2[e] == oneTreeNode) {
+				continue;
+			}
+			int root1 = find(node1[e]);
+			int root2 = find(node2[e]);
+			if (root1 != root2) {
+				chosen[numChosen++] = e;
+				totalCost += keys[u];
+				nodeEdges[node1[e]]++;
+				nodeEdges[node2[e]]++;
+				union(root1, root2);
+				numEdges++;
+			}
+		}
+		return totalCost;
+	}
+
+	/**
+	 * As HeldKarpEdgeComparator compares the edges at positions u1 and u2 of usable.
+	 */
+	private int compare(int u1, int u2) {
+		return keys[u1] - keys[u2];
+	}
+
+	/**
+	 * PriorityQueue's siftUp.
+	 */
+	private void siftUp(int k, int u) {
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			int p = heap[parent];
+			if (compare(u, p) >= 0) {
+				break;
+			}
+			heap[k] = p;
+			k = parent;
+		}
+		heap[k] = u;
+	}
+
+	/**
+	 * PriorityQueue's poll and siftDown.
+	 */
+	private int poll() {
+		int result = heap[0];
+		int n = --heapSize;
+		int u = heap[n];
+		if (n > 0) {
+			int k = 0;
+			int half = n >>> 1;
+			while (k < half) {
+				int child = (k << 1) + 1;
+				int c = heap[child];
+				int right = child + 1;
+				if (right < n && compare(c, heap[right]) > 0) {
+					c = heap[child = right];
+				}
+				if (compare(u, c) <= 0) {
+					break;
+				}
+				heap[k] = c;
+				k = child;
+			}
+			heap[k] = u;
+		}
+		return result;
+	}
+
+	private int find(int city) {
+		int root = city;
+		while (unionParents[root] != root) {
+			root = unionParents[root];
+		}
+		while (unionParents[city] != root) {
+			int next = unionParents[city];
+			unionParents[city] = root;
+			city = next;
+		}
+		return root;
+	}
+
+	private void union(int root1, int root2) {
+		if (unionRanks[root1] < unionRanks[root2]) {
+			unionParents[root1] = root2;
+		} else if (unionRanks[root1] > unionRanks[root2]) {
+			unionParents[root2] = root1;
+		} else {
+			unionParents[root2] = root1;
+			unionRanks[root1]++;
+		}
+	}
+
+	/**
+	 * Walks the one tree, which is a path here, from the end node back to the start node.
+	 */
+	private void buildTour(EdgeArrays edges, int start, int end, int numCities) {
+		Arrays.fill(adjacentCount, 0, numCities, 0);
+		for (int i = 0; i < numChosen; i++) {
+			int e = chosen[i];
+			addAdjacent(edges.node1[e], edges.node2[e]);
+			addAdjacent(edges.node2[e], edges.node1[e]);
+		}
+
+		int city = end;
+		int prevCity = -1;
+		while (city != start) {
+			if (city != end) {
+				tour[tourLength++] = city;
+			}
+			if (adjacentCount[city] == 0) {
+				throw new IllegalStateException("city " + city + " isn't in the one tree");
+			}
+			int nextCity = adjacent0[city];
+			if (nextCity == prevCity) {
+				if (adjacentCount[city] < 2) {
+					throw new IllegalStateException("one tree ends at city " + city);
+				}
+				nextCity = adjacent1[city];
+			}
+			prevCity = city;
+			city = nextCity;
+		}
+	}
+
+	private void addAdjacent(int city, int other) {
+		int count = adjacentCount[city]++;
+		if (count == 0) {
+			adjacent0[city] = other;
+		} else if (count == 1) {
+			adjacent1[city] = other;
+		} else {
+			LOG.warn("too many connecting cities for tour at city " + city + ": " + (count + 1));
+		}
+	}
+
+	private void ensureCapacity(int numCities, int numEdges) {
+		if (usable.length < numEdges) {
+			usable = new int[numEdges];
+			keys = new int[numEdges];
+			heap = new int[numEdges];
+		}
+		if (bestEdges0.length < numCities) {
+			bestEdges0 = new int[numCities];
+			bestEdges1 = new int[numCities];
+			nodeEdges = new int[numCities];
+			unionParents = new int[numCities];
+			unionRanks = new int[numCities];
+			remaining = new int[numCities];
+			chosen = new int[numCities + 2];
+			adjacent0 = new int[numCities];
+			adjacent1 = new int[numCities];
+			adjacentCount = new int[numCities];
+			tour = new int[numCities];
+		}
+	}
+}
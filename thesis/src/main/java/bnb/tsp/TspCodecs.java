@@ -0,0 +1,27 @@
+package bnb.tsp;
+
+import bnb.rpc.Byteable;
+import bnb.rpc.ByteableFactory;
+import bnb.rpc.CodecRegistry;
+
+/**
+ * Registers the TSP classes that get sent over the wire.  Lords and vassals should
+ * register them in the same order.
+ */
+public class TspCodecs {
+	
+	public static void register(CodecRegistry registry) {
+		registry.register(TspNode.class, new ByteableFactory() {
+			@Override
+			public Byteable newInstance() {
+				return new TspNode();
+			}
+		});
+		registry.register(TspProblem.class, new ByteableFactory() {
+			@Override
+			public Byteable newInstance() {
+				return new TspProblem();
+			}
+		});
+	}
+}
@@ -1,11 +1,11 @@
 package bnb.tsp;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -19,17 +19,28 @@ import org.apache.log4j.Logger;
 import bnb.Problem;
 import bnb.Solution;
 import bnb.BnbNode;
+import bnb.rpc.VarInt;
 
 public class TspNode extends BnbNode {
 	private static final Logger LOG = Logger.getLogger(TspNode.class);
 	
 	private static final int DONT_STEAL_NUM_CITIES = 6;
+	//relative gap between the lower bound and the best cost at which we guess that
+	//nothing under a node will be pruned
+	private static final double FULL_SUBTREE_GAP = .1;
+	
+	//the old format starts with the isEvaluated boolean, so its first byte is 0 or 1
+	private static final byte COMPACT_FORMAT_V1 = 2;
+	private static final int FLAG_EVALUATED = 1;
+	private static final int FLAG_HAS_EXPLORED = 2;
 	
 	private boolean isEvaluated;
 	
 	private boolean bounded;
 	private int parentTourCost;
 	private volatile int tourCost = -1;
+	//best lower bound we've found on tours through this node, -1 if we don't have one
+	private volatile int lowerBound = -1;
 	
 	private int numChosen;
 	private City city;
@@ -238,16 +249,18 @@ public class TspNode extends BnbNode {
 			//start and end node shouldn't have any weights
 			nodeWeights[city.id] = 0;
 			nodeWeights[startCity.id] = 0;
-			List<City> optimalTour = new ArrayList<City>(remainingCities.size());
-			int heldKarpBound = HeldAndKarp.bound(startCity, city, remainingVector, problem.getEdges(), minCost, 
-					remainingCities, problem.getNumCities(), tourCost-city.dist(startCity), nodeWeights, 
-					optimalTour);
+			HeldKarpWorkspace workspace = HeldKarpWorkspace.get();
+			int heldKarpBound = workspace.bound(startCity, city, remainingVector, problem.getEdgeArrays(), minCost, 
+					remainingCities, problem.getNumCities(), tourCost-city.dist(startCity), nodeWeights);
 			heldKarpNodeWeights = nodeWeights;
+			lowerBound = heldKarpBound;
 			if (heldKarpBound >= minCost) {
 //				System.out.println("held & karp bounding: " + this);
 				return false;
 			}
-			if (optimalTour.size() > 0) {
+			if (workspace.getTourLength() > 0) {
+				List<City> optimalTour = new ArrayList<City>(workspace.getTourLength());
+				workspace.addTourTo(optimalTour, problem.getCities());
 				heldKarpOptimalTour = optimalTour;
 				tourCost = heldKarpBound;
 			}
@@ -343,92 +356,248 @@ public class TspNode extends BnbNode {
 		
 	@Override
 	public void initFromBytes(byte[] bytes, Problem prob) {
+		initFromBuffer(ByteBuffer.wrap(bytes), prob);
+	}
+	
+	/**
+	 * Reads either the compact format written by toBytes or the old fixed width format,
+	 * which starts with the isEvaluated boolean instead of a format byte.
+	 */
+	@Override
+	public void initFromBuffer(ByteBuffer buffer, Problem prob) {
 		if (!(prob instanceof TspProblem)) {
 			throw new IllegalArgumentException("problem must be TspProblem");
 		}
 		problem = (TspProblem)prob;
-		try {
-			ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-			DataInputStream dis = new DataInputStream(bais);
-			
-			isEvaluated = dis.readBoolean();
-			int numCities = dis.readInt();
-			parentTourCost = dis.readInt();
-			tourCost = dis.readInt();
-			//TODO: how do we reconstruct this in the most efficient way?
-			prevCities = new ArrayList<City>(numCities);
-			for (int i = 0; i < numCities; i++) {
-				prevCities.add(null);
-			}
-			City[] problemCities = problem.getCities();
-			for (int i = numCities-1; i >= 0; i--) {
-				int id = dis.readInt();
-				prevCities.set(i, problemCities[id]);
-				numChosen++;
+		
+		byte format = buffer.get();
+		if (format == COMPACT_FORMAT_V1) {
+			initFromCompactBuffer(buffer);
+		} else if (format == 0 || format == 1) {
+			initFromLegacyBuffer(buffer, format != 0);
+		} else {
+			throw new IllegalArgumentException("Unknown TspNode format " + format);
+		}
+	}
+	
+	private void initFromCompactBuffer(ByteBuffer buffer) {
+		byte flags = buffer.get();
+		isEvaluated = (flags & FLAG_EVALUATED) != 0;
+		numChosen = VarInt.read(buffer);
+		parentTourCost = VarInt.unzigzag(VarInt.read(buffer));
+		tourCost = VarInt.unzigzag(VarInt.read(buffer));
+		
+		int[] path = new int[numChosen];
+		for (int i = 0; i < numChosen; i++) {
+			path[i] = VarInt.read(buffer);
+		}
+		
+		boolean[] explored = null;
+		if ((flags & FLAG_HAS_EXPLORED) != 0) {
+			int numCities = problem.getNumCities();
+			explored = new boolean[numCities];
+			for (int i = 0; i < numCities; i += 8) {
+				int b = buffer.get();
+				for (int j = 0; j < 8 && i + j < numCities; j++) {
+					explored[i + j] = (b & (1 << j)) != 0;
+				}
 			}
-			
-			//TODO: explored children
-			//TODO: this can be an arraylist of the size we expect
-			int numExploredChildren = dis.readInt();
-			if (numExploredChildren != -1) {
-				exploredChildren = new HashSet<City>();
-				for (int i = 0; i < numExploredChildren; i++) {
-					int id = dis.readInt();
+		}
+		initPathStructures(path, explored);
+	}
+	
+	/**
+	 * Builds remainingCities and remainingVector straight from the path and the explored
+	 * children, in the same order buildSinglePathStructures would.
+	 * 
+	 * @param path
+	 * 		ids of the cities from the start city to this one
+	 * @param explored
+	 * 		true for the ids of explored children, or null if we don't have any
+	 */
+	private void initPathStructures(int[] path, boolean[] explored) {
+		City[] problemCities = problem.getCities();
+		int numCities = problemCities.length;
+		remainingVector = new boolean[numCities];
+		Arrays.fill(remainingVector, true);
+		prevCities = new ArrayList<City>(path.length);
+		for (int id : path) {
+			prevCities.add(problemCities[id]);
+			remainingVector[id] = false;
+		}
+		
+		if (explored != null) {
+			exploredChildren = new HashSet<City>();
+			for (int id = 0; id < numCities; id++) {
+				if (explored[id]) {
 					exploredChildren.add(problemCities[id]);
 				}
 			}
-			
-			startCity = problemCities[0];
-			remainingCities = new LinkedList<City>();
-			remainingVector = new boolean[problem.getNumCities()];
-			buildSinglePathStructures(remainingCities, remainingVector, prevCities.iterator());
-			
-			//remove what's set to city. we only kept it in as a shortcut to add it
-			//to the list for buildSinglePathStructures
-			city = prevCities.remove(prevCities.size()-1);
-			
-			
-		} catch (IOException ex) {
-			LOG.error("IOException reading from byte array, this should never happen", ex);
 		}
+		
+		//unexplored cities in the front, by descending id, and explored ones in the back
+		remainingCities = new LinkedList<City>();
+		for (int id = numCities-1; id >= 0; id--) {
+			if (remainingVector[id] && (explored == null || !explored[id])) {
+				remainingCities.addLast(problemCities[id]);
+			}
+		}
+		if (explored != null) {
+			for (int id = 0; id < numCities; id++) {
+				if (remainingVector[id] && explored[id]) {
+					remainingCities.addLast(problemCities[id]);
+				}
+			}
+		}
+		
+		startCity = prevCities.get(0);
+		city = prevCities.remove(prevCities.size()-1);
 	}
 	
+	private void initFromLegacyBuffer(ByteBuffer buffer, boolean isEvaluated) {
+		this.isEvaluated = isEvaluated;
+		int numCities = buffer.getInt();
+		parentTourCost = buffer.getInt();
+		tourCost = buffer.getInt();
+		//TODO: how do we reconstruct this in the most efficient way?
+		prevCities = new ArrayList<City>(numCities);
+		for (int i = 0; i < numCities; i++) {
+			prevCities.add(null);
+		}
+		City[] problemCities = problem.getCities();
+		for (int i = numCities-1; i >= 0; i--) {
+			int id = buffer.getInt();
+			prevCities.set(i, problemCities[id]);
+			numChosen++;
+		}
+		
+		//TODO: this can be an arraylist of the size we expect
+		int numExploredChildren = buffer.getInt();
+		if (numExploredChildren != -1) {
+			exploredChildren = new HashSet<City>();
+			for (int i = 0; i < numExploredChildren; i++) {
+				int id = buffer.getInt();
+				exploredChildren.add(problemCities[id]);
+			}
+		}
+		
+		startCity = problemCities[0];
+		remainingCities = new LinkedList<City>();
+		remainingVector = new boolean[problem.getNumCities()];
+		buildSinglePathStructures(remainingCities, remainingVector, prevCities.iterator());
+		
+		//remove what's set to city. we only kept it in as a shortcut to add it
+		//to the list for buildSinglePathStructures
+		city = prevCities.remove(prevCities.size()-1);
+	}
+	
+	/**
+	 * Compact format: format byte, flags, varint path length and costs, varint city ids
+	 * from the start city to this one, then a bitset of explored children if we have them.
+	 */
 	@Override
 	public byte[] toBytes() {
+		int[] path = pathIds();
+		int numCities = problem.getNumCities();
+		int zigzagParentCost = VarInt.zigzag(parentTourCost);
+		int zigzagCost = VarInt.zigzag(tourCost);
+		
+		int size = 2 + VarInt.size(numChosen) + VarInt.size(zigzagParentCost) + VarInt.size(zigzagCost);
+		for (int id : path) {
+			size += VarInt.size(id);
+		}
+		if (exploredChildren != null) {
+			size += (numCities + 7) / 8;
+		}
+		
+		byte[] bytes = new byte[size];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		buffer.put(COMPACT_FORMAT_V1);
+		byte flags = 0;
+		if (isEvaluated) {
+			flags |= FLAG_EVALUATED;
+		}
+		if (exploredChildren != null) {
+			flags |= FLAG_HAS_EXPLORED;
+		}
+		buffer.put(flags);
+		VarInt.write(buffer, numChosen);
+		VarInt.write(buffer, zigzagParentCost);
+		VarInt.write(buffer, zigzagCost);
+		for (int id : path) {
+			VarInt.write(buffer, id);
+		}
+		if (exploredChildren != null) {
+			byte[] bitset = new byte[(numCities + 7) / 8];
+			for (City child : exploredChildren) {
+				bitset[child.id / 8] |= 1 << (child.id % 8);
+			}
+			buffer.put(bitset);
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Builds the copy's structures straight from ours, without going through bytes.
+	 */
+	@Override
+	public BnbNode copyForTransfer(Problem prob) {
+		if (!(prob instanceof TspProblem)) {
+			throw new IllegalArgumentException("problem must be TspProblem");
+		}
+		TspNode copy = new TspNode();
+		copy.problem = (TspProblem)prob;
+		copy.isEvaluated = isEvaluated;
+		copy.numChosen = numChosen;
+		copy.parentTourCost = parentTourCost;
+		copy.tourCost = tourCost;
+		boolean[] explored = null;
+		if (exploredChildren != null) {
+			explored = new boolean[problem.getNumCities()];
+			for (City child : exploredChildren) {
+				explored[child.id] = true;
+			}
+		}
+		copy.initPathStructures(pathIds(), explored);
+		return copy;
+	}
+	
+	/**
+	 * Ids of the cities from the start city to this one.
+	 */
+	private int[] pathIds() {
+		int[] path = new int[numChosen];
+		ParentCityIterator iter = new ParentCityIterator(this);
+		for (int i = numChosen-1; i >= 0; i--) {
+			path[i] = iter.next().id;
+		}
+		return path;
+	}
+	
+	/**
+	 * The fixed width format we wrote before the compact one, which initFromBuffer can
+	 * still read.
+	 */
+	byte[] toLegacyBytes() {
 		try {
 			ByteArrayOutputStream baos = new ByteArrayOutputStream();
 			DataOutputStream dos = new DataOutputStream(baos);
-
-			//TODO: check for off by ones
-			
-			//isEvaluated
 			dos.writeBoolean(isEvaluated);
-			
-			//num nodes in path
 			dos.writeInt(numChosen);
-			dos.writeInt(parentTourCost); //TODO: kind of redundant
+			dos.writeInt(parentTourCost);
 			dos.writeInt(tourCost);
-
-			//nodes in path
-			Stack<City> stack = new Stack<City>();
 			ParentCityIterator iter = new ParentCityIterator(this);
 			while (iter.hasNext()) {
-				stack.add(iter.next());
-			}
-			for (City city : stack) {
-				dos.writeInt(city.id);
+				dos.writeInt(iter.next().id);
 			}
-			//num explored children
 			if (exploredChildren != null) {
 				dos.writeInt(exploredChildren.size());
-				//explored children
 				for (City child : exploredChildren) {
 					dos.writeInt(child.id);
 				}
 			} else {
 				dos.writeInt(-1);
 			}
-			
 			return baos.toByteArray();
 		} catch (IOException ex) {
 			LOG.error("IOException writing to byte array, this should never happen", ex);
@@ -441,6 +610,12 @@ public class TspNode extends BnbNode {
 		return tourCost;
 	}
 	
+	@Override
+	public double getLowerBound() {
+		//cost of the closed partial tour is a weaker bound, but we always have it
+		return Math.max(lowerBound, tourCost);
+	}
+	
 	@Override
 	public Solution getSolution() {
 		if (heldKarpOptimalTour == null) {
@@ -455,6 +630,30 @@ public class TspNode extends BnbNode {
 		return numChosen;
 	}
 	
+	/**
+	 * Guesses that each of the unexplored children has a subtree with half as many levels as
+	 * there are remaining cities, and that the branching factor shrinks with the gap between
+	 * our bound and the best cost, as more of the subtree gets pruned.
+	 */
+	@Override
+	public double estimateSubtreeSize(double bestCost) {
+		int remaining = problem.getNumCities() - numChosen;
+		int numChildren = remaining;
+		if (isEvaluated) {
+			if (bounded || heldKarpOptimalTour != null) {
+				return 1;
+			}
+			numChildren -= exploredChildren.size();
+		}
+		double gap = 1;
+		double bound = isEvaluated ? getLowerBound() : -1;
+		if (bestCost < Double.MAX_VALUE && bound > 0) {
+			gap = Math.max(0, Math.min(1, (bestCost - bound) / (bound * FULL_SUBTREE_GAP)));
+		}
+		double branching = 1 + (remaining - 1) * gap;
+		return 1 + numChildren * Math.pow(branching, (remaining - 1) / 2.0);
+	}
+	
 	@Override
 	public boolean dontSteal() {
 		return (problem.getNumCities() - numChosen) < DONT_STEAL_NUM_CITIES;
@@ -18,6 +18,7 @@ public class TspProblem implements Problem {
 	private City[] cities;
 	
 	private Collection<Edge> edges;
+	private EdgeArrays edgeArrays;
 	
 	/**
 	 * Should only be called right before initFromBytes
@@ -38,12 +39,20 @@ public class TspProblem implements Problem {
 				edges.add(e);
 			}
 		}
+		edgeArrays = new EdgeArrays(edges);
 	}
 	
 	public Collection<Edge> getEdges() {
 		return edges;
 	}
 	
+	/**
+	 * The same edges in the same order, for HeldKarpWorkspace.
+	 */
+	public EdgeArrays getEdgeArrays() {
+		return edgeArrays;
+	}
+	
 	public City[] getCities() {
 		return cities;
 	}
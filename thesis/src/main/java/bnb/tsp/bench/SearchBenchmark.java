@@ -0,0 +1,70 @@
+package bnb.tsp.bench;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import bnb.BnbNode;
+import bnb.bench.Benchmark;
+import bnb.tsp.City;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.vassal.SimpleVassalNodePool;
+import bnb.vassal.VassalNodePool;
+
+/**
+ * Solves a TSP instance from scratch on one thread with a SimpleVassalNodePool, the way
+ * TaskRunner would without a lord.  An op is one node evaluated, so opsPerSec is the
+ * search's nodes per second.  The checksum is the best cost and the number of nodes, which
+ * only change if the bounds do.
+ */
+public class SearchBenchmark extends Benchmark {
+	private final TspProblem problem;
+	private long opsPerIteration;
+
+	public SearchBenchmark(String instance, TspProblem problem) {
+		super("tspSearch");
+		this.problem = problem;
+		addParam("instance", instance);
+		addParam("cities", problem.getNumCities());
+	}
+
+	@Override
+	public long runIteration() {
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		TspNode root = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+
+		VassalNodePool pool = new SimpleVassalNodePool();
+		double bestCost = Integer.MAX_VALUE;
+		long numEvaluated = 1;
+		root.evaluate(bestCost);
+		pool.post(root);
+		BnbNode node;
+		while ((node = pool.nextNode()) != null) {
+			node.evaluate(bestCost);
+			numEvaluated++;
+			if (node.isSolution()) {
+				if (node.getCost() < bestCost) {
+					bestCost = node.getCost();
+				}
+				node.whenAllChildrenDone();
+				node.getParent().childDone();
+			} else if (!node.isLeaf()) {
+				pool.post(node);
+			} else {
+				node.whenAllChildrenDone();
+				if (node.getParent() != null) {
+					node.getParent().childDone();
+				}
+			}
+		}
+		opsPerIteration = numEvaluated;
+		return (long)bestCost * 1000000 + numEvaluated;
+	}
+
+	@Override
+	public long getOpsPerIteration() {
+		return opsPerIteration;
+	}
+}
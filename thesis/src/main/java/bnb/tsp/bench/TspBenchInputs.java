@@ -0,0 +1,280 @@
+package bnb.tsp.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import bnb.tsp.City;
+import bnb.tsp.Edge;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.tsp.TspUtils;
+
+/**
+ * Partial tours on a TSP instance for the benchmarks to work on, the same for a given
+ * seed.  Each one starts at city 0 and goes to one of the nearest few cities at each step,
+ * skipping any that 2-opt would reject the way TspNode.evaluate does, so that the tours
+ * look like the nodes a search keeps and evaluating them gets as far as Held and Karp.
+ * The incumbent is a nearest neighbor tour improved with 2-opt, standing in for what a
+ * search would have found by the time it got to them.
+ */
+public class TspBenchInputs {
+
+	private static final int NEAREST_CHOICES = 5;
+	//the shallowest and deepest we make, in cities chosen.  evaluate only does Held and
+	//Karp for nodes with more than 3 chosen and at least 2 remaining
+	private static final int MIN_DEPTH = 4;
+	private static final int MIN_REMAINING = 3;
+
+	private final String name;
+	private final TspProblem problem;
+	private final int incumbent;
+	private final int[][] paths;
+
+	public TspBenchInputs(String name, TspProblem problem, int numSamples, long seed) {
+		this.name = name;
+		this.problem = problem;
+		this.incumbent = twoOptTourCost(problem.getCities());
+		Random rand = new Random(seed);
+		paths = new int[numSamples][];
+		for (int i = 0; i < numSamples; i++) {
+			paths[i] = makePath(rand);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public TspProblem getProblem() {
+		return problem;
+	}
+
+	public int getIncumbent() {
+		return incumbent;
+	}
+
+	public int getNumSamples() {
+		return paths.length;
+	}
+
+	/**
+	 * Ids of the cities in a sample, from city 0 to the last one chosen.
+	 */
+	public int[] getPath(int sample) {
+		return paths[sample];
+	}
+
+	/**
+	 * An unevaluated node for a sample, with no parent and no Held and Karp weights.
+	 */
+	public TspNode makeNode(int sample) {
+		return (TspNode)makeChain(paths[sample]).copyForTransfer(problem);
+	}
+
+	/**
+	 * An evaluated node for a sample that hasn't been bounded, with all its children left
+	 * to hand out.
+	 */
+	public TspNode makeEvaluatedNode(int sample) {
+		TspNode leaf = makeChain(paths[sample]);
+		leaf.evaluate(0);
+		return (TspNode)leaf.copyForTransfer(problem);
+	}
+
+	/**
+	 * Builds the sample's nodes from the root down.  Evaluating each one with a bound of 0
+	 * gets it its tour cost, which its child needs, without going into Held and Karp.
+	 */
+	private TspNode makeChain(int[] path) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		TspNode node = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+		for (int i = 1; i < path.length; i++) {
+			node.evaluate(0);
+			City city = cities[path[i]];
+			LinkedList<City> remCities = new LinkedList<City>(remainingCities);
+			remCities.remove(city);
+			remainingCities = remCities;
+			node = new TspNode(cities[0], city, i + 1, node, remCities, null, (int)node.getCost(), problem);
+		}
+		return node;
+	}
+
+	private int[] makePath(Random rand) {
+		City[] cities = problem.getCities();
+		int numCities = cities.length;
+		int depth = MIN_DEPTH + rand.nextInt(numCities - MIN_REMAINING - MIN_DEPTH + 1);
+		List<Integer> path = new ArrayList<Integer>(depth);
+		boolean[] chosen = new boolean[numCities];
+		path.add(0);
+		chosen[0] = true;
+		while (path.size() < depth) {
+			City last = cities[path.get(path.size() - 1)];
+			List<City> candidates = nearestUnchosen(last, chosen);
+			City next = null;
+			while (next == null && !candidates.isEmpty()) {
+				City candidate = candidates.remove(rand.nextInt(Math.min(NEAREST_CHOICES, candidates.size())));
+				if (passesTwoOpt(path, candidate)) {
+					next = candidate;
+				}
+			}
+			if (next == null) {
+				//every city left would be rejected, so stop here
+				break;
+			}
+			path.add(next.id);
+			chosen[next.id] = true;
+		}
+		int[] ids = new int[path.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = path.get(i);
+		}
+		return ids;
+	}
+
+	private List<City> nearestUnchosen(final City from, boolean[] chosen) {
+		List<City> candidates = new ArrayList<City>();
+		for (City city : problem.getCities()) {
+			if (!chosen[city.id]) {
+				candidates.add(city);
+			}
+		}
+		Collections.sort(candidates, new Comparator<City>() {
+			public int compare(City c1, City c2) {
+				return from.dist(c1) - from.dist(c2);
+			}
+		});
+		return candidates;
+	}
+
+	/**
+	 * The check TspNode.evaluate makes on the edge to its newest city.
+	 */
+	private boolean passesTwoOpt(List<Integer> path, City city) {
+		City[] cities = problem.getCities();
+		int last = path.size() - 1;
+		City cityPred = cities[path.get(last)];
+		for (int j = last - 1; j >= 1; j--) {
+			if (TspUtils.cost2opt(cities[path.get(j - 1)], cities[path.get(j)], city, cityPred) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The cost of a nearest neighbor tour from city 0, after 2-opt moves until none help.
+	 */
+	static int twoOptTourCost(City[] cities) {
+		int n = cities.length;
+		City[] tour = new City[n];
+		boolean[] used = new boolean[n];
+		tour[0] = cities[0];
+		used[0] = true;
+		for (int i = 1; i < n; i++) {
+			City best = null;
+			for (City city : cities) {
+				if (!used[city.id] && (best == null || tour[i - 1].dist(city) < tour[i - 1].dist(best))) {
+					best = city;
+				}
+			}
+			tour[i] = best;
+			used[best.id] = true;
+		}
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			for (int i = 0; i < n - 1; i++) {
+				for (int j = i + 2; j < n; j++) {
+					City a = tour[i], b = tour[i + 1], c = tour[j], d = tour[(j + 1) % n];
+					if (a == d) {
+						continue;
+					}
+					if (a.dist(c) + b.dist(d) < a.dist(b) + c.dist(d)) {
+						for (int lo = i + 1, hi = j; lo < hi; lo++, hi--) {
+							City tmp = tour[lo];
+							tour[lo] = tour[hi];
+							tour[hi] = tmp;
+						}
+						improved = true;
+					}
+				}
+			}
+		}
+		int cost = 0;
+		for (int i = 0; i < n; i++) {
+			cost += tour[i].dist(tour[(i + 1) % n]);
+		}
+		return cost;
+	}
+
+	/**
+	 * Edges the Held and Karp bound can use for a sample, the way HeldAndKarp.bound picks
+	 * them: none between interior cities of the path, and not the one closing it.
+	 */
+	public List<Edge> usableEdges(int sample) {
+		int[] path = paths[sample];
+		City[] cities = problem.getCities();
+		City start = cities[path[0]];
+		City end = cities[path[path.length - 1]];
+		boolean[] remaining = remainingVector(sample);
+		List<Edge> usable = new ArrayList<Edge>();
+		for (Edge edge : problem.getEdges()) {
+			if ((edge.node1 == start && edge.node2 == end) || (edge.node1 == end && edge.node2 == start)) {
+				continue;
+			}
+			if (edge.node1 != start && edge.node1 != end && !remaining[edge.node1.id]) {
+				continue;
+			}
+			if (edge.node2 != start && edge.node2 != end && !remaining[edge.node2.id]) {
+				continue;
+			}
+			usable.add(edge);
+		}
+		return usable;
+	}
+
+	public boolean[] remainingVector(int sample) {
+		boolean[] remaining = new boolean[problem.getNumCities()];
+		Arrays.fill(remaining, true);
+		for (int id : paths[sample]) {
+			remaining[id] = false;
+		}
+		return remaining;
+	}
+
+	/**
+	 * By descending id, the order a node made by makeNode has them in, since the one tree
+	 * city Held and Karp picks depends on it.
+	 */
+	public LinkedList<City> remainingCities(int sample) {
+		boolean[] remaining = remainingVector(sample);
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		for (int id = cities.length - 1; id >= 0; id--) {
+			if (remaining[id]) {
+				remainingCities.add(cities[id]);
+			}
+		}
+		return remainingCities;
+	}
+
+	/**
+	 * The cost of the path, not counting the edge back to the start.
+	 */
+	public int pathCost(int sample) {
+		int[] path = paths[sample];
+		City[] cities = problem.getCities();
+		int cost = 0;
+		for (int i = 1; i < path.length; i++) {
+			cost += cities[path[i - 1]].dist(cities[path[i]]);
+		}
+		return cost;
+	}
+}
@@ -0,0 +1,433 @@
+package bnb.tsp.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import bnb.BnbNode;
+import bnb.bench.Benchmark;
+import bnb.tsp.City;
+import bnb.tsp.Edge;
+import bnb.tsp.HeldAndKarp;
+import bnb.tsp.HeldKarpWorkspace;
+import bnb.tsp.HeldKarpEdgeComparator;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.tsp.UnionFind;
+
+/**
+ * Benchmarks of the TSP code a vassal spends its time in, over the samples of a
+ * TspBenchInputs.  An op is one sample's worth of work, except for nextChild, where it's
+ * one child.
+ */
+public class TspBenchmarks {
+
+	public static List<Benchmark> all(TspBenchInputs inputs) {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new Bound(inputs));
+		benchmarks.add(new WorkspaceBound(inputs));
+		benchmarks.add(new MstCost(inputs));
+		benchmarks.add(new UnionFindBench(inputs));
+		benchmarks.add(new Evaluate(inputs));
+		benchmarks.add(new NextChild(inputs));
+		benchmarks.add(new ToBytes(inputs));
+		benchmarks.add(new InitFromBytes(inputs));
+		return benchmarks;
+	}
+
+	private static abstract class TspBenchmark extends Benchmark {
+		protected final TspBenchInputs inputs;
+		protected final TspProblem problem;
+		protected final int numSamples;
+		protected final int repeats;
+
+		/**
+		 * @param repeats
+		 * 		how many times an iteration goes through the samples, so that the quick ones
+		 * 		take long enough to time
+		 */
+		public TspBenchmark(String name, TspBenchInputs inputs, int repeats) {
+			super(name);
+			this.inputs = inputs;
+			this.problem = inputs.getProblem();
+			this.numSamples = inputs.getNumSamples();
+			this.repeats = repeats;
+			addParam("instance", inputs.getName());
+			addParam("samples", numSamples);
+			addParam("repeats", repeats);
+		}
+
+		@Override
+		public long getOpsPerIteration() {
+			return (long)numSamples * repeats;
+		}
+	}
+
+	/**
+	 * HeldAndKarp.bound from zero node weights, against the incumbent.
+	 */
+	static class Bound extends TspBenchmark {
+		protected City[] starts;
+		protected City[] ends;
+		protected boolean[][] remainingVectors;
+		protected List<List<City>> remainingLists;
+		protected int[] pathCosts;
+
+		public Bound(TspBenchInputs inputs) {
+			this("heldAndKarp.bound", inputs);
+		}
+
+		protected Bound(String name, TspBenchInputs inputs) {
+			super(name, inputs, 1);
+		}
+
+		@Override
+		public void setUp() {
+			City[] cities = problem.getCities();
+			starts = new City[numSamples];
+			ends = new City[numSamples];
+			remainingVectors = new boolean[numSamples][];
+			remainingLists = new ArrayList<List<City>>(numSamples);
+			pathCosts = new int[numSamples];
+			for (int i = 0; i < numSamples; i++) {
+				int[] path = inputs.getPath(i);
+				starts[i] = cities[path[0]];
+				ends[i] = cities[path[path.length - 1]];
+				remainingVectors[i] = inputs.remainingVector(i);
+				remainingLists.add(inputs.remainingCities(i));
+				pathCosts[i] = inputs.pathCost(i);
+			}
+		}
+
+		@Override
+		public long runIteration() {
+			int numCities = problem.getNumCities();
+			long checksum = 0;
+			for (int r = 0; r < repeats; r++) {
+				for (int i = 0; i < numSamples; i++) {
+					List<City> tour = new ArrayList<City>();
+					checksum += HeldAndKarp.bound(starts[i], ends[i], remainingVectors[i], problem.getEdges(),
+							inputs.getIncumbent(), remainingLists.get(i), numCities, pathCosts[i], new int[numCities],
+							tour);
+					checksum += tour.size();
+				}
+			}
+			return checksum;
+		}
+	}
+
+	/**
+	 * The same bounds as Bound, with the calling thread's HeldKarpWorkspace.
+	 */
+	static class WorkspaceBound extends Bound {
+		private int[] nodeWeights;
+
+		public WorkspaceBound(TspBenchInputs inputs) {
+			super("heldKarpWorkspace.bound", inputs);
+		}
+
+		@Override
+		public void setUp() {
+			super.setUp();
+			nodeWeights = new int[problem.getNumCities()];
+		}
+
+		@Override
+		public long runIteration() {
+			int numCities = problem.getNumCities();
+			HeldKarpWorkspace workspace = HeldKarpWorkspace.get();
+			long checksum = 0;
+			for (int r = 0; r < repeats; r++) {
+				for (int i = 0; i < numSamples; i++) {
+					Arrays.fill(nodeWeights, 0);
+					checksum += workspace.bound(starts[i], ends[i], remainingVectors[i], problem.getEdgeArrays(),
+							inputs.getIncumbent(), remainingLists.get(i), numCities, pathCosts[i], nodeWeights);
+					checksum += workspace.getTourLength();
+				}
+			}
+			return checksum;
+		}
+	}
+
+	/**
+	 * HeldAndKarp.mstCost with zero node weights, including filling the heap it takes,
+	 * which bound does before every call.
+	 */
+	static class MstCost extends TspBenchmark {
+		private City[] starts;
+		private City[] ends;
+		private City[] oneTreeNodes;
+		private List<List<Edge>> usableEdges;
+		private List<List<City>> remainingLists;
+		private int[] nodeWeights;
+		private HeldKarpEdgeComparator comparator;
+
+		public MstCost(TspBenchInputs inputs) {
+			super("heldAndKarp.mstCost", inputs, 10);
+		}
+
+		@Override
+		public void setUp() {
+			City[] cities = problem.getCities();
+			starts = new City[numSamples];
+			ends = new City[numSamples];
+			oneTreeNodes = new City[numSamples];
+			usableEdges = new ArrayList<List<Edge>>(numSamples);
+			remainingLists = new ArrayList<List<City>>(numSamples);
+			for (int i = 0; i < numSamples; i++) {
+				int[] path = inputs.getPath(i);
+				starts[i] = cities[path[0]];
+				ends[i] = cities[path[path.length - 1]];
+				usableEdges.add(inputs.usableEdges(i));
+				LinkedList<City> remaining = inputs.remainingCities(i);
+				remainingLists.add(remaining);
+				oneTreeNodes[i] = remaining.getFirst();
+			}
+			nodeWeights = new int[problem.getNumCities()];
+			comparator = new HeldKarpEdgeComparator(nodeWeights);
+		}
+
+		@Override
+		public long runIteration() {
+			long checksum = 0;
+			for (int r = 0; r < repeats; r++) {
+				for (int i = 0; i < numSamples; i++) {
+					List<Edge> edges = usableEdges.get(i);
+					PriorityQueue<Edge> edgesHeap = new PriorityQueue<Edge>(edges.size(), comparator);
+					edgesHeap.addAll(edges);
+					List<Edge> chosenEdges = new LinkedList<Edge>();
+					checksum += HeldAndKarp.mstCost(starts[i], ends[i], oneTreeNodes[i], null, null,
+							remainingLists.get(i), edgesHeap, nodeWeights, new int[problem.getNumCities()], chosenEdges);
+					checksum += chosenEdges.size();
+				}
+			}
+			return checksum;
+		}
+	}
+
+	/**
+	 * Kruskal's over each sample's usable edges, sorted ahead of time, with a new UnionFind
+	 * per sample the way mstCost makes one.
+	 */
+	static class UnionFindBench extends TspBenchmark {
+		private City[] starts;
+		private City[] ends;
+		private List<List<Edge>> sortedEdges;
+		private List<List<City>> remainingLists;
+
+		public UnionFindBench(TspBenchInputs inputs) {
+			super("unionFind", inputs, 50);
+		}
+
+		@Override
+		public void setUp() {
+			City[] cities = problem.getCities();
+			starts = new City[numSamples];
+			ends = new City[numSamples];
+			sortedEdges = new ArrayList<List<Edge>>(numSamples);
+			remainingLists = new ArrayList<List<City>>(numSamples);
+			for (int i = 0; i < numSamples; i++) {
+				int[] path = inputs.getPath(i);
+				starts[i] = cities[path[0]];
+				ends[i] = cities[path[path.length - 1]];
+				List<Edge> edges = inputs.usableEdges(i);
+				Collections.sort(edges);
+				sortedEdges.add(edges);
+				remainingLists.add(inputs.remainingCities(i));
+			}
+		}
+
+		@Override
+		public long runIteration() {
+			int numCities = problem.getNumCities();
+			long checksum = 0;
+			for (int r = 0; r < repeats; r++) {
+				for (int i = 0; i < numSamples; i++) {
+					List<City> remaining = remainingLists.get(i);
+					UnionFind unionFind = new UnionFind(remaining, starts[i], ends[i], numCities);
+					unionFind.union(starts[i], ends[i]);
+					int numEdges = 0;
+					for (Edge e : sortedEdges.get(i)) {
+						if (numEdges == remaining.size()) {
+							break;
+						}
+						City root1 = unionFind.find(e.node1);
+						City root2 = unionFind.find(e.node2);
+						if (root1 != root2) {
+							unionFind.union(root1, root2);
+							checksum += e.dist;
+							numEdges++;
+						}
+					}
+				}
+			}
+			return checksum;
+		}
+	}
+
+	/**
+	 * TspNode.evaluate on a fresh copy of each sample, against the incumbent.
+	 */
+	static class Evaluate extends TspBenchmark {
+		private TspNode[] templates;
+		private TspNode[] nodes;
+
+		public Evaluate(TspBenchInputs inputs) {
+			super("tspNode.evaluate", inputs, 1);
+		}
+
+		@Override
+		public void setUp() {
+			templates = new TspNode[numSamples];
+			for (int i = 0; i < numSamples; i++) {
+				templates[i] = inputs.makeNode(i);
+			}
+		}
+
+		@Override
+		public void prepare() {
+			nodes = new TspNode[numSamples * repeats];
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = (TspNode)templates[i % numSamples].copyForTransfer(problem);
+			}
+		}
+
+		@Override
+		public long runIteration() {
+			long checksum = 0;
+			double incumbent = inputs.getIncumbent();
+			for (TspNode node : nodes) {
+				node.evaluate(incumbent);
+				checksum += (long)node.getLowerBound();
+				if (node.hasNextChild()) {
+					checksum++;
+				}
+			}
+			return checksum;
+		}
+	}
+
+	/**
+	 * TspNode.nextChild(true) on copies of evaluated samples until they run out of
+	 * children.  Splitting builds each child its own remaining cities, as for a child that
+	 * might be stolen.
+	 */
+	static class NextChild extends TspBenchmark {
+		private TspNode[] templates;
+		private TspNode[] nodes;
+		private long numChildren;
+
+		public NextChild(TspBenchInputs inputs) {
+			super("tspNode.nextChild", inputs, 10);
+			addParam("split", true);
+		}
+
+		@Override
+		public void setUp() {
+			templates = new TspNode[numSamples];
+			numChildren = 0;
+			for (int i = 0; i < numSamples; i++) {
+				templates[i] = inputs.makeEvaluatedNode(i);
+				numChildren += problem.getNumCities() - inputs.getPath(i).length;
+			}
+		}
+
+		@Override
+		public void prepare() {
+			nodes = new TspNode[numSamples * repeats];
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = (TspNode)templates[i % numSamples].copyForTransfer(problem);
+			}
+		}
+
+		@Override
+		public long runIteration() {
+			long checksum = 0;
+			for (TspNode node : nodes) {
+				while (node.hasNextChild()) {
+					BnbNode child = node.nextChild(true);
+					checksum += ((TspNode)child).getCity().id;
+				}
+			}
+			return checksum;
+		}
+
+		@Override
+		public long getOpsPerIteration() {
+			return numChildren * repeats;
+		}
+	}
+
+	/**
+	 * Evaluated samples with half their children handed out, as a node being stolen would
+	 * have.
+	 */
+	private static TspNode[] makeHalfExplored(TspBenchInputs inputs) {
+		TspNode[] nodes = new TspNode[inputs.getNumSamples()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = inputs.makeEvaluatedNode(i);
+			int numChildren = inputs.getProblem().getNumCities() - inputs.getPath(i).length;
+			for (int j = 0; j < numChildren / 2; j++) {
+				nodes[i].nextChild(false);
+			}
+		}
+		return nodes;
+	}
+
+	static class ToBytes extends TspBenchmark {
+		private TspNode[] nodes;
+
+		public ToBytes(TspBenchInputs inputs) {
+			super("tspNode.toBytes", inputs, 200);
+		}
+
+		@Override
+		public void setUp() {
+			nodes = makeHalfExplored(inputs);
+		}
+
+		@Override
+		public long runIteration() {
+			long checksum = 0;
+			for (int r = 0; r < repeats; r++) {
+				for (TspNode node : nodes) {
+					checksum += node.toBytes().length;
+				}
+			}
+			return checksum;
+		}
+	}
+
+	static class InitFromBytes extends TspBenchmark {
+		private byte[][] bytes;
+
+		public InitFromBytes(TspBenchInputs inputs) {
+			super("tspNode.initFromBytes", inputs, 200);
+		}
+
+		@Override
+		public void setUp() {
+			TspNode[] nodes = makeHalfExplored(inputs);
+			bytes = new byte[numSamples][];
+			for (int i = 0; i < numSamples; i++) {
+				bytes[i] = nodes[i].toBytes();
+			}
+		}
+
+		@Override
+		public long runIteration() {
+			long checksum = 0;
+			for (int r = 0; r < repeats; r++) {
+				for (byte[] nodeBytes : bytes) {
+					TspNode node = new TspNode();
+					node.initFromBytes(nodeBytes, problem);
+					checksum += node.getDepth() + node.getCity().id;
+				}
+			}
+			return checksum;
+		}
+	}
+}
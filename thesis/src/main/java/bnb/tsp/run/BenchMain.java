@@ -0,0 +1,142 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import bnb.bench.Benchmark;
+import bnb.bench.BenchmarkRunner;
+import bnb.bench.PoolBenchmark;
+import bnb.sim.RecordedTree;
+import bnb.sim.TreeRecorder;
+import bnb.tsp.City;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.tsp.bench.SearchBenchmark;
+import bnb.tsp.bench.TspBenchInputs;
+import bnb.tsp.bench.TspBenchmarks;
+import bnb.vassal.NodePoolType;
+
+/**
+ * Runs the benchmarks of the search's hot paths and appends a JSON line for each to the
+ * output file, so that results from different commits can be kept in one file and
+ * compared.  The TSP benchmarks run on samples from eil51, eil76 and kroA100, made with a
+ * fixed seed.  tspSearch solves the first SEARCH_CITIES cities of eil51, for the search's
+ * nodes per second.  The node pool benchmarks go through a tree recorded on the first
+ * POOL_TREE_CITIES cities of eil51, with each pool type and each thread count.
+ *
+ * args: tsptestsDir outputFile [filterRegex] [label] [warmupIterations] [iterations] [threadCounts]
+ *
+ * filterRegex is matched against "benchmark instance" or "vassalNodePool pool", and label
+ * is added to every line, such as the commit being measured.
+ */
+public class BenchMain {
+
+	private static final String[] INSTANCES = {"eil51", "eil76", "kroA100"};
+	private static final int NUM_SAMPLES = 64;
+	private static final long SEED = 1;
+	private static final int SEARCH_CITIES = 16;
+	private static final int POOL_TREE_CITIES = 17;
+	private static final String DEFAULT_THREAD_COUNTS = "1,2,4";
+
+	public static void main(String[] args) throws Exception {
+		File tsptestsDir = new File(args[0]);
+		File outputFile = new File(args[1]);
+		Pattern filter = null;
+		if (args.length > 2 && args[2].length() > 0) {
+			filter = Pattern.compile(args[2]);
+		}
+		String label = null;
+		if (args.length > 3 && args[3].length() > 0) {
+			label = args[3];
+		}
+		int warmupIterations = BenchmarkRunner.DEFAULT_WARMUP_ITERATIONS;
+		if (args.length > 4) {
+			warmupIterations = Integer.parseInt(args[4]);
+		}
+		int iterations = BenchmarkRunner.DEFAULT_ITERATIONS;
+		if (args.length > 5) {
+			iterations = Integer.parseInt(args[5]);
+		}
+		String threadCounts = DEFAULT_THREAD_COUNTS;
+		if (args.length > 6) {
+			threadCounts = args[6];
+		}
+
+		//so we're timing the code, not the logging
+		Logger.getRootLogger().setLevel(Level.WARN);
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (String instance : INSTANCES) {
+			City[] cities = ProblemGen.read(new File(tsptestsDir, instance + ".258"), Integer.MAX_VALUE);
+			TspProblem problem = new TspProblem(cities);
+			problem.makeEdges();
+			TspBenchInputs inputs = new TspBenchInputs(instance, problem, NUM_SAMPLES, SEED);
+			for (Benchmark benchmark : TspBenchmarks.all(inputs)) {
+				if (matches(filter, benchmark.getName() + " " + instance)) {
+					benchmarks.add(benchmark);
+				}
+			}
+		}
+
+		if (matches(filter, "tspSearch eil51")) {
+			City[] cities = ProblemGen.read(new File(tsptestsDir, "eil51.258"), SEARCH_CITIES);
+			TspProblem problem = new TspProblem(cities);
+			problem.makeEdges();
+			benchmarks.add(new SearchBenchmark("eil51", problem));
+		}
+
+		String treeName = "eil51-" + POOL_TREE_CITIES;
+		RecordedTree tree = null;
+		double treeBestCost = 0;
+		for (NodePoolType poolType : NodePoolType.values()) {
+			if (!matches(filter, "vassalNodePool " + poolType)) {
+				continue;
+			}
+			if (tree == null) {
+				City[] cities = ProblemGen.read(new File(tsptestsDir, "eil51.258"), POOL_TREE_CITIES);
+				TspProblem problem = new TspProblem(cities);
+				problem.makeEdges();
+				TreeRecorder recorder = new TreeRecorder(Integer.MAX_VALUE);
+				tree = recorder.record(makeRoot(problem));
+				treeBestCost = recorder.getBestCost();
+			}
+			for (String threads : threadCounts.split(",")) {
+				benchmarks.add(new PoolBenchmark(tree, treeName, treeBestCost, poolType,
+						Integer.parseInt(threads.trim())));
+			}
+		}
+
+		BenchmarkRunner runner = new BenchmarkRunner(warmupIterations, iterations, label);
+		PrintWriter out = new PrintWriter(new FileWriter(outputFile, true));
+		try {
+			for (Benchmark benchmark : benchmarks) {
+				String result = runner.run(benchmark);
+				System.out.println(result);
+				out.println(result);
+				out.flush();
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static boolean matches(Pattern filter, String s) {
+		return filter == null || filter.matcher(s).find();
+	}
+
+	private static TspNode makeRoot(TspProblem problem) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		return new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+	}
+}
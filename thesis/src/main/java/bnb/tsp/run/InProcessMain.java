@@ -0,0 +1,106 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import bnb.lord.LordRunner;
+import bnb.rpc.CodecRegistry;
+import bnb.rpc.InProcessCluster;
+import bnb.rpc.Ports;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.TransportConfig;
+import bnb.tsp.City;
+import bnb.tsp.TspCodecs;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.vassal.LordProxy;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.VassalRunner;
+
+/**
+ * Runs a lord and its vassals in one JVM and prints a JSON line with how long the job
+ * took.  The mode is one of
+ * 	direct - nodes are handed over with copyForTransfer
+ * 	serialize - nodes are handed over with toBytes and initFromBytes
+ * 	loopback - everyone talks over thrift on localhost
+ * Running the same job in each mode splits its time between computation, serialization,
+ * and RPC.
+ *
+ * args: citiesFile numCities numVassals numSlots [mode] [nodePoolType] [peerStealing] [transport]
+ */
+public class InProcessMain {
+
+	public static void main(String[] args) throws Exception {
+		File citiesFile = new File(args[0]);
+		int numCities = Integer.parseInt(args[1]);
+		int numVassals = Integer.parseInt(args[2]);
+		int numSlots = Integer.parseInt(args[3]);
+		String mode = args.length > 4 ? args[4] : "direct";
+		NodePoolType nodePoolType = null;
+		if (args.length > 5) {
+			nodePoolType = NodePoolType.valueOf(args[5].toUpperCase());
+		}
+		boolean peerStealing = args.length > 6 && Boolean.parseBoolean(args[6]);
+		TransportConfig transportConfig = TransportConfig.DEFAULT;
+		if (args.length > 7) {
+			transportConfig = TransportConfig.parse(args[7]);
+		}
+
+		//so we're timing the job, not the logging
+		Logger.getRootLogger().setLevel(Level.WARN);
+		TspCodecs.register(CodecRegistry.getDefault());
+
+		LordRunner lord = new LordRunner(Ports.DEFAULT_LORD_PORT);
+		lord.setNodePoolType(nodePoolType);
+		lord.setPeerStealing(peerStealing);
+		InProcessCluster cluster = null;
+		if (mode.equals("loopback")) {
+			lord.setTransportConfig(transportConfig);
+			lord.start();
+			for (int i = 0; i < numVassals; i++) {
+				LordProxy lordProxy = new LordProxy("localhost", Ports.DEFAULT_LORD_PORT, transportConfig);
+				VassalRunner vassal = new VassalRunner(lordProxy, numSlots, i, Ports.DEFAULT_VASSAL_PORT + i, null);
+				vassal.setTransportConfig(transportConfig);
+				vassal.start();
+			}
+		} else if (mode.equals("direct") || mode.equals("serialize")) {
+			cluster = new InProcessCluster(lord, mode.equals("serialize"));
+			for (int i = 0; i < numVassals; i++) {
+				cluster.addVassal(i, numSlots, null);
+			}
+		} else {
+			throw new IllegalArgumentException("Unknown mode " + mode);
+		}
+
+		City[] cities = ProblemGen.read(citiesFile, numCities);
+		TspProblem problem = new TspProblem(cities);
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		TspNode root = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+
+		long startTime = System.currentTimeMillis();
+		int jobid = lord.runJobWhenEnoughVassals(root, problem, Integer.MAX_VALUE, numVassals);
+		double bestCost = lord.awaitJob(jobid);
+		long totalTime = System.currentTimeMillis() - startTime;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"mode\": \"" + mode + "\"");
+		sb.append(", \"vassals\": " + numVassals);
+		sb.append(", \"slots\": " + numSlots);
+		sb.append(", \"cities\": " + numCities);
+		sb.append(", \"totalTime\": " + totalTime);
+		sb.append(", \"bestCost\": " + bestCost);
+		if (cluster != null) {
+			sb.append(", \"numTransferred\": " + cluster.getNumTransferred());
+			sb.append(", \"transferMillis\": " + cluster.getTransferNanos() / 1000000.0);
+		}
+		sb.append(", \"codec\": " + RpcUtil.getCodecStats().makeReport());
+		sb.append("}");
+		System.out.println(sb.toString());
+		System.exit(0);
+	}
+}
@@ -0,0 +1,343 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.thrift.TException;
+import org.apache.thrift.server.TServer;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.lord.LordRunner;
+import bnb.rpc.ClientPool;
+import bnb.rpc.CodecRegistry;
+import bnb.rpc.Ports;
+import bnb.rpc.ThriftLord;
+import bnb.rpc.ThriftData;
+import bnb.rpc.ThriftVassal;
+import bnb.rpc.TransportConfig;
+import bnb.rpc.VassalPublic;
+import bnb.rpc.VassalThriftWrapper;
+import bnb.stats.ThreadLocalList;
+import bnb.tsp.City;
+import bnb.tsp.TspCodecs;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.PeerAddress;
+
+/**
+ * Starts a lord and has simulated vassals hammer it with askForWork and sendBestSolCost
+ * for a while, then prints a JSON line with the latency percentiles the vassals saw.
+ *
+ * The simulated vassals don't evaluate anything.  They share one server, which gives
+ * away the same node whenever the lord steals from it, until the test is over.  One more
+ * vassal is registered that never asks for work until the end, so that the lord doesn't
+ * decide the job is done when all the others happen to be asking at once.
+ *
+ * args: numVassals seconds citiesFile numCities [transport] [askForWorksPerCost]
+ */
+public class LordLoadTest {
+
+	private static final Logger LOG = Logger.getLogger(LordLoadTest.class);
+
+	private static final int DEFAULT_ASKS_PER_COST = 10;
+
+	public static void main(String[] args) throws Exception {
+		final int numVassals = Integer.parseInt(args[0]);
+		long durationMs = Long.parseLong(args[1]) * 1000;
+		File citiesFile = new File(args[2]);
+		int numCities = Integer.parseInt(args[3]);
+		TransportConfig config = TransportConfig.DEFAULT;
+		if (args.length > 4) {
+			config = TransportConfig.parse(args[4]);
+		}
+		int asksPerCost = DEFAULT_ASKS_PER_COST;
+		if (args.length > 5) {
+			asksPerCost = Integer.parseInt(args[5]);
+		}
+
+		//so we're timing the calls, not the logging
+		Logger.getRootLogger().setLevel(Level.WARN);
+		TspCodecs.register(CodecRegistry.getDefault());
+		int lordPort = Ports.DEFAULT_LORD_PORT;
+		int simPort = Ports.DEFAULT_VASSAL_PORT;
+
+		final LordRunner lord = new LordRunner(lordPort);
+		lord.setTransportConfig(config);
+		//the simulated vassals don't send heartbeats
+		lord.setLeaseTimeout(0);
+		lord.start();
+
+		SimulatedVassals sim = new SimulatedVassals();
+		final TServer simServer = config.newServer(simPort,
+				new ThriftVassal.Processor<VassalThriftWrapper>(new VassalThriftWrapper(sim)), "Simulated Vassal Server");
+		Thread simThread = new Thread("Simulated Vassal Server") {
+			public void run() {
+				simServer.serve();
+			}
+		};
+		simThread.setDaemon(true);
+		simThread.start();
+
+		City[] cities = ProblemGen.read(citiesFile, numCities);
+		final TspProblem problem = new TspProblem(cities);
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		final TspNode root = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+
+		//the last one is the vassal that never asks until the end
+		List<ClientPool<ThriftLord.Client>> lordPools = new LinkedList<ClientPool<ThriftLord.Client>>();
+		for (int i = 0; i <= numVassals; i++) {
+			ClientPool<ThriftLord.Client> pool = new ClientPool<ThriftLord.Client>("localhost", lordPort, config,
+					new ThriftLord.Client.Factory());
+			ThriftLord.Client client = pool.borrow();
+			client.registerVassal("localhost", simPort, i);
+			pool.returnClient(client, true);
+			lordPools.add(pool);
+		}
+		new Thread("Job runner") {
+			public void run() {
+				lord.runJobWhenEnoughVassals(root, problem, Integer.MAX_VALUE, numVassals + 1);
+			}
+		}.start();
+		int jobid = sim.awaitStart(numVassals + 1);
+
+		ThreadLocalList<Long> askLatencies = new ThreadLocalList<Long>();
+		ThreadLocalList<Long> costLatencies = new ThreadLocalList<Long>();
+		AtomicInteger nextCost = new AtomicInteger(Integer.MAX_VALUE / 2);
+		AtomicInteger numFailures = new AtomicInteger();
+		long startTime = System.currentTimeMillis();
+		long deadline = startTime + durationMs;
+		List<Thread> threads = new LinkedList<Thread>();
+		for (int i = 0; i < numVassals; i++) {
+			Thread thread = new VassalThread(i, jobid, lordPools.get(i), deadline, asksPerCost, nextCost,
+					askLatencies, costLatencies, numFailures);
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long totalTime = System.currentTimeMillis() - startTime;
+		int peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+
+		//let everyone run out of work so the lord finishes the job.  the asks only return
+		//once everyone's asking, so they have to be made at the same time
+		sim.finish();
+		threads.clear();
+		for (int i = 0; i <= numVassals; i++) {
+			Thread thread = new FinalAskThread(i, jobid, lordPools.get(i));
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		List<Long> asks = askLatencies.getAll();
+		List<Long> costs = costLatencies.getAll();
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"vassals\": " + numVassals);
+		sb.append(", \"transport\": \"" + config + "\"");
+		sb.append(", \"totalTime\": " + totalTime);
+		sb.append(", \"askForWork\": " + latencyReport(asks, totalTime));
+		sb.append(", \"sendBestSolCost\": " + latencyReport(costs, totalTime));
+		sb.append(", \"failures\": " + numFailures.get());
+		sb.append(", \"peakThreads\": " + peakThreads);
+		sb.append("}");
+		System.out.println(sb.toString());
+		System.exit(0);
+	}
+
+	/**
+	 * Count, throughput, mean and percentiles, in microseconds.
+	 */
+	private static String latencyReport(List<Long> latencies, long totalTime) {
+		Collections.sort(latencies);
+		long sum = 0;
+		for (long latency : latencies) {
+			sum += latency;
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"count\": " + latencies.size());
+		sb.append(", \"perSec\": " + (latencies.size() * 1000.0 / totalTime));
+		sb.append(", \"meanUs\": " + (latencies.isEmpty() ? 0 : sum / latencies.size() / 1000));
+		sb.append(", \"p50Us\": " + percentile(latencies, .5) / 1000);
+		sb.append(", \"p90Us\": " + percentile(latencies, .9) / 1000);
+		sb.append(", \"p99Us\": " + percentile(latencies, .99) / 1000);
+		sb.append(", \"p999Us\": " + percentile(latencies, .999) / 1000);
+		sb.append(", \"maxUs\": " + percentile(latencies, 1) / 1000);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static long percentile(List<Long> sorted, double p) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		int index = (int)Math.ceil(p * sorted.size()) - 1;
+		return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+	}
+
+	private static class VassalThread extends Thread {
+		private final int vassalId;
+		private final int jobid;
+		private final ClientPool<ThriftLord.Client> pool;
+		private final long deadline;
+		private final int asksPerCost;
+		private final AtomicInteger nextCost;
+		private final ThreadLocalList<Long> askLatencies;
+		private final ThreadLocalList<Long> costLatencies;
+		private final AtomicInteger numFailures;
+
+		public VassalThread(int vassalId, int jobid, ClientPool<ThriftLord.Client> pool, long deadline,
+				int asksPerCost, AtomicInteger nextCost, ThreadLocalList<Long> askLatencies,
+				ThreadLocalList<Long> costLatencies, AtomicInteger numFailures) {
+			super("Simulated vassal " + vassalId);
+			this.vassalId = vassalId;
+			this.jobid = jobid;
+			this.pool = pool;
+			this.deadline = deadline;
+			this.asksPerCost = asksPerCost;
+			this.nextCost = nextCost;
+			this.askLatencies = askLatencies;
+			this.costLatencies = costLatencies;
+			this.numFailures = numFailures;
+		}
+
+		@Override
+		public void run() {
+			int numAsks = 0;
+			while (System.currentTimeMillis() < deadline) {
+				boolean healthy = false;
+				ThriftLord.Client client = null;
+				try {
+					client = pool.borrow();
+					long startTime = System.nanoTime();
+					if (++numAsks % asksPerCost == 0) {
+						//always an improvement, so the lord sends it out to everyone
+						client.sendBestSolCost(nextCost.decrementAndGet(), jobid, vassalId, null);
+						costLatencies.add(System.nanoTime() - startTime);
+					} else {
+						client.askForWork(jobid, vassalId, Integer.MAX_VALUE, false, numAsks, null);
+						askLatencies.add(System.nanoTime() - startTime);
+					}
+					healthy = true;
+				} catch (TException ex) {
+					LOG.warn("Call from simulated vassal " + vassalId + " failed", ex);
+					numFailures.incrementAndGet();
+				} finally {
+					if (client != null) {
+						pool.returnClient(client, healthy);
+					}
+				}
+			}
+		}
+	}
+
+	private static class FinalAskThread extends Thread {
+		private final int vassalId;
+		private final int jobid;
+		private final ClientPool<ThriftLord.Client> pool;
+		
+		public FinalAskThread(int vassalId, int jobid, ClientPool<ThriftLord.Client> pool) {
+			this.vassalId = vassalId;
+			this.jobid = jobid;
+			this.pool = pool;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				ThriftLord.Client client = pool.borrow();
+				client.askForWork(jobid, vassalId, Integer.MAX_VALUE, false, Long.MAX_VALUE, null);
+				pool.returnClient(client, true);
+			} catch (TException ex) {
+				LOG.warn("Final ask from simulated vassal " + vassalId + " failed", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Stands in for all the vassals.  Always has the first node it was given to give away.
+	 */
+	private static class SimulatedVassals implements VassalPublic {
+		private BnbNode node;
+		private int jobid = -1;
+		private int numStarted;
+		private volatile boolean finished;
+
+		public synchronized int awaitStart(int numVassals) throws InterruptedException {
+			while (numStarted < numVassals) {
+				wait();
+			}
+			return jobid;
+		}
+
+		public void finish() {
+			finished = true;
+		}
+
+		@Override
+		public void updateBestSolCost(double bestCost, int jobid) {
+		}
+
+		@Override
+		public synchronized void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid,
+				int nThreads, NodePoolType nodePoolType, double jumpRatio, List<PeerAddress> peers, double weight) {
+			if (node == null) {
+				node = nodes.get(0);
+			}
+			this.jobid = jobid;
+			numStarted++;
+			notifyAll();
+		}
+
+		@Override
+		public int getNumSlots() {
+			return 1;
+		}
+
+		@Override
+		public synchronized List<BnbNode> stealWork(int jobid) {
+			List<BnbNode> nodes = new LinkedList<BnbNode>();
+			if (!finished) {
+				nodes.add(node);
+			}
+			return nodes;
+		}
+
+		@Override
+		public List<BnbNode> stealWorkFromPeer(int jobid, int thiefId, double bestCost, long leaseId) {
+			return new LinkedList<BnbNode>();
+		}
+
+		@Override
+		public int getId() throws IOException {
+			return -1;
+		}
+
+		@Override
+		public void beginCheckpoint(int jobid) {
+		}
+
+		@Override
+		public List<ThriftData> checkpoint(int jobid) {
+			return new LinkedList<ThriftData>();
+		}
+
+		@Override
+		public List<BnbNode> drainJob(int jobid) {
+			return new LinkedList<BnbNode>();
+		}
+	}
+}
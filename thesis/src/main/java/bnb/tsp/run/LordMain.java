@@ -12,19 +12,29 @@ import java.util.List;
 
 import org.apache.log4j.Logger;
 
+import bnb.lord.Checkpoint;
+import bnb.lord.CheckpointFile;
 import bnb.lord.LordRunner;
 import bnb.lord.VassalProxy;
+import bnb.rpc.CodecRegistry;
 import bnb.rpc.Ports;
+import bnb.rpc.TransportConfig;
 import bnb.stats.LordJobStats;
+import bnb.stats.MetricsRegistry;
+import bnb.stats.MetricsServer;
+import bnb.trace.Tracer;
 import bnb.tsp.City;
+import bnb.tsp.TspCodecs;
 import bnb.tsp.TspNode;
 import bnb.tsp.TspProblem;
+import bnb.vassal.NodePoolType;
 
 public class LordMain {
 	
 	private static final Logger LOG = Logger.getLogger(LordMain.class);
 	
 	private static final int DEFAULT_LORD_PORT = Ports.DEFAULT_LORD_PORT;
+	private static final long DEFAULT_CHECKPOINT_INTERVAL = 60 * 1000;
 	
 	public static void main(String[] args) throws IOException {
 		int lordPort = DEFAULT_LORD_PORT;
@@ -46,14 +56,55 @@ public class LordMain {
 			upperBound = Integer.parseInt(args[3]);
 		}
 		
+		TspCodecs.register(CodecRegistry.getDefault());
 		final LordRunner lord = new LordRunner(lordPort);
+		if (args.length > 4) {
+			lord.setNodePoolType(NodePoolType.valueOf(args[4].toUpperCase()));
+		}
+		if (args.length > 5) {
+			lord.setJumpRatio(Double.parseDouble(args[5]));
+		}
+		if (args.length > 6) {
+			lord.setPeerStealing(Boolean.parseBoolean(args[6]));
+		}
+		TransportConfig transportConfig = TransportConfig.DEFAULT;
+		if (args.length > 7) {
+			transportConfig = TransportConfig.parse(args[7]);
+		}
+		lord.setTransportConfig(transportConfig);
+		CheckpointFile checkpointFile = null;
+		if (args.length > 8) {
+			checkpointFile = new CheckpointFile(new File(args[8]));
+			long checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+			if (args.length > 9) {
+				checkpointInterval = Long.parseLong(args[9]) * 1000;
+			}
+			lord.setCheckpointing(checkpointFile, checkpointInterval);
+		}
+		boolean resume = args.length > 10 && args[10].equals("resume");
+		//true has the first vassal expand the root instead of the lord
+		if (args.length > 11) {
+			lord.setExpandOnVassals(Boolean.parseBoolean(args[11]));
+		}
+		//serves the stats of running jobs over HTTP, 0 for none
+		if (args.length > 12 && Integer.parseInt(args[12]) > 0) {
+			new MetricsServer(Integer.parseInt(args[12]), MetricsRegistry.getDefault()).start();
+		}
+		lord.setStatsDir(new File("logs"));
+		//traces one in this many evaluations, 0 for no tracing
+		if (args.length > 13 && Integer.parseInt(args[13]) > 0) {
+			Tracer tracer = Tracer.getDefault();
+			tracer.setProcess(0, "lord");
+			tracer.setOutput(new File("logs/trace-lord.json"));
+			tracer.enable(Integer.parseInt(args[13]));
+		}
 		List<String> vassalHosts = null;
 		if (vassalFile != null) {
 			vassalHosts = readLines(vassalFile);
 			LOG.info("vassal hosts: " + vassalHosts);
 			VassalProxy[] vassalProxies = new VassalProxy[vassalHosts.size()];
 			for (int i = 0; i < vassalHosts.size(); i++) {
-				vassalProxies[i] = new VassalProxy(vassalHosts.get(i), Ports.DEFAULT_VASSAL_PORT);
+				vassalProxies[i] = new VassalProxy(vassalHosts.get(i), Ports.DEFAULT_VASSAL_PORT, transportConfig);
 				lord.registerVassal(vassalProxies[i]);
 			}
 		}
@@ -69,7 +120,17 @@ public class LordMain {
 		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
 		TspNode root = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
 		
-		if (vassalFile != null) {
+		Checkpoint checkpoint = null;
+		if (resume) {
+			checkpoint = checkpointFile.readLatest(problem);
+			if (checkpoint == null) {
+				LOG.warn("No checkpoint to resume from in " + args[8] + ", starting from the root");
+			}
+		}
+		if (checkpoint != null) {
+			int numVassals = (vassalFile != null) ? vassalHosts.size() : numVassalsToWaitFor;
+			lord.resumeJobWhenEnoughVassals(checkpoint, problem, numVassals);
+		} else if (vassalFile != null) {
 			lord.runJob(root, problem, upperBound, vassalHosts.size(), 0);
 		} else {
 			lord.runJobWhenEnoughVassals(root, problem, upperBound, numVassalsToWaitFor);
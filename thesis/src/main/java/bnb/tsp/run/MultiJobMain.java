@@ -0,0 +1,96 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import bnb.lord.JobScheduler;
+import bnb.lord.LordRunner;
+import bnb.rpc.CodecRegistry;
+import bnb.rpc.InProcessCluster;
+import bnb.rpc.Ports;
+import bnb.tsp.City;
+import bnb.tsp.TspCodecs;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.vassal.NodePoolType;
+
+/**
+ * Runs a batch of TSP instances on vassals in one JVM, several at a time, and prints a
+ * JSON line with each one's best cost and how long it took, and how long the whole batch
+ * took.  Instance i is numCities cities read from the file starting at city i.  Jobs with
+ * an odd index get twice the weight of the others if weighted is true.
+ *
+ * args: citiesFile numCities numJobs numVassals numSlots maxRunning [nodePoolType] [weighted]
+ */
+public class MultiJobMain {
+
+	public static void main(String[] args) throws Exception {
+		File citiesFile = new File(args[0]);
+		int numCities = Integer.parseInt(args[1]);
+		int numJobs = Integer.parseInt(args[2]);
+		int numVassals = Integer.parseInt(args[3]);
+		int numSlots = Integer.parseInt(args[4]);
+		int maxRunning = Integer.parseInt(args[5]);
+		NodePoolType nodePoolType = null;
+		if (args.length > 6) {
+			nodePoolType = NodePoolType.valueOf(args[6].toUpperCase());
+		}
+		boolean weighted = args.length > 7 && Boolean.parseBoolean(args[7]);
+
+		Logger.getRootLogger().setLevel(Level.WARN);
+		TspCodecs.register(CodecRegistry.getDefault());
+
+		LordRunner lord = new LordRunner(Ports.DEFAULT_LORD_PORT);
+		lord.setNodePoolType(nodePoolType);
+		InProcessCluster cluster = new InProcessCluster(lord, false);
+		for (int i = 0; i < numVassals; i++) {
+			cluster.addVassal(i, numSlots, null).setExitWhenIdle(false);
+		}
+
+		City[] allCities = ProblemGen.read(citiesFile, numCities + numJobs);
+		JobScheduler scheduler = new JobScheduler(lord, numVassals, maxRunning);
+		List<JobScheduler.ScheduledJob> jobs = new ArrayList<JobScheduler.ScheduledJob>();
+		long startTime = System.currentTimeMillis();
+		for (int i = 0; i < numJobs; i++) {
+			City[] cities = new City[numCities];
+			for (int j = 0; j < numCities; j++) {
+				City city = allCities[i + j];
+				cities[j] = new City(city.x, city.y, j);
+			}
+			TspProblem problem = new TspProblem(cities);
+			LinkedList<City> remainingCities = new LinkedList<City>();
+			remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+			TspNode root = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+			double weight = (weighted && i % 2 == 1) ? 2 : 1;
+			jobs.add(scheduler.submit(root, problem, Integer.MAX_VALUE, weight, 0));
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"jobs\": [");
+		for (int i = 0; i < jobs.size(); i++) {
+			JobScheduler.ScheduledJob job = jobs.get(i);
+			double bestCost = job.awaitDone();
+			int jobid = job.awaitJobID();
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append("{\"weight\": " + job.getWeight());
+			sb.append(", \"bestCost\": " + bestCost);
+			sb.append(", \"time\": " + lord.getStats(jobid).getTotalTime() + "}");
+		}
+		sb.append("]");
+		sb.append(", \"vassals\": " + numVassals);
+		sb.append(", \"slots\": " + numSlots);
+		sb.append(", \"maxRunning\": " + maxRunning);
+		sb.append(", \"totalTime\": " + (System.currentTimeMillis() - startTime));
+		sb.append("}");
+		System.out.println(sb.toString());
+		System.exit(0);
+	}
+}
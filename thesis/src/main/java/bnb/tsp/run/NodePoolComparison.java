@@ -0,0 +1,97 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import bnb.BnbNode;
+import bnb.tsp.City;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.vassal.LDSNodePool;
+import bnb.vassal.SimpleVassalNodePool;
+import bnb.vassal.VassalNodePool;
+
+/**
+ * Runs a TSP instance to completion on a single thread, once with SimpleVassalNodePool
+ * and once with LDSNodePool, and prints a JSON line for each with the time to the first
+ * incumbent and the number of nodes evaluated.
+ *
+ * args: citiesFile numCities [upperBound] [discrepancies]
+ */
+public class NodePoolComparison {
+
+	public static void main(String[] args) throws IOException {
+		File citiesFile = new File(args[0]);
+		int numCities = Integer.parseInt(args[1]);
+		double upperBound = Integer.MAX_VALUE;
+		if (args.length > 2) {
+			upperBound = Integer.parseInt(args[2]);
+		}
+		int discrepancies = LDSNodePool.DEFAULT_DISCREPANCIES;
+		if (args.length > 3) {
+			discrepancies = Integer.parseInt(args[3]);
+		}
+
+		City[] cities = ProblemGen.read(citiesFile, numCities);
+		TspProblem problem = new TspProblem(cities);
+		problem.makeEdges();
+
+		System.out.println(run("simple", new SimpleVassalNodePool(), problem, upperBound));
+		System.out.println(run("lds", new LDSNodePool(discrepancies), problem, upperBound));
+	}
+
+	/**
+	 * Does what TaskRunner does, without a lord to ask for more work.
+	 */
+	private static String run(String name, VassalNodePool pool, TspProblem problem, double upperBound) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		TspNode root = new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+
+		long startTime = System.currentTimeMillis();
+		long firstIncumbentTime = -1;
+		double firstIncumbentCost = -1;
+		double bestCost = upperBound;
+		int numEvaluated = 0;
+
+		root.evaluate(bestCost);
+		pool.post(root);
+		BnbNode node;
+		while ((node = pool.nextNode()) != null) {
+			node.evaluate(bestCost);
+			numEvaluated++;
+			if (node.isSolution()) {
+				if (node.getCost() < bestCost) {
+					bestCost = node.getCost();
+					if (firstIncumbentTime == -1) {
+						firstIncumbentTime = System.currentTimeMillis() - startTime;
+						firstIncumbentCost = bestCost;
+					}
+				}
+				node.whenAllChildrenDone();
+				node.getParent().childDone();
+			} else if (!node.isLeaf()) {
+				pool.post(node);
+			} else {
+				node.whenAllChildrenDone();
+				if (node.getParent() != null) {
+					node.getParent().childDone();
+				}
+			}
+		}
+		long totalTime = System.currentTimeMillis() - startTime;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"pool\": \"" + name + "\"");
+		sb.append(", \"timeToFirstIncumbent\": " + firstIncumbentTime);
+		sb.append(", \"firstIncumbentCost\": " + firstIncumbentCost);
+		sb.append(", \"bestCost\": " + bestCost);
+		sb.append(", \"numEvaluated\": " + numEvaluated);
+		sb.append(", \"totalTime\": " + totalTime);
+		sb.append("}");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,56 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import bnb.sim.RecordedTree;
+import bnb.sim.TreeRecorder;
+import bnb.tsp.City;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+
+/**
+ * Records the tree a single-threaded run explores on a TSP instance, for replaying with
+ * bnb.sim.Simulator.  Warmup runs go first, unrecorded, so that the recorded evaluation
+ * times aren't the JIT's.
+ *
+ * args: citiesFile numCities outputFile [upperBound] [warmupRuns]
+ */
+public class RecordTreeMain {
+
+	public static void main(String[] args) throws IOException {
+		File citiesFile = new File(args[0]);
+		int numCities = Integer.parseInt(args[1]);
+		File outputFile = new File(args[2]);
+		double upperBound = Integer.MAX_VALUE;
+		if (args.length > 3) {
+			upperBound = Integer.parseInt(args[3]);
+		}
+		int warmupRuns = 0;
+		if (args.length > 4) {
+			warmupRuns = Integer.parseInt(args[4]);
+		}
+
+		City[] cities = ProblemGen.read(citiesFile, numCities);
+		TspProblem problem = new TspProblem(cities);
+		problem.makeEdges();
+
+		for (int i = 0; i < warmupRuns; i++) {
+			new TreeRecorder(upperBound).record(makeRoot(problem));
+		}
+		TreeRecorder recorder = new TreeRecorder(upperBound);
+		RecordedTree tree = recorder.record(makeRoot(problem));
+		tree.write(outputFile);
+		System.out.println("{\"nodes\": " + tree.size() + ", \"bestCost\": " + recorder.getBestCost()
+				+ ", \"evalMillis\": " + tree.getTotalEvalNanos() / 1000000 + "}");
+	}
+
+	private static TspNode makeRoot(TspProblem problem) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		return new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+	}
+}
@@ -0,0 +1,85 @@
+package bnb.tsp.run;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.FileAppender;
+import org.apache.log4j.Logger;
+
+import bnb.lord.LordRunner;
+import bnb.lord.SubLordRunner;
+import bnb.rpc.CodecRegistry;
+import bnb.rpc.Ports;
+import bnb.rpc.TransportConfig;
+import bnb.stats.MetricsRegistry;
+import bnb.stats.MetricsServer;
+import bnb.trace.ClockSync;
+import bnb.trace.Tracer;
+import bnb.tsp.TspCodecs;
+import bnb.vassal.LordProxy;
+
+/**
+ * Runs a sub-lord on its own machine.  Its vassals register with it on the lord port, as
+ * they would with the lord, and it registers with the parent on the vassal port, as a
+ * vassal would, once the given number of vassals have registered.
+ * 
+ * args: parentHost id numVassals [transport] [metricsPort] [traceSampleEvery]
+ */
+public class SubLordMain {
+	
+	private static final Logger LOG = Logger.getLogger(SubLordMain.class);
+	
+	//trace pids past the vassals', which are their ids + 1
+	private static final int SUB_LORD_PIDS = 100000;
+	
+	public static void main(String[] args) throws IOException {
+		String parentHost = args[0];
+		int id = Integer.parseInt(args[1]);
+		int numVassals = Integer.parseInt(args[2]);
+		TransportConfig transportConfig = TransportConfig.DEFAULT;
+		if (args.length > 3) {
+			transportConfig = TransportConfig.parse(args[3]);
+		}
+		//serves the stats of our group's jobs over HTTP, 0 for none
+		int metricsPort = 0;
+		if (args.length > 4) {
+			metricsPort = Integer.parseInt(args[4]);
+		}
+		//traces one in this many evaluations, 0 for no tracing
+		int traceSampleEvery = 0;
+		if (args.length > 5) {
+			traceSampleEvery = Integer.parseInt(args[5]);
+		}
+		
+		Appender appender = (Appender)Logger.getRootLogger().getAllAppenders().nextElement();
+		Logger.getRootLogger().removeAllAppenders();
+		String logFilePath = "logs/sublord" + id + ".log";
+		new File(logFilePath).delete();
+		FileAppender fileAppender = new FileAppender(appender.getLayout(), logFilePath);
+		Logger.getRootLogger().addAppender(fileAppender);
+		
+		if (metricsPort > 0) {
+			new MetricsServer(metricsPort, MetricsRegistry.getDefault()).start();
+		}
+		TspCodecs.register(CodecRegistry.getDefault());
+		LordProxy parentProxy = new LordProxy(parentHost, Ports.DEFAULT_LORD_PORT, transportConfig);
+		if (traceSampleEvery > 0) {
+			//before our vassals sync with us, so they get the parent's time
+			Tracer tracer = Tracer.getDefault();
+			tracer.setProcess(SUB_LORD_PIDS + id, "sublord" + id);
+			tracer.setOutput(new File("logs/trace-sublord" + id + ".json"));
+			ClockSync.sync(tracer, parentProxy);
+			tracer.enable(traceSampleEvery);
+		}
+		LordRunner group = new LordRunner(Ports.DEFAULT_LORD_PORT);
+		group.setTransportConfig(transportConfig);
+		group.start();
+		group.waitForVassals(numVassals);
+		
+		SubLordRunner subLord = new SubLordRunner(parentProxy, group, id, Ports.DEFAULT_VASSAL_PORT);
+		subLord.setTransportConfig(transportConfig);
+		LOG.info("about to start sub-lord " + id + " with " + numVassals + " vassals");
+		subLord.start();
+	}
+}
@@ -8,8 +8,18 @@ import org.apache.log4j.Appender;
 import org.apache.log4j.FileAppender;
 import org.apache.log4j.Logger;
 
+import bnb.rpc.CodecRegistry;
 import bnb.rpc.Ports;
+import bnb.rpc.TransportConfig;
+import bnb.stats.MetricsRegistry;
+import bnb.stats.MetricsServer;
+import bnb.trace.ClockSync;
+import bnb.trace.Tracer;
+import bnb.tsp.TspCodecs;
 import bnb.vassal.LordProxy;
+import bnb.vassal.NodePoolType;
+import bnb.vassal.SpillArena;
+import bnb.vassal.VassalJobManager;
 import bnb.vassal.VassalRunner;
 
 public class VassalMain {
@@ -28,6 +38,43 @@ public class VassalMain {
 		int vassalPort = DEFAULT_VASSAL_PORT;
 		int numSlots = Integer.parseInt(args[2]);
 		int testId = Integer.parseInt(args[3]);
+		NodePoolType nodePoolType = NodePoolType.SIMPLE;
+		if (args.length > 4) {
+			nodePoolType = NodePoolType.valueOf(args[4].toUpperCase());
+		}
+		int prefetchWatermark = VassalJobManager.DEFAULT_PREFETCH_WATERMARK;
+		if (args.length > 5) {
+			prefetchWatermark = Integer.parseInt(args[5]);
+		}
+		TransportConfig transportConfig = TransportConfig.DEFAULT;
+		if (args.length > 6) {
+			transportConfig = TransportConfig.parse(args[6]);
+		}
+		//false when the lord schedules several jobs on us, see JobScheduler
+		boolean exitWhenIdle = true;
+		if (args.length > 7) {
+			exitWhenIdle = Boolean.parseBoolean(args[7]);
+		}
+		//0 keeps all nodes on the heap
+		int maxResidentNodes = 0;
+		if (args.length > 8) {
+			maxResidentNodes = Integer.parseInt(args[8]);
+		}
+		//spills to direct buffers if not given
+		File spillDir = null;
+		if (args.length > 9) {
+			spillDir = new File(args[9]);
+		}
+		//serves the stats of running jobs over HTTP, 0 for none
+		int metricsPort = 0;
+		if (args.length > 10) {
+			metricsPort = Integer.parseInt(args[10]);
+		}
+		//traces one in this many evaluations, 0 for no tracing
+		int traceSampleEvery = 0;
+		if (args.length > 11) {
+			traceSampleEvery = Integer.parseInt(args[11]);
+		}
 		
 		Appender appender = (Appender)Logger.getRootLogger().getAllAppenders().nextElement();
 		Logger.getRootLogger().removeAllAppenders();
@@ -42,9 +89,36 @@ public class VassalMain {
 
 		FileOutputStream sfos = new FileOutputStream(statsFile);
 		
-		LordProxy lordProxy = new LordProxy(lordHost, lordPort);
+		TspCodecs.register(CodecRegistry.getDefault());
+		LordProxy lordProxy = new LordProxy(lordHost, lordPort, transportConfig);
 		LOG.info("created lord proxy");
-		VassalRunner vassal = new VassalRunner(lordProxy, numSlots, id, vassalPort, sfos);
+		final VassalRunner vassal = new VassalRunner(lordProxy, numSlots, id, vassalPort, sfos);
+		vassal.setNodePoolType(nodePoolType);
+		vassal.setPrefetchWatermark(prefetchWatermark);
+		vassal.setTransportConfig(transportConfig);
+		vassal.setExitWhenIdle(exitWhenIdle);
+		vassal.setSpilling(maxResidentNodes, SpillArena.DEFAULT_CAPACITY, spillDir);
+		//on a kill, give our work back to the lord instead of making it wait for the lease
+		//timeout
+		Runtime.getRuntime().addShutdownHook(new Thread("vassal leaver") {
+			public void run() {
+				try {
+					vassal.leave();
+				} catch (IOException ex) {
+					LOG.warn("Couldn't unregister from lord", ex);
+				}
+			}
+		});
+		if (metricsPort > 0) {
+			new MetricsServer(metricsPort, MetricsRegistry.getDefault()).start();
+		}
+		if (traceSampleEvery > 0) {
+			Tracer tracer = Tracer.getDefault();
+			tracer.setProcess(id + 1, "vassal" + id);
+			tracer.setOutput(new File("logs/trace-vassal" + id + ".json"));
+			ClockSync.sync(tracer, lordProxy);
+			tracer.enable(traceSampleEvery);
+		}
 		LOG.info("about to start vassal runner");
 		vassal.start();
 	}
@@ -0,0 +1,213 @@
+package bnb.vassal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+
+/**
+ * Hybrid of depth-first and best-first search.  Nodes are explored depth-first off
+ * the current dive, as in SimpleVassalNodePool.  When the bound at the bottom of the
+ * dive gets to be more than jumpRatio times the best bound among the open nodes (including
+ * the ones on the dive), the dive is put back into the open nodes and we start a new dive
+ * from the open node with the best bound.
+ *
+ * A jumpRatio of 1 gives plain best-first search, and a very large one gives
+ * depth-first search.
+ *
+ * The open nodes are kept sorted, so that both the best ones and the worst ones can be
+ * taken off in log time.
+ */
+public class BestFirstVassalNodePool implements VassalNodePool {
+	private static final Logger LOG = Logger.getLogger(VassalNodePool.class);
+
+	public static final double DEFAULT_JUMP_RATIO = 1.1;
+
+	private final double jumpRatio;
+
+	private final LinkedList<BnbNode> dive;
+	private final TreeMap<OpenKey, BnbNode> open;
+	//tells apart open nodes with the same bound
+	private long numOpened;
+
+	private int numJumps;
+
+	public BestFirstVassalNodePool() {
+		this(DEFAULT_JUMP_RATIO);
+	}
+
+	public BestFirstVassalNodePool(double jumpRatio) {
+		if (jumpRatio < 1) {
+			throw new IllegalArgumentException("jump ratio must be at least 1, was " + jumpRatio);
+		}
+		this.jumpRatio = jumpRatio;
+		dive = new LinkedList<BnbNode>();
+		open = new TreeMap<OpenKey, BnbNode>();
+	}
+
+	/**
+	 * Gives away a batch of the open nodes with the best bounds, followed by the shallowest
+	 * nodes of the current dive.  If the policy takes the coldest nodes, gives away the open
+	 * nodes with the worst bounds instead, and leaves the dive alone.
+	 */
+	@Override
+	public synchronized List<BnbNode> stealNodes(StealPolicy policy) {
+		//the batch can't be any bigger than this, so there's no need to look further
+		int maxBatchSize = policy.getMaxBatchSize();
+		List<BnbNode> candidates = new ArrayList<BnbNode>(maxBatchSize);
+		Iterator<BnbNode> openIter = policy.takesColdest() ?
+				open.descendingMap().values().iterator() : open.values().iterator();
+		while (candidates.size() < maxBatchSize && openIter.hasNext()) {
+			candidates.add(openIter.next());
+		}
+		int numOpenCandidates = candidates.size();
+		if (!policy.takesColdest()) {
+			Iterator<BnbNode> diveIter = dive.iterator();
+			while (candidates.size() < maxBatchSize && diveIter.hasNext()) {
+				candidates.add(diveIter.next());
+			}
+		}
+
+		double poolWork = policy.estimateWork(open.values()) + policy.estimateWork(dive);
+		int batchSize = policy.batchSize(candidates, poolWork);
+		List<BnbNode> stolen = new LinkedList<BnbNode>(candidates.subList(0, batchSize));
+		for (int i = 0; i < batchSize; i++) {
+			if (i < numOpenCandidates) {
+				if (policy.takesColdest()) {
+					open.pollLastEntry();
+				} else {
+					open.pollFirstEntry();
+				}
+			} else {
+				dive.removeFirst();
+			}
+		}
+		return stolen;
+	}
+
+	@Override
+	public synchronized BnbNode nextNode() {
+		while (true) {
+			if (dive.isEmpty()) {
+				if (open.isEmpty()) {
+					return null;
+				}
+				dive.addLast(open.pollFirstEntry().getValue());
+			} else if (bound(dive.getLast()) > bestOpenBound() * jumpRatio) {
+				for (BnbNode node : dive) {
+					open.put(new OpenKey(bound(node), numOpened++), node);
+				}
+				dive.clear();
+				dive.addLast(open.pollFirstEntry().getValue());
+				numJumps++;
+			}
+
+			BnbNode lastNode = dive.getLast();
+			if (!lastNode.isEvaluated()) {
+				//it'll come back to us through post once it's been evaluated
+				dive.removeLast();
+				return lastNode;
+			}
+			if (lastNode.hasNextChild()) {
+				//nodes aren't resumed in LIFO order, so a child can't share its parent's
+				//structures with the rest of the subtree
+				BnbNode child = lastNode.nextChild(true);
+				if (!lastNode.hasNextChild()) {
+					dive.removeLast();
+				}
+				return child;
+			} else {
+				dive.removeLast();
+			}
+		}
+	}
+
+	@Override
+	public synchronized boolean hasNextNode() {
+		return !dive.isEmpty() || !open.isEmpty();
+	}
+
+	@Override
+	public synchronized int size() {
+		return dive.size() + open.size();
+	}
+
+	@Override
+	public synchronized void post(BnbNode node) {
+		dive.addLast(node);
+	}
+
+	@Override
+	public synchronized List<BnbNode> snapshot() {
+		List<BnbNode> nodes = new ArrayList<BnbNode>(open.values());
+		nodes.addAll(dive);
+		return nodes;
+	}
+
+	@Override
+	public synchronized LoadSummary summarize() {
+		return LoadSummary.of(open.values(), 0).plus(LoadSummary.of(dive, 0));
+	}
+
+	@Override
+	public synchronized void addLiveLeases(Set<Long> leaseIds) {
+		LeaseReport.addLiveLeases(open.values(), leaseIds);
+		LeaseReport.addLiveLeases(dive, leaseIds);
+	}
+
+	public synchronized int getNumJumps() {
+		return numJumps;
+	}
+
+	public double getJumpRatio() {
+		return jumpRatio;
+	}
+
+	/**
+	 * The best bound among the nodes we could jump to.  Bounds don't get better further
+	 * down a dive, so of the nodes on the dive only the shallowest has to be considered.
+	 */
+	private double bestOpenBound() {
+		double best = bound(dive.getFirst());
+		if (!open.isEmpty()) {
+			best = Math.min(best, open.firstKey().bound);
+		}
+		return best;
+	}
+
+	/**
+	 * Unevaluated nodes don't have a bound yet, so they're treated as the most promising.
+	 */
+	private static double bound(BnbNode node) {
+		return node.isEvaluated() ? node.getLowerBound() : Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Where an open node goes in the ordering.  Keeps the node's bound, so it can't change
+	 * while the node is open.
+	 */
+	private static class OpenKey implements Comparable<OpenKey> {
+		private final double bound;
+		private final long seq;
+
+		public OpenKey(double bound, long seq) {
+			this.bound = bound;
+			this.seq = seq;
+		}
+
+		@Override
+		public int compareTo(OpenKey other) {
+			int c = Double.compare(bound, other.bound);
+			if (c != 0) {
+				return c;
+			}
+			return seq < other.seq ? -1 : (seq == other.seq ? 0 : 1);
+		}
+	}
+}
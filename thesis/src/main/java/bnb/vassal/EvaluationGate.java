@@ -0,0 +1,217 @@
+package bnb.vassal;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import bnb.BnbNode;
+
+/**
+ * Lets a checkpoint or a drain wait until nobody has a node out of the pool, without
+ * task runners sharing a lock for every node.  Each task runner has a slot that it marks
+ * while it has a node out, and other threads that put nodes in or take them out count
+ * themselves in a shared counter.  pause stops anyone new from getting in and waits for
+ * everyone who's in to get out, and resume lets them go again.
+ *
+ * Slots also keep the leases of the nodes their task runners have had out since the last
+ * lease report, so that heartbeats can tell which leases are live without a pause.
+ */
+public class EvaluationGate {
+	private final List<Slot> slots = new CopyOnWriteArrayList<Slot>();
+	//threads that aren't task runners
+	private final AtomicInteger numShared = new AtomicInteger();
+	private volatile boolean paused;
+	//only one pause at a time
+	private final ReentrantLock pauseLock = new ReentrantLock();
+	private final Object waitLock = new Object();
+
+	/**
+	 * A task runner's slot.
+	 */
+	public static class Slot {
+		private volatile boolean busy;
+		//the rest is guarded by the slot
+		private boolean nodeOut;
+		private long leaseOut;
+		private final Set<Long> leasesOut = new HashSet<Long>();
+	}
+
+	public Slot register() {
+		Slot slot = new Slot();
+		slots.add(slot);
+		return slot;
+	}
+
+	public void unregister(Slot slot) {
+		slots.remove(slot);
+		wakeUp();
+	}
+
+	/**
+	 * Gets in through the slot if we're not paused.  Returns false if we are, in which case
+	 * the caller should call enter.
+	 */
+	public boolean tryEnter(Slot slot) {
+		slot.busy = true;
+		if (!paused) {
+			return true;
+		}
+		slot.busy = false;
+		wakeUp();
+		return false;
+	}
+
+	/**
+	 * Gets in through the slot, waiting out a pause if there is one.
+	 */
+	public void enter(Slot slot) {
+		while (!tryEnter(slot)) {
+			awaitResume();
+		}
+	}
+
+	/**
+	 * Takes the next node for the slot's task runner, which has to be in.  The node's lease
+	 * is recorded in the same step, so that a lease report finds the node either in the
+	 * pool or out with us.
+	 */
+	public BnbNode nextNode(Slot slot, VassalNodePool pool) {
+		synchronized(slot) {
+			BnbNode node = pool.nextNode();
+			if (node != null) {
+				slot.nodeOut = true;
+				slot.leaseOut = node.getLeaseId();
+				slot.leasesOut.add(slot.leaseOut);
+			}
+			return node;
+		}
+	}
+
+	/**
+	 * Also lets go of the slot's node, which has been posted back or finished by now.
+	 */
+	public void exit(Slot slot) {
+		synchronized(slot) {
+			slot.nodeOut = false;
+		}
+		slot.busy = false;
+		if (paused) {
+			wakeUp();
+		}
+	}
+
+	/**
+	 * Forgets the leases of the nodes task runners have let go of.  Called at the start of
+	 * a lease report, before going through the pool.
+	 */
+	public void startLeaseReport() {
+		for (Slot slot : slots) {
+			synchronized(slot) {
+				slot.leasesOut.clear();
+				if (slot.nodeOut) {
+					slot.leasesOut.add(slot.leaseOut);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the leases of the nodes task runners have had out since startLeaseReport.  A
+	 * node that wasn't in the pool when the report went through it was out with one of them
+	 * for some of that time.
+	 */
+	public void addLeasesOut(Set<Long> leaseIds) {
+		for (Slot slot : slots) {
+			synchronized(slot) {
+				leaseIds.addAll(slot.leasesOut);
+			}
+		}
+	}
+
+	/**
+	 * For threads that aren't task runners.
+	 */
+	public void enterShared() {
+		while (true) {
+			numShared.incrementAndGet();
+			if (!paused) {
+				return;
+			}
+			numShared.decrementAndGet();
+			wakeUp();
+			awaitResume();
+		}
+	}
+
+	public void exitShared() {
+		numShared.decrementAndGet();
+		if (paused) {
+			wakeUp();
+		}
+	}
+
+	/**
+	 * Waits for everyone to get out, and keeps them out until resume.  Mustn't be called
+	 * by a thread that's in.
+	 */
+	public void pause() {
+		pauseLock.lock();
+		paused = true;
+		boolean interrupted = false;
+		synchronized(waitLock) {
+			while (anyoneIn()) {
+				try {
+					waitLock.wait();
+				} catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public void resume() {
+		paused = false;
+		wakeUp();
+		pauseLock.unlock();
+	}
+
+	private boolean anyoneIn() {
+		if (numShared.get() > 0) {
+			return true;
+		}
+		for (Slot slot : slots) {
+			if (slot.busy) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void awaitResume() {
+		boolean interrupted = false;
+		synchronized(waitLock) {
+			while (paused) {
+				try {
+					waitLock.wait();
+				} catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void wakeUp() {
+		synchronized(waitLock) {
+			waitLock.notifyAll();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package bnb.vassal;
+
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Tells the lord which of its leases a job still has nodes from every so often, until
+ * the job is done here.  If the lord has given up on us, abandons the job.
+ */
+public class Heartbeater extends Thread {
+	private static final Logger LOG = Logger.getLogger(Heartbeater.class);
+
+	public static final long DEFAULT_INTERVAL = 1000;
+
+	private final VassalJobManager jobManager;
+	private final long intervalMillis;
+
+	public Heartbeater(VassalJobManager jobManager, long intervalMillis) {
+		super("job " + jobManager.getJobID() + " heartbeater");
+		setDaemon(true);
+		this.jobManager = jobManager;
+		this.intervalMillis = intervalMillis;
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			try {
+				Thread.sleep(intervalMillis);
+			} catch (InterruptedException ex) {
+				return;
+			}
+			if (jobManager.isCompleted()) {
+				return;
+			}
+
+			LeaseReport report = jobManager.makeLeaseReport();
+			try {
+				if (!jobManager.getLordProxy().heartbeat(jobManager.getJobID(), jobManager.getVassalID(), report)) {
+					jobManager.abandon();
+					return;
+				}
+				jobManager.leaseReportDelivered(report);
+			} catch (IOException ex) {
+				LOG.warn("Couldn't send heartbeat for job " + jobManager.getJobID(), ex);
+			}
+		}
+	}
+}
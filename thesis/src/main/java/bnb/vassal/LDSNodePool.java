@@ -1,41 +1,247 @@
 package bnb.vassal;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import org.apache.log4j.Logger;
 
 import bnb.BnbNode;
 
+/**
+ * Limited discrepancy search.  The i-th child (counting from 0) of a node with
+ * discrepancy d has discrepancy d+i, so a path's discrepancy counts how far it strays
+ * from the children the problem suggests first.
+ *
+ * Nodes whose next child is within the current discrepancy limit are explored depth-first,
+ * the rest are put aside in bands by discrepancy.  When nothing is left within the limit,
+ * the limit is raised by the discrepancies given to the constructor, and the bands under
+ * the new limit are picked back up.  Nodes are never explored twice, unlike in
+ * textbook LDS, because raising the limit only lets in the nodes that were put aside.
+ *
+ * stealNodes gives away nodes from the highest band, as many as the steal policy allows.
+ */
 public class LDSNodePool implements VassalNodePool {
+	private static final Logger LOG = Logger.getLogger(VassalNodePool.class);
 
-	private LinkedList<BnbNode> nodes;
-	private LinkedList<Integer> nodeDiscrepancies;
-	private int discrepancies;
-	
+	public static final int DEFAULT_DISCREPANCIES = 1;
+
+	//nodes whose next child is within the limit, explored LIFO
+	private final LinkedList<Entry> nodes;
+	//nodes whose next child is over the limit, by the discrepancy of that child
+	private final TreeMap<Integer, LinkedList<Entry>> bands;
+	//number of entries in all the bands
+	private int numPutAside;
+	//discrepancies of children we've handed out that haven't been posted back yet
+	private final Map<BnbNode, Integer> nodeDiscrepancies;
+	private final int discrepancies;
+	private int limit;
+
+	public LDSNodePool() {
+		this(DEFAULT_DISCREPANCIES);
+	}
+
+	/**
+	 * @param discrepancies
+	 * 		how much to raise the discrepancy limit by each time we run out of nodes
+	 * 		within it
+	 */
 	public LDSNodePool(int discrepancies) {
+		if (discrepancies < 1) {
+			throw new IllegalArgumentException("discrepancies must be positive, was " + discrepancies);
+		}
 		this.discrepancies = discrepancies;
+		nodes = new LinkedList<Entry>();
+		bands = new TreeMap<Integer, LinkedList<Entry>>();
+		nodeDiscrepancies = new WeakHashMap<BnbNode, Integer>();
 	}
-	
+
 	@Override
-	public BnbNode nextNode() {
-		
-		return null;
+	public synchronized BnbNode nextNode() {
+		while (true) {
+			if (nodes.isEmpty() && !raiseLimit()) {
+				return null;
+			}
+
+			Entry entry = nodes.getLast();
+			BnbNode node = entry.node;
+			if (!node.isEvaluated()) {
+				//it'll come back to us through post once it's been evaluated
+				nodes.removeLast();
+				nodeDiscrepancies.put(node, entry.discrepancy);
+				return node;
+			}
+			if (!node.hasNextChild()) {
+				nodes.removeLast();
+				continue;
+			}
+
+			//we don't go through children in LIFO order, so a child can't share its
+			//parent's structures with the rest of the subtree
+			BnbNode child = node.nextChild(true);
+			nodeDiscrepancies.put(child, entry.nextChildDiscrepancy());
+			entry.numChildren++;
+			if (!node.hasNextChild()) {
+				nodes.removeLast();
+			} else if (entry.nextChildDiscrepancy() > limit) {
+				nodes.removeLast();
+				putAside(entry);
+			}
+			return child;
+		}
+	}
+
+	@Override
+	public synchronized void post(BnbNode node) {
+		Integer discrepancy = nodeDiscrepancies.remove(node);
+		Entry entry = new Entry(node, discrepancy == null ? 0 : discrepancy);
+		if (entry.nextChildDiscrepancy() > limit) {
+			putAside(entry);
+		} else {
+			nodes.addLast(entry);
+		}
 	}
 
+	/**
+	 * Gives away a batch of the stealable nodes in the highest band.  If no nodes have been
+	 * put aside, falls back to the shallowest nodes within the limit.
+	 */
 	@Override
-	public void post(BnbNode node) {
-		// TODO Auto-generated method stub
+	public synchronized List<BnbNode> stealNodes(StealPolicy policy) {
+		List<BnbNode> all = new ArrayList<BnbNode>();
+		for (LinkedList<Entry> band : bands.values()) {
+			addNodes(band, all);
+		}
+		addNodes(nodes, all);
+		double poolWork = policy.estimateWork(all);
 		
+		for (Integer discrepancy : bands.descendingKeySet()) {
+			LinkedList<Entry> band = bands.get(discrepancy);
+			List<BnbNode> candidates = new ArrayList<BnbNode>();
+			for (Entry entry : band) {
+				if (policy.isWorthStealing(entry.node)) {
+					candidates.add(entry.node);
+				}
+			}
+			int batchSize = policy.batchSize(candidates, poolWork);
+			if (batchSize > 0) {
+				List<BnbNode> stolen = new LinkedList<BnbNode>(candidates.subList(0, batchSize));
+				Iterator<Entry> iter = band.iterator();
+				while (iter.hasNext()) {
+					if (stolen.contains(iter.next().node)) {
+						iter.remove();
+						numPutAside--;
+					}
+				}
+				if (band.isEmpty()) {
+					bands.remove(discrepancy);
+				}
+				LOG.info("Giving away " + stolen.size() + " nodes with discrepancy " + discrepancy);
+				return stolen;
+			}
+		}
+
+		List<BnbNode> candidates = new ArrayList<BnbNode>();
+		addNodes(nodes, candidates);
+		int batchSize = policy.batchSize(candidates, poolWork);
+		List<BnbNode> stolen = new LinkedList<BnbNode>();
+		for (int i = 0; i < batchSize; i++) {
+			stolen.add(nodes.removeFirst().node);
+		}
+		return stolen;
 	}
 
 	@Override
-	public List<BnbNode> stealNodes() {
-		// TODO Auto-generated method stub
-		return null;
+	public synchronized boolean hasNextNode() {
+		return !nodes.isEmpty() || !bands.isEmpty();
 	}
 
 	@Override
-	public boolean hasNextNode() {
-		// TODO Auto-generated method stub
-		return false;
+	public synchronized int size() {
+		return nodes.size() + numPutAside;
+	}
+	
+	@Override
+	public synchronized List<BnbNode> snapshot() {
+		List<BnbNode> all = new ArrayList<BnbNode>();
+		for (LinkedList<Entry> band : bands.values()) {
+			addNodes(band, all);
+		}
+		addNodes(nodes, all);
+		return all;
+	}
+	
+	@Override
+	public synchronized LoadSummary summarize() {
+		return LoadSummary.of(snapshot(), 0);
+	}
+	
+	@Override
+	public synchronized void addLiveLeases(Set<Long> leaseIds) {
+		LeaseReport.addLiveLeases(snapshot(), leaseIds);
+	}
+	
+	public synchronized int getLimit() {
+		return limit;
+	}
+
+	private void putAside(Entry entry) {
+		int discrepancy = entry.nextChildDiscrepancy();
+		LinkedList<Entry> band = bands.get(discrepancy);
+		if (band == null) {
+			band = new LinkedList<Entry>();
+			bands.put(discrepancy, band);
+		}
+		band.addLast(entry);
+		numPutAside++;
+	}
+
+	/**
+	 * Raises the limit until it takes in at least one band, and moves the bands under it
+	 * back into nodes.  Lower discrepancies end up last so that they're explored first.
+	 *
+	 * @return
+	 * 		false if there was nothing to take in
+	 */
+	private boolean raiseLimit() {
+		if (bands.isEmpty()) {
+			return false;
+		}
+		while (limit < bands.firstKey()) {
+			limit += discrepancies;
+		}
+		for (Integer discrepancy : bands.headMap(limit, true).descendingKeySet()) {
+			nodes.addAll(bands.get(discrepancy));
+			numPutAside -= bands.get(discrepancy).size();
+		}
+		bands.headMap(limit, true).clear();
+		LOG.debug("Raised discrepancy limit to " + limit);
+		return true;
+	}
+
+	private static void addNodes(List<Entry> entries, List<BnbNode> nodeList) {
+		for (Entry entry : entries) {
+			nodeList.add(entry.node);
+		}
+	}
+
+	private static class Entry {
+		private final BnbNode node;
+		private final int discrepancy;
+		private int numChildren;
+
+		public Entry(BnbNode node, int discrepancy) {
+			this.node = node;
+			this.discrepancy = discrepancy;
+		}
+
+		public int nextChildDiscrepancy() {
+			return discrepancy + numChildren;
+		}
 	}
 }
@@ -0,0 +1,60 @@
+package bnb.vassal;
+
+import java.util.List;
+import java.util.Set;
+
+import bnb.BnbNode;
+
+/**
+ * What a vassal tells the lord about its leases and its load in a heartbeat.
+ */
+public class LeaseReport {
+	private final List<Long> liveLeases;
+	private final long maxLeaseReceived;
+	private final List<Long> failedLeases;
+	private final LoadSummary load;
+
+	public LeaseReport(List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, LoadSummary load) {
+		this.liveLeases = liveLeases;
+		this.maxLeaseReceived = maxLeaseReceived;
+		this.failedLeases = failedLeases;
+		this.load = load;
+	}
+
+	/**
+	 * Adds the leases of the given nodes that still have work under them, for a pool
+	 * going through its nodes.
+	 */
+	public static void addLiveLeases(Iterable<BnbNode> nodes, Set<Long> leaseIds) {
+		for (BnbNode node : nodes) {
+			if (!(node.isEvaluated() && !node.hasNextChild())) {
+				leaseIds.add(node.getLeaseId());
+			}
+		}
+	}
+
+	/**
+	 * The leases we still have nodes from.
+	 */
+	public List<Long> getLiveLeases() {
+		return liveLeases;
+	}
+
+	public long getMaxLeaseReceived() {
+		return maxLeaseReceived;
+	}
+
+	/**
+	 * The lease ids of every request for work that failed on our end.
+	 */
+	public List<Long> getFailedLeases() {
+		return failedLeases;
+	}
+
+	/**
+	 * How much work we have, which goes along with the heartbeat.
+	 */
+	public LoadSummary getLoad() {
+		return load;
+	}
+}
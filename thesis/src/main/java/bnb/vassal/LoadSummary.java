@@ -0,0 +1,93 @@
+package bnb.vassal;
+
+import bnb.BnbNode;
+
+/**
+ * How much work a vassal has for a job, sent along with its requests for work and its
+ * heartbeats so that the lord can pick who to steal from.
+ */
+public class LoadSummary {
+	/** For a vassal that's out of work. */
+	public static final LoadSummary EMPTY = new LoadSummary(0, -1, Double.MAX_VALUE);
+
+	private final int frontierSize;
+	private final int shallowestDepth;
+	private final double bestOpenBound;
+
+	/**
+	 * @param frontierSize
+	 * 		how many open nodes could be stolen
+	 * @param shallowestDepth
+	 * 		the depth of the shallowest of them, or -1 if there aren't any or they can't tell
+	 * @param bestOpenBound
+	 * 		the lowest bound among them, or Double.MAX_VALUE if none of them have one yet
+	 */
+	public LoadSummary(int frontierSize, int shallowestDepth, double bestOpenBound) {
+		this.frontierSize = frontierSize;
+		this.shallowestDepth = shallowestDepth;
+		this.bestOpenBound = bestOpenBound;
+	}
+
+	/**
+	 * Sums up the given nodes from a pool, plus some nodes we can't look at, such as ones
+	 * that have been spilled.
+	 */
+	public static LoadSummary of(Iterable<BnbNode> nodes, int numHidden) {
+		int frontierSize = numHidden;
+		int shallowestDepth = -1;
+		double bestOpenBound = Double.MAX_VALUE;
+		for (BnbNode node : nodes) {
+			if (node.isEvaluated() && (node.isSolution() || !node.hasNextChild())) {
+				continue;
+			}
+			if (node.dontSteal()) {
+				continue;
+			}
+			frontierSize++;
+			int depth = node.getDepth();
+			if (depth >= 0 && (shallowestDepth < 0 || depth < shallowestDepth)) {
+				shallowestDepth = depth;
+			}
+			if (node.isEvaluated()) {
+				bestOpenBound = Math.min(bestOpenBound, node.getLowerBound());
+			}
+		}
+		return new LoadSummary(frontierSize, shallowestDepth, bestOpenBound);
+	}
+
+	public int getFrontierSize() {
+		return frontierSize;
+	}
+
+	public int getShallowestDepth() {
+		return shallowestDepth;
+	}
+
+	public double getBestOpenBound() {
+		return bestOpenBound;
+	}
+
+	/**
+	 * Sums up this summary's nodes together with another's.
+	 */
+	public LoadSummary plus(LoadSummary other) {
+		int depth = shallowestDepth;
+		if (other.shallowestDepth >= 0 && (depth < 0 || other.shallowestDepth < depth)) {
+			depth = other.shallowestDepth;
+		}
+		return new LoadSummary(frontierSize + other.frontierSize, depth,
+				Math.min(bestOpenBound, other.bestOpenBound));
+	}
+
+	/**
+	 * The same summary with some nodes taken away, for when we know some were stolen.
+	 */
+	public LoadSummary without(int numNodes) {
+		return new LoadSummary(Math.max(0, frontierSize - numNodes), shallowestDepth, bestOpenBound);
+	}
+
+	@Override
+	public String toString() {
+		return "frontier " + frontierSize + ", shallowest " + shallowestDepth + ", best bound " + bestOpenBound;
+	}
+}
@@ -0,0 +1,67 @@
+package bnb.vassal;
+
+import java.io.IOException;
+import java.util.List;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.InProcessCluster;
+
+/**
+ * Calls straight into a lord in the same JVM.
+ */
+public class LocalLordProxy extends LordProxy {
+
+	private final InProcessCluster cluster;
+
+	public LocalLordProxy(InProcessCluster cluster) {
+		this.cluster = cluster;
+	}
+
+	@Override
+	public void sendBestSolCost(double cost, int jobid, int vassalid) throws IOException {
+		cluster.checkUp(vassalid);
+		cluster.getLord().sendBestSolCost(cost, jobid, vassalid);
+	}
+
+	@Override
+	public List<BnbNode> askForWork(int jobid, int vassalid, Problem problem, double bestCost, boolean prefetch,
+			long leaseId, LoadSummary load) throws IOException {
+		cluster.checkUp(vassalid);
+		List<BnbNode> nodes = cluster.getLord().askForWork(jobid, vassalid, bestCost, prefetch, leaseId, load);
+		return cluster.transfer(nodes, problem);
+	}
+	
+	@Override
+	public boolean heartbeat(int jobid, int vassalid, LeaseReport report) throws IOException {
+		cluster.checkUp(vassalid);
+		return cluster.getLord().heartbeat(jobid, vassalid, report.getLiveLeases(), report.getMaxLeaseReceived(),
+				report.getFailedLeases(), report.getLoad());
+	}
+	
+	@Override
+	public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<BnbNode> nodes)
+		throws IOException {
+		cluster.checkUp(donorid);
+		return cluster.getLord().leaseWork(jobid, donorid, thiefid, leaseId,
+				cluster.transfer(nodes, cluster.getLord().getProblem(jobid)));
+	}
+
+	@Override
+	public void unregisterVassal(int id) throws IOException {
+		cluster.checkUp(id);
+		cluster.getLord().unregisterVassal(id);
+	}
+
+	@Override
+	public long getTimeMicros() {
+		return cluster.getLord().getTimeMicros();
+	}
+	
+	/**
+	 * The cluster registers its vassals with the lord itself.
+	 */
+	@Override
+	public void registerVassal(String hostname, int port, int id) {
+	}
+}
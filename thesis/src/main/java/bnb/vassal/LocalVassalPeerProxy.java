@@ -0,0 +1,28 @@
+package bnb.vassal;
+
+import java.io.IOException;
+import java.util.List;
+
+import bnb.BnbNode;
+import bnb.rpc.InProcessCluster;
+
+/**
+ * Steals straight from another vassal in the same JVM.
+ */
+public class LocalVassalPeerProxy extends VassalPeerProxy {
+
+	private final InProcessCluster cluster;
+
+	public LocalVassalPeerProxy(InProcessCluster cluster, PeerAddress address) {
+		super(address);
+		this.cluster = cluster;
+	}
+
+	@Override
+	public List<BnbNode> stealWork(VassalJobManager jobManager, double bestCost, long leaseId) throws IOException {
+		cluster.checkUp(getVassalId());
+		List<BnbNode> nodes = cluster.getVassal(getVassalId()).stealWorkFromPeer(jobManager.getJobID(),
+				jobManager.getVassalID(), bestCost, leaseId);
+		return cluster.transfer(nodes, jobManager.getProblem());
+	}
+}
@@ -6,50 +6,88 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
-import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSocket;
 
 import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.ClientPool;
 import bnb.rpc.RpcUtil;
 import bnb.rpc.ThriftData;
+import bnb.rpc.ThriftLoad;
 import bnb.rpc.ThriftLord;
+import bnb.rpc.TransportConfig;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
 
 public class LordProxy {
 
-	private ThriftLord.Client lordClient;
-	private TSocket socket;
+	//costs and requests for work each get their own connection from the pool, so new
+	//costs don't wait behind requests for work
+	private final ClientPool<ThriftLord.Client> pool;
 
 	public LordProxy(String host, int port) {
-		socket = new TSocket(host, port);
-		TProtocol protocol = new TBinaryProtocol(socket);
-		lordClient = new ThriftLord.Client(protocol);
+		this(host, port, TransportConfig.DEFAULT);
+	}
+	
+	public LordProxy(String host, int port, TransportConfig config) {
+		pool = new ClientPool<ThriftLord.Client>(host, port, config, new ThriftLord.Client.Factory());
+	}
+	
+	/**
+	 * For subclasses that don't go over the network.
+	 */
+	protected LordProxy() {
+		pool = null;
 	}
 	
 	public void sendBestSolCost(double cost, int jobid, int vassalid) throws IOException {
+		boolean healthy = false;
 		try {
-			if (!socket.isOpen()) {
-				socket.open();
+			ThriftLord.Client client = pool.borrow();
+			try {
+				client.sendBestSolCost(cost, jobid, vassalid, null);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
 			}
-			lordClient.sendBestSolCost(cost, jobid, vassalid, null);
 		} catch (TException ex) {
 			throw new IOException("send exception", ex);
 		}
 	}
 
-	public List<BnbNode> askForWork(VassalJobManager jobManager, double bestCost) throws IOException {
+	/**
+	 * @param load
+	 * 		how much work we have, for the lord to pick who to steal from
+	 */
+	public List<BnbNode> askForWork(VassalJobManager jobManager, double bestCost, boolean prefetch, long leaseId,
+			LoadSummary load) throws IOException {
+		return askForWork(jobManager.getJobID(), jobManager.getVassalID(), jobManager.getProblem(), bestCost,
+				prefetch, leaseId, load);
+	}
+	
+	/**
+	 * For askers that aren't vassal jobs, such as sub-lords.
+	 * 
+	 * @param problem
+	 * 		what the nodes we get back are read with
+	 */
+	public List<BnbNode> askForWork(int jobid, int vassalid, Problem problem, double bestCost, boolean prefetch,
+			long leaseId, LoadSummary load) throws IOException {
+		long span = Tracer.getDefault().begin(Span.RPC_ASK_FOR_WORK);
 		try {
-			if (!socket.isOpen()) {
-				socket.open();
+			List<ThriftData> nodesData;
+			boolean healthy = false;
+			ThriftLord.Client client = pool.borrow();
+			try {
+				nodesData = client.askForWork(jobid, vassalid, bestCost, prefetch, leaseId, toThriftLoad(load));
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
 			}
-
-			int jobid = jobManager.getJobID();
-			int vassalid = jobManager.getVassalID();
-			List<ThriftData> nodesData = lordClient.askForWork(jobid, vassalid, bestCost);
 			List<BnbNode> nodes = new LinkedList<BnbNode>();
 			for (ThriftData nodeData : nodesData) {
-				nodes.add((BnbNode)RpcUtil.nodeFromThriftData(nodeData, jobManager.getProblem()));
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, problem));
 			}
+			Tracer.getDefault().end(Span.RPC_ASK_FOR_WORK, span, jobid, vassalid, nodes.size());
 			return nodes;
 		} catch (TException ex) {
 			throw new IOException("send exception", ex);
@@ -72,12 +110,96 @@ public class LordProxy {
 		}
 	}
 	
+	private static ThriftLoad toThriftLoad(LoadSummary load) {
+		return new ThriftLoad(load.getFrontierSize(), load.getShallowestDepth(), load.getBestOpenBound());
+	}
+	
+	/**
+	 * Returns false if the lord has given up on us for the job.
+	 */
+	public boolean heartbeat(int jobid, int vassalid, LeaseReport report) throws IOException {
+		long span = Tracer.getDefault().begin(Span.RPC_HEARTBEAT);
+		boolean healthy = false;
+		try {
+			ThriftLord.Client client = pool.borrow();
+			try {
+				boolean ok = client.heartbeat(jobid, vassalid, report.getLiveLeases(), report.getMaxLeaseReceived(),
+						report.getFailedLeases(), toThriftLoad(report.getLoad()));
+				healthy = true;
+				Tracer.getDefault().end(Span.RPC_HEARTBEAT, span, jobid, vassalid);
+				return ok;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		}
+	}
+	
+	/**
+	 * Returns false if we should keep the nodes instead of giving them to the thief.
+	 */
+	public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<BnbNode> nodes)
+		throws IOException {
+		boolean healthy = false;
+		try {
+			ThriftLord.Client client = pool.borrow();
+			try {
+				boolean ok = client.leaseWork(jobid, donorid, thiefid, leaseId, RpcUtil.nodesToThriftData(nodes));
+				healthy = true;
+				return ok;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		}
+	}
+	
+	public void unregisterVassal(int id) throws IOException {
+		boolean healthy = false;
+		try {
+			ThriftLord.Client client = pool.borrow();
+			try {
+				client.unregisterVassal(id);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		}
+	}
+	
+	/**
+	 * The time in microseconds on the top lord's clock.
+	 */
+	public long getTimeMicros() throws IOException {
+		boolean healthy = false;
+		try {
+			ThriftLord.Client client = pool.borrow();
+			try {
+				long time = client.getTimeMicros();
+				healthy = true;
+				return time;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		}
+	}
+	
 	public void registerVassal(String hostname, int port, int id) throws IOException {
+		boolean healthy = false;
 		try {
-			if (!socket.isOpen()) {
-				socket.open();
+			ThriftLord.Client client = pool.borrow();
+			try {
+				client.registerVassal(hostname, port, id);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
 			}
-			lordClient.registerVassal(hostname, port, id);
 		} catch (TException ex) {
 			throw new IOException("send exception", ex);
 		}
@@ -0,0 +1,34 @@
+package bnb.vassal;
+
+/**
+ * The VassalNodePool implementations a VassalRunner can use for its jobs.
+ */
+public enum NodePoolType {
+	/** SimpleVassalNodePool, a single synchronized stack shared by all task threads */
+	SIMPLE,
+	/** WorkStealingVassalNodePool, a deque per task thread */
+	WORK_STEALING,
+	/** BestFirstVassalNodePool, dives depth-first but jumps to the open node with the best bound */
+	BEST_FIRST,
+	/** LDSNodePool, limited discrepancy search */
+	LDS;
+	
+	/**
+	 * Makes an empty pool of this type.
+	 * 
+	 * @param jumpRatio
+	 * 		for BEST_FIRST, see BestFirstVassalNodePool
+	 */
+	public VassalNodePool newPool(double jumpRatio) {
+		switch (this) {
+		case WORK_STEALING:
+			return new WorkStealingVassalNodePool();
+		case BEST_FIRST:
+			return new BestFirstVassalNodePool(jumpRatio);
+		case LDS:
+			return new LDSNodePool();
+		default:
+			return new SimpleVassalNodePool();
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package bnb.vassal;
+
+/**
+ * Where to reach another vassal working on the same job.
+ */
+public class PeerAddress {
+	private final String hostname;
+	private final int port;
+	private final int vassalId;
+	
+	public PeerAddress(String hostname, int port, int vassalId) {
+		this.hostname = hostname;
+		this.port = port;
+		this.vassalId = vassalId;
+	}
+	
+	public String getHostname() {
+		return hostname;
+	}
+	
+	public int getPort() {
+		return port;
+	}
+	
+	public int getVassalId() {
+		return vassalId;
+	}
+	
+	@Override
+	public String toString() {
+		return vassalId + "@" + hostname + ":" + port;
+	}
+}
@@ -1,8 +1,9 @@
 package bnb.vassal;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 
@@ -17,14 +18,17 @@ public class SimpleVassalNodePool implements VassalNodePool {
 		nodeList = new LinkedList<BnbNode>();
 	}
 	
+	/**
+	 * Gives away a batch of the shallowest nodes.
+	 */
 	@Override
-	public synchronized List<BnbNode> stealNodes() {
-		if (nodeList.isEmpty() || nodeList.getFirst().isSolution() || 
-				(nodeList.getFirst().isEvaluated() && !nodeList.getFirst().hasNextChild()) ||
-				nodeList.getFirst().dontSteal()) {
-			return new LinkedList<BnbNode>();
+	public synchronized List<BnbNode> stealNodes(StealPolicy policy) {
+		int batchSize = policy.batchSize(nodeList, policy.estimateWork(nodeList));
+		List<BnbNode> stolen = new LinkedList<BnbNode>();
+		for (int i = 0; i < batchSize; i++) {
+			stolen.add(nodeList.removeFirst());
 		}
-		return Collections.singletonList(nodeList.removeFirst());
+		return stolen;
 	}
 	
 //	@Override
@@ -69,8 +73,28 @@ public class SimpleVassalNodePool implements VassalNodePool {
 		return nodeList.size() > 0;
 	}
 
+	@Override
+	public synchronized int size() {
+		return nodeList.size();
+	}
+
 	@Override
 	public synchronized void post(BnbNode node) {
 		nodeList.addLast(node);
-	}	
+	}
+	
+	@Override
+	public synchronized List<BnbNode> snapshot() {
+		return new ArrayList<BnbNode>(nodeList);
+	}
+	
+	@Override
+	public synchronized LoadSummary summarize() {
+		return LoadSummary.of(nodeList, 0);
+	}
+	
+	@Override
+	public synchronized void addLiveLeases(Set<Long> leaseIds) {
+		LeaseReport.addLiveLeases(nodeList, leaseIds);
+	}
 }
@@ -0,0 +1,164 @@
+package bnb.vassal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Splits a vassal's slots between the jobs running on it.
+ *
+ * Every job gets at least one thread, so that it keeps asking for work and the lord can
+ * tell when it's done here, and the rest are dealt out one at a time to whichever job
+ * has the fewest threads for its weight.  A job that's out of nodes and waiting on a
+ * request for work keeps just its one thread, and the rest of its share goes to jobs
+ * that have work until it gets some back.
+ *
+ * Threads are moved whenever a job starts or finishes here, and every so often to catch
+ * jobs running out of work or getting it back.  Task runners on a job with more threads
+ * than it should have leave after the node they're on.
+ */
+public class SlotAllocator extends Thread {
+	private static final Logger LOG = Logger.getLogger(SlotAllocator.class);
+
+	public static final long DEFAULT_INTERVAL = 50;
+	public static final double DEFAULT_WEIGHT = 1.0;
+
+	private final VassalRunner vassal;
+	private final int numSlots;
+	private final long intervalMillis;
+	//in the order they started here, which breaks ties in favor of older jobs
+	private final Map<VassalJobManager, JobShare> jobs;
+
+	public SlotAllocator(VassalRunner vassal, int numSlots, long intervalMillis) {
+		super("vassal " + vassal.getId() + " slot allocator");
+		setDaemon(true);
+		this.vassal = vassal;
+		this.numSlots = numSlots;
+		this.intervalMillis = intervalMillis;
+		jobs = new LinkedHashMap<VassalJobManager, JobShare>();
+	}
+
+	/**
+	 * @param weight
+	 * 		the job's share relative to the other jobs'.  non-positive means the default
+	 * @param maxThreads
+	 * 		the most threads the job should get, however few other jobs there are
+	 */
+	public synchronized void addJob(VassalJobManager jobManager, double weight, int maxThreads) {
+		if (weight <= 0) {
+			weight = DEFAULT_WEIGHT;
+		}
+		jobs.put(jobManager, new JobShare(weight, Math.max(1, maxThreads)));
+		if (jobs.size() > numSlots) {
+			LOG.info(jobs.size() + " jobs running on " + numSlots + " slots, each still gets a thread");
+		}
+		rebalance();
+	}
+
+	/**
+	 * Called once the job's task runners have all stopped, to give its slots to the others.
+	 */
+	public synchronized void removeJob(VassalJobManager jobManager) {
+		jobs.remove(jobManager);
+		rebalance();
+	}
+
+	/**
+	 * Number of jobs that haven't been removed.
+	 */
+	public synchronized int getNumJobs() {
+		return jobs.size();
+	}
+
+	/**
+	 * Works out how many threads each job should have, and starts task runners for the
+	 * jobs that should have more.
+	 */
+	public synchronized void rebalance() {
+		//jobs that are finished here are waiting for their runners to stop
+		List<VassalJobManager> running = new ArrayList<VassalJobManager>();
+		for (VassalJobManager jobManager : jobs.keySet()) {
+			if (!jobManager.isCompleted()) {
+				running.add(jobManager);
+			}
+		}
+		if (running.isEmpty()) {
+			return;
+		}
+
+		double[] weights = new double[running.size()];
+		int[] maxThreads = new int[running.size()];
+		boolean[] starving = new boolean[running.size()];
+		for (int i = 0; i < running.size(); i++) {
+			JobShare share = jobs.get(running.get(i));
+			weights[i] = share.weight;
+			maxThreads[i] = share.maxThreads;
+			starving[i] = running.get(i).isStarving();
+		}
+		int[] threads = divide(numSlots, weights, maxThreads, starving);
+		for (int i = 0; i < running.size(); i++) {
+			running.get(i).setTargetThreads(threads[i]);
+			vassal.addTaskRunners(running.get(i));
+		}
+	}
+
+	/**
+	 * Returns how many threads each job should get.
+	 *
+	 * @param starving
+	 * 		which jobs are out of work.  they only get one thread, unless every job is
+	 */
+	static int[] divide(int numSlots, double[] weights, int[] maxThreads, boolean[] starving) {
+		int[] threads = new int[weights.length];
+		int free = numSlots;
+		boolean anyBusy = false;
+		for (int i = 0; i < weights.length; i++) {
+			threads[i] = 1;
+			free--;
+			anyBusy |= !starving[i];
+		}
+
+		while (free > 0) {
+			int next = -1;
+			for (int i = 0; i < weights.length; i++) {
+				if ((anyBusy && starving[i]) || threads[i] >= maxThreads[i]) {
+					continue;
+				}
+				if (next == -1 || threads[i] / weights[i] < threads[next] / weights[next]) {
+					next = i;
+				}
+			}
+			if (next == -1) {
+				break;
+			}
+			threads[next]++;
+			free--;
+		}
+		return threads;
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			try {
+				Thread.sleep(intervalMillis);
+			} catch (InterruptedException ex) {
+				return;
+			}
+			rebalance();
+		}
+	}
+
+	private static class JobShare {
+		private final double weight;
+		private final int maxThreads;
+
+		public JobShare(double weight, int maxThreads) {
+			this.weight = weight;
+			this.maxThreads = maxThreads;
+		}
+	}
+}
@@ -0,0 +1,329 @@
+package bnb.vassal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.ThriftData;
+
+/**
+ * Batches of nodes kept outside the heap, as the bytes from toBytes, for a pool that's
+ * over its memory budget.  The arena is either a direct buffer or a temporary file mapped
+ * into memory, so the operating system can page it out.
+ *
+ * Batches are laid out in a ring: new ones go after the newest, and they're taken back
+ * from either end, the newest when the pool runs dry and the oldest when work is stolen.
+ * Each node is stored as its lease id, the length of its bytes and the bytes, since the
+ * lease id isn't part of toBytes.  Only the batches' offsets, node classes and lease
+ * ids stay on the heap.
+ *
+ * Batches can be pinned so that their bytes can be copied out without holding up the
+ * pool.  Nothing is written over a pinned batch, even once it's been taken back, until
+ * it's unpinned.
+ *
+ * Not thread-safe, other than copyPinned.  The pool using it synchronizes.
+ */
+public class SpillArena {
+
+	public static final int DEFAULT_CAPACITY = 64 * 1024 * 1024;
+
+	private final ByteBuffer buffer;
+	private final RandomAccessFile file;
+	private final LinkedList<Batch> batches;
+	private final List<Pin> pins;
+	private int numNodes;
+	private int usedBytes;
+	private int peakUsedBytes;
+
+	/**
+	 * @param dir
+	 * 		where to put the file backing the arena, which is deleted as soon as it's
+	 * 		mapped.  null keeps the arena in a direct buffer instead
+	 */
+	public SpillArena(int capacity, File dir) throws IOException {
+		if (dir == null) {
+			buffer = ByteBuffer.allocateDirect(capacity);
+			file = null;
+		} else {
+			File spillFile = File.createTempFile("spill", ".arena", dir);
+			spillFile.deleteOnExit();
+			file = new RandomAccessFile(spillFile, "rw");
+			file.setLength(capacity);
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+			//the mapping stays valid after the file is gone
+			spillFile.delete();
+		}
+		batches = new LinkedList<Batch>();
+		pins = new ArrayList<Pin>();
+	}
+
+	/**
+	 * Writes the nodes as a new batch.  Returns false, writing nothing, if there isn't
+	 * room for them, or if the room there is belongs to a pinned batch.
+	 */
+	public boolean push(List<BnbNode> nodes) {
+		if (nodes.isEmpty()) {
+			return true;
+		}
+		Class<? extends BnbNode> nodeClass = nodes.get(0).getClass();
+		List<byte[]> encoded = new ArrayList<byte[]>(nodes.size());
+		int length = 0;
+		for (BnbNode node : nodes) {
+			if (node.getClass() != nodeClass) {
+				throw new IllegalArgumentException("Batch mixes " + nodeClass.getName() + " and " +
+						node.getClass().getName());
+			}
+			byte[] bytes = node.toBytes();
+			encoded.add(bytes);
+			length += 8 + 4 + bytes.length;
+		}
+		int offset = allocate(length);
+		if (offset < 0 || overlapsPinned(offset, length)) {
+			return false;
+		}
+
+		Batch batch = new Batch(offset, length, nodes.size(), nodeClass);
+		ByteBuffer out = buffer.duplicate();
+		out.position(offset);
+		for (int i = 0; i < nodes.size(); i++) {
+			long leaseId = nodes.get(i).getLeaseId();
+			out.putLong(leaseId);
+			out.putInt(encoded.get(i).length);
+			out.put(encoded.get(i));
+			batch.leaseIds.add(leaseId);
+		}
+		batches.addLast(batch);
+		numNodes += batch.numNodes;
+		usedBytes += length;
+		peakUsedBytes = Math.max(peakUsedBytes, usedBytes);
+		return true;
+	}
+
+	/**
+	 * Returns where a batch of the given length can go after the newest one, or -1 if
+	 * it doesn't fit.
+	 */
+	private int allocate(int length) {
+		if (batches.isEmpty()) {
+			return length <= buffer.capacity() ? 0 : -1;
+		}
+		int start = batches.getFirst().offset;
+		Batch newest = batches.getLast();
+		int end = newest.offset + newest.length;
+		if (newest.offset >= start) {
+			//not wrapped, so there's room after the newest and before the oldest
+			if (end + length <= buffer.capacity()) {
+				return end;
+			}
+			return length <= start ? 0 : -1;
+		}
+		return end + length <= start ? end : -1;
+	}
+
+	private boolean overlapsPinned(int offset, int length) {
+		for (Pin pin : pins) {
+			for (Batch batch : pin.batches) {
+				if (offset < batch.offset + batch.length && batch.offset < offset + length) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Takes back the batch written most recently, or returns null if there isn't one.
+	 */
+	public List<BnbNode> popNewest(Problem problem) {
+		if (batches.isEmpty()) {
+			return null;
+		}
+		return release(batches.removeLast(), problem);
+	}
+
+	/**
+	 * Takes back the batch that's been here longest, or returns null if there isn't one.
+	 */
+	public List<BnbNode> popOldest(Problem problem) {
+		if (batches.isEmpty()) {
+			return null;
+		}
+		return release(batches.removeFirst(), problem);
+	}
+
+	private List<BnbNode> release(Batch batch, Problem problem) {
+		numNodes -= batch.numNodes;
+		usedBytes -= batch.length;
+		return read(batch, problem);
+	}
+
+	/**
+	 * Copies of all the nodes, oldest batch first, leaving them in the arena.
+	 */
+	public List<BnbNode> snapshot(Problem problem) {
+		List<BnbNode> nodes = new ArrayList<BnbNode>(numNodes);
+		for (Batch batch : batches) {
+			nodes.addAll(read(batch, problem));
+		}
+		return nodes;
+	}
+
+	/**
+	 * Keeps the batches there are now from being written over until unpin is called.
+	 */
+	public Pin pin() {
+		Pin pin = new Pin(new ArrayList<Batch>(batches));
+		pins.add(pin);
+		return pin;
+	}
+
+	public void unpin(Pin pin) {
+		pins.remove(pin);
+	}
+
+	public boolean isPinned() {
+		return !pins.isEmpty();
+	}
+
+	/**
+	 * The pinned nodes' bytes as they were written, oldest batch first, without reading
+	 * the nodes back.  Can be called without the pool's lock, since nothing writes over a
+	 * pinned batch.
+	 */
+	public List<ThriftData> copyPinned(Pin pin) {
+		List<ThriftData> nodesData = new ArrayList<ThriftData>(pin.numNodes);
+		for (Batch batch : pin.batches) {
+			ByteBuffer in = buffer.duplicate();
+			in.position(batch.offset);
+			for (int i = 0; i < batch.numNodes; i++) {
+				//the lease id isn't sent along with the node
+				in.getLong();
+				byte[] bytes = new byte[in.getInt()];
+				in.get(bytes);
+				nodesData.add(RpcUtil.toThriftData(batch.nodeClass, bytes));
+			}
+		}
+		return nodesData;
+	}
+
+	private List<BnbNode> read(Batch batch, Problem problem) {
+		List<BnbNode> nodes = new ArrayList<BnbNode>(batch.numNodes);
+		ByteBuffer in = buffer.duplicate();
+		in.position(batch.offset);
+		try {
+			for (int i = 0; i < batch.numNodes; i++) {
+				long leaseId = in.getLong();
+				int length = in.getInt();
+				ByteBuffer nodeBytes = in.duplicate();
+				nodeBytes.limit(in.position() + length);
+				in.position(in.position() + length);
+				BnbNode node = batch.nodeClass.getDeclaredConstructor().newInstance();
+				node.initFromBuffer(nodeBytes, problem);
+				node.setLeaseId(leaseId);
+				nodes.add(node);
+			}
+		} catch (InstantiationException ex) {
+			throw new IllegalStateException("Couldn't rehydrate " + batch.nodeClass.getName(), ex);
+		} catch (IllegalAccessException ex) {
+			throw new IllegalStateException("Couldn't rehydrate " + batch.nodeClass.getName(), ex);} catch (NoSuchMethodException ex) {
+			throw new IllegalStateException("Couldn't rehydrate " + batch.nodeClass.getName(), ex);
+		} catch (InvocationTargetException ex) {
+			throw new IllegalStateException("Couldn't rehydrate " + batch.nodeClass.getName(), ex);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Adds the leases we hold nodes from to the given set.
+	 */
+	public void addLeaseIds(Set<Long> leaseIds) {
+		for (Batch batch : batches) {
+			leaseIds.addAll(batch.leaseIds);
+		}
+	}
+
+	public boolean isEmpty() {
+		return batches.isEmpty();
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public int getNumBatches() {
+		return batches.size();
+	}
+
+	public int getUsedBytes() {
+		return usedBytes;
+	}
+
+	public int getPeakUsedBytes() {
+		return peakUsedBytes;
+	}
+
+	public int getCapacity() {
+		return buffer.capacity();
+	}
+
+	/**
+	 * Drops everything and lets go of the file backing the arena, if there is one.
+	 */
+	public void close() throws IOException {
+		batches.clear();
+		pins.clear();
+		numNodes = 0;
+		usedBytes = 0;
+		if (file != null) {
+			file.close();
+		}
+	}
+
+	/**
+	 * Batches that are being copied out.
+	 */
+	public static class Pin {
+		private final List<Batch> batches;
+		private final int numNodes;
+
+		private Pin(List<Batch> batches) {
+			this.batches = batches;
+			int count = 0;
+			for (Batch batch : batches) {
+				count += batch.numNodes;
+			}
+			numNodes = count;
+		}
+
+		public int getNumNodes() {
+			return numNodes;
+		}
+	}
+
+	private static class Batch {
+		private final int offset;
+		private final int length;
+		private final int numNodes;
+		private final Class<? extends BnbNode> nodeClass;
+		private final Set<Long> leaseIds;
+
+		public Batch(int offset, int length, int numNodes, Class<? extends BnbNode> nodeClass) {
+			this.offset = offset;
+			this.length = length;
+			this.numNodes = numNodes;
+			this.nodeClass = nodeClass;
+			leaseIds = new HashSet<Long>();
+		}
+	}
+}
@@ -0,0 +1,283 @@
+package bnb.vassal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.rpc.ThriftData;
+
+/**
+ * Keeps another pool under a budget of nodes on the heap by spilling its coldest nodes
+ * into a SpillArena, and reads them back when the pool runs dry or work is stolen.
+ *
+ * The nodes spilled are the ones the pool will get to last: the shallowest for the
+ * depth-first pools and the highest discrepancies for LDS, which are what they'd give a
+ * thief anyway, and the open nodes with the worst bounds for best-first.  They're spilled a
+ * batch at a time once the pool is over budget, until it's back down to three quarters of
+ * it.  When the pool runs out, the batch spilled most recently is read back in.  Thieves
+ * get the batch spilled longest ago, since it's the coldest work we have.
+ *
+ * Spilled nodes come back as copies made with initFromBuffer, without parents, the same as
+ * nodes that have been stolen.  If the arena fills up, nodes stay on the heap.
+ */
+public class SpillingVassalNodePool implements VassalNodePool {
+	private static final Logger LOG = Logger.getLogger(VassalNodePool.class);
+
+	//how many posts between checking whether we're over budget, since some pools take a
+	//while to count their nodes
+	private static final int CHECK_INTERVAL = 16;
+
+	private final VassalNodePool pool;
+	private final Problem problem;
+	private final int maxResident;
+	private final int lowWater;
+	private final SpillArena arena;
+	private final StealPolicy spillPolicy;
+
+	private final AtomicInteger postsSinceCheck = new AtomicInteger();
+	//mirrors the arena's count, so that it can be read without the lock
+	private volatile int numSpilled;
+	//set when a batch didn't fit, until one's been taken back out
+	private boolean arenaFull;
+	private long totalSpilled;
+	private long totalRestored;
+
+	/**
+	 * @param maxResident
+	 * 		how many nodes the pool can hold on the heap before spilling
+	 * @param problem
+	 * 		for reading spilled nodes back
+	 */
+	public SpillingVassalNodePool(VassalNodePool pool, Problem problem, int maxResident, SpillArena arena) {
+		if (maxResident < 1) {
+			throw new IllegalArgumentException("max resident nodes must be positive, was " + maxResident);
+		}
+		this.pool = pool;
+		this.problem = problem;
+		this.maxResident = maxResident;
+		this.lowWater = Math.max(1, maxResident * 3 / 4);
+		this.arena = arena;
+		spillPolicy = new SpillPolicy(Math.max(1, Math.min(StealPolicy.DEFAULT_MAX_BATCH_SIZE * 4, maxResident / 4)));
+	}
+
+	@Override
+	public List<BnbNode> stealNodes(StealPolicy policy) {
+		List<BnbNode> oldest;
+		int batchSize = 0;
+		synchronized(this) {
+			oldest = arena.popOldest(problem);
+			if (oldest != null) {
+				restored(oldest);
+				//a pool that's spilling has plenty of work left behind the batch, so only
+				//the policy's cap on the batch size and what's worth stealing limit it.
+				//the rest goes back under the lock so that addLiveLeases doesn't miss it
+				batchSize = policy.batchSize(oldest, Double.POSITIVE_INFINITY);
+				for (BnbNode node : oldest.subList(batchSize, oldest.size())) {
+					pool.post(node);
+				}
+			}
+		}
+		if (oldest == null || batchSize == 0) {
+			return pool.stealNodes(policy);
+		}
+		return new ArrayList<BnbNode>(oldest.subList(0, batchSize));
+	}
+
+	@Override
+	public BnbNode nextNode() {
+		while (true) {
+			BnbNode node = pool.nextNode();
+			if (node != null || !restore()) {
+				return node;
+			}
+		}
+	}
+
+	/**
+	 * Reads the batch spilled most recently back into the pool.  Returns false if there's
+	 * nothing spilled.
+	 */
+	private synchronized boolean restore() {
+		List<BnbNode> nodes = arena.popNewest(problem);
+		if (nodes == null) {
+			return false;
+		}
+		restored(nodes);
+		for (BnbNode node : nodes) {
+			pool.post(node);
+		}
+		return true;
+	}
+
+	private void restored(List<BnbNode> nodes) {
+		numSpilled = arena.getNumNodes();
+		totalRestored += nodes.size();
+		arenaFull = false;
+	}
+
+	@Override
+	public boolean hasNextNode() {
+		return numSpilled > 0 || pool.hasNextNode();
+	}
+
+	@Override
+	public int size() {
+		return pool.size() + numSpilled;
+	}
+
+	@Override
+	public void post(BnbNode node) {
+		pool.post(node);
+		if (postsSinceCheck.incrementAndGet() >= CHECK_INTERVAL) {
+			postsSinceCheck.set(0);
+			if (pool.size() > maxResident) {
+				spill();
+			}
+		}
+	}
+
+	private synchronized void spill() {
+		while (!arenaFull && pool.size() > lowWater) {
+			List<BnbNode> batch = pool.stealNodes(spillPolicy);
+			if (batch.isEmpty()) {
+				return;
+			}
+			if (!arena.push(batch)) {
+				for (BnbNode node : batch) {
+					pool.post(node);
+				}
+				if (arena.isPinned()) {
+					//room may free up once the copy is done
+					return;
+				}
+				LOG.warn("Spill arena is full with " + arena.getNumNodes() + " nodes in " + arena.getUsedBytes() +
+						" bytes, keeping nodes on the heap");
+				arenaFull = true;
+				return;
+			}
+			numSpilled = arena.getNumNodes();
+			totalSpilled += batch.size();
+		}
+	}
+
+	@Override
+	public synchronized List<BnbNode> snapshot() {
+		List<BnbNode> nodes = new ArrayList<BnbNode>(pool.snapshot());
+		nodes.addAll(arena.snapshot(problem));
+		return nodes;
+	}
+
+	/**
+	 * The nodes on the heap, without reading back the spilled ones.
+	 */
+	public List<BnbNode> residentSnapshot() {
+		return pool.snapshot();
+	}
+
+	/**
+	 * Keeps the nodes spilled now from being written over, so that they can be copied
+	 * out with copySpilled after the task runners are let go.  unpinSpilled has to follow.
+	 */
+	public synchronized SpillArena.Pin pinSpilled() {
+		return arena.pin();
+	}
+
+	/**
+	 * The pinned nodes, encoded, without reading them back or taking the lock.
+	 */
+	public List<ThriftData> copySpilled(SpillArena.Pin pin) {
+		return arena.copyPinned(pin);
+	}
+
+	public synchronized void unpinSpilled(SpillArena.Pin pin) {
+		arena.unpin(pin);
+	}
+
+	/**
+	 * Spilled nodes are counted without being read back.
+	 */
+	@Override
+	public synchronized LoadSummary summarize() {
+		return pool.summarize().plus(new LoadSummary(numSpilled, -1, Double.MAX_VALUE));
+	}
+
+	/**
+	 * Spilled nodes always have children left, so all their leases are live.
+	 */
+	@Override
+	public synchronized void addLiveLeases(Set<Long> leaseIds) {
+		pool.addLiveLeases(leaseIds);
+		arena.addLeaseIds(leaseIds);
+	}
+
+	public int getNumResident() {
+		return pool.size();
+	}
+
+	public int getNumSpilled() {
+		return numSpilled;
+	}
+
+	public synchronized long getTotalSpilled() {
+		return totalSpilled;
+	}
+
+	public synchronized long getTotalRestored() {
+		return totalRestored;
+	}
+
+	public synchronized int getPeakSpillBytes() {
+		return arena.getPeakUsedBytes();
+	}
+
+	/**
+	 * Lets go of the arena, once nothing's using the pool.
+	 */
+	public synchronized void close() {
+		try {
+			arena.close();
+		} catch (IOException ex) {
+			LOG.warn("Couldn't close spill arena", ex);
+		}
+		numSpilled = 0;
+	}
+
+	/**
+	 * Takes the nodes the pool would give away first, whatever they're worth, as long as
+	 * they have children left.
+	 */
+	static class SpillPolicy extends StealPolicy {
+
+		public SpillPolicy(int batchSize) {
+			super(DEFAULT_WORTH_FACTOR, batchSize);
+		}
+
+		@Override
+		public boolean takesColdest() {
+			return true;
+		}
+
+		@Override
+		public boolean isWorthStealing(BnbNode node) {
+			return !(node.isEvaluated() && (node.isSolution() || !node.hasNextChild()));
+		}
+
+		@Override
+		public int batchSize(List<BnbNode> candidates, double poolWork) {
+			int size = 0;
+			for (BnbNode node : candidates) {
+				if (size >= getMaxBatchSize() || !isWorthStealing(node)) {
+					break;
+				}
+				size++;
+			}
+			return size;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package bnb.vassal;
+
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+
+/**
+ * Decides which nodes are worth giving away when another vassal steals from us, and how
+ * many to give away at once.
+ *
+ * A node is worth stealing when the work estimated to be under it would take a good deal
+ * longer to evaluate than it takes to steal it.  The time to evaluate a node and the time
+ * to steal work are both measured as the job runs, so the cutoff adapts to the problem and
+ * the network.  Until we have both measurements, we fall back to BnbNode.dontSteal.
+ *
+ * Nodes are given away in batches of up to half of the work in the pool, so that a thief
+ * doesn't have to come back through the lord for every node.
+ */
+public class StealPolicy {
+	private static final Logger LOG = Logger.getLogger(StealPolicy.class);
+
+	//stolen work should take at least this many times longer to evaluate than to steal
+	public static final double DEFAULT_WORTH_FACTOR = 4;
+	public static final int DEFAULT_MAX_BATCH_SIZE = 16;
+	//fraction of the pool's estimated work we'll give away at once
+	public static final double BATCH_FRACTION = .5;
+
+	//weight of new measurements in the moving averages
+	private static final double SMOOTHING = .1;
+
+	private final double worthFactor;
+	private final int maxBatchSize;
+
+	//moving averages, -1 until we have a measurement
+	private double evalNanos = -1;
+	private double stealNanos = -1;
+
+	private volatile double bestCost = Double.MAX_VALUE;
+
+	public StealPolicy() {
+		this(DEFAULT_WORTH_FACTOR, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	public StealPolicy(double worthFactor, int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("max batch size must be positive, was " + maxBatchSize);
+		}
+		this.worthFactor = worthFactor;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @param numNodes
+	 * 		number of nodes evaluated
+	 * @param nanos
+	 * 		total time taken to evaluate them
+	 */
+	public synchronized void reportEvaluations(int numNodes, long nanos) {
+		if (numNodes > 0) {
+			evalNanos = smooth(evalNanos, (double)nanos / numNodes);
+		}
+	}
+
+	/**
+	 * @param millis
+	 * 		round trip time of a successful request for work
+	 */
+	public synchronized void reportStealLatency(long millis) {
+		stealNanos = smooth(stealNanos, millis * 1000000.0);
+	}
+
+	public void updateBestCost(double cost) {
+		bestCost = cost;
+	}
+
+	/**
+	 * The smallest estimated subtree size that's worth stealing, or -1 if we haven't
+	 * measured enough to say.
+	 */
+	public synchronized double getMinStealableSize() {
+		if (evalNanos <= 0 || stealNanos < 0) {
+			return -1;
+		}
+		return worthFactor * stealNanos / evalNanos;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * Whether the nodes should be the ones the pool would get to last, rather than the ones
+	 * that are best to give to another vassal.  Pools that give away their most promising
+	 * nodes should order their candidates the other way round when this is set.
+	 */
+	public boolean takesColdest() {
+		return false;
+	}
+
+	public boolean isWorthStealing(BnbNode node) {
+		if (node.isEvaluated() && (node.isSolution() || !node.hasNextChild())) {
+			return false;
+		}
+		double minSize = getMinStealableSize();
+		double size = node.estimateSubtreeSize(bestCost);
+		if (minSize < 0 || size < 0) {
+			return !node.dontSteal();
+		}
+		return size >= minSize;
+	}
+
+	/**
+	 * Returns how many of the candidates, taken from the front, to give away.  Stops at
+	 * the first candidate that isn't worth stealing, and once the batch would hold more
+	 * than half of the pool's work.  The first candidate is always taken if it's worth
+	 * stealing.
+	 *
+	 * @param candidates
+	 * 		the nodes that could be given away, in the order we'd rather give them away
+	 * @param poolWork
+	 * 		estimated work of everything in the pool, including the candidates
+	 */
+	public int batchSize(List<BnbNode> candidates, double poolWork) {
+		int size = 0;
+		double batchWork = 0;
+		for (BnbNode node : candidates) {
+			if (size >= maxBatchSize || !isWorthStealing(node)) {
+				break;
+			}
+			double work = estimateWork(node, bestCost);
+			if (size > 0 && batchWork + work > poolWork * BATCH_FRACTION) {
+				break;
+			}
+			batchWork += work;
+			size++;
+		}
+		if (size > 0) {
+			LOG.debug("Giving away " + size + " nodes with estimated work " + batchWork + " of " + poolWork);
+		}
+		return size;
+	}
+
+	/**
+	 * Sum of the estimated subtree sizes of the given nodes.
+	 */
+	public double estimateWork(Iterable<BnbNode> nodes) {
+		return estimateWork(nodes, bestCost);
+	}
+
+	public static double estimateWork(Iterable<BnbNode> nodes, double bestCost) {
+		double work = 0;
+		for (BnbNode node : nodes) {
+			work += estimateWork(node, bestCost);
+		}
+		return work;
+	}
+
+	/**
+	 * Estimated subtree size of the node.  Nodes that can't estimate it count as a single
+	 * node.
+	 */
+	public static double estimateWork(BnbNode node, double bestCost) {
+		double size = node.estimateSubtreeSize(bestCost);
+		return size < 0 ? 1 : size;
+	}
+
+	private static double smooth(double avg, double value) {
+		return avg < 0 ? value : avg + SMOOTHING * (value - avg);
+	}
+}
@@ -4,16 +4,22 @@ import org.apache.log4j.Logger;
 
 import bnb.BnbNode;
 import bnb.stats.VassalJobStats;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
 
 public class TaskRunner implements Runnable {
 	private static final Logger LOG = Logger.getLogger(TaskRunner.class);
+	private static final Tracer TRACER = Tracer.getDefault();
 	
 	private static final int EVALUATED_LOG_INTERVAL= 1000;
+	//how many nodes to time before reporting evaluation times to the steal policy
+	private static final int EVAL_TIME_REPORT_INTERVAL = 256;
 	
 	private final VassalJobManager jobManager;
 	private final VassalJobStats stats;
 	
 	private int numEvaluated;
+	private long unreportedEvalNanos;
 	
 	private volatile boolean working = true;
 	
@@ -24,63 +30,119 @@ public class TaskRunner implements Runnable {
 	
 	public void run() {
 		LOG.info("running task");
+		boolean retired = false;
+		EvaluationGate.Slot slot = null;
 		try {
 			stats.reportWorking();
-			while (true) {
-				BnbNode node = jobManager.getNodePool().nextNode();
+			EvaluationGate gate = jobManager.getEvaluationGate();
+			slot = gate.register();
+			while (!jobManager.isAbandoned()) {
+				//our slot has gone to another job
+				if (jobManager.retireRunner()) {
+					retired = true;
+					if (working) {
+						stats.reportNotWorking();
+						working = false;
+					}
+					break;
+				}
+				
+				if (!gate.tryEnter(slot)) {
+					//a checkpoint or drain is going through the pool
+					long pauseSpan = TRACER.begin(Span.PAUSE_WAIT);
+					gate.enter(slot);
+					TRACER.end(Span.PAUSE_WAIT, pauseSpan, jobManager.getJobID(), jobManager.getVassalID());
+				}
+				BnbNode node;
+				try {
+					node = gate.nextNode(slot, jobManager.getNodePool());
+					if (node != null) {
+						evaluate(node);
+					}
+				} finally {
+					gate.exit(slot);
+				}
 				if (node == null) {
 					if (working) {
 						stats.reportNotWorking();
 						working = false;
 					}
 					
+					long idleSpan = TRACER.begin(Span.IDLE);
 					boolean succeeded = stealWork();
+					TRACER.end(Span.IDLE, idleSpan, jobManager.getJobID(), jobManager.getVassalID());
 					if (jobManager.isCompleted()) {
 						break;
 					}
 				} else {
-					if (!working) {
-						stats.reportWorking();
-						working = true;
-					}
-					
-					node.evaluate(jobManager.getMinCost());
-					numEvaluated++;
-//					if (numEvaluated % EVALUATED_LOG_INTERVAL == 0) {
-//						LOG.info("evaluated " + numEvaluated + " nodes");
-//					}
-					if (node.isSolution()) {
-						if (node.getCost() < jobManager.getMinCost()) {
-							LOG.info("new best cost: " + node.getCost());
-							LOG.info("new best solution: " + node.getSolution());
-							jobManager.betterLocalSolution(node.getSolution(), node.getCost());
-							//TODO: mark as done
-							
-							node.whenAllChildrenDone();
-							node.getParent().childDone();
-						}
-					} else {
-						if (!node.isLeaf()) {
-							jobManager.getNodePool().post(node);
-						} else {
-							//if we're not posting the node to do work with, let its parent
-							//know that we're done doing computation on it
-							node.whenAllChildrenDone();
-							if (node.getParent() != null) {
-								node.getParent().childDone();
-							}
-						}
-					}
+					jobManager.maybePrefetch();
 				}
 			}
-			stats.reportDone();
+			if (!retired) {
+				stats.reportDone();
+			}
 		} catch (Exception ex) {
 			LOG.error("Error inside task running function", ex);
+		} finally {
+			if (slot != null) {
+				jobManager.getEvaluationGate().unregister(slot);
+			}
+			if (!retired) {
+				jobManager.runnerExited();
+			}
 		}
 
 //		LOG.info("numEvaluated: " + numEvaluated);
 	}
 	
+	/**
+	 * Evaluates the node and posts it back to the pool if there's more to do under it.
+	 */
+	private void evaluate(BnbNode node) {
+		if (!working) {
+			stats.reportWorking();
+			working = true;
+		}
+
+		long evalSpan = TRACER.begin(Span.EVALUATE);
+		long evalStart = System.nanoTime();
+		node.evaluate(jobManager.getMinCost());
+		long evalNanos = System.nanoTime() - evalStart;
+		TRACER.end(Span.EVALUATE, evalSpan, jobManager.getJobID(), jobManager.getVassalID());
+		stats.reportEvaluated(evalNanos);
+		unreportedEvalNanos += evalNanos;
+		numEvaluated++;
+		if (numEvaluated % EVAL_TIME_REPORT_INTERVAL == 0) {
+			jobManager.getStealPolicy().reportEvaluations(EVAL_TIME_REPORT_INTERVAL, unreportedEvalNanos);
+			unreportedEvalNanos = 0;
+		}
+//					if (numEvaluated % EVALUATED_LOG_INTERVAL == 0) {
+//						LOG.info("evaluated " + numEvaluated + " nodes");
+//					}
+		if (node.isSolution()) {
+			if (node.getCost() < jobManager.getMinCost()) {
+				LOG.info("new best cost: " + node.getCost());
+				LOG.info("new best solution: " + node.getSolution());
+				jobManager.betterLocalSolution(node.getSolution(), node.getCost());
+				//TODO: mark as done
+		
+				node.whenAllChildrenDone();
+				node.getParent().childDone();
+			}
+		} else {
+			if (!node.isLeaf()) {
+				jobManager.getNodePool().post(node);
+			} else {
+				//if we're not posting the node to do work with, let its parent
+				//know that we're done doing computation on it
+				node.whenAllChildrenDone();
+				if (node.getParent() != null) {
+					node.getParent().childDone();
+				}
+			}
+		}
+	}
+	
 	public boolean working() {
 		return working;
 	}
@@ -1,26 +1,59 @@
 package bnb.vassal;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.log4j.Logger;
 
 import bnb.BnbNode;
 import bnb.Problem;
 import bnb.Solution;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.ThriftData;
 import bnb.stats.VassalJobStats;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
 
 public class VassalJobManager implements Runnable {
 	private static final Logger LOG = Logger.getLogger(VassalJobManager.class);
+	private static final Tracer TRACER = Tracer.getDefault();
 	
-	private static final int UPDATE_INTERVAL = 5000;
+	//how long to wait before trying again when we fail to reach the lord with a new cost
+	private static final int RETRY_INTERVAL = 1000;
+	//how many peers to try stealing from before falling back to the lord
+	private static final int PEER_STEAL_ATTEMPTS = 3;
 	
-	private volatile double minCost;
-	private volatile Solution bestSolution;
+	public static final int DEFAULT_PREFETCH_WATERMARK = 2;
+	//how long a checkpoint waits for a request for work that's out to come back
+	public static final long CHECKPOINT_FETCH_TIMEOUT = 2000;
+	//how long a drain waits for requests for work and nodes going to peers to come back
+	public static final long DRAIN_TIMEOUT = 5000;
+	/** the lease id for the nodes a job starts with */
+	public static final long INITIAL_LEASE = 0;
 	
-	private volatile boolean update;
+	private final AtomicReference<Incumbent> incumbent;
+	private final StealPolicy stealPolicy;
+	
+	//set when there's a new local incumbent the lord might not know about
+	private boolean update;
 	private final LordProxy lordProxy;
 	private final int jobid;
 	private final int vassalid;
@@ -32,39 +65,204 @@ public class VassalJobManager implements Runnable {
 	
 	private final List<TaskRunner> taskRunners;
 	
+	//other vassals we can steal from directly, empty if we only go through the lord
+	private final List<VassalPeerProxy> peers;
+	private final Random rand = new Random();
+	
 	private volatile boolean isCompleted;
 	
-	//lock for sending messages to the lord
-	private final Object sendLock = new Object();
-	//lock for updating minCost and bestSolution
-	private final Object bestLock = new Object();
+	//true while there's a request for work out.  only one is sent at a time, other
+	//task runners that run out wait for it
+	private volatile boolean fetching;
+	private final Object fetchLock = new Object();
+	//prefetch when the pool has fewer nodes than this, never if 0
+	private final int prefetchWatermark;
+	//runs prefetches.  only one is out at a time, since it holds the fetching flag
+	private final ExecutorService prefetcher;
+	//for waking up the job manager thread when there's a new cost to send
+	private final Object updateLock = new Object();
+	
+	//task runners are in the gate while they have a node out of the pool, so that a
+	//checkpoint that's paused it sees every open node in the pool
+	private final EvaluationGate evaluationGate = new EvaluationGate();
+	//the nodes we've given away since a checkpoint began, encoded, null when there's
+	//no checkpoint in progress
+	private List<ThriftData> donatedSinceCheckpoint;
+	private final Object checkpointLock = new Object();
+	
+	//lease bookkeeping for heartbeats, guarded by leaseLock.  a lease is pinned while
+	//nodes from it are on their way to a peer but the lord doesn't know it yet
+	private final AtomicLong nextLeaseId = new AtomicLong(INITIAL_LEASE + 1);
+	private long maxLeaseReceived = -1;
+	private final List<Long> failedLeases = new ArrayList<Long>();
+	private final Map<Long, Integer> pinnedLeases = new HashMap<Long, Integer>();
+	private final Object leaseLock = new Object();
+	//set when the lord has handed our work to other vassals
+	private volatile boolean abandoned;
+	//set when the lord starts taking our nodes back so we can leave the job, and once
+	//they've been taken
+	private volatile boolean draining;
+	private volatile boolean drained;
+	
+	//how many task runners the slot allocator wants on the job, and how many there are,
+	//guarded by runnerLock
+	private int targetThreads;
+	private int numRunners;
+	private final Object runnerLock = new Object();
 	
 	public VassalJobManager(double initCost, VassalNodePool nodePool, 
-			Problem problem, LordProxy lordProxy, VassalJobStats stats, int vassalid, int jobid) {
-		minCost = initCost;
+			Problem problem, LordProxy lordProxy, VassalJobStats stats, int vassalid, int jobid,
+			List<VassalPeerProxy> peers, int prefetchWatermark) {
+		incumbent = new AtomicReference<Incumbent>(new Incumbent(initCost, null, 0));
+		stealPolicy = new StealPolicy();
+		stealPolicy.updateBestCost(initCost);
 		this.lordProxy = lordProxy;
 		this.stats = stats;
 		this.jobid = jobid;
 		this.vassalid = vassalid;
 		this.nodePool = nodePool;
 		this.problem = problem;
-		this.taskRunners = new ArrayList<TaskRunner>();
+		this.taskRunners = new CopyOnWriteArrayList<TaskRunner>();
+		this.peers = peers;
+		this.prefetchWatermark = prefetchWatermark;
+		this.prefetcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "prefetch" + VassalJobManager.this.jobid);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 	}
 	
 	public void registerTaskRunner(TaskRunner taskRunner) {
 		taskRunners.add(taskRunner);
 	}
 	
+	/**
+	 * Number of task runners that have been started on the job, including ones that
+	 * have since stopped.
+	 */
+	public int getNumRunnersStarted() {
+		return taskRunners.size();
+	}
+	
+	/**
+	 * Sets how many task runners the job should have.  Extra ones stop after the node
+	 * they're on, or right away if they're waiting for work.
+	 */
+	public void setTargetThreads(int targetThreads) {
+		synchronized(runnerLock) {
+			if (targetThreads == this.targetThreads) {
+				return;
+			}
+			this.targetThreads = targetThreads;
+		}
+		stats.reportTargetThreads(targetThreads);
+		synchronized(fetchLock) {
+			fetchLock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Counts a task runner that's about to be started.  Returns false if the job already
+	 * has as many as it should, or is done here.
+	 */
+	public boolean reserveRunner() {
+		synchronized(runnerLock) {
+			if (isCompleted || numRunners >= targetThreads) {
+				return false;
+			}
+			numRunners++;
+			return true;
+		}
+	}
+	
+	/**
+	 * Called by task runners between nodes.  Returns true, and stops counting the runner,
+	 * if the job has more of them than it should.
+	 */
+	public boolean retireRunner() {
+		synchronized(runnerLock) {
+			if (numRunners <= targetThreads) {
+				return false;
+			}
+			numRunners--;
+			return true;
+		}
+	}
+	
+	private boolean overTarget() {
+		synchronized(runnerLock) {
+			return numRunners > targetThreads;
+		}
+	}
+	
+	/**
+	 * Called by task runners when they stop because the job is done here.
+	 */
+	public void runnerExited() {
+		synchronized(runnerLock) {
+			numRunners--;
+			runnerLock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Blocks until the job is done here and all of its task runners have stopped.
+	 */
+	public void awaitRunners() throws InterruptedException {
+		synchronized(runnerLock) {
+			while (!isCompleted || numRunners > 0 || (draining && !drained)) {
+				runnerLock.wait();
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if we're out of nodes and waiting on a request for work.
+	 */
+	public boolean isStarving() {
+		return fetching && !nodePool.hasNextNode();
+	}
+	
+	/**
+	 * Sends new local incumbents to the lord as soon as they're found.  Incumbents found
+	 * while a send is in progress are coalesced, so only the best of them gets sent.
+	 */
 	public void run() {
-		while (true) {
-			try {
-				Thread.sleep(UPDATE_INTERVAL);
-				if (update) {
-					update = !sendMinCost();
+		double lastSentCost = incumbent.get().cost;
+		try {
+			while (true) {
+				synchronized(updateLock) {
+					while (!update && !isCompleted) {
+						updateLock.wait();
+					}
+					update = false;
+				}
+				
+				Incumbent toSend = incumbent.get();
+				if (toSend.solution != null && toSend.cost < lastSentCost) {
+					if (sendMinCost(toSend)) {
+						lastSentCost = toSend.cost;
+					} else {
+						Thread.sleep(RETRY_INTERVAL);
+						signalUpdate();
+						continue;
+					}
+				}
+				if (isCompleted) {
+					break;
 				}
-			} catch (InterruptedException ex) {
-				ex.printStackTrace(); //TODO: log4j
 			}
+		} catch (InterruptedException ex) {
+			LOG.error("Interrupted while waiting to send costs to lord", ex);
+		}
+	}
+	
+	private void signalUpdate() {
+		synchronized(updateLock) {
+			update = true;
+			updateLock.notify();
 		}
 	}
 	
@@ -76,6 +274,10 @@ public class VassalJobManager implements Runnable {
 		return problem;
 	}
 	
+	public VassalJobStats getStats() {
+		return stats;
+	}
+	
 	public int getJobID() {
 		return jobid;
 	}
@@ -97,68 +299,186 @@ public class VassalJobManager implements Runnable {
 	 * The caller should check isCompleted afterward to see whether
 	 * there was any more work to be done.
 	 * 
-	 * @param nodePool
-	 * 		used to check whether work is still needed at the time of request
+	 * If a request for work is already out, whether another task runner's or a
+	 * prefetch, waits for it to come back instead of sending another.
 	 */
 	public boolean askForWork(TaskRunner taskRunner) {
-		synchronized(sendLock) {
-			if (isCompleted) {
-				return true;
-			}
-			if (nodePool.hasNextNode()) {
+		if (isCompleted || nodePool.hasNextNode()) {
+			return true;
+		}
+		if (!startFetch()) {
+			stats.reportJoinedFetch();
+			long span = TRACER.begin(Span.FETCH_WAIT);
+			awaitFetch();
+			TRACER.end(Span.FETCH_WAIT, span, jobid, vassalid);
+			return true;
+		}
+		try {
+			//work might have come in, or we might've been drained, before we started our request
+			if (isCompleted || nodePool.hasNextNode()) {
 				return true;
 			}
-			
-			LOG.info("about to ask lord for work");
-			List<BnbNode> work;
-			try {
-				long startTime = System.currentTimeMillis();
-				work = lordProxy.askForWork(this, minCost);
-				long endTime = System.currentTimeMillis();
-				stats.reportWorkStolen((int)(endTime-startTime));
-			} catch (IOException ex) {
-				LOG.error("Couldn't steal work", ex);
+			return fetchWork();
+		} finally {
+			finishFetch();
+		}
+	}
+	
+	/**
+	 * Called by task runners as they go.  If the pool has fallen below the prefetch
+	 * watermark and no request for work is out, asks for more work in the background so
+	 * that it shows up before the task runners run dry.
+	 */
+	public void maybePrefetch() {
+		if (prefetchWatermark <= 0 || fetching || isCompleted || draining) {
+			return;
+		}
+		if (nodePool.size() >= prefetchWatermark || !startFetch()) {
+			return;
+		}
+		try {
+			prefetcher.execute(new Runnable() {
+				public void run() {
+					try {
+						prefetchWork();
+					} finally {
+						finishFetch();
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			//the job finished here since we checked
+			finishFetch();
+		}
+	}
+	
+	/**
+	 * Returns false if there's already a request for work out.
+	 */
+	private boolean startFetch() {
+		synchronized(fetchLock) {
+			if (fetching) {
 				return false;
 			}
-			if (work.isEmpty()) {
-				LOG.info("Out of work at " + new Date());
-				isCompleted = true;
-				done();
-				return true;
-			} else {
-				for (BnbNode node : work) {
-					LOG.debug("received work: " + node);
-					nodePool.post(node);
+			fetching = true;
+			return true;
+		}
+	}
+	
+	private void finishFetch() {
+		synchronized(fetchLock) {
+			fetching = false;
+			fetchLock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Waits for the request for work that's out to come back, or for the caller to be one
+	 * task runner too many.
+	 */
+	private void awaitFetch() {
+		synchronized(fetchLock) {
+			while (fetching && !overTarget()) {
+				try {
+					fetchLock.wait();
+				} catch (InterruptedException ex) {
+					LOG.error("Interrupted while waiting for work", ex);
+					return;
 				}
+			}
+		}
+	}
+	
+	/**
+	 * Asks for work when we're out, first from peers and then from the lord.
+	 */
+	private boolean fetchWork() {
+		if (!peers.isEmpty()) {
+			if (!stealFromPeers().isEmpty()) {
 				return true;
 			}
 		}
+		
+		//the lord tries all the vassals, and knows when there's no work left anywhere
+		LOG.info("about to ask lord for work");
+		List<BnbNode> work;
+		long leaseId = nextLeaseId.getAndIncrement();
+		long span = TRACER.begin(Span.ASK_LORD);
+		try {
+			long startTime = System.currentTimeMillis();
+			work = lordProxy.askForWork(this, getMinCost(), false, leaseId, LoadSummary.EMPTY);
+			long endTime = System.currentTimeMillis();
+			TRACER.end(Span.ASK_LORD, span, jobid, vassalid, work.size(), 0, Tracer.flowId(vassalid, leaseId));
+			stats.reportWorkStolen((int)(endTime-startTime));
+			if (!work.isEmpty()) {
+				stealPolicy.reportStealLatency(endTime-startTime);
+			}
+		} catch (IOException ex) {
+			LOG.error("Couldn't steal work", ex);
+			leaseFailed(leaseId);
+			return false;
+		}
+		if (work.isEmpty()) {
+			LOG.info("Out of work at " + new Date());
+			isCompleted = true;
+			done();
+			signalUpdate();
+			return true;
+		} else {
+			LOG.debug("received " + work.size() + " nodes under lease " + leaseId);
+			receiveWork(leaseId, work);
+			return true;
+		}
 	}
 	
 	/**
-	 * Returns true on success.
+	 * Asks for work while we still have some.  Getting nothing back doesn't mean the job
+	 * is done, so we just wait until the pool runs low again.
 	 */
-	private boolean sendMinCost() {
-		synchronized(sendLock) {
+	private void prefetchWork() {
+		long startTime = System.currentTimeMillis();
+		List<BnbNode> work = new LinkedList<BnbNode>();
+		if (!peers.isEmpty()) {
+			work = stealFromPeers();
+		}
+		if (work.isEmpty()) {
+			long leaseId = nextLeaseId.getAndIncrement();
+			long span = TRACER.begin(Span.PREFETCH);
 			try {
-				LOG.info("Reporting new minCost " + minCost + " to lord");
-				lordProxy.sendBestSolCost(minCost, jobid, vassalid);
-				LOG.info("Completed reporting new minCost");
-				return true;
+				work = lordProxy.askForWork(this, getMinCost(), true, leaseId, makeLoadSummary());
+				TRACER.end(Span.PREFETCH, span, jobid, vassalid, work.size(), 0, Tracer.flowId(vassalid, leaseId));
+				receiveWork(leaseId, work);
 			} catch (IOException ex) {
-				LOG.error("Couldn't reach lord to report cost");
-				return false;
+				LOG.error("Couldn't prefetch work", ex);
+				leaseFailed(leaseId);
 			}
 		}
+		long endTime = System.currentTimeMillis();
+		stats.reportPrefetch((int)(endTime-startTime), work.size());
 	}
 	
-	public synchronized void betterLocalSolution(Solution sol, double cost) {
-		synchronized(bestLock) {
-			if (cost < minCost) {
-				bestSolution = sol;
-				minCost = cost;
-				update = true;
-			}
+	/**
+	 * Returns true on success.  Goes over the lord proxy's incumbent connection, so
+	 * doesn't have to wait for outstanding requests for work.
+	 */
+	private boolean sendMinCost(Incumbent toSend) {
+		try {
+			LOG.info("Reporting new minCost " + toSend.cost + " to lord");
+			lordProxy.sendBestSolCost(toSend.cost, jobid, vassalid);
+			stats.reportIncumbentSent(System.currentTimeMillis() - toSend.foundTime);
+			LOG.info("Completed reporting new minCost");
+			return true;
+		} catch (IOException ex) {
+			LOG.error("Couldn't reach lord to report cost");
+			return false;
+		}
+	}
+	
+	public void betterLocalSolution(Solution sol, double cost) {
+		Incumbent better = new Incumbent(cost, sol, System.currentTimeMillis());
+		if (replaceIfBetter(better)) {
+			stats.reportNewIncumbent(cost);
+			signalUpdate();
 		}
 	}
 	
@@ -167,16 +487,66 @@ public class VassalJobManager implements Runnable {
 	 * of a new best solution.
 	 */
 	public void updateGlobalMinCost(double cost) {
-		synchronized(bestLock) {
-			if (cost < minCost) {
-				minCost = cost;
-				bestSolution = null;
-				update = false;
+		replaceIfBetter(new Incumbent(cost, null, System.currentTimeMillis()));
+	}
+	
+	/**
+	 * Returns true if the given incumbent was better than the current one and
+	 * replaced it.
+	 */
+	private boolean replaceIfBetter(Incumbent better) {
+		while (true) {
+			Incumbent cur = incumbent.get();
+			if (better.cost >= cur.cost) {
+				return false;
+			}
+			if (incumbent.compareAndSet(cur, better)) {
+				stealPolicy.updateBestCost(better.cost);
+				return true;
 			}
 		}
 	}
 	
+	/**
+	 * Tries stealing from a few peers, picked at random, and puts what we get in the pool.
+	 * Returns an empty list if none of them had work to give.
+	 */
+	private List<BnbNode> stealFromPeers() {
+		List<VassalPeerProxy> victims = new ArrayList<VassalPeerProxy>(peers);
+		Collections.shuffle(victims, rand);
+		int numAttempts = Math.min(PEER_STEAL_ATTEMPTS, victims.size());
+		for (int i = 0; i < numAttempts; i++) {
+			VassalPeerProxy victim = victims.get(i);
+			long leaseId = nextLeaseId.getAndIncrement();
+			long span = TRACER.begin(Span.PEER_STEAL);
+			try {
+				long startTime = System.currentTimeMillis();
+				List<BnbNode> work = victim.stealWork(this, getMinCost(), leaseId);
+				long endTime = System.currentTimeMillis();
+				TRACER.end(Span.PEER_STEAL, span, jobid, vassalid, victim.getVassalId(), work.size(),
+						Tracer.flowId(vassalid, leaseId));
+				if (!work.isEmpty()) {
+					receiveWork(leaseId, work);
+					LOG.info("Stole " + work.size() + " nodes from peer " + victim.getVassalId());
+					stats.reportPeerWorkStolen((int)(endTime-startTime));
+					stealPolicy.reportStealLatency(endTime-startTime);
+					return work;
+				}
+				stats.reportFailedPeerSteal();
+			} catch (IOException ex) {
+				LOG.warn("Couldn't steal work from peer " + victim.getVassalId(), ex);
+				leaseFailed(leaseId);
+				stats.reportFailedPeerSteal();
+			}
+		}
+		return new LinkedList<BnbNode>();
+	}
+	
 	private void done() {
+		prefetcher.shutdown();
+		for (VassalPeerProxy peer : peers) {
+			peer.close();
+		}
 		int numEvaluated = 0;
 		for (TaskRunner runner : taskRunners) {
 			numEvaluated += runner.getNumEvaluated();
@@ -186,14 +556,418 @@ public class VassalJobManager implements Runnable {
 	}
 	
 	public double getMinCost() {
-		return minCost;
+		return incumbent.get().cost;
 	}
 	
+	/**
+	 * Returns null if the best known solution was found somewhere else.
+	 */
 	public Solution getBestSolution() {
-		return bestSolution;
+		return incumbent.get().solution;
 	}
 	
 	public List<BnbNode> stealWork() {
-		return nodePool.stealNodes();
+		synchronized(checkpointLock) {
+			//what's left is going back to the lord all at once
+			if (draining) {
+				return new LinkedList<BnbNode>();
+			}
+			List<BnbNode> stolen = nodePool.stealNodes(stealPolicy);
+			if (donatedSinceCheckpoint != null) {
+				donatedSinceCheckpoint.addAll(RpcUtil.nodesToThriftData(stolen));
+			}
+			return stolen;
+		}
+	}
+	
+	/**
+	 * Called by another vassal stealing from us directly.  The nodes are granted to the
+	 * thief by the lord before we give them up.  Until then their lease is pinned, so that
+	 * it isn't reported done while the nodes are neither here nor leased to the thief.
+	 * If the lord won't take them, they go back in the pool and the thief gets nothing.
+	 */
+	public List<BnbNode> donateToPeer(int thiefId, long leaseId) {
+		List<BnbNode> stolen;
+		//stealing and pinning together keep a heartbeat from coming in between.  take
+		//checkpointLock before going through the gate, in the same order checkpoints do
+		synchronized(checkpointLock) {
+			evaluationGate.enterShared();
+			try {
+				stolen = stealWork();
+				pin(stolen, 1);
+			} finally {
+				evaluationGate.exitShared();
+			}
+		}
+		if (stolen.isEmpty()) {
+			return stolen;
+		}
+		
+		boolean leased = false;
+		try {
+			leased = lordProxy.leaseWork(jobid, vassalid, thiefId, leaseId, stolen);
+		} catch (IOException ex) {
+			LOG.warn("Couldn't lease nodes for vassal " + thiefId + " with the lord, keeping them", ex);
+		}
+		if (!leased) {
+			evaluationGate.enterShared();
+			try {
+				for (BnbNode node : stolen) {
+					nodePool.post(node);
+				}
+			} finally {
+				evaluationGate.exitShared();
+			}
+		}
+		pin(stolen, -1);
+		return leased ? stolen : new LinkedList<BnbNode>();
+	}
+	
+	private void pin(List<BnbNode> nodes, int delta) {
+		synchronized(leaseLock) {
+			for (BnbNode node : nodes) {
+				Integer count = pinnedLeases.get(node.getLeaseId());
+				int newCount = (count == null ? 0 : count) + delta;
+				if (newCount == 0) {
+					pinnedLeases.remove(node.getLeaseId());
+				} else {
+					pinnedLeases.put(node.getLeaseId(), newCount);
+				}
+			}
+			//a drain waits for nodes on their way to peers to come back or be leased
+			if (pinnedLeases.isEmpty()) {
+				leaseLock.notifyAll();
+			}
+		}
+	}
+	
+	/**
+	 * Puts work we've been given in the pool under the given lease.  Goes through the
+	 * evaluation gate, so that a checkpoint sees either none of the work or all of it.
+	 * The lease only counts as received once all of it is in, so that a heartbeat can't
+	 * report it done before then.
+	 */
+	public void receiveWork(long leaseId, List<BnbNode> nodes) {
+		if (nodes.isEmpty()) {
+			return;
+		}
+		evaluationGate.enterShared();
+		try {
+			for (BnbNode node : nodes) {
+				node.setLeaseId(leaseId);
+				nodePool.post(node);
+			}
+			synchronized(leaseLock) {
+				maxLeaseReceived = Math.max(maxLeaseReceived, leaseId);
+			}
+		} finally {
+			evaluationGate.exitShared();
+		}
+	}
+	
+	private void leaseFailed(long leaseId) {
+		synchronized(leaseLock) {
+			failedLeases.add(leaseId);
+		}
+	}
+	
+	/**
+	 * Sums up the work in our pool for the lord.
+	 */
+	public LoadSummary makeLoadSummary() {
+		return nodePool.summarize();
+	}
+	
+	/**
+	 * Finds the leases we still have nodes from, for a heartbeat, without holding up the
+	 * task runners.  A node that's out of the pool while we go through it is found through
+	 * the evaluation gate instead.
+	 */
+	public LeaseReport makeLeaseReport() {
+		long startTime = System.nanoTime();
+		Set<Long> live = new HashSet<Long>();
+		long maxReceived;
+		List<Long> failed;
+		//donateToPeer steals and pins under checkpointLock, so we see the nodes it takes
+		//either in the pool or pinned
+		synchronized(checkpointLock) {
+			//from before going through the pool.  receiveWork posts before raising it, so
+			//the lord only drops leases whose nodes we've had the chance to see
+			synchronized(leaseLock) {
+				maxReceived = maxLeaseReceived;
+				failed = new ArrayList<Long>(failedLeases);
+			}
+			evaluationGate.startLeaseReport();
+			nodePool.addLiveLeases(live);
+			evaluationGate.addLeasesOut(live);
+			synchronized(leaseLock) {
+				live.addAll(pinnedLeases.keySet());
+			}
+		}
+		if (nodePool instanceof SpillingVassalNodePool) {
+			SpillingVassalNodePool spilling = (SpillingVassalNodePool)nodePool;
+			stats.reportFrontier(spilling.getNumResident(), spilling.getNumSpilled());
+		}
+		LeaseReport report = new LeaseReport(new ArrayList<Long>(live), maxReceived, failed,
+				nodePool.summarize());
+		stats.reportLeaseReportTime((System.nanoTime() - startTime) / 1000);
+		return report;
+	}
+	
+	/**
+	 * Called once the lord has the report, which means it won't grant the leases reported
+	 * as failed, so they needn't be reported again.
+	 */
+	public void leaseReportDelivered(LeaseReport report) {
+		synchronized(leaseLock) {
+			failedLeases.removeAll(report.getFailedLeases());
+		}
+	}
+	
+	/**
+	 * Stops work on the job, for when the lord has given up on us and handed our work to
+	 * other vassals.  Task runners stop after the node they're on.
+	 */
+	public void abandon() {
+		LOG.warn("Abandoning job " + jobid + ", the lord has handed our work out");
+		abandoned = true;
+		isCompleted = true;
+		prefetcher.shutdown();
+		signalUpdate();
+	}
+	
+	public boolean isAbandoned() {
+		return abandoned;
+	}
+	
+	public LordProxy getLordProxy() {
+		return lordProxy;
+	}
+	
+	/**
+	 * Task runners go through it from taking a node out of the pool until they're done
+	 * with it.
+	 */
+	public EvaluationGate getEvaluationGate() {
+		return evaluationGate;
+	}
+	
+	/**
+	 * Starts remembering the nodes we give away, so that nodes on their way to a vassal
+	 * that's already checkpointed still make it into the checkpoint.  The lord calls this
+	 * on every vassal before calling checkpoint on any of them.
+	 */
+	public void beginCheckpoint() {
+		synchronized(checkpointLock) {
+			donatedSinceCheckpoint = new ArrayList<ThriftData>();
+		}
+	}
+	
+	/**
+	 * Returns our open nodes, encoded, along with the nodes we've given away since
+	 * beginCheckpoint.  Waits for any request for work that's out to come back so that
+	 * the nodes it brings are included, and then holds up the task runners only long
+	 * enough to encode the pool's nodes on the heap.  Spilled nodes are already bytes, so
+	 * they're only pinned in the arena then, and copied out after the task runners are let
+	 * go.  New requests for work can go out again as soon as the task runners are let go.
+	 * 
+	 * @throws IOException
+	 * 		if a request for work didn't come back in time
+	 */
+	public List<ThriftData> checkpoint() throws IOException {
+		List<ThriftData> encoded = new ArrayList<ThriftData>();
+		SpillArena.Pin spilled = null;
+		synchronized(fetchLock) {
+			long deadline = System.currentTimeMillis() + CHECKPOINT_FETCH_TIMEOUT;
+			while (fetching) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new IOException("Timed out waiting for work to come in for checkpoint");
+				}
+				try {
+					fetchLock.wait(remaining);
+				} catch (InterruptedException ex) {
+					throw new IOException("Interrupted waiting for work to come in for checkpoint", ex);
+				}
+			}
+			
+			//holding fetchLock keeps new requests for work from going out until we're done
+			synchronized(checkpointLock) {
+				//from before the pause, so that waiting for task runners to get out is counted
+				long startTime = System.nanoTime();
+				evaluationGate.pause();
+				try {
+					List<BnbNode> resident;
+					if (nodePool instanceof SpillingVassalNodePool) {
+						resident = ((SpillingVassalNodePool)nodePool).residentSnapshot();
+					} else {
+						resident = nodePool.snapshot();
+					}
+					//the simple pool can hold the same node twice
+					Set<BnbNode> seen = Collections.newSetFromMap(new IdentityHashMap<BnbNode, Boolean>());
+					for (BnbNode node : resident) {
+						if (seen.add(node) && !(node.isEvaluated() && !node.hasNextChild())) {
+							encoded.add(RpcUtil.toThriftData(node));
+						}
+					}
+					if (nodePool instanceof SpillingVassalNodePool) {
+						spilled = ((SpillingVassalNodePool)nodePool).pinSpilled();
+					}
+				} finally {
+					evaluationGate.resume();
+					long pauseMicros = (System.nanoTime() - startTime) / 1000;
+					stats.reportCheckpointPause(pauseMicros);
+					LOG.debug("Held up task runners for " + pauseMicros + " us to checkpoint job " + jobid);
+				}
+				if (donatedSinceCheckpoint != null) {
+					encoded.addAll(donatedSinceCheckpoint);
+					donatedSinceCheckpoint = null;
+				}
+			}
+		}
+		if (spilled != null) {
+			SpillingVassalNodePool spilling = (SpillingVassalNodePool)nodePool;
+			try {
+				encoded.addAll(spilling.copySpilled(spilled));
+			} finally {
+				spilling.unpinSpilled(spilled);
+			}
+		}
+		return encoded;
+	}
+	
+	/**
+	 * Stops work on the job and returns copies of our open nodes, for when the lord is
+	 * taking them back so we can leave.  We stop giving nodes away first, and wait for
+	 * any request for work that's out to come back and for any nodes on their way to a
+	 * peer to be leased or put back, so that every node we're responsible for is either
+	 * returned or leased to someone else.  Task runners stop after the node they're on.
+	 * 
+	 * @throws IOException
+	 * 		if a request for work or a donation didn't come back in time, in which case
+	 * 		the lord should treat us as lost
+	 */
+	public List<BnbNode> drain() throws IOException {
+		draining = true;
+		try {
+			return drainPool(System.currentTimeMillis() + DRAIN_TIMEOUT);
+		} finally {
+			//the lord counts us as lost if we couldn't drain, and we hear about it at the
+			//next heartbeat
+			if (!drained) {
+				synchronized(runnerLock) {
+					draining = false;
+					runnerLock.notifyAll();
+				}
+			}
+		}
+	}
+	
+	private List<BnbNode> drainPool(long deadline) throws IOException {
+		synchronized(fetchLock) {
+			while (fetching) {
+				awaitDrain(fetchLock, deadline, "requests for work");
+			}
+			
+			//holding fetchLock and checkpointLock keeps new requests for work and new
+			//donations from starting
+			List<ThriftData> encoded = new ArrayList<ThriftData>();
+			synchronized(checkpointLock) {
+				synchronized(leaseLock) {
+					while (!pinnedLeases.isEmpty()) {
+						awaitDrain(leaseLock, deadline, "donations to peers");
+					}
+				}
+				evaluationGate.pause();
+				try {
+					abandoned = true;
+					isCompleted = true;
+					Set<BnbNode> seen = Collections.newSetFromMap(new IdentityHashMap<BnbNode, Boolean>());
+					for (BnbNode node : nodePool.snapshot()) {
+						if (seen.add(node) && !(node.isEvaluated() && !node.hasNextChild())) {
+							encoded.add(RpcUtil.toThriftData(node));
+						}
+					}
+				} finally {
+					evaluationGate.resume();
+				}
+			}
+			LOG.info("Drained " + encoded.size() + " open nodes from job " + jobid);
+			synchronized(runnerLock) {
+				drained = true;
+				runnerLock.notifyAll();
+			}
+			done();
+			signalUpdate();
+			return decode(encoded);
+		}
+	}
+	
+	private void awaitDrain(Object lock, long deadline, String what) throws IOException {
+		long remaining = deadline - System.currentTimeMillis();
+		if (remaining <= 0) {
+			throw new IOException("Timed out waiting for " + what + " to come back for drain");
+		}
+		try {
+			lock.wait(remaining);
+		} catch (InterruptedException ex) {
+			throw new IOException("Interrupted waiting for " + what + " to come back for drain", ex);
+		}
+	}
+	
+	public boolean isDrained() {
+		return drained;
+	}
+	
+	/**
+	 * Records how much the pool spilled and lets go of its arena, if it has one.  Called
+	 * once the runners are done with the pool.
+	 */
+	public void closeNodePool() {
+		if (nodePool instanceof SpillingVassalNodePool) {
+			SpillingVassalNodePool spilling = (SpillingVassalNodePool)nodePool;
+			stats.reportSpilling(spilling.getTotalSpilled(), spilling.getTotalRestored(),
+					spilling.getPeakSpillBytes());
+			spilling.close();
+		}
+	}
+	
+	private List<BnbNode> decode(List<ThriftData> encoded) throws IOException {
+		List<BnbNode> nodes = new ArrayList<BnbNode>(encoded.size());
+		try {
+			for (ThriftData nodeData : encoded) {
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, problem));
+			}
+		} catch (ClassNotFoundException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (InstantiationException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (IllegalAccessException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (InvocationTargetException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (NoSuchMethodException ex) {
+			throw new IOException("invalid class", ex);
+		}
+		return nodes;
+	}
+	
+	public StealPolicy getStealPolicy() {
+		return stealPolicy;
+	}
+	
+	/**
+	 * Best known cost, along with the solution if it was found on this vassal.
+	 */
+	private static class Incumbent {
+		private final double cost;
+		private final Solution solution;
+		private final long foundTime;
+		
+		public Incumbent(double cost, Solution solution, long foundTime) {
+			this.cost = cost;
+			this.solution = solution;
+			this.foundTime = foundTime;
+		}
 	}
 }
@@ -1,6 +1,7 @@
 package bnb.vassal;
 
 import java.util.List;
+import java.util.Set;
 
 import bnb.BnbNode;
 
@@ -8,8 +9,11 @@ public interface VassalNodePool {
 	
 	/**
 	 * Removes nodes from the pool to be given to another process.
+	 * 
+	 * @param policy
+	 * 		decides which nodes are worth giving away and how many to give
 	 */
-	public List<BnbNode> stealNodes();
+	public List<BnbNode> stealNodes(StealPolicy policy);
 	
 	/**
 	 * Returns the next node for the vassal to work on and removes
@@ -19,8 +23,33 @@ public interface VassalNodePool {
 	
 	public boolean hasNextNode();
 	
+	/**
+	 * Number of nodes in the pool, each of which may still have children to hand out.
+	 * Used for deciding when to ask for more work, so it doesn't have to be exact.
+	 */
+	public int size();
+	
 	/**
 	 * Posts an evaluated node to the pool.
 	 */
 	public void post(BnbNode node);
+	
+	/**
+	 * Returns the nodes in the pool without removing them.  Only has to be right while no
+	 * other thread is using the pool, which is how checkpoints call it.
+	 */
+	public List<BnbNode> snapshot();
+	
+	/**
+	 * Sums up the pool's open nodes for the lord.  Unlike snapshot, it's safe to call while
+	 * task runners are using the pool.
+	 */
+	public LoadSummary summarize();
+	
+	/**
+	 * Adds the leases of the pool's open nodes to the given set, for a heartbeat.  Like
+	 * summarize, it's safe to call while task runners are using the pool, but a node they
+	 * take out meanwhile may be missed.  EvaluationGate keeps track of those.
+	 */
+	public void addLiveLeases(Set<Long> leaseIds);
 }
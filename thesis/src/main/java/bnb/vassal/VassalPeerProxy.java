@@ -0,0 +1,96 @@
+package bnb.vassal;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.thrift.TException;
+
+import bnb.BnbNode;
+import bnb.rpc.ClientPool;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.ThriftData;
+import bnb.rpc.ThriftVassal;
+import bnb.rpc.TransportConfig;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
+
+/**
+ * A vassal's connection to another vassal, for stealing work from it directly.
+ */
+public class VassalPeerProxy {
+	
+	private final PeerAddress address;
+	private final ClientPool<ThriftVassal.Client> pool;
+	
+	public VassalPeerProxy(PeerAddress address, TransportConfig config) {
+		this.address = address;
+		pool = new ClientPool<ThriftVassal.Client>(address.getHostname(), address.getPort(), config, 
+				new ThriftVassal.Client.Factory());
+	}
+	
+	/**
+	 * For subclasses that don't go over the network.
+	 */
+	protected VassalPeerProxy(PeerAddress address) {
+		this.address = address;
+		pool = null;
+	}
+	
+	public int getVassalId() {
+		return address.getVassalId();
+	}
+	
+	/**
+	 * @param bestCost
+	 * 		our best cost, passed along so that the peer can prune with it
+	 * @param leaseId
+	 * 		the id we picked for the lease on what we get
+	 */
+	public List<BnbNode> stealWork(VassalJobManager jobManager, double bestCost, long leaseId) throws IOException {
+		long span = Tracer.getDefault().begin(Span.RPC_PEER_STEAL);
+		try {
+			List<ThriftData> nodesData;
+			boolean healthy = false;
+			ThriftVassal.Client client = pool.borrow();
+			try {
+				nodesData = client.stealWorkFromPeer(jobManager.getJobID(), jobManager.getVassalID(), bestCost, leaseId);
+				healthy = true;
+			} finally {
+				pool.returnClient(client, healthy);
+			}
+			List<BnbNode> nodes = new LinkedList<BnbNode>();
+			for (ThriftData nodeData : nodesData) {
+				nodes.add(RpcUtil.nodeFromThriftData(nodeData, jobManager.getProblem()));
+			}
+			Tracer.getDefault().end(Span.RPC_PEER_STEAL, span, jobManager.getJobID(), jobManager.getVassalID(),
+					getVassalId(), nodes.size());
+			return nodes;
+		} catch (TException ex) {
+			throw new IOException("send exception", ex);
+		} catch (ClassCastException ex) {
+			throw new IOException("given class doesn't extend bnbnode", ex);
+		} catch (ClassNotFoundException ex) {
+			throw new IOException("invalid class", ex);
+		} catch (InstantiationException e) {
+			throw new IOException("invalid class", e);
+		} catch (IllegalAccessException e) {
+			throw new IOException("invalid class", e);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("invalid class", e);
+		} catch (InvocationTargetException e) {
+			throw new IOException("invalid class", e);
+		} catch (NoSuchMethodException e) {
+			throw new IOException("invalid class", e);
+		} catch (SecurityException e) {
+			throw new IOException("invalid class", e);
+		}
+	}
+	
+	public void close() {
+		if (pool != null) {
+			pool.close();
+		}
+	}
+}
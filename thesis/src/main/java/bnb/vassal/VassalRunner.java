@@ -1,29 +1,35 @@
 package bnb.vassal;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.apache.thrift.TProcessor;
 import org.apache.thrift.server.TServer;
-import org.apache.thrift.server.TThreadPoolServer;
-import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
 
 import bnb.Problem;
 import bnb.BnbNode;
+import bnb.rpc.InProcessCluster;
+import bnb.rpc.RpcUtil;
+import bnb.rpc.ThriftData;
 import bnb.rpc.ThriftVassal;
+import bnb.rpc.TransportConfig;
 import bnb.rpc.VassalPublic;
 import bnb.rpc.VassalThriftWrapper;
+import bnb.stats.MetricsRegistry;
 import bnb.stats.VassalJobStats;
+import bnb.trace.Span;
+import bnb.trace.Tracer;
 
 public class VassalRunner implements VassalPublic {
 	
@@ -38,13 +44,31 @@ public class VassalRunner implements VassalPublic {
 	
 	private final OutputStream statsOs;
 	
+	private volatile NodePoolType nodePoolType = NodePoolType.SIMPLE;
+	private volatile double jumpRatio = BestFirstVassalNodePool.DEFAULT_JUMP_RATIO;
+	private volatile int prefetchWatermark = VassalJobManager.DEFAULT_PREFETCH_WATERMARK;
+	private volatile TransportConfig transportConfig = TransportConfig.DEFAULT;
+	private volatile long heartbeatInterval = Heartbeater.DEFAULT_INTERVAL;
+	/** non-null when the lord and peers are in this JVM */
+	private volatile InProcessCluster inProcessCluster;
+	private volatile boolean exitWhenIdle = true;
+	/** 0 keeps every node on the heap */
+	private volatile int maxResidentNodes;
+	private volatile int spillArenaBytes = SpillArena.DEFAULT_CAPACITY;
+	/** null spills to direct buffers rather than files */
+	private volatile File spillDir;
+	private final SlotAllocator slotAllocator;
+	
 	public VassalRunner(LordProxy lordProxy, int numSlots, int vassalId, int port, OutputStream statsOs) {
 		this.numSlots = numSlots;
-		jobMap = new HashMap<Integer, VassalJobManager>();
+		//peers can ask for work from the job while it's being started
+		jobMap = new ConcurrentHashMap<Integer, VassalJobManager>();
 		this.lordProxy = lordProxy;
 		this.vassalId = vassalId;
 		this.port = port;
 		this.statsOs = statsOs;
+		slotAllocator = new SlotAllocator(this, numSlots, SlotAllocator.DEFAULT_INTERVAL);
+		slotAllocator.start();
 	}
 	
 	public void start() {
@@ -65,14 +89,10 @@ public class VassalRunner implements VassalPublic {
 	}
 	
 	private void startServer(int port) {
-		TServerSocket serverSocket;
 		try {
-			serverSocket = new TServerSocket(port);
-			TThreadPoolServer.Args args = new TThreadPoolServer.Args(serverSocket);
 			VassalThriftWrapper vassalThriftWrapper = new VassalThriftWrapper(this);
 			TProcessor processor = new ThriftVassal.Processor<VassalThriftWrapper>(vassalThriftWrapper);
-			args.processor(processor);
-			server = new TThreadPoolServer(args);
+			server = transportConfig.newServer(port, processor, "Vassal Thrift Server");
 			Thread serverThread = new Thread("Vassal Thrift Server") {
 				public void run() {
 					server.serve();
@@ -85,8 +105,23 @@ public class VassalRunner implements VassalPublic {
 		}
 	}
 	
+	/**
+	 * Unregisters from the lord, which takes back our open nodes from every job we're
+	 * running and hands them to the other vassals, and then stops our server.
+	 */
+	public void leave() throws IOException {
+		try {
+			lordProxy.unregisterVassal(vassalId);
+		} finally {
+			stop();
+		}
+	}
+	
 	public void stop() {
-		server.stop();
+		//in-process vassals don't have a server
+		if (server != null) {
+			server.stop();
+		}
 	}
 	
 	public int numSlots() {
@@ -97,36 +132,156 @@ public class VassalRunner implements VassalPublic {
 		return vassalId;
 	}
 	
+	/**
+	 * Sets the kind of node pool used by jobs started after this call.
+	 */
+	public void setNodePoolType(NodePoolType nodePoolType) {
+		this.nodePoolType = nodePoolType;
+	}
+	
+	public NodePoolType getNodePoolType() {
+		return nodePoolType;
+	}
+	
+	/**
+	 * Sets the default jump ratio for best-first pools, used when the lord doesn't
+	 * specify one.
+	 */
+	public void setJumpRatio(double jumpRatio) {
+		this.jumpRatio = jumpRatio;
+	}
+	
+	/**
+	 * Sets how few nodes a job's pool can have before we ask for more work in the
+	 * background.  0 turns prefetching off.
+	 */
+	public void setPrefetchWatermark(int prefetchWatermark) {
+		this.prefetchWatermark = prefetchWatermark;
+	}
+	
+	/**
+	 * Sets how our server and our connections to peers talk.  Should be called before
+	 * start, and match what the lord and the other vassals use.  The LordProxy is
+	 * configured separately, when it's made.
+	 */
+	public void setTransportConfig(TransportConfig transportConfig) {
+		this.transportConfig = transportConfig;
+	}
+	
+	/**
+	 * Sets how often jobs started after this call tell the lord which of its leases they
+	 * still have nodes from.  Should be well under the lord's lease timeout.
+	 */
+	public void setHeartbeatInterval(long heartbeatInterval) {
+		this.heartbeatInterval = heartbeatInterval;
+	}
+	
+	/**
+	 * Sets whether we shut down once we have no jobs running, which is the default.
+	 * Vassals that the lord runs several jobs on one after another should stay up.
+	 */
+	public void setExitWhenIdle(boolean exitWhenIdle) {
+		this.exitWhenIdle = exitWhenIdle;
+	}
+	
+	/**
+	 * Has us steal from peers through the given cluster instead of over the network.
+	 */
+	public void setInProcessCluster(InProcessCluster inProcessCluster) {
+		this.inProcessCluster = inProcessCluster;
+	}
+	
+	/**
+	 * Has jobs started after this call spill nodes out of the heap once their pools hold
+	 * more than maxResidentNodes, into an arena of arenaBytes per job.  The arena is a file
+	 * mapped into memory in spillDir, or a direct buffer if spillDir is null.
+	 * A maxResidentNodes of 0 turns spilling off, which is the default.
+	 */
+	public void setSpilling(int maxResidentNodes, int arenaBytes, File spillDir) {
+		this.maxResidentNodes = maxResidentNodes;
+		this.spillArenaBytes = arenaBytes;
+		this.spillDir = spillDir;
+	}
+	
+	private VassalNodePool makeSpillingPool(VassalNodePool pool, Problem spec, int jobid) {
+		int maxResident = maxResidentNodes;
+		if (maxResident <= 0) {
+			return pool;
+		}
+		try {
+			SpillArena arena = new SpillArena(spillArenaBytes, spillDir);
+			LOG.info("Spilling job " + jobid + " past " + maxResident + " resident nodes");
+			return new SpillingVassalNodePool(pool, spec, maxResident, arena);
+		} catch (IOException ex) {
+			LOG.error("Couldn't make spill arena for job " + jobid + ", keeping all nodes on the heap", ex);
+			return pool;
+		}
+	}
+	
 	@Override
-	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int numThreads) 
-		throws IOException {
+	public void startJobTasks(List<BnbNode> nodes, Problem spec, double bestCost, int jobid, int numThreads,
+			NodePoolType jobNodePoolType, double jobJumpRatio, List<PeerAddress> peers, double weight)
+			throws IOException {
 		if (numThreads < 1) {
 			LOG.error("Illegal number of threads: " + numThreads);
 		}
 		
-		VassalNodePool nodePool = new SimpleVassalNodePool();
+		if (jobNodePoolType == null) {
+			jobNodePoolType = nodePoolType;
+		}
+		if (jobJumpRatio <= 0) {
+			jobJumpRatio = jumpRatio;
+		}
+		VassalNodePool nodePool = makeSpillingPool(jobNodePoolType.newPool(jobJumpRatio), spec, jobid);
+		LOG.info("Using " + jobNodePoolType + " node pool for job " + jobid);
 		for (BnbNode node : nodes) {
 			//TODO: should this be happening here?
 			if (!node.isEvaluated()) {
 				node.evaluate(bestCost);
 			}
-			nodePool.post(node);
 		}
 		VassalJobStats stats = new VassalJobStats();
+		stats.setCodecStats(RpcUtil.getCodecStats());
+		stats.setMetricsName("vassal" + vassalId + "-job" + jobid);
+		MetricsRegistry.getDefault().register(stats);
+		
+		List<VassalPeerProxy> peerProxies = new ArrayList<VassalPeerProxy>();
+		for (PeerAddress peer : peers) {
+			if (peer.getVassalId() != vassalId) {
+				if (inProcessCluster != null) {
+					peerProxies.add(new LocalVassalPeerProxy(inProcessCluster, peer));
+				} else {
+					peerProxies.add(new VassalPeerProxy(peer, transportConfig));
+				}
+			}
+		}
+		if (!peerProxies.isEmpty()) {
+			LOG.info("Stealing directly from " + peerProxies.size() + " peers for job " + jobid);
+		}
 		
-		VassalJobManager jobManager = new VassalJobManager(bestCost, nodePool, spec, lordProxy, stats, vassalId, jobid);
+		VassalJobManager jobManager = new VassalJobManager(bestCost, nodePool, spec, lordProxy, stats, vassalId, jobid,
+				peerProxies, prefetchWatermark);
+		jobManager.receiveWork(VassalJobManager.INITIAL_LEASE, nodes);
 		Thread jobManagerThread = new Thread(jobManager, "jobmanager" + jobid);
 		jobManagerThread.start();
 		
 
 		jobMap.put(jobid, jobManager);
-		List<Thread> taskThreads = new ArrayList<Thread>();
-		for (int i = 0; i < numThreads; i++) {
-			Thread t = startTaskRunner(lordProxy, nodePool, jobManager, stats, i);
-			taskThreads.add(t);
-		}
+		//the job shares our slots with the others running here, up to numThreads of them
+		slotAllocator.addJob(jobManager, weight, numThreads);
 		
-		new TermThread(taskThreads, stats).start();
+		new TermThread(jobManager, stats).start();
+		new Heartbeater(jobManager, heartbeatInterval).start();
+	}
+	
+	/**
+	 * Starts task runners on the job until it has as many as the slot allocator wants.
+	 */
+	void addTaskRunners(VassalJobManager jobManager) {
+		while (jobManager.reserveRunner()) {
+			startTaskRunner(lordProxy, jobManager.getNodePool(), jobManager, jobManager.getStats(),
+					jobManager.getNumRunnersStarted());
+		}
 	}
 	
 	/**
@@ -158,50 +313,126 @@ public class VassalRunner implements VassalPublic {
 	public List<BnbNode> stealWork(int jobid) throws IOException {
 		LOG.info("About to try to donate work from this vassal for job " + jobid);
 		VassalJobManager jobManager = jobMap.get(jobid);
-		return jobManager.stealWork();
+		if (jobManager == null) {
+			//the lord can steal for another vassal before it's started the job on us
+			return new ArrayList<BnbNode>();
+		}
+		long span = Tracer.getDefault().begin(Span.GIVE_WORK);
+		List<BnbNode> stolen = jobManager.stealWork();
+		Tracer.getDefault().end(Span.GIVE_WORK, span, jobid, vassalId, stolen.size());
+		LOG.info("Donating " + stolen.size() + " nodes, smallest subtree worth stealing is " + 
+				jobManager.getStealPolicy().getMinStealableSize());
+		return stolen;
+	}
+	
+	@Override
+	public List<BnbNode> stealWorkFromPeer(int jobid, int thiefId, double bestCost, long leaseId)
+		throws IOException {
+		VassalJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null || jobManager.isCompleted()) {
+			return new ArrayList<BnbNode>();
+		}
+		jobManager.updateGlobalMinCost(bestCost);
+		long span = Tracer.getDefault().begin(Span.GIVE_PEER_WORK);
+		List<BnbNode> stolen = jobManager.donateToPeer(thiefId, leaseId);
+		Tracer.getDefault().end(Span.GIVE_PEER_WORK, span, jobid, vassalId, thiefId, stolen.size(),
+				Tracer.flowId(thiefId, leaseId));
+		LOG.info("Donating " + stolen.size() + " nodes directly to vassal " + thiefId);
+		return stolen;
+	}
+	
+	@Override
+	public void beginCheckpoint(int jobid) throws IOException {
+		VassalJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null) {
+			throw new IOException("No job with id " + jobid);
+		}
+		jobManager.beginCheckpoint();
+	}
+	
+	@Override
+	public List<ThriftData> checkpoint(int jobid) throws IOException {
+		VassalJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null) {
+			throw new IOException("No job with id " + jobid);
+		}
+		List<ThriftData> open = jobManager.checkpoint();
+		LOG.info("Checkpointed " + open.size() + " open nodes for job " + jobid);
+		return open;
+	}
+	
+	@Override
+	public List<BnbNode> drainJob(int jobid) throws IOException {
+		VassalJobManager jobManager = jobMap.get(jobid);
+		if (jobManager == null) {
+			throw new IOException("No job with id " + jobid);
+		}
+		List<BnbNode> open = jobManager.drain();
+		LOG.info("Giving back " + open.size() + " open nodes to leave job " + jobid);
+		return open;
 	}
 	
 	/**
-	 * For terminating this vassal when a job is done.
+	 * Stops work on all our jobs, as if we'd gone away.
+	 */
+	public void abandonJobs() {
+		for (VassalJobManager jobManager : jobMap.values()) {
+			jobManager.abandon();
+		}
+	}
+	
+	/**
+	 * For writing out a job's stats when it's done, and terminating this vassal if it
+	 * was the last one.
 	 */
 	private class TermThread extends Thread {
 		
-		private final List<Thread> threads;
+		private final VassalJobManager jobManager;
 		private final VassalJobStats stats;
 		
-		public TermThread(List<Thread> threads, VassalJobStats stats) {
-			this.threads = threads;
+		public TermThread(VassalJobManager jobManager, VassalJobStats stats) {
+			this.jobManager = jobManager;
 			this.stats = stats;
 		}
 		
 		public void run() {
-			for (Thread thread : threads) {
-				int nTerminated = 0;
-				try {
-					thread.join();
-					nTerminated++;
-					LOG.info("Thread " + thread.getName() + " terminated, " + (threads.size()-nTerminated) + " remaining.");
-				} catch (InterruptedException ex) {
-					LOG.error("Interrupted while waiting to terminate", ex);
-				}
+			try {
+				jobManager.awaitRunners();
+			} catch (InterruptedException ex) {
+				LOG.error("Interrupted while waiting to terminate", ex);
 			}
-			LOG.info("All task threads terminated");
+			LOG.info("All task threads for job " + jobManager.getJobID() + " terminated");
+			slotAllocator.removeJob(jobManager);
+			jobManager.closeNodePool();
+			MetricsRegistry.getDefault().unregister(stats);
+			Tracer.getDefault().flush();
 			
 			if (statsOs != null) {
-				try {
-					BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(statsOs));
-					bw.write(stats.makeReport());
-					bw.close();
-				} catch (Exception ex) {
-					LOG.error("Error writing stats to output stream", ex);
+				//other jobs might still write theirs
+				synchronized(statsOs) {
+					try {
+						BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(statsOs));
+						bw.write(stats.makeReport());
+						bw.flush();
+					} catch (Exception ex) {
+						LOG.error("Error writing stats to output stream", ex);
+					}
 				}
 			}
 			
+			//a vassal that's been drained is stopped by whoever's taking it away, after the
+			//lord has its nodes
+			if (!exitWhenIdle || slotAllocator.getNumJobs() > 0 || jobManager.isDrained()) {
+				return;
+			}
 			LOG.info("job completed, stopping Thrift server");
 			VassalRunner.this.stop();
 			LOG.info("Thrift server successfully stopped");
 			
-			System.exit(0);
+			//in-process vassals share the JVM with the lord and each other
+			if (inProcessCluster == null) {
+				System.exit(0);
+			}
 		}
 	}
 }
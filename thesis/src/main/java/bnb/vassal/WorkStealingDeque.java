@@ -0,0 +1,129 @@
+package bnb.vassal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Chase-Lev work stealing deque.  push and pop may only be called by the thread
+ * that owns the deque, and work on the bottom (LIFO).  steal may be called by any
+ * thread, and takes from the top (FIFO).
+ */
+public class WorkStealingDeque<T> {
+	private static final int INITIAL_CAPACITY = 32;
+
+	//only written by the owner
+	private volatile long bottom;
+	private final AtomicLong top = new AtomicLong();
+	private volatile AtomicReferenceArray<T> array;
+
+	public WorkStealingDeque() {
+		array = new AtomicReferenceArray<T>(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Owner only.
+	 */
+	public void push(T t) {
+		long b = bottom;
+		long tp = top.get();
+		AtomicReferenceArray<T> a = array;
+		if (b - tp >= a.length() - 1) {
+			a = grow(a, b, tp);
+		}
+		a.set((int)(b & (a.length()-1)), t);
+		bottom = b + 1;
+	}
+
+	/**
+	 * Owner only.  Returns null if the deque is empty or if the last element was
+	 * lost to a thief.
+	 */
+	public T pop() {
+		long b = bottom - 1;
+		AtomicReferenceArray<T> a = array;
+		bottom = b;
+		long t = top.get();
+		if (t > b) {
+			bottom = t;
+			return null;
+		}
+		int i = (int)(b & (a.length()-1));
+		T elem = a.get(i);
+		if (t == b) {
+			//last element, race against thieves for it.  if we lose, the thief clears the slot
+			if (top.compareAndSet(t, t+1)) {
+				a.set(i, null);
+			} else {
+				elem = null;
+			}
+			bottom = t + 1;
+		} else {
+			//no thief can get this far down, so we don't keep the node, and everything it
+			//points to, reachable after it's gone
+			a.set(i, null);
+		}
+		return elem;
+	}
+
+	/**
+	 * Can be called from any thread.  Returns null if the deque is empty or if
+	 * another thread took the top element first.
+	 */
+	public T steal() {
+		long t = top.get();
+		long b = bottom;
+		if (t >= b) {
+			return null;
+		}
+		AtomicReferenceArray<T> a = array;
+		int i = (int)(t & (a.length()-1));
+		T elem = a.get(i);
+		if (!top.compareAndSet(t, t+1)) {
+			return null;
+		}
+		//only if the owner hasn't put something else there since
+		a.compareAndSet(i, elem, null);
+		return elem;
+	}
+
+	/**
+	 * Approximate when called by anyone but the owner.
+	 */
+	public int size() {
+		long size = bottom - top.get();
+		return size < 0 ? 0 : (int)size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * The elements from top to bottom, without removing them.  Only consistent while
+	 * nobody is pushing, popping or stealing.  Otherwise it has every element that stays
+	 * in the deque throughout, and may have some that come or go.
+	 */
+	public List<T> snapshot() {
+		AtomicReferenceArray<T> a = array;
+		long b = bottom;
+		List<T> elems = new ArrayList<T>();
+		for (long i = top.get(); i < b; i++) {
+			T elem = a.get((int)(i & (a.length()-1)));
+			if (elem != null) {
+				elems.add(elem);
+			}
+		}
+		return elems;
+	}
+
+	private AtomicReferenceArray<T> grow(AtomicReferenceArray<T> old, long b, long t) {
+		AtomicReferenceArray<T> a = new AtomicReferenceArray<T>(old.length() * 2);
+		for (long i = t; i < b; i++) {
+			a.set((int)(i & (a.length()-1)), old.get((int)(i & (old.length()-1))));
+		}
+		array = a;
+		return a;
+	}
+}
@@ -0,0 +1,206 @@
+package bnb.vassal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.log4j.Logger;
+
+import bnb.BnbNode;
+
+/**
+ * Node pool in which every TaskRunner thread works depth-first on its own deque.  A
+ * thread whose deque runs dry steals the shallowest node from one of its siblings,
+ * and stealNodes (for remote requests) takes a batch of the shallowest nodes from the
+ * fullest deque.  We can't look inside the deques without taking nodes out of them, so
+ * the batch is up to half of that deque's nodes rather than half of its estimated work.
+ *
+ * A thread gets its deque the first time it calls nextNode.  Nodes posted from
+ * threads without a deque (initial nodes, work received from the lord) go into a shared
+ * queue that the task threads drain before stealing from each other.
+ */
+public class WorkStealingVassalNodePool implements VassalNodePool {
+	private static final Logger LOG = Logger.getLogger(VassalNodePool.class);
+
+	private final List<WorkStealingDeque<BnbNode>> deques;
+	private final ThreadLocal<WorkStealingDeque<BnbNode>> localDeque;
+	private final ConcurrentLinkedQueue<BnbNode> sharedNodes;
+
+	private final Random rand = new Random();
+
+	public WorkStealingVassalNodePool() {
+		deques = new CopyOnWriteArrayList<WorkStealingDeque<BnbNode>>();
+		localDeque = new ThreadLocal<WorkStealingDeque<BnbNode>>();
+		sharedNodes = new ConcurrentLinkedQueue<BnbNode>();
+	}
+
+	@Override
+	public List<BnbNode> stealNodes(StealPolicy policy) {
+		BnbNode node = sharedNodes.peek();
+		if (node != null && policy.isWorthStealing(node) && sharedNodes.remove(node)) {
+			return Collections.singletonList(node);
+		}
+
+		WorkStealingDeque<BnbNode> victim = null;
+		for (WorkStealingDeque<BnbNode> deque : deques) {
+			if (victim == null || deque.size() > victim.size()) {
+				victim = deque;
+			}
+		}
+		if (victim == null) {
+			return new LinkedList<BnbNode>();
+		}
+		int batchSize = Math.max(1, Math.min(victim.size() / 2, policy.getMaxBatchSize()));
+		List<BnbNode> stolen = new LinkedList<BnbNode>();
+		while (stolen.size() < batchSize && (node = victim.steal()) != null) {
+			if (!policy.isWorthStealing(node)) {
+				//the top of a deque is its shallowest node, so nothing under it is worth
+				//sending either.  hand it back to our own threads
+				sharedNodes.add(node);
+				break;
+			}
+			stolen.add(node);
+		}
+		return stolen;
+	}
+
+	@Override
+	public BnbNode nextNode() {
+		WorkStealingDeque<BnbNode> deque = localDeque.get();
+		if (deque == null) {
+			deque = new WorkStealingDeque<BnbNode>();
+			localDeque.set(deque);
+			deques.add(deque);
+		}
+
+		while (true) {
+			BnbNode node = deque.pop();
+			//whether node came to us from another thread
+			boolean published = false;
+			if (node == null) {
+				node = sharedNodes.poll();
+				if (node == null) {
+					node = stealFromSibling(deque);
+				}
+				published = true;
+			}
+			if (node == null) {
+				return null;
+			}
+
+			if (!node.isEvaluated()) {
+				return node;
+			}
+			if (node.hasNextChild()) {
+				//we hold the only reference to node while it's out of the deque, so
+				//nextChild doesn't need to be synchronized.  a child we go on to work on
+				//ourselves can share its parent's structures, as it would in
+				//SimpleVassalNodePool, but one taken from a node that was published to
+				//another thread gets its own copy
+				BnbNode child = node.nextChild(published);
+				if (node.hasNextChild()) {
+					deque.push(node);
+				}
+				return child;
+			}
+		}
+	}
+
+	@Override
+	public boolean hasNextNode() {
+		if (!sharedNodes.isEmpty()) {
+			return true;
+		}
+		for (WorkStealingDeque<BnbNode> deque : deques) {
+			if (!deque.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		int size = sharedNodes.size();
+		for (WorkStealingDeque<BnbNode> deque : deques) {
+			size += deque.size();
+		}
+		return size;
+	}
+
+	@Override
+	public void post(BnbNode node) {
+		WorkStealingDeque<BnbNode> deque = localDeque.get();
+		if (deque != null) {
+			deque.push(node);
+		} else {
+			sharedNodes.add(node);
+		}
+	}
+
+	@Override
+	public List<BnbNode> snapshot() {
+		List<BnbNode> nodes = new ArrayList<BnbNode>(sharedNodes);
+		for (WorkStealingDeque<BnbNode> deque : deques) {
+			nodes.addAll(deque.snapshot());
+		}
+		return nodes;
+	}
+
+	/**
+	 * The nodes in a deque can be taken and worked on by its owner at any time, so we
+	 * can't look at them, and only count them.
+	 */
+	@Override
+	public LoadSummary summarize() {
+		return new LoadSummary(size(), -1, Double.MAX_VALUE);
+	}
+
+	/**
+	 * Every node in a deque has children left, so only lease ids are read, which don't
+	 * change while the node is here.  A node that moves while we look is either taken by a
+	 * task runner, which EvaluationGate keeps track of, or pushed by one from a node it had
+	 * out.
+	 */
+	@Override
+	public void addLiveLeases(Set<Long> leaseIds) {
+		for (BnbNode node : sharedNodes) {
+			leaseIds.add(node.getLeaseId());
+		}
+		for (WorkStealingDeque<BnbNode> deque : deques) {
+			for (BnbNode node : deque.snapshot()) {
+				leaseIds.add(node.getLeaseId());
+			}
+		}
+	}
+
+	private BnbNode stealFromSibling(WorkStealingDeque<BnbNode> thief) {
+		int numDeques = deques.size();
+		if (numDeques <= 1) {
+			return null;
+		}
+		int start = nextRandom(numDeques);
+		for (int i = 0; i < numDeques; i++) {
+			WorkStealingDeque<BnbNode> victim = deques.get((start + i) % numDeques);
+			if (victim == thief) {
+				continue;
+			}
+			BnbNode node = victim.steal();
+			if (node != null) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	private int nextRandom(int n) {
+		synchronized(rand) {
+			return rand.nextInt(n);
+		}
+	}
+}
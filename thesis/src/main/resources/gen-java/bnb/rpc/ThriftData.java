@@ -25,14 +25,17 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
 
   private static final org.apache.thrift.protocol.TField CLASS_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("className", org.apache.thrift.protocol.TType.STRING, (short)1);
   private static final org.apache.thrift.protocol.TField BYTES_FIELD_DESC = new org.apache.thrift.protocol.TField("bytes", org.apache.thrift.protocol.TType.STRING, (short)2);
+  private static final org.apache.thrift.protocol.TField TYPE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("typeId", org.apache.thrift.protocol.TType.I32, (short)3);
 
   public String className; // required
   public ByteBuffer bytes; // required
+  public int typeId; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     CLASS_NAME((short)1, "className"),
-    BYTES((short)2, "bytes");
+    BYTES((short)2, "bytes"),
+    TYPE_ID((short)3, "typeId");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -51,6 +54,8 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
           return CLASS_NAME;
         case 2: // BYTES
           return BYTES;
+        case 3: // TYPE_ID
+          return TYPE_ID;
         default:
           return null;
       }
@@ -91,6 +96,8 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
   }
 
   // isset id assignments
+  private static final int __TYPEID_ISSET_ID = 0;
+  private BitSet __isset_bit_vector = new BitSet(1);
 
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
@@ -99,6 +106,8 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     tmpMap.put(_Fields.BYTES, new org.apache.thrift.meta_data.FieldMetaData("bytes", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
+    tmpMap.put(_Fields.TYPE_ID, new org.apache.thrift.meta_data.FieldMetaData("typeId", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ThriftData.class, metaDataMap);
   }
@@ -108,17 +117,22 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
 
   public ThriftData(
     String className,
-    ByteBuffer bytes)
+    ByteBuffer bytes,
+    int typeId)
   {
     this();
     this.className = className;
     this.bytes = bytes;
+    this.typeId = typeId;
+    setTypeIdIsSet(true);
   }
 
   /**
    * Performs a deep copy on <i>other</i>.
    */
   public ThriftData(ThriftData other) {
+    __isset_bit_vector.clear();
+    __isset_bit_vector.or(other.__isset_bit_vector);
     if (other.isSetClassName()) {
       this.className = other.className;
     }
@@ -126,6 +140,7 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
       this.bytes = org.apache.thrift.TBaseHelper.copyBinary(other.bytes);
 ;
     }
+    this.typeId = other.typeId;
   }
 
   public ThriftData deepCopy() {
@@ -136,6 +151,8 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
   public void clear() {
     this.className = null;
     this.bytes = null;
+    setTypeIdIsSet(false);
+    this.typeId = 0;
   }
 
   public String getClassName() {
@@ -196,6 +213,29 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
     }
   }
 
+  public int getTypeId() {
+    return this.typeId;
+  }
+
+  public ThriftData setTypeId(int typeId) {
+    this.typeId = typeId;
+    setTypeIdIsSet(true);
+    return this;
+  }
+
+  public void unsetTypeId() {
+    __isset_bit_vector.clear(__TYPEID_ISSET_ID);
+  }
+
+  /** Returns true if field typeId is set (has been assigned a value) and false otherwise */
+  public boolean isSetTypeId() {
+    return __isset_bit_vector.get(__TYPEID_ISSET_ID);
+  }
+
+  public void setTypeIdIsSet(boolean value) {
+    __isset_bit_vector.set(__TYPEID_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case CLASS_NAME:
@@ -214,6 +254,14 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
       }
       break;
 
+    case TYPE_ID:
+      if (value == null) {
+        unsetTypeId();
+      } else {
+        setTypeId((Integer)value);
+      }
+      break;
+
     }
   }
 
@@ -225,6 +273,9 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
     case BYTES:
       return getBytes();
 
+    case TYPE_ID:
+      return Integer.valueOf(getTypeId());
+
     }
     throw new IllegalStateException();
   }
@@ -240,6 +291,8 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
       return isSetClassName();
     case BYTES:
       return isSetBytes();
+    case TYPE_ID:
+      return isSetTypeId();
     }
     throw new IllegalStateException();
   }
@@ -275,6 +328,15 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
         return false;
     }
 
+    boolean this_present_typeId = true;
+    boolean that_present_typeId = true;
+    if (this_present_typeId || that_present_typeId) {
+      if (!(this_present_typeId && that_present_typeId))
+        return false;
+      if (this.typeId != that.typeId)
+        return false;
+    }
+
     return true;
   }
 
@@ -311,6 +373,16 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetTypeId()).compareTo(typedOther.isSetTypeId());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetTypeId()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.typeId, typedOther.typeId);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -342,6 +414,14 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
           }
           break;
+        case 3: // TYPE_ID
+          if (field.type == org.apache.thrift.protocol.TType.I32) {
+            this.typeId = iprot.readI32();
+            setTypeIdIsSet(true);
+          } else { 
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+          }
+          break;
         default:
           org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
       }
@@ -367,6 +447,9 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
       oprot.writeBinary(this.bytes);
       oprot.writeFieldEnd();
     }
+    oprot.writeFieldBegin(TYPE_ID_FIELD_DESC);
+    oprot.writeI32(this.typeId);
+    oprot.writeFieldEnd();
     oprot.writeFieldStop();
     oprot.writeStructEnd();
   }
@@ -391,6 +474,10 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
       org.apache.thrift.TBaseHelper.toString(this.bytes, sb);
     }
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("typeId:");
+    sb.append(this.typeId);
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -409,6 +496,8 @@ public class ThriftData implements org.apache.thrift.TBase<ThriftData, ThriftDat
 
   private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
     try {
+      // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+      __isset_bit_vector = new BitSet(1);
       read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
     } catch (org.apache.thrift.TException te) {
       throw new java.io.IOException(te);
@@ -26,20 +26,36 @@ public class ThriftLord {
 
     public void sendBestSolCost(double bestCost, int jobid, int vassalid, ThriftData solution) throws org.apache.thrift.TException;
 
-    public List<ThriftData> askForWork(int jobid, int vassalid, double bestCost) throws org.apache.thrift.TException;
+    public List<ThriftData> askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId, ThriftLoad load) throws org.apache.thrift.TException;
 
     public void registerVassal(String hostname, int port, int vassalid) throws org.apache.thrift.TException;
 
+    public void unregisterVassal(int vassalid) throws org.apache.thrift.TException;
+
+    public boolean heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, ThriftLoad load) throws org.apache.thrift.TException;
+
+    public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodes) throws org.apache.thrift.TException;
+
+    public long getTimeMicros() throws org.apache.thrift.TException;
+
   }
 
   public interface AsyncIface {
 
     public void sendBestSolCost(double bestCost, int jobid, int vassalid, ThriftData solution, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.sendBestSolCost_call> resultHandler) throws org.apache.thrift.TException;
 
-    public void askForWork(int jobid, int vassalid, double bestCost, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.askForWork_call> resultHandler) throws org.apache.thrift.TException;
+    public void askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId, ThriftLoad load, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.askForWork_call> resultHandler) throws org.apache.thrift.TException;
 
     public void registerVassal(String hostname, int port, int vassalid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.registerVassal_call> resultHandler) throws org.apache.thrift.TException;
 
+    public void unregisterVassal(int vassalid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.unregisterVassal_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, ThriftLoad load, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.heartbeat_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodes, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.leaseWork_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void getTimeMicros(org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getTimeMicros_call> resultHandler) throws org.apache.thrift.TException;
+
   }
 
   public static class Client extends org.apache.thrift.TServiceClient implements Iface {
@@ -85,18 +101,21 @@ public class ThriftLord {
       return;
     }
 
-    public List<ThriftData> askForWork(int jobid, int vassalid, double bestCost) throws org.apache.thrift.TException
+    public List<ThriftData> askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId, ThriftLoad load) throws org.apache.thrift.TException
     {
-      send_askForWork(jobid, vassalid, bestCost);
+      send_askForWork(jobid, vassalid, bestCost, prefetch, leaseId, load);
       return recv_askForWork();
     }
 
-    public void send_askForWork(int jobid, int vassalid, double bestCost) throws org.apache.thrift.TException
+    public void send_askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId, ThriftLoad load) throws org.apache.thrift.TException
     {
       askForWork_args args = new askForWork_args();
       args.setJobid(jobid);
       args.setVassalid(vassalid);
       args.setBestCost(bestCost);
+      args.setPrefetch(prefetch);
+      args.setLeaseId(leaseId);
+      args.setLoad(load);
       sendBase("askForWork", args);
     }
 
@@ -132,6 +151,103 @@ public class ThriftLord {
       return;
     }
 
+    public void unregisterVassal(int vassalid) throws org.apache.thrift.TException
+    {
+      send_unregisterVassal(vassalid);
+      recv_unregisterVassal();
+    }
+
+    public void send_unregisterVassal(int vassalid) throws org.apache.thrift.TException
+    {
+      unregisterVassal_args args = new unregisterVassal_args();
+      args.setVassalid(vassalid);
+      sendBase("unregisterVassal", args);
+    }
+
+    public void recv_unregisterVassal() throws org.apache.thrift.TException
+    {
+      unregisterVassal_result result = new unregisterVassal_result();
+      receiveBase(result, "unregisterVassal");
+      return;
+    }
+
+    public boolean heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, ThriftLoad load) throws org.apache.thrift.TException
+    {
+      send_heartbeat(jobid, vassalid, liveLeases, maxLeaseReceived, failedLeases, load);
+      return recv_heartbeat();
+    }
+
+    public void send_heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, ThriftLoad load) throws org.apache.thrift.TException
+    {
+      heartbeat_args args = new heartbeat_args();
+      args.setJobid(jobid);
+      args.setVassalid(vassalid);
+      args.setLiveLeases(liveLeases);
+      args.setMaxLeaseReceived(maxLeaseReceived);
+      args.setFailedLeases(failedLeases);
+      args.setLoad(load);
+      sendBase("heartbeat", args);
+    }
+
+    public boolean recv_heartbeat() throws org.apache.thrift.TException
+    {
+      heartbeat_result result = new heartbeat_result();
+      receiveBase(result, "heartbeat");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "heartbeat failed: unknown result");
+    }
+
+    public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodes) throws org.apache.thrift.TException
+    {
+      send_leaseWork(jobid, donorid, thiefid, leaseId, nodes);
+      return recv_leaseWork();
+    }
+
+    public void send_leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodes) throws org.apache.thrift.TException
+    {
+      leaseWork_args args = new leaseWork_args();
+      args.setJobid(jobid);
+      args.setDonorid(donorid);
+      args.setThiefid(thiefid);
+      args.setLeaseId(leaseId);
+      args.setNodes(nodes);
+      sendBase("leaseWork", args);
+    }
+
+    public boolean recv_leaseWork() throws org.apache.thrift.TException
+    {
+      leaseWork_result result = new leaseWork_result();
+      receiveBase(result, "leaseWork");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "leaseWork failed: unknown result");
+    }
+
+    public long getTimeMicros() throws org.apache.thrift.TException
+    {
+      send_getTimeMicros();
+      return recv_getTimeMicros();
+    }
+
+    public void send_getTimeMicros() throws org.apache.thrift.TException
+    {
+      getTimeMicros_args args = new getTimeMicros_args();
+      sendBase("getTimeMicros", args);
+    }
+
+    public long recv_getTimeMicros() throws org.apache.thrift.TException
+    {
+      getTimeMicros_result result = new getTimeMicros_result();
+      receiveBase(result, "getTimeMicros");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getTimeMicros failed: unknown result");
+    }
+
   }
   public static class AsyncClient extends org.apache.thrift.async.TAsyncClient implements AsyncIface {
     public static class Factory implements org.apache.thrift.async.TAsyncClientFactory<AsyncClient> {
@@ -191,9 +307,9 @@ public class ThriftLord {
       }
     }
 
-    public void askForWork(int jobid, int vassalid, double bestCost, org.apache.thrift.async.AsyncMethodCallback<askForWork_call> resultHandler) throws org.apache.thrift.TException {
+    public void askForWork(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId, ThriftLoad load, org.apache.thrift.async.AsyncMethodCallback<askForWork_call> resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      askForWork_call method_call = new askForWork_call(jobid, vassalid, bestCost, resultHandler, this, ___protocolFactory, ___transport);
+      askForWork_call method_call = new askForWork_call(jobid, vassalid, bestCost, prefetch, leaseId, load, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -202,11 +318,17 @@ public class ThriftLord {
       private int jobid;
       private int vassalid;
       private double bestCost;
-      public askForWork_call(int jobid, int vassalid, double bestCost, org.apache.thrift.async.AsyncMethodCallback<askForWork_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private boolean prefetch;
+      private long leaseId;
+      private ThriftLoad load;
+      public askForWork_call(int jobid, int vassalid, double bestCost, boolean prefetch, long leaseId, ThriftLoad load, org.apache.thrift.async.AsyncMethodCallback<askForWork_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.jobid = jobid;
         this.vassalid = vassalid;
         this.bestCost = bestCost;
+        this.prefetch = prefetch;
+        this.leaseId = leaseId;
+        this.load = load;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -215,6 +337,9 @@ public class ThriftLord {
         args.setJobid(jobid);
         args.setVassalid(vassalid);
         args.setBestCost(bestCost);
+        args.setPrefetch(prefetch);
+        args.setLeaseId(leaseId);
+        args.setLoad(load);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -267,6 +392,158 @@ public class ThriftLord {
       }
     }
 
+    public void unregisterVassal(int vassalid, org.apache.thrift.async.AsyncMethodCallback<unregisterVassal_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      unregisterVassal_call method_call = new unregisterVassal_call(vassalid, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class unregisterVassal_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int vassalid;
+      public unregisterVassal_call(int vassalid, org.apache.thrift.async.AsyncMethodCallback<unregisterVassal_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.vassalid = vassalid;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("unregisterVassal", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        unregisterVassal_args args = new unregisterVassal_args();
+        args.setVassalid(vassalid);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public void getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        (new Client(prot)).recv_unregisterVassal();
+      }
+    }
+
+    public void heartbeat(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, ThriftLoad load, org.apache.thrift.async.AsyncMethodCallback<heartbeat_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      heartbeat_call method_call = new heartbeat_call(jobid, vassalid, liveLeases, maxLeaseReceived, failedLeases, load, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class heartbeat_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int jobid;
+      private int vassalid;
+      private List<Long> liveLeases;
+      private long maxLeaseReceived;
+      private List<Long> failedLeases;
+      private ThriftLoad load;
+      public heartbeat_call(int jobid, int vassalid, List<Long> liveLeases, long maxLeaseReceived, List<Long> failedLeases, ThriftLoad load, org.apache.thrift.async.AsyncMethodCallback<heartbeat_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.jobid = jobid;
+        this.vassalid = vassalid;
+        this.liveLeases = liveLeases;
+        this.maxLeaseReceived = maxLeaseReceived;
+        this.failedLeases = failedLeases;
+        this.load = load;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("heartbeat", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        heartbeat_args args = new heartbeat_args();
+        args.setJobid(jobid);
+        args.setVassalid(vassalid);
+        args.setLiveLeases(liveLeases);
+        args.setMaxLeaseReceived(maxLeaseReceived);
+        args.setFailedLeases(failedLeases);
+        args.setLoad(load);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public boolean getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_heartbeat();
+      }
+    }
+
+    public void leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodes, org.apache.thrift.async.AsyncMethodCallback<leaseWork_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      leaseWork_call method_call = new leaseWork_call(jobid, donorid, thiefid, leaseId, nodes, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class leaseWork_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int jobid;
+      private int donorid;
+      private int thiefid;
+      private long leaseId;
+      private List<ThriftData> nodes;
+      public leaseWork_call(int jobid, int donorid, int thiefid, long leaseId, List<ThriftData> nodes, org.apache.thrift.async.AsyncMethodCallback<leaseWork_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.jobid = jobid;
+        this.donorid = donorid;
+        this.thiefid = thiefid;
+        this.leaseId = leaseId;
+        this.nodes = nodes;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("leaseWork", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        leaseWork_args args = new leaseWork_args();
+        args.setJobid(jobid);
+        args.setDonorid(donorid);
+        args.setThiefid(thiefid);
+        args.setLeaseId(leaseId);
+        args.setNodes(nodes);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public boolean getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_leaseWork();
+      }
+    }
+
+    public void getTimeMicros(org.apache.thrift.async.AsyncMethodCallback<getTimeMicros_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      getTimeMicros_call method_call = new getTimeMicros_call(resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class getTimeMicros_call extends org.apache.thrift.async.TAsyncMethodCall {
+      public getTimeMicros_call(org.apache.thrift.async.AsyncMethodCallback<getTimeMicros_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("getTimeMicros", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        getTimeMicros_args args = new getTimeMicros_args();
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public long getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_getTimeMicros();
+      }
+    }
+
   }
 
   public static class Processor<I extends Iface> extends org.apache.thrift.TBaseProcessor implements org.apache.thrift.TProcessor {
@@ -283,6 +560,10 @@ public class ThriftLord {
       processMap.put("sendBestSolCost", new sendBestSolCost());
       processMap.put("askForWork", new askForWork());
       processMap.put("registerVassal", new registerVassal());
+      processMap.put("unregisterVassal", new unregisterVassal());
+      processMap.put("heartbeat", new heartbeat());
+      processMap.put("leaseWork", new leaseWork());
+      processMap.put("getTimeMicros", new getTimeMicros());
       return processMap;
     }
 
@@ -313,7 +594,7 @@ public class ThriftLord {
 
       protected askForWork_result getResult(I iface, askForWork_args args) throws org.apache.thrift.TException {
         askForWork_result result = new askForWork_result();
-        result.success = iface.askForWork(args.jobid, args.vassalid, args.bestCost);
+        result.success = iface.askForWork(args.jobid, args.vassalid, args.bestCost, args.prefetch, args.leaseId, args.load);
         return result;
       }
     }
@@ -334,6 +615,73 @@ public class ThriftLord {
       }
     }
 
+    private static class unregisterVassal<I extends Iface> extends org.apache.thrift.ProcessFunction<I, unregisterVassal_args> {
+      public unregisterVassal() {
+        super("unregisterVassal");
+      }
+
+      protected unregisterVassal_args getEmptyArgsInstance() {
+        return new unregisterVassal_args();
+      }
+
+      protected unregisterVassal_result getResult(I iface, unregisterVassal_args args) throws org.apache.thrift.TException {
+        unregisterVassal_result result = new unregisterVassal_result();
+        iface.unregisterVassal(args.vassalid);
+        return result;
+      }
+    }
+
+    private static class heartbeat<I extends Iface> extends org.apache.thrift.ProcessFunction<I, heartbeat_args> {
+      public heartbeat() {
+        super("heartbeat");
+      }
+
+      protected heartbeat_args getEmptyArgsInstance() {
+        return new heartbeat_args();
+      }
+
+      protected heartbeat_result getResult(I iface, heartbeat_args args) throws org.apache.thrift.TException {
+        heartbeat_result result = new heartbeat_result();
+        result.success = iface.heartbeat(args.jobid, args.vassalid, args.liveLeases, args.maxLeaseReceived, args.failedLeases, args.load);
+        result.setSuccessIsSet(true);
+        return result;
+      }
+    }
+
+    private static class leaseWork<I extends Iface> extends org.apache.thrift.ProcessFunction<I, leaseWork_args> {
+      public leaseWork() {
+        super("leaseWork");
+      }
+
+      protected leaseWork_args getEmptyArgsInstance() {
+        return new leaseWork_args();
+      }
+
+      protected leaseWork_result getResult(I iface, leaseWork_args args) throws org.apache.thrift.TException {
+        leaseWork_result result = new leaseWork_result();
+        result.success = iface.leaseWork(args.jobid, args.donorid, args.thiefid, args.leaseId, args.nodes);
+        result.setSuccessIsSet(true);
+        return result;
+      }
+    }
+
+    private static class getTimeMicros<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getTimeMicros_args> {
+      public getTimeMicros() {
+        super("getTimeMicros");
+      }
+
+      protected getTimeMicros_args getEmptyArgsInstance() {
+        return new getTimeMicros_args();
+      }
+
+      protected getTimeMicros_result getResult(I iface, getTimeMicros_args args) throws org.apache.thrift.TException {
+        getTimeMicros_result result = new getTimeMicros_result();
+        result.success = iface.getTimeMicros();
+        result.setSuccessIsSet(true);
+        return result;
+      }
+    }
+
   }
 
   public static class sendBestSolCost_args implements org.apache.thrift.TBase<sendBestSolCost_args, sendBestSolCost_args._Fields>, java.io.Serializable, Cloneable   {
@@ -1098,16 +1446,25 @@ public class ThriftLord {
     private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
     private static final org.apache.thrift.protocol.TField VASSALID_FIELD_DESC = new org.apache.thrift.protocol.TField("vassalid", org.apache.thrift.protocol.TType.I32, (short)2);
     private static final org.apache.thrift.protocol.TField BEST_COST_FIELD_DESC = new org.apache.thrift.protocol.TField("bestCost", org.apache.thrift.protocol.TType.DOUBLE, (short)3);
+    private static final org.apache.thrift.protocol.TField PREFETCH_FIELD_DESC = new org.apache.thrift.protocol.TField("prefetch", org.apache.thrift.protocol.TType.BOOL, (short)4);
+    private static final org.apache.thrift.protocol.TField LEASE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("leaseId", org.apache.thrift.protocol.TType.I64, (short)5);
+    private static final org.apache.thrift.protocol.TField LOAD_FIELD_DESC = new org.apache.thrift.protocol.TField("load", org.apache.thrift.protocol.TType.STRUCT, (short)6);
 
     public int jobid; // required
     public int vassalid; // required
     public double bestCost; // required
+    public boolean prefetch; // required
+    public long leaseId; // required
+    public ThriftLoad load; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       JOBID((short)1, "jobid"),
       VASSALID((short)2, "vassalid"),
-      BEST_COST((short)3, "bestCost");
+      BEST_COST((short)3, "bestCost"),
+      PREFETCH((short)4, "prefetch"),
+      LEASE_ID((short)5, "leaseId"),
+      LOAD((short)6, "load");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -1128,6 +1485,12 @@ public class ThriftLord {
             return VASSALID;
           case 3: // BEST_COST
             return BEST_COST;
+          case 4: // PREFETCH
+            return PREFETCH;
+          case 5: // LEASE_ID
+            return LEASE_ID;
+          case 6: // LOAD
+            return LOAD;
           default:
             return null;
         }
@@ -1171,7 +1534,9 @@ public class ThriftLord {
     private static final int __JOBID_ISSET_ID = 0;
     private static final int __VASSALID_ISSET_ID = 1;
     private static final int __BESTCOST_ISSET_ID = 2;
-    private BitSet __isset_bit_vector = new BitSet(3);
+    private static final int __PREFETCH_ISSET_ID = 3;
+    private static final int __LEASEID_ISSET_ID = 4;
+    private BitSet __isset_bit_vector = new BitSet(5);
 
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
@@ -1182,6 +1547,12 @@ public class ThriftLord {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       tmpMap.put(_Fields.BEST_COST, new org.apache.thrift.meta_data.FieldMetaData("bestCost", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.DOUBLE)));
+      tmpMap.put(_Fields.PREFETCH, new org.apache.thrift.meta_data.FieldMetaData("prefetch", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
+      tmpMap.put(_Fields.LEASE_ID, new org.apache.thrift.meta_data.FieldMetaData("leaseId", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      tmpMap.put(_Fields.LOAD, new org.apache.thrift.meta_data.FieldMetaData("load", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftLoad.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(askForWork_args.class, metaDataMap);
     }
@@ -1192,7 +1563,10 @@ public class ThriftLord {
     public askForWork_args(
       int jobid,
       int vassalid,
-      double bestCost)
+      double bestCost,
+      boolean prefetch,
+      long leaseId,
+      ThriftLoad load)
     {
       this();
       this.jobid = jobid;
@@ -1201,6 +1575,11 @@ public class ThriftLord {
       setVassalidIsSet(true);
       this.bestCost = bestCost;
       setBestCostIsSet(true);
+      this.prefetch = prefetch;
+      setPrefetchIsSet(true);
+      this.leaseId = leaseId;
+      setLeaseIdIsSet(true);
+      this.load = load;
     }
 
     /**
@@ -1212,6 +1591,11 @@ public class ThriftLord {
       this.jobid = other.jobid;
       this.vassalid = other.vassalid;
       this.bestCost = other.bestCost;
+      this.prefetch = other.prefetch;
+      this.leaseId = other.leaseId;
+      if (other.isSetLoad()) {
+        this.load = new ThriftLoad(other.load);
+      }
     }
 
     public askForWork_args deepCopy() {
@@ -1226,6 +1610,11 @@ public class ThriftLord {
       this.vassalid = 0;
       setBestCostIsSet(false);
       this.bestCost = 0.0;
+      setPrefetchIsSet(false);
+      this.prefetch = false;
+      setLeaseIdIsSet(false);
+      this.leaseId = 0;
+      this.load = null;
     }
 
     public int getJobid() {
@@ -1297,6 +1686,76 @@ public class ThriftLord {
       __isset_bit_vector.set(__BESTCOST_ISSET_ID, value);
     }
 
+    public boolean isPrefetch() {
+      return this.prefetch;
+    }
+
+    public askForWork_args setPrefetch(boolean prefetch) {
+      this.prefetch = prefetch;
+      setPrefetchIsSet(true);
+      return this;
+    }
+
+    public void unsetPrefetch() {
+      __isset_bit_vector.clear(__PREFETCH_ISSET_ID);
+    }
+
+    /** Returns true if field prefetch is set (has been assigned a value) and false otherwise */
+    public boolean isSetPrefetch() {
+      return __isset_bit_vector.get(__PREFETCH_ISSET_ID);
+    }
+
+    public void setPrefetchIsSet(boolean value) {
+      __isset_bit_vector.set(__PREFETCH_ISSET_ID, value);
+    }
+
+    public long getLeaseId() {
+      return this.leaseId;
+    }
+
+    public askForWork_args setLeaseId(long leaseId) {
+      this.leaseId = leaseId;
+      setLeaseIdIsSet(true);
+      return this;
+    }
+
+    public void unsetLeaseId() {
+      __isset_bit_vector.clear(__LEASEID_ISSET_ID);
+    }
+
+    /** Returns true if field leaseId is set (has been assigned a value) and false otherwise */
+    public boolean isSetLeaseId() {
+      return __isset_bit_vector.get(__LEASEID_ISSET_ID);
+    }
+
+    public void setLeaseIdIsSet(boolean value) {
+      __isset_bit_vector.set(__LEASEID_ISSET_ID, value);
+    }
+
+    public ThriftLoad getLoad() {
+      return this.load;
+    }
+
+    public askForWork_args setLoad(ThriftLoad load) {
+      this.load = load;
+      return this;
+    }
+
+    public void unsetLoad() {
+      this.load = null;
+    }
+
+    /** Returns true if field load is set (has been assigned a value) and false otherwise */
+    public boolean isSetLoad() {
+      return this.load != null;
+    }
+
+    public void setLoadIsSet(boolean value) {
+      if (!value) {
+        this.load = null;
+      }
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case JOBID:
@@ -1323,6 +1782,30 @@ public class ThriftLord {
         }
         break;
 
+      case PREFETCH:
+        if (value == null) {
+          unsetPrefetch();
+        } else {
+          setPrefetch((Boolean)value);
+        }
+        break;
+
+      case LEASE_ID:
+        if (value == null) {
+          unsetLeaseId();
+        } else {
+          setLeaseId((Long)value);
+        }
+        break;
+
+      case LOAD:
+        if (value == null) {
+          unsetLoad();
+        } else {
+          setLoad((ThriftLoad)value);
+        }
+        break;
+
       }
     }
 
@@ -1337,6 +1820,15 @@ public class ThriftLord {
       case BEST_COST:
         return Double.valueOf(getBestCost());
 
+      case PREFETCH:
+        return Boolean.valueOf(isPrefetch());
+
+      case LEASE_ID:
+        return Long.valueOf(getLeaseId());
+
+      case LOAD:
+        return getLoad();
+
       }
       throw new IllegalStateException();
     }
@@ -1354,6 +1846,12 @@ public class ThriftLord {
         return isSetVassalid();
       case BEST_COST:
         return isSetBestCost();
+      case PREFETCH:
+        return isSetPrefetch();
+      case LEASE_ID:
+        return isSetLeaseId();
+      case LOAD:
+        return isSetLoad();
       }
       throw new IllegalStateException();
     }
@@ -1398,6 +1896,33 @@ public class ThriftLord {
           return false;
       }
 
+      boolean this_present_prefetch = true;
+      boolean that_present_prefetch = true;
+      if (this_present_prefetch || that_present_prefetch) {
+        if (!(this_present_prefetch && that_present_prefetch))
+          return false;
+        if (this.prefetch != that.prefetch)
+          return false;
+      }
+
+      boolean this_present_leaseId = true;
+      boolean that_present_leaseId = true;
+      if (this_present_leaseId || that_present_leaseId) {
+        if (!(this_present_leaseId && that_present_leaseId))
+          return false;
+        if (this.leaseId != that.leaseId)
+          return false;
+      }
+
+      boolean this_present_load = true && this.isSetLoad();
+      boolean that_present_load = true && that.isSetLoad();
+      if (this_present_load || that_present_load) {
+        if (!(this_present_load && that_present_load))
+          return false;
+        if (!this.load.equals(that.load))
+          return false;
+      }
+
       return true;
     }
 
@@ -1444,7 +1969,37 @@ public class ThriftLord {
           return lastComparison;
         }
       }
-      return 0;
+      lastComparison = Boolean.valueOf(isSetPrefetch()).compareTo(typedOther.isSetPrefetch());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetPrefetch()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.prefetch, typedOther.prefetch);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetLeaseId()).compareTo(typedOther.isSetLeaseId());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLeaseId()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.leaseId, typedOther.leaseId);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetLoad()).compareTo(typedOther.isSetLoad());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLoad()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.load, typedOther.load);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
     }
 
     public _Fields fieldForId(int fieldId) {
@@ -1485,6 +2040,30 @@ public class ThriftLord {
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
             }
             break;
+          case 4: // PREFETCH
+            if (field.type == org.apache.thrift.protocol.TType.BOOL) {
+              this.prefetch = iprot.readBool();
+              setPrefetchIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 5: // LEASE_ID
+            if (field.type == org.apache.thrift.protocol.TType.I64) {
+              this.leaseId = iprot.readI64();
+              setLeaseIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 6: // LOAD
+            if (field.type == org.apache.thrift.protocol.TType.STRUCT) {
+              this.load = new ThriftLoad();
+              this.load.read(iprot);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
         }
@@ -1509,6 +2088,17 @@ public class ThriftLord {
       oprot.writeFieldBegin(BEST_COST_FIELD_DESC);
       oprot.writeDouble(this.bestCost);
       oprot.writeFieldEnd();
+      oprot.writeFieldBegin(PREFETCH_FIELD_DESC);
+      oprot.writeBool(this.prefetch);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(LEASE_ID_FIELD_DESC);
+      oprot.writeI64(this.leaseId);
+      oprot.writeFieldEnd();
+      if (this.load != null) {
+        oprot.writeFieldBegin(LOAD_FIELD_DESC);
+        this.load.write(oprot);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -1529,6 +2119,22 @@ public class ThriftLord {
       sb.append("bestCost:");
       sb.append(this.bestCost);
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("prefetch:");
+      sb.append(this.prefetch);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("leaseId:");
+      sb.append(this.leaseId);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("load:");
+      if (this.load == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.load);
+      }
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -1808,14 +2414,14 @@ public class ThriftLord {
           case 0: // SUCCESS
             if (field.type == org.apache.thrift.protocol.TType.LIST) {
               {
-                org.apache.thrift.protocol.TList _list8 = iprot.readListBegin();
-                this.success = new ArrayList<ThriftData>(_list8.size);
-                for (int _i9 = 0; _i9 < _list8.size; ++_i9)
+                org.apache.thrift.protocol.TList _list28 = iprot.readListBegin();
+                this.success = new ArrayList<ThriftData>(_list28.size);
+                for (int _i29 = 0; _i29 < _list28.size; ++_i29)
                 {
-                  ThriftData _elem10; // required
-                  _elem10 = new ThriftData();
-                  _elem10.read(iprot);
-                  this.success.add(_elem10);
+                  ThriftData _elem30; // required
+                  _elem30 = new ThriftData();
+                  _elem30.read(iprot);
+                  this.success.add(_elem30);
                 }
                 iprot.readListEnd();
               }
@@ -1841,9 +2447,9 @@ public class ThriftLord {
         oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
         {
           oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.success.size()));
-          for (ThriftData _iter11 : this.success)
+          for (ThriftData _iter31 : this.success)
           {
-            _iter11.write(oprot);
+            _iter31.write(oprot);
           }
           oprot.writeListEnd();
         }
@@ -2562,4 +3168,3075 @@ public class ThriftLord {
 
   }
 
+  public static class unregisterVassal_args implements org.apache.thrift.TBase<unregisterVassal_args, unregisterVassal_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("unregisterVassal_args");
+
+    private static final org.apache.thrift.protocol.TField VASSALID_FIELD_DESC = new org.apache.thrift.protocol.TField("vassalid", org.apache.thrift.protocol.TType.I32, (short)1);
+
+    public int vassalid; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      VASSALID((short)1, "vassalid");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // VASSALID
+            return VASSALID;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __VASSALID_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.VASSALID, new org.apache.thrift.meta_data.FieldMetaData("vassalid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(unregisterVassal_args.class, metaDataMap);
+    }
+
+    public unregisterVassal_args() {
+    }
+
+    public unregisterVassal_args(
+      int vassalid)
+    {
+      this();
+      this.vassalid = vassalid;
+      setVassalidIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public unregisterVassal_args(unregisterVassal_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.vassalid = other.vassalid;
+    }
+
+    public unregisterVassal_args deepCopy() {
+      return new unregisterVassal_args(this);
+    }
+
+    @Override
+    public void clear() {
+      setVassalidIsSet(false);
+      this.vassalid = 0;
+    }
+
+    public int getVassalid() {
+      return this.vassalid;
+    }
+
+    public unregisterVassal_args setVassalid(int vassalid) {
+      this.vassalid = vassalid;
+      setVassalidIsSet(true);
+      return this;
+    }
+
+    public void unsetVassalid() {
+      __isset_bit_vector.clear(__VASSALID_ISSET_ID);
+    }
+
+    /** Returns true if field vassalid is set (has been assigned a value) and false otherwise */
+    public boolean isSetVassalid() {
+      return __isset_bit_vector.get(__VASSALID_ISSET_ID);
+    }
+
+    public void setVassalidIsSet(boolean value) {
+      __isset_bit_vector.set(__VASSALID_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case VASSALID:
+        if (value == null) {
+          unsetVassalid();
+        } else {
+          setVassalid((Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case VASSALID:
+        return Integer.valueOf(getVassalid());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case VASSALID:
+        return isSetVassalid();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof unregisterVassal_args)
+        return this.equals((unregisterVassal_args)that);
+      return false;
+    }
+
+    public boolean equals(unregisterVassal_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_vassalid = true;
+      boolean that_present_vassalid = true;
+      if (this_present_vassalid || that_present_vassalid) {
+        if (!(this_present_vassalid && that_present_vassalid))
+          return false;
+        if (this.vassalid != that.vassalid)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(unregisterVassal_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      unregisterVassal_args typedOther = (unregisterVassal_args)other;
+
+      lastComparison = Boolean.valueOf(isSetVassalid()).compareTo(typedOther.isSetVassalid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetVassalid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.vassalid, typedOther.vassalid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 1: // VASSALID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.vassalid = iprot.readI32();
+              setVassalidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(VASSALID_FIELD_DESC);
+      oprot.writeI32(this.vassalid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("unregisterVassal_args(");
+      boolean first = true;
+
+      sb.append("vassalid:");
+      sb.append(this.vassalid);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class unregisterVassal_result implements org.apache.thrift.TBase<unregisterVassal_result, unregisterVassal_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("unregisterVassal_result");
+
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(unregisterVassal_result.class, metaDataMap);
+    }
+
+    public unregisterVassal_result() {
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public unregisterVassal_result(unregisterVassal_result other) {
+    }
+
+    public unregisterVassal_result deepCopy() {
+      return new unregisterVassal_result(this);
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof unregisterVassal_result)
+        return this.equals((unregisterVassal_result)that);
+      return false;
+    }
+
+    public boolean equals(unregisterVassal_result that) {
+      if (that == null)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(unregisterVassal_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      unregisterVassal_result typedOther = (unregisterVassal_result)other;
+
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("unregisterVassal_result(");
+      boolean first = true;
+
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class heartbeat_args implements org.apache.thrift.TBase<heartbeat_args, heartbeat_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("heartbeat_args");
+
+    private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField VASSALID_FIELD_DESC = new org.apache.thrift.protocol.TField("vassalid", org.apache.thrift.protocol.TType.I32, (short)2);
+    private static final org.apache.thrift.protocol.TField LIVE_LEASES_FIELD_DESC = new org.apache.thrift.protocol.TField("liveLeases", org.apache.thrift.protocol.TType.LIST, (short)3);
+    private static final org.apache.thrift.protocol.TField MAX_LEASE_RECEIVED_FIELD_DESC = new org.apache.thrift.protocol.TField("maxLeaseReceived", org.apache.thrift.protocol.TType.I64, (short)4);
+    private static final org.apache.thrift.protocol.TField FAILED_LEASES_FIELD_DESC = new org.apache.thrift.protocol.TField("failedLeases", org.apache.thrift.protocol.TType.LIST, (short)5);
+    private static final org.apache.thrift.protocol.TField LOAD_FIELD_DESC = new org.apache.thrift.protocol.TField("load", org.apache.thrift.protocol.TType.STRUCT, (short)6);
+
+    public int jobid; // required
+    public int vassalid; // required
+    public List<Long> liveLeases; // required
+    public long maxLeaseReceived; // required
+    public List<Long> failedLeases; // required
+    public ThriftLoad load; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      JOBID((short)1, "jobid"),
+      VASSALID((short)2, "vassalid"),
+      LIVE_LEASES((short)3, "liveLeases"),
+      MAX_LEASE_RECEIVED((short)4, "maxLeaseReceived"),
+      FAILED_LEASES((short)5, "failedLeases"),
+      LOAD((short)6, "load");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // JOBID
+            return JOBID;
+          case 2: // VASSALID
+            return VASSALID;
+          case 3: // LIVE_LEASES
+            return LIVE_LEASES;
+          case 4: // MAX_LEASE_RECEIVED
+            return MAX_LEASE_RECEIVED;
+          case 5: // FAILED_LEASES
+            return FAILED_LEASES;
+          case 6: // LOAD
+            return LOAD;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __JOBID_ISSET_ID = 0;
+    private static final int __VASSALID_ISSET_ID = 1;
+    private static final int __MAXLEASERECEIVED_ISSET_ID = 2;
+    private BitSet __isset_bit_vector = new BitSet(3);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.VASSALID, new org.apache.thrift.meta_data.FieldMetaData("vassalid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.LIVE_LEASES, new org.apache.thrift.meta_data.FieldMetaData("liveLeases", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
+      tmpMap.put(_Fields.MAX_LEASE_RECEIVED, new org.apache.thrift.meta_data.FieldMetaData("maxLeaseReceived", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      tmpMap.put(_Fields.FAILED_LEASES, new org.apache.thrift.meta_data.FieldMetaData("failedLeases", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
+      tmpMap.put(_Fields.LOAD, new org.apache.thrift.meta_data.FieldMetaData("load", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftLoad.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(heartbeat_args.class, metaDataMap);
+    }
+
+    public heartbeat_args() {
+    }
+
+    public heartbeat_args(
+      int jobid,
+      int vassalid,
+      List<Long> liveLeases,
+      long maxLeaseReceived,
+      List<Long> failedLeases,
+      ThriftLoad load)
+    {
+      this();
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      this.vassalid = vassalid;
+      setVassalidIsSet(true);
+      this.liveLeases = liveLeases;
+      this.maxLeaseReceived = maxLeaseReceived;
+      setMaxLeaseReceivedIsSet(true);
+      this.failedLeases = failedLeases;
+      this.load = load;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public heartbeat_args(heartbeat_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.jobid = other.jobid;
+      this.vassalid = other.vassalid;
+      if (other.isSetLiveLeases()) {
+        List<Long> __this__liveLeases = new ArrayList<Long>();
+        for (Long other_element : other.liveLeases) {
+          __this__liveLeases.add(other_element);
+        }
+        this.liveLeases = __this__liveLeases;
+      }
+      this.maxLeaseReceived = other.maxLeaseReceived;
+      if (other.isSetFailedLeases()) {
+        List<Long> __this__failedLeases = new ArrayList<Long>();
+        for (Long other_element : other.failedLeases) {
+          __this__failedLeases.add(other_element);
+        }
+        this.failedLeases = __this__failedLeases;
+      }
+      if (other.isSetLoad()) {
+        this.load = new ThriftLoad(other.load);
+      }
+    }
+
+    public heartbeat_args deepCopy() {
+      return new heartbeat_args(this);
+    }
+
+    @Override
+    public void clear() {
+      setJobidIsSet(false);
+      this.jobid = 0;
+      setVassalidIsSet(false);
+      this.vassalid = 0;
+      this.liveLeases = null;
+      setMaxLeaseReceivedIsSet(false);
+      this.maxLeaseReceived = 0;
+      this.failedLeases = null;
+      this.load = null;
+    }
+
+    public int getJobid() {
+      return this.jobid;
+    }
+
+    public heartbeat_args setJobid(int jobid) {
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      return this;
+    }
+
+    public void unsetJobid() {
+      __isset_bit_vector.clear(__JOBID_ISSET_ID);
+    }
+
+    /** Returns true if field jobid is set (has been assigned a value) and false otherwise */
+    public boolean isSetJobid() {
+      return __isset_bit_vector.get(__JOBID_ISSET_ID);
+    }
+
+    public void setJobidIsSet(boolean value) {
+      __isset_bit_vector.set(__JOBID_ISSET_ID, value);
+    }
+
+    public int getVassalid() {
+      return this.vassalid;
+    }
+
+    public heartbeat_args setVassalid(int vassalid) {
+      this.vassalid = vassalid;
+      setVassalidIsSet(true);
+      return this;
+    }
+
+    public void unsetVassalid() {
+      __isset_bit_vector.clear(__VASSALID_ISSET_ID);
+    }
+
+    /** Returns true if field vassalid is set (has been assigned a value) and false otherwise */
+    public boolean isSetVassalid() {
+      return __isset_bit_vector.get(__VASSALID_ISSET_ID);
+    }
+
+    public void setVassalidIsSet(boolean value) {
+      __isset_bit_vector.set(__VASSALID_ISSET_ID, value);
+    }
+
+    public int getLiveLeasesSize() {
+      return (this.liveLeases == null) ? 0 : this.liveLeases.size();
+    }
+
+    public java.util.Iterator<Long> getLiveLeasesIterator() {
+      return (this.liveLeases == null) ? null : this.liveLeases.iterator();
+    }
+
+    public void addToLiveLeases(long elem) {
+      if (this.liveLeases == null) {
+        this.liveLeases = new ArrayList<Long>();
+      }
+      this.liveLeases.add(elem);
+    }
+
+    public List<Long> getLiveLeases() {
+      return this.liveLeases;
+    }
+
+    public heartbeat_args setLiveLeases(List<Long> liveLeases) {
+      this.liveLeases = liveLeases;
+      return this;
+    }
+
+    public void unsetLiveLeases() {
+      this.liveLeases = null;
+    }
+
+    /** Returns true if field liveLeases is set (has been assigned a value) and false otherwise */
+    public boolean isSetLiveLeases() {
+      return this.liveLeases != null;
+    }
+
+    public void setLiveLeasesIsSet(boolean value) {
+      if (!value) {
+        this.liveLeases = null;
+      }
+    }
+
+    public long getMaxLeaseReceived() {
+      return this.maxLeaseReceived;
+    }
+
+    public heartbeat_args setMaxLeaseReceived(long maxLeaseReceived) {
+      this.maxLeaseReceived = maxLeaseReceived;
+      setMaxLeaseReceivedIsSet(true);
+      return this;
+    }
+
+    public void unsetMaxLeaseReceived() {
+      __isset_bit_vector.clear(__MAXLEASERECEIVED_ISSET_ID);
+    }
+
+    /** Returns true if field maxLeaseReceived is set (has been assigned a value) and false otherwise */
+    public boolean isSetMaxLeaseReceived() {
+      return __isset_bit_vector.get(__MAXLEASERECEIVED_ISSET_ID);
+    }
+
+    public void setMaxLeaseReceivedIsSet(boolean value) {
+      __isset_bit_vector.set(__MAXLEASERECEIVED_ISSET_ID, value);
+    }
+
+    public int getFailedLeasesSize() {
+      return (this.failedLeases == null) ? 0 : this.failedLeases.size();
+    }
+
+    public java.util.Iterator<Long> getFailedLeasesIterator() {
+      return (this.failedLeases == null) ? null : this.failedLeases.iterator();
+    }
+
+    public void addToFailedLeases(long elem) {
+      if (this.failedLeases == null) {
+        this.failedLeases = new ArrayList<Long>();
+      }
+      this.failedLeases.add(elem);
+    }
+
+    public List<Long> getFailedLeases() {
+      return this.failedLeases;
+    }
+
+    public heartbeat_args setFailedLeases(List<Long> failedLeases) {
+      this.failedLeases = failedLeases;
+      return this;
+    }
+
+    public void unsetFailedLeases() {
+      this.failedLeases = null;
+    }
+
+    /** Returns true if field failedLeases is set (has been assigned a value) and false otherwise */
+    public boolean isSetFailedLeases() {
+      return this.failedLeases != null;
+    }
+
+    public void setFailedLeasesIsSet(boolean value) {
+      if (!value) {
+        this.failedLeases = null;
+      }
+    }
+
+    public ThriftLoad getLoad() {
+      return this.load;
+    }
+
+    public heartbeat_args setLoad(ThriftLoad load) {
+      this.load = load;
+      return this;
+    }
+
+    public void unsetLoad() {
+      this.load = null;
+    }
+
+    /** Returns true if field load is set (has been assigned a value) and false otherwise */
+    public boolean isSetLoad() {
+      return this.load != null;
+    }
+
+    public void setLoadIsSet(boolean value) {
+      if (!value) {
+        this.load = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
+      case VASSALID:
+        if (value == null) {
+          unsetVassalid();
+        } else {
+          setVassalid((Integer)value);
+        }
+        break;
+
+      case LIVE_LEASES:
+        if (value == null) {
+          unsetLiveLeases();
+        } else {
+          setLiveLeases((List<Long>)value);
+        }
+        break;
+
+      case MAX_LEASE_RECEIVED:
+        if (value == null) {
+          unsetMaxLeaseReceived();
+        } else {
+          setMaxLeaseReceived((Long)value);
+        }
+        break;
+
+      case FAILED_LEASES:
+        if (value == null) {
+          unsetFailedLeases();
+        } else {
+          setFailedLeases((List<Long>)value);
+        }
+        break;
+
+      case LOAD:
+        if (value == null) {
+          unsetLoad();
+        } else {
+          setLoad((ThriftLoad)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case JOBID:
+        return Integer.valueOf(getJobid());
+
+      case VASSALID:
+        return Integer.valueOf(getVassalid());
+
+      case LIVE_LEASES:
+        return getLiveLeases();
+
+      case MAX_LEASE_RECEIVED:
+        return Long.valueOf(getMaxLeaseReceived());
+
+      case FAILED_LEASES:
+        return getFailedLeases();
+
+      case LOAD:
+        return getLoad();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case JOBID:
+        return isSetJobid();
+      case VASSALID:
+        return isSetVassalid();
+      case LIVE_LEASES:
+        return isSetLiveLeases();
+      case MAX_LEASE_RECEIVED:
+        return isSetMaxLeaseReceived();
+      case FAILED_LEASES:
+        return isSetFailedLeases();
+      case LOAD:
+        return isSetLoad();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof heartbeat_args)
+        return this.equals((heartbeat_args)that);
+      return false;
+    }
+
+    public boolean equals(heartbeat_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_jobid = true;
+      boolean that_present_jobid = true;
+      if (this_present_jobid || that_present_jobid) {
+        if (!(this_present_jobid && that_present_jobid))
+          return false;
+        if (this.jobid != that.jobid)
+          return false;
+      }
+
+      boolean this_present_vassalid = true;
+      boolean that_present_vassalid = true;
+      if (this_present_vassalid || that_present_vassalid) {
+        if (!(this_present_vassalid && that_present_vassalid))
+          return false;
+        if (this.vassalid != that.vassalid)
+          return false;
+      }
+
+      boolean this_present_liveLeases = true && this.isSetLiveLeases();
+      boolean that_present_liveLeases = true && that.isSetLiveLeases();
+      if (this_present_liveLeases || that_present_liveLeases) {
+        if (!(this_present_liveLeases && that_present_liveLeases))
+          return false;
+        if (!this.liveLeases.equals(that.liveLeases))
+          return false;
+      }
+
+      boolean this_present_maxLeaseReceived = true;
+      boolean that_present_maxLeaseReceived = true;
+      if (this_present_maxLeaseReceived || that_present_maxLeaseReceived) {
+        if (!(this_present_maxLeaseReceived && that_present_maxLeaseReceived))
+          return false;
+        if (this.maxLeaseReceived != that.maxLeaseReceived)
+          return false;
+      }
+
+      boolean this_present_failedLeases = true && this.isSetFailedLeases();
+      boolean that_present_failedLeases = true && that.isSetFailedLeases();
+      if (this_present_failedLeases || that_present_failedLeases) {
+        if (!(this_present_failedLeases && that_present_failedLeases))
+          return false;
+        if (!this.failedLeases.equals(that.failedLeases))
+          return false;
+      }
+
+      boolean this_present_load = true && this.isSetLoad();
+      boolean that_present_load = true && that.isSetLoad();
+      if (this_present_load || that_present_load) {
+        if (!(this_present_load && that_present_load))
+          return false;
+        if (!this.load.equals(that.load))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(heartbeat_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      heartbeat_args typedOther = (heartbeat_args)other;
+
+      lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJobid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jobid, typedOther.jobid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetVassalid()).compareTo(typedOther.isSetVassalid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetVassalid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.vassalid, typedOther.vassalid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetLiveLeases()).compareTo(typedOther.isSetLiveLeases());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLiveLeases()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.liveLeases, typedOther.liveLeases);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetMaxLeaseReceived()).compareTo(typedOther.isSetMaxLeaseReceived());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetMaxLeaseReceived()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.maxLeaseReceived, typedOther.maxLeaseReceived);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetFailedLeases()).compareTo(typedOther.isSetFailedLeases());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetFailedLeases()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.failedLeases, typedOther.failedLeases);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetLoad()).compareTo(typedOther.isSetLoad());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLoad()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.load, typedOther.load);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 1: // JOBID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.jobid = iprot.readI32();
+              setJobidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 2: // VASSALID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.vassalid = iprot.readI32();
+              setVassalidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 3: // LIVE_LEASES
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list32 = iprot.readListBegin();
+                this.liveLeases = new ArrayList<Long>(_list32.size);
+                for (int _i33 = 0; _i33 < _list32.size; ++_i33)
+                {
+                  long _elem34; // required
+                  _elem34 = iprot.readI64();
+                  this.liveLeases.add(_elem34);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 4: // MAX_LEASE_RECEIVED
+            if (field.type == org.apache.thrift.protocol.TType.I64) {
+              this.maxLeaseReceived = iprot.readI64();
+              setMaxLeaseReceivedIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 5: // FAILED_LEASES
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list35 = iprot.readListBegin();
+                this.failedLeases = new ArrayList<Long>(_list35.size);
+                for (int _i36 = 0; _i36 < _list35.size; ++_i36)
+                {
+                  long _elem37; // required
+                  _elem37 = iprot.readI64();
+                  this.failedLeases.add(_elem37);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 6: // LOAD
+            if (field.type == org.apache.thrift.protocol.TType.STRUCT) {
+              this.load = new ThriftLoad();
+              this.load.read(iprot);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(JOBID_FIELD_DESC);
+      oprot.writeI32(this.jobid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(VASSALID_FIELD_DESC);
+      oprot.writeI32(this.vassalid);
+      oprot.writeFieldEnd();
+      if (this.liveLeases != null) {
+        oprot.writeFieldBegin(LIVE_LEASES_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, this.liveLeases.size()));
+          for (long _iter38 : this.liveLeases)
+          {
+            oprot.writeI64(_iter38);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldBegin(MAX_LEASE_RECEIVED_FIELD_DESC);
+      oprot.writeI64(this.maxLeaseReceived);
+      oprot.writeFieldEnd();
+      if (this.failedLeases != null) {
+        oprot.writeFieldBegin(FAILED_LEASES_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, this.failedLeases.size()));
+          for (long _iter39 : this.failedLeases)
+          {
+            oprot.writeI64(_iter39);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      if (this.load != null) {
+        oprot.writeFieldBegin(LOAD_FIELD_DESC);
+        this.load.write(oprot);
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("heartbeat_args(");
+      boolean first = true;
+
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("vassalid:");
+      sb.append(this.vassalid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("liveLeases:");
+      if (this.liveLeases == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.liveLeases);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("maxLeaseReceived:");
+      sb.append(this.maxLeaseReceived);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("failedLeases:");
+      if (this.failedLeases == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.failedLeases);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("load:");
+      if (this.load == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.load);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class heartbeat_result implements org.apache.thrift.TBase<heartbeat_result, heartbeat_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("heartbeat_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.BOOL, (short)0);
+
+    public boolean success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(heartbeat_result.class, metaDataMap);
+    }
+
+    public heartbeat_result() {
+    }
+
+    public heartbeat_result(
+      boolean success)
+    {
+      this();
+      this.success = success;
+      setSuccessIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public heartbeat_result(heartbeat_result other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.success = other.success;
+    }
+
+    public heartbeat_result deepCopy() {
+      return new heartbeat_result(this);
+    }
+
+    @Override
+    public void clear() {
+      setSuccessIsSet(false);
+      this.success = false;
+    }
+
+    public boolean isSuccess() {
+      return this.success;
+    }
+
+    public heartbeat_result setSuccess(boolean success) {
+      this.success = success;
+      setSuccessIsSet(true);
+      return this;
+    }
+
+    public void unsetSuccess() {
+      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((Boolean)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return Boolean.valueOf(isSuccess());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof heartbeat_result)
+        return this.equals((heartbeat_result)that);
+      return false;
+    }
+
+    public boolean equals(heartbeat_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true;
+      boolean that_present_success = true;
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (this.success != that.success)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(heartbeat_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      heartbeat_result typedOther = (heartbeat_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.BOOL) {
+              this.success = iprot.readBool();
+              setSuccessIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        oprot.writeBool(this.success);
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("heartbeat_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      sb.append(this.success);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class leaseWork_args implements org.apache.thrift.TBase<leaseWork_args, leaseWork_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("leaseWork_args");
+
+    private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField DONORID_FIELD_DESC = new org.apache.thrift.protocol.TField("donorid", org.apache.thrift.protocol.TType.I32, (short)2);
+    private static final org.apache.thrift.protocol.TField THIEFID_FIELD_DESC = new org.apache.thrift.protocol.TField("thiefid", org.apache.thrift.protocol.TType.I32, (short)3);
+    private static final org.apache.thrift.protocol.TField LEASE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("leaseId", org.apache.thrift.protocol.TType.I64, (short)4);
+    private static final org.apache.thrift.protocol.TField NODES_FIELD_DESC = new org.apache.thrift.protocol.TField("nodes", org.apache.thrift.protocol.TType.LIST, (short)5);
+
+    public int jobid; // required
+    public int donorid; // required
+    public int thiefid; // required
+    public long leaseId; // required
+    public List<ThriftData> nodes; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      JOBID((short)1, "jobid"),
+      DONORID((short)2, "donorid"),
+      THIEFID((short)3, "thiefid"),
+      LEASE_ID((short)4, "leaseId"),
+      NODES((short)5, "nodes");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // JOBID
+            return JOBID;
+          case 2: // DONORID
+            return DONORID;
+          case 3: // THIEFID
+            return THIEFID;
+          case 4: // LEASE_ID
+            return LEASE_ID;
+          case 5: // NODES
+            return NODES;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __JOBID_ISSET_ID = 0;
+    private static final int __DONORID_ISSET_ID = 1;
+    private static final int __THIEFID_ISSET_ID = 2;
+    private static final int __LEASEID_ISSET_ID = 3;
+    private BitSet __isset_bit_vector = new BitSet(4);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.DONORID, new org.apache.thrift.meta_data.FieldMetaData("donorid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.THIEFID, new org.apache.thrift.meta_data.FieldMetaData("thiefid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.LEASE_ID, new org.apache.thrift.meta_data.FieldMetaData("leaseId", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      tmpMap.put(_Fields.NODES, new org.apache.thrift.meta_data.FieldMetaData("nodes", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftData.class))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(leaseWork_args.class, metaDataMap);
+    }
+
+    public leaseWork_args() {
+    }
+
+    public leaseWork_args(
+      int jobid,
+      int donorid,
+      int thiefid,
+      long leaseId,
+      List<ThriftData> nodes)
+    {
+      this();
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      this.donorid = donorid;
+      setDonoridIsSet(true);
+      this.thiefid = thiefid;
+      setThiefidIsSet(true);
+      this.leaseId = leaseId;
+      setLeaseIdIsSet(true);
+      this.nodes = nodes;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public leaseWork_args(leaseWork_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.jobid = other.jobid;
+      this.donorid = other.donorid;
+      this.thiefid = other.thiefid;
+      this.leaseId = other.leaseId;
+      if (other.isSetNodes()) {
+        List<ThriftData> __this__nodes = new ArrayList<ThriftData>();
+        for (ThriftData other_element : other.nodes) {
+          __this__nodes.add(new ThriftData(other_element));
+        }
+        this.nodes = __this__nodes;
+      }
+    }
+
+    public leaseWork_args deepCopy() {
+      return new leaseWork_args(this);
+    }
+
+    @Override
+    public void clear() {
+      setJobidIsSet(false);
+      this.jobid = 0;
+      setDonoridIsSet(false);
+      this.donorid = 0;
+      setThiefidIsSet(false);
+      this.thiefid = 0;
+      setLeaseIdIsSet(false);
+      this.leaseId = 0;
+      this.nodes = null;
+    }
+
+    public int getJobid() {
+      return this.jobid;
+    }
+
+    public leaseWork_args setJobid(int jobid) {
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      return this;
+    }
+
+    public void unsetJobid() {
+      __isset_bit_vector.clear(__JOBID_ISSET_ID);
+    }
+
+    /** Returns true if field jobid is set (has been assigned a value) and false otherwise */
+    public boolean isSetJobid() {
+      return __isset_bit_vector.get(__JOBID_ISSET_ID);
+    }
+
+    public void setJobidIsSet(boolean value) {
+      __isset_bit_vector.set(__JOBID_ISSET_ID, value);
+    }
+
+    public int getDonorid() {
+      return this.donorid;
+    }
+
+    public leaseWork_args setDonorid(int donorid) {
+      this.donorid = donorid;
+      setDonoridIsSet(true);
+      return this;
+    }
+
+    public void unsetDonorid() {
+      __isset_bit_vector.clear(__DONORID_ISSET_ID);
+    }
+
+    /** Returns true if field donorid is set (has been assigned a value) and false otherwise */
+    public boolean isSetDonorid() {
+      return __isset_bit_vector.get(__DONORID_ISSET_ID);
+    }
+
+    public void setDonoridIsSet(boolean value) {
+      __isset_bit_vector.set(__DONORID_ISSET_ID, value);
+    }
+
+    public int getThiefid() {
+      return this.thiefid;
+    }
+
+    public leaseWork_args setThiefid(int thiefid) {
+      this.thiefid = thiefid;
+      setThiefidIsSet(true);
+      return this;
+    }
+
+    public void unsetThiefid() {
+      __isset_bit_vector.clear(__THIEFID_ISSET_ID);
+    }
+
+    /** Returns true if field thiefid is set (has been assigned a value) and false otherwise */
+    public boolean isSetThiefid() {
+      return __isset_bit_vector.get(__THIEFID_ISSET_ID);
+    }
+
+    public void setThiefidIsSet(boolean value) {
+      __isset_bit_vector.set(__THIEFID_ISSET_ID, value);
+    }
+
+    public long getLeaseId() {
+      return this.leaseId;
+    }
+
+    public leaseWork_args setLeaseId(long leaseId) {
+      this.leaseId = leaseId;
+      setLeaseIdIsSet(true);
+      return this;
+    }
+
+    public void unsetLeaseId() {
+      __isset_bit_vector.clear(__LEASEID_ISSET_ID);
+    }
+
+    /** Returns true if field leaseId is set (has been assigned a value) and false otherwise */
+    public boolean isSetLeaseId() {
+      return __isset_bit_vector.get(__LEASEID_ISSET_ID);
+    }
+
+    public void setLeaseIdIsSet(boolean value) {
+      __isset_bit_vector.set(__LEASEID_ISSET_ID, value);
+    }
+
+    public int getNodesSize() {
+      return (this.nodes == null) ? 0 : this.nodes.size();
+    }
+
+    public java.util.Iterator<ThriftData> getNodesIterator() {
+      return (this.nodes == null) ? null : this.nodes.iterator();
+    }
+
+    public void addToNodes(ThriftData elem) {
+      if (this.nodes == null) {
+        this.nodes = new ArrayList<ThriftData>();
+      }
+      this.nodes.add(elem);
+    }
+
+    public List<ThriftData> getNodes() {
+      return this.nodes;
+    }
+
+    public leaseWork_args setNodes(List<ThriftData> nodes) {
+      this.nodes = nodes;
+      return this;
+    }
+
+    public void unsetNodes() {
+      this.nodes = null;
+    }
+
+    /** Returns true if field nodes is set (has been assigned a value) and false otherwise */
+    public boolean isSetNodes() {
+      return this.nodes != null;
+    }
+
+    public void setNodesIsSet(boolean value) {
+      if (!value) {
+        this.nodes = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
+      case DONORID:
+        if (value == null) {
+          unsetDonorid();
+        } else {
+          setDonorid((Integer)value);
+        }
+        break;
+
+      case THIEFID:
+        if (value == null) {
+          unsetThiefid();
+        } else {
+          setThiefid((Integer)value);
+        }
+        break;
+
+      case LEASE_ID:
+        if (value == null) {
+          unsetLeaseId();
+        } else {
+          setLeaseId((Long)value);
+        }
+        break;
+
+      case NODES:
+        if (value == null) {
+          unsetNodes();
+        } else {
+          setNodes((List<ThriftData>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case JOBID:
+        return Integer.valueOf(getJobid());
+
+      case DONORID:
+        return Integer.valueOf(getDonorid());
+
+      case THIEFID:
+        return Integer.valueOf(getThiefid());
+
+      case LEASE_ID:
+        return Long.valueOf(getLeaseId());
+
+      case NODES:
+        return getNodes();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case JOBID:
+        return isSetJobid();
+      case DONORID:
+        return isSetDonorid();
+      case THIEFID:
+        return isSetThiefid();
+      case LEASE_ID:
+        return isSetLeaseId();
+      case NODES:
+        return isSetNodes();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof leaseWork_args)
+        return this.equals((leaseWork_args)that);
+      return false;
+    }
+
+    public boolean equals(leaseWork_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_jobid = true;
+      boolean that_present_jobid = true;
+      if (this_present_jobid || that_present_jobid) {
+        if (!(this_present_jobid && that_present_jobid))
+          return false;
+        if (this.jobid != that.jobid)
+          return false;
+      }
+
+      boolean this_present_donorid = true;
+      boolean that_present_donorid = true;
+      if (this_present_donorid || that_present_donorid) {
+        if (!(this_present_donorid && that_present_donorid))
+          return false;
+        if (this.donorid != that.donorid)
+          return false;
+      }
+
+      boolean this_present_thiefid = true;
+      boolean that_present_thiefid = true;
+      if (this_present_thiefid || that_present_thiefid) {
+        if (!(this_present_thiefid && that_present_thiefid))
+          return false;
+        if (this.thiefid != that.thiefid)
+          return false;
+      }
+
+      boolean this_present_leaseId = true;
+      boolean that_present_leaseId = true;
+      if (this_present_leaseId || that_present_leaseId) {
+        if (!(this_present_leaseId && that_present_leaseId))
+          return false;
+        if (this.leaseId != that.leaseId)
+          return false;
+      }
+
+      boolean this_present_nodes = true && this.isSetNodes();
+      boolean that_present_nodes = true && that.isSetNodes();
+      if (this_present_nodes || that_present_nodes) {
+        if (!(this_present_nodes && that_present_nodes))
+          return false;
+        if (!this.nodes.equals(that.nodes))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(leaseWork_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      leaseWork_args typedOther = (leaseWork_args)other;
+
+      lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJobid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jobid, typedOther.jobid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetDonorid()).compareTo(typedOther.isSetDonorid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetDonorid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.donorid, typedOther.donorid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetThiefid()).compareTo(typedOther.isSetThiefid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetThiefid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.thiefid, typedOther.thiefid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetLeaseId()).compareTo(typedOther.isSetLeaseId());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLeaseId()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.leaseId, typedOther.leaseId);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetNodes()).compareTo(typedOther.isSetNodes());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetNodes()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.nodes, typedOther.nodes);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 1: // JOBID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.jobid = iprot.readI32();
+              setJobidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 2: // DONORID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.donorid = iprot.readI32();
+              setDonoridIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 3: // THIEFID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.thiefid = iprot.readI32();
+              setThiefidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 4: // LEASE_ID
+            if (field.type == org.apache.thrift.protocol.TType.I64) {
+              this.leaseId = iprot.readI64();
+              setLeaseIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 5: // NODES
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list40 = iprot.readListBegin();
+                this.nodes = new ArrayList<ThriftData>(_list40.size);
+                for (int _i41 = 0; _i41 < _list40.size; ++_i41)
+                {
+                  ThriftData _elem42; // required
+                  _elem42 = new ThriftData();
+                  _elem42.read(iprot);
+                  this.nodes.add(_elem42);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(JOBID_FIELD_DESC);
+      oprot.writeI32(this.jobid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(DONORID_FIELD_DESC);
+      oprot.writeI32(this.donorid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(THIEFID_FIELD_DESC);
+      oprot.writeI32(this.thiefid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(LEASE_ID_FIELD_DESC);
+      oprot.writeI64(this.leaseId);
+      oprot.writeFieldEnd();
+      if (this.nodes != null) {
+        oprot.writeFieldBegin(NODES_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.nodes.size()));
+          for (ThriftData _iter43 : this.nodes)
+          {
+            _iter43.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("leaseWork_args(");
+      boolean first = true;
+
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("donorid:");
+      sb.append(this.donorid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("thiefid:");
+      sb.append(this.thiefid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("leaseId:");
+      sb.append(this.leaseId);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("nodes:");
+      if (this.nodes == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.nodes);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class leaseWork_result implements org.apache.thrift.TBase<leaseWork_result, leaseWork_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("leaseWork_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.BOOL, (short)0);
+
+    public boolean success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(leaseWork_result.class, metaDataMap);
+    }
+
+    public leaseWork_result() {
+    }
+
+    public leaseWork_result(
+      boolean success)
+    {
+      this();
+      this.success = success;
+      setSuccessIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public leaseWork_result(leaseWork_result other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.success = other.success;
+    }
+
+    public leaseWork_result deepCopy() {
+      return new leaseWork_result(this);
+    }
+
+    @Override
+    public void clear() {
+      setSuccessIsSet(false);
+      this.success = false;
+    }
+
+    public boolean isSuccess() {
+      return this.success;
+    }
+
+    public leaseWork_result setSuccess(boolean success) {
+      this.success = success;
+      setSuccessIsSet(true);
+      return this;
+    }
+
+    public void unsetSuccess() {
+      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((Boolean)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return Boolean.valueOf(isSuccess());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof leaseWork_result)
+        return this.equals((leaseWork_result)that);
+      return false;
+    }
+
+    public boolean equals(leaseWork_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true;
+      boolean that_present_success = true;
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (this.success != that.success)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(leaseWork_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      leaseWork_result typedOther = (leaseWork_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.BOOL) {
+              this.success = iprot.readBool();
+              setSuccessIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        oprot.writeBool(this.success);
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("leaseWork_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      sb.append(this.success);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class getTimeMicros_args implements org.apache.thrift.TBase<getTimeMicros_args, getTimeMicros_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getTimeMicros_args");
+
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getTimeMicros_args.class, metaDataMap);
+    }
+
+    public getTimeMicros_args() {
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getTimeMicros_args(getTimeMicros_args other) {
+    }
+
+    public getTimeMicros_args deepCopy() {
+      return new getTimeMicros_args(this);
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getTimeMicros_args)
+        return this.equals((getTimeMicros_args)that);
+      return false;
+    }
+
+    public boolean equals(getTimeMicros_args that) {
+      if (that == null)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getTimeMicros_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getTimeMicros_args typedOther = (getTimeMicros_args)other;
+
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getTimeMicros_args(");
+      boolean first = true;
+
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class getTimeMicros_result implements org.apache.thrift.TBase<getTimeMicros_result, getTimeMicros_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getTimeMicros_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.I64, (short)0);
+
+    public long success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getTimeMicros_result.class, metaDataMap);
+    }
+
+    public getTimeMicros_result() {
+    }
+
+    public getTimeMicros_result(
+      long success)
+    {
+      this();
+      this.success = success;
+      setSuccessIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getTimeMicros_result(getTimeMicros_result other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.success = other.success;
+    }
+
+    public getTimeMicros_result deepCopy() {
+      return new getTimeMicros_result(this);
+    }
+
+    @Override
+    public void clear() {
+      setSuccessIsSet(false);
+      this.success = 0;
+    }
+
+    public long getSuccess() {
+      return this.success;
+    }
+
+    public getTimeMicros_result setSuccess(long success) {
+      this.success = success;
+      setSuccessIsSet(true);
+      return this;
+    }
+
+    public void unsetSuccess() {
+      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((Long)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return Long.valueOf(getSuccess());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getTimeMicros_result)
+        return this.equals((getTimeMicros_result)that);
+      return false;
+    }
+
+    public boolean equals(getTimeMicros_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true;
+      boolean that_present_success = true;
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (this.success != that.success)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getTimeMicros_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getTimeMicros_result typedOther = (getTimeMicros_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.I64) {
+              this.success = iprot.readI64();
+              setSuccessIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        oprot.writeI64(this.success);
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getTimeMicros_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      sb.append(this.success);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
 }
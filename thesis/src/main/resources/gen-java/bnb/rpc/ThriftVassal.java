@@ -26,28 +26,44 @@ public class ThriftVassal {
 
     public void updateBestSolCost(double bestCost, int jobid) throws org.apache.thrift.TException;
 
-    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads) throws org.apache.thrift.TException;
+    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio, List<ThriftPeer> peers, List<ThriftTypeId> typeIds, double weight) throws org.apache.thrift.TException;
 
     public List<ThriftData> stealWork(int jobid) throws org.apache.thrift.TException;
 
+    public List<ThriftData> stealWorkFromPeer(int jobid, int thiefid, double bestCost, long leaseId) throws org.apache.thrift.TException;
+
     public int getNumSlots() throws org.apache.thrift.TException;
 
     public int getVassalId() throws org.apache.thrift.TException;
 
+    public void beginCheckpoint(int jobid) throws org.apache.thrift.TException;
+
+    public List<ThriftData> checkpoint(int jobid) throws org.apache.thrift.TException;
+
+    public List<ThriftData> drainJob(int jobid) throws org.apache.thrift.TException;
+
   }
 
   public interface AsyncIface {
 
     public void updateBestSolCost(double bestCost, int jobid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.updateBestSolCost_call> resultHandler) throws org.apache.thrift.TException;
 
-    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.startJobTasks_call> resultHandler) throws org.apache.thrift.TException;
+    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio, List<ThriftPeer> peers, List<ThriftTypeId> typeIds, double weight, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.startJobTasks_call> resultHandler) throws org.apache.thrift.TException;
 
     public void stealWork(int jobid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.stealWork_call> resultHandler) throws org.apache.thrift.TException;
 
+    public void stealWorkFromPeer(int jobid, int thiefid, double bestCost, long leaseId, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.stealWorkFromPeer_call> resultHandler) throws org.apache.thrift.TException;
+
     public void getNumSlots(org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getNumSlots_call> resultHandler) throws org.apache.thrift.TException;
 
     public void getVassalId(org.apache.thrift.async.AsyncMethodCallback<AsyncClient.getVassalId_call> resultHandler) throws org.apache.thrift.TException;
 
+    public void beginCheckpoint(int jobid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.beginCheckpoint_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void checkpoint(int jobid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.checkpoint_call> resultHandler) throws org.apache.thrift.TException;
+
+    public void drainJob(int jobid, org.apache.thrift.async.AsyncMethodCallback<AsyncClient.drainJob_call> resultHandler) throws org.apache.thrift.TException;
+
   }
 
   public static class Client extends org.apache.thrift.TServiceClient implements Iface {
@@ -91,13 +107,13 @@ public class ThriftVassal {
       return;
     }
 
-    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads) throws org.apache.thrift.TException
+    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio, List<ThriftPeer> peers, List<ThriftTypeId> typeIds, double weight) throws org.apache.thrift.TException
     {
-      send_startJobTasks(nodeData, problemData, bestCost, jobid, nthreads);
+      send_startJobTasks(nodeData, problemData, bestCost, jobid, nthreads, nodePoolType, jumpRatio, peers, typeIds, weight);
       recv_startJobTasks();
     }
 
-    public void send_startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads) throws org.apache.thrift.TException
+    public void send_startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio, List<ThriftPeer> peers, List<ThriftTypeId> typeIds, double weight) throws org.apache.thrift.TException
     {
       startJobTasks_args args = new startJobTasks_args();
       args.setNodeData(nodeData);
@@ -105,6 +121,11 @@ public class ThriftVassal {
       args.setBestCost(bestCost);
       args.setJobid(jobid);
       args.setNthreads(nthreads);
+      args.setNodePoolType(nodePoolType);
+      args.setJumpRatio(jumpRatio);
+      args.setPeers(peers);
+      args.setTypeIds(typeIds);
+      args.setWeight(weight);
       sendBase("startJobTasks", args);
     }
 
@@ -138,6 +159,32 @@ public class ThriftVassal {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "stealWork failed: unknown result");
     }
 
+    public List<ThriftData> stealWorkFromPeer(int jobid, int thiefid, double bestCost, long leaseId) throws org.apache.thrift.TException
+    {
+      send_stealWorkFromPeer(jobid, thiefid, bestCost, leaseId);
+      return recv_stealWorkFromPeer();
+    }
+
+    public void send_stealWorkFromPeer(int jobid, int thiefid, double bestCost, long leaseId) throws org.apache.thrift.TException
+    {
+      stealWorkFromPeer_args args = new stealWorkFromPeer_args();
+      args.setJobid(jobid);
+      args.setThiefid(thiefid);
+      args.setBestCost(bestCost);
+      args.setLeaseId(leaseId);
+      sendBase("stealWorkFromPeer", args);
+    }
+
+    public List<ThriftData> recv_stealWorkFromPeer() throws org.apache.thrift.TException
+    {
+      stealWorkFromPeer_result result = new stealWorkFromPeer_result();
+      receiveBase(result, "stealWorkFromPeer");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "stealWorkFromPeer failed: unknown result");
+    }
+
     public int getNumSlots() throws org.apache.thrift.TException
     {
       send_getNumSlots();
@@ -182,6 +229,72 @@ public class ThriftVassal {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "getVassalId failed: unknown result");
     }
 
+    public void beginCheckpoint(int jobid) throws org.apache.thrift.TException
+    {
+      send_beginCheckpoint(jobid);
+      recv_beginCheckpoint();
+    }
+
+    public void send_beginCheckpoint(int jobid) throws org.apache.thrift.TException
+    {
+      beginCheckpoint_args args = new beginCheckpoint_args();
+      args.setJobid(jobid);
+      sendBase("beginCheckpoint", args);
+    }
+
+    public void recv_beginCheckpoint() throws org.apache.thrift.TException
+    {
+      beginCheckpoint_result result = new beginCheckpoint_result();
+      receiveBase(result, "beginCheckpoint");
+      return;
+    }
+
+    public List<ThriftData> checkpoint(int jobid) throws org.apache.thrift.TException
+    {
+      send_checkpoint(jobid);
+      return recv_checkpoint();
+    }
+
+    public void send_checkpoint(int jobid) throws org.apache.thrift.TException
+    {
+      checkpoint_args args = new checkpoint_args();
+      args.setJobid(jobid);
+      sendBase("checkpoint", args);
+    }
+
+    public List<ThriftData> recv_checkpoint() throws org.apache.thrift.TException
+    {
+      checkpoint_result result = new checkpoint_result();
+      receiveBase(result, "checkpoint");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "checkpoint failed: unknown result");
+    }
+
+    public List<ThriftData> drainJob(int jobid) throws org.apache.thrift.TException
+    {
+      send_drainJob(jobid);
+      return recv_drainJob();
+    }
+
+    public void send_drainJob(int jobid) throws org.apache.thrift.TException
+    {
+      drainJob_args args = new drainJob_args();
+      args.setJobid(jobid);
+      sendBase("drainJob", args);
+    }
+
+    public List<ThriftData> recv_drainJob() throws org.apache.thrift.TException
+    {
+      drainJob_result result = new drainJob_result();
+      receiveBase(result, "drainJob");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "drainJob failed: unknown result");
+    }
+
   }
   public static class AsyncClient extends org.apache.thrift.async.TAsyncClient implements AsyncIface {
     public static class Factory implements org.apache.thrift.async.TAsyncClientFactory<AsyncClient> {
@@ -235,9 +348,9 @@ public class ThriftVassal {
       }
     }
 
-    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, org.apache.thrift.async.AsyncMethodCallback<startJobTasks_call> resultHandler) throws org.apache.thrift.TException {
+    public void startJobTasks(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio, List<ThriftPeer> peers, List<ThriftTypeId> typeIds, double weight, org.apache.thrift.async.AsyncMethodCallback<startJobTasks_call> resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      startJobTasks_call method_call = new startJobTasks_call(nodeData, problemData, bestCost, jobid, nthreads, resultHandler, this, ___protocolFactory, ___transport);
+      startJobTasks_call method_call = new startJobTasks_call(nodeData, problemData, bestCost, jobid, nthreads, nodePoolType, jumpRatio, peers, typeIds, weight, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -248,13 +361,23 @@ public class ThriftVassal {
       private double bestCost;
       private int jobid;
       private int nthreads;
-      public startJobTasks_call(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, org.apache.thrift.async.AsyncMethodCallback<startJobTasks_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private String nodePoolType;
+      private double jumpRatio;
+      private List<ThriftPeer> peers;
+      private List<ThriftTypeId> typeIds;
+      private double weight;
+      public startJobTasks_call(List<ThriftData> nodeData, ThriftData problemData, double bestCost, int jobid, int nthreads, String nodePoolType, double jumpRatio, List<ThriftPeer> peers, List<ThriftTypeId> typeIds, double weight, org.apache.thrift.async.AsyncMethodCallback<startJobTasks_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.nodeData = nodeData;
         this.problemData = problemData;
         this.bestCost = bestCost;
         this.jobid = jobid;
         this.nthreads = nthreads;
+        this.nodePoolType = nodePoolType;
+        this.jumpRatio = jumpRatio;
+        this.peers = peers;
+        this.typeIds = typeIds;
+        this.weight = weight;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -265,6 +388,11 @@ public class ThriftVassal {
         args.setBestCost(bestCost);
         args.setJobid(jobid);
         args.setNthreads(nthreads);
+        args.setNodePoolType(nodePoolType);
+        args.setJumpRatio(jumpRatio);
+        args.setPeers(peers);
+        args.setTypeIds(typeIds);
+        args.setWeight(weight);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -311,6 +439,47 @@ public class ThriftVassal {
       }
     }
 
+    public void stealWorkFromPeer(int jobid, int thiefid, double bestCost, long leaseId, org.apache.thrift.async.AsyncMethodCallback<stealWorkFromPeer_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      stealWorkFromPeer_call method_call = new stealWorkFromPeer_call(jobid, thiefid, bestCost, leaseId, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class stealWorkFromPeer_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int jobid;
+      private int thiefid;
+      private double bestCost;
+      private long leaseId;
+      public stealWorkFromPeer_call(int jobid, int thiefid, double bestCost, long leaseId, org.apache.thrift.async.AsyncMethodCallback<stealWorkFromPeer_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.jobid = jobid;
+        this.thiefid = thiefid;
+        this.bestCost = bestCost;
+        this.leaseId = leaseId;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("stealWorkFromPeer", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        stealWorkFromPeer_args args = new stealWorkFromPeer_args();
+        args.setJobid(jobid);
+        args.setThiefid(thiefid);
+        args.setBestCost(bestCost);
+        args.setLeaseId(leaseId);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public List<ThriftData> getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_stealWorkFromPeer();
+      }
+    }
+
     public void getNumSlots(org.apache.thrift.async.AsyncMethodCallback<getNumSlots_call> resultHandler) throws org.apache.thrift.TException {
       checkReady();
       getNumSlots_call method_call = new getNumSlots_call(resultHandler, this, ___protocolFactory, ___transport);
@@ -369,6 +538,102 @@ public class ThriftVassal {
       }
     }
 
+    public void beginCheckpoint(int jobid, org.apache.thrift.async.AsyncMethodCallback<beginCheckpoint_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      beginCheckpoint_call method_call = new beginCheckpoint_call(jobid, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class beginCheckpoint_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int jobid;
+      public beginCheckpoint_call(int jobid, org.apache.thrift.async.AsyncMethodCallback<beginCheckpoint_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.jobid = jobid;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("beginCheckpoint", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        beginCheckpoint_args args = new beginCheckpoint_args();
+        args.setJobid(jobid);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public void getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        (new Client(prot)).recv_beginCheckpoint();
+      }
+    }
+
+    public void checkpoint(int jobid, org.apache.thrift.async.AsyncMethodCallback<checkpoint_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      checkpoint_call method_call = new checkpoint_call(jobid, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class checkpoint_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int jobid;
+      public checkpoint_call(int jobid, org.apache.thrift.async.AsyncMethodCallback<checkpoint_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.jobid = jobid;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("checkpoint", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        checkpoint_args args = new checkpoint_args();
+        args.setJobid(jobid);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public List<ThriftData> getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_checkpoint();
+      }
+    }
+
+    public void drainJob(int jobid, org.apache.thrift.async.AsyncMethodCallback<drainJob_call> resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      drainJob_call method_call = new drainJob_call(jobid, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class drainJob_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private int jobid;
+      public drainJob_call(int jobid, org.apache.thrift.async.AsyncMethodCallback<drainJob_call> resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.jobid = jobid;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("drainJob", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        drainJob_args args = new drainJob_args();
+        args.setJobid(jobid);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public List<ThriftData> getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_drainJob();
+      }
+    }
+
   }
 
   public static class Processor<I extends Iface> extends org.apache.thrift.TBaseProcessor implements org.apache.thrift.TProcessor {
@@ -385,8 +650,12 @@ public class ThriftVassal {
       processMap.put("updateBestSolCost", new updateBestSolCost());
       processMap.put("startJobTasks", new startJobTasks());
       processMap.put("stealWork", new stealWork());
+      processMap.put("stealWorkFromPeer", new stealWorkFromPeer());
       processMap.put("getNumSlots", new getNumSlots());
       processMap.put("getVassalId", new getVassalId());
+      processMap.put("beginCheckpoint", new beginCheckpoint());
+      processMap.put("checkpoint", new checkpoint());
+      processMap.put("drainJob", new drainJob());
       return processMap;
     }
 
@@ -417,7 +686,7 @@ public class ThriftVassal {
 
       protected startJobTasks_result getResult(I iface, startJobTasks_args args) throws org.apache.thrift.TException {
         startJobTasks_result result = new startJobTasks_result();
-        iface.startJobTasks(args.nodeData, args.problemData, args.bestCost, args.jobid, args.nthreads);
+        iface.startJobTasks(args.nodeData, args.problemData, args.bestCost, args.jobid, args.nthreads, args.nodePoolType, args.jumpRatio, args.peers, args.typeIds, args.weight);
         return result;
       }
     }
@@ -438,6 +707,22 @@ public class ThriftVassal {
       }
     }
 
+    private static class stealWorkFromPeer<I extends Iface> extends org.apache.thrift.ProcessFunction<I, stealWorkFromPeer_args> {
+      public stealWorkFromPeer() {
+        super("stealWorkFromPeer");
+      }
+
+      protected stealWorkFromPeer_args getEmptyArgsInstance() {
+        return new stealWorkFromPeer_args();
+      }
+
+      protected stealWorkFromPeer_result getResult(I iface, stealWorkFromPeer_args args) throws org.apache.thrift.TException {
+        stealWorkFromPeer_result result = new stealWorkFromPeer_result();
+        result.success = iface.stealWorkFromPeer(args.jobid, args.thiefid, args.bestCost, args.leaseId);
+        return result;
+      }
+    }
+
     private static class getNumSlots<I extends Iface> extends org.apache.thrift.ProcessFunction<I, getNumSlots_args> {
       public getNumSlots() {
         super("getNumSlots");
@@ -472,6 +757,54 @@ public class ThriftVassal {
       }
     }
 
+    private static class beginCheckpoint<I extends Iface> extends org.apache.thrift.ProcessFunction<I, beginCheckpoint_args> {
+      public beginCheckpoint() {
+        super("beginCheckpoint");
+      }
+
+      protected beginCheckpoint_args getEmptyArgsInstance() {
+        return new beginCheckpoint_args();
+      }
+
+      protected beginCheckpoint_result getResult(I iface, beginCheckpoint_args args) throws org.apache.thrift.TException {
+        beginCheckpoint_result result = new beginCheckpoint_result();
+        iface.beginCheckpoint(args.jobid);
+        return result;
+      }
+    }
+
+    private static class checkpoint<I extends Iface> extends org.apache.thrift.ProcessFunction<I, checkpoint_args> {
+      public checkpoint() {
+        super("checkpoint");
+      }
+
+      protected checkpoint_args getEmptyArgsInstance() {
+        return new checkpoint_args();
+      }
+
+      protected checkpoint_result getResult(I iface, checkpoint_args args) throws org.apache.thrift.TException {
+        checkpoint_result result = new checkpoint_result();
+        result.success = iface.checkpoint(args.jobid);
+        return result;
+      }
+    }
+
+    private static class drainJob<I extends Iface> extends org.apache.thrift.ProcessFunction<I, drainJob_args> {
+      public drainJob() {
+        super("drainJob");
+      }
+
+      protected drainJob_args getEmptyArgsInstance() {
+        return new drainJob_args();
+      }
+
+      protected drainJob_result getResult(I iface, drainJob_args args) throws org.apache.thrift.TException {
+        drainJob_result result = new drainJob_result();
+        result.success = iface.drainJob(args.jobid);
+        return result;
+      }
+    }
+
   }
 
   public static class updateBestSolCost_args implements org.apache.thrift.TBase<updateBestSolCost_args, updateBestSolCost_args._Fields>, java.io.Serializable, Cloneable   {
@@ -1064,12 +1397,22 @@ public class ThriftVassal {
     private static final org.apache.thrift.protocol.TField BEST_COST_FIELD_DESC = new org.apache.thrift.protocol.TField("bestCost", org.apache.thrift.protocol.TType.DOUBLE, (short)3);
     private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)4);
     private static final org.apache.thrift.protocol.TField NTHREADS_FIELD_DESC = new org.apache.thrift.protocol.TField("nthreads", org.apache.thrift.protocol.TType.I32, (short)5);
+    private static final org.apache.thrift.protocol.TField NODE_POOL_TYPE_FIELD_DESC = new org.apache.thrift.protocol.TField("nodePoolType", org.apache.thrift.protocol.TType.STRING, (short)6);
+    private static final org.apache.thrift.protocol.TField JUMP_RATIO_FIELD_DESC = new org.apache.thrift.protocol.TField("jumpRatio", org.apache.thrift.protocol.TType.DOUBLE, (short)7);
+    private static final org.apache.thrift.protocol.TField PEERS_FIELD_DESC = new org.apache.thrift.protocol.TField("peers", org.apache.thrift.protocol.TType.LIST, (short)8);
+    private static final org.apache.thrift.protocol.TField TYPE_IDS_FIELD_DESC = new org.apache.thrift.protocol.TField("typeIds", org.apache.thrift.protocol.TType.LIST, (short)9);
+    private static final org.apache.thrift.protocol.TField WEIGHT_FIELD_DESC = new org.apache.thrift.protocol.TField("weight", org.apache.thrift.protocol.TType.DOUBLE, (short)10);
 
     public List<ThriftData> nodeData; // required
     public ThriftData problemData; // required
     public double bestCost; // required
     public int jobid; // required
     public int nthreads; // required
+    public String nodePoolType; // required
+    public double jumpRatio; // required
+    public List<ThriftPeer> peers; // required
+    public List<ThriftTypeId> typeIds; // required
+    public double weight; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -1077,7 +1420,12 @@ public class ThriftVassal {
       PROBLEM_DATA((short)2, "problemData"),
       BEST_COST((short)3, "bestCost"),
       JOBID((short)4, "jobid"),
-      NTHREADS((short)5, "nthreads");
+      NTHREADS((short)5, "nthreads"),
+      NODE_POOL_TYPE((short)6, "nodePoolType"),
+      JUMP_RATIO((short)7, "jumpRatio"),
+      PEERS((short)8, "peers"),
+      TYPE_IDS((short)9, "typeIds"),
+      WEIGHT((short)10, "weight");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -1102,6 +1450,16 @@ public class ThriftVassal {
             return JOBID;
           case 5: // NTHREADS
             return NTHREADS;
+          case 6: // NODE_POOL_TYPE
+            return NODE_POOL_TYPE;
+          case 7: // JUMP_RATIO
+            return JUMP_RATIO;
+          case 8: // PEERS
+            return PEERS;
+          case 9: // TYPE_IDS
+            return TYPE_IDS;
+          case 10: // WEIGHT
+            return WEIGHT;
           default:
             return null;
         }
@@ -1145,7 +1503,9 @@ public class ThriftVassal {
     private static final int __BESTCOST_ISSET_ID = 0;
     private static final int __JOBID_ISSET_ID = 1;
     private static final int __NTHREADS_ISSET_ID = 2;
-    private BitSet __isset_bit_vector = new BitSet(3);
+    private static final int __JUMPRATIO_ISSET_ID = 3;
+    private static final int __WEIGHT_ISSET_ID = 4;
+    private BitSet __isset_bit_vector = new BitSet(5);
 
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
@@ -1161,6 +1521,18 @@ public class ThriftVassal {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       tmpMap.put(_Fields.NTHREADS, new org.apache.thrift.meta_data.FieldMetaData("nthreads", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.NODE_POOL_TYPE, new org.apache.thrift.meta_data.FieldMetaData("nodePoolType", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.JUMP_RATIO, new org.apache.thrift.meta_data.FieldMetaData("jumpRatio", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.DOUBLE)));
+      tmpMap.put(_Fields.PEERS, new org.apache.thrift.meta_data.FieldMetaData("peers", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftPeer.class))));
+      tmpMap.put(_Fields.TYPE_IDS, new org.apache.thrift.meta_data.FieldMetaData("typeIds", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftTypeId.class))));
+      tmpMap.put(_Fields.WEIGHT, new org.apache.thrift.meta_data.FieldMetaData("weight", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.DOUBLE)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(startJobTasks_args.class, metaDataMap);
     }
@@ -1173,7 +1545,12 @@ public class ThriftVassal {
       ThriftData problemData,
       double bestCost,
       int jobid,
-      int nthreads)
+      int nthreads,
+      String nodePoolType,
+      double jumpRatio,
+      List<ThriftPeer> peers,
+      List<ThriftTypeId> typeIds,
+      double weight)
     {
       this();
       this.nodeData = nodeData;
@@ -1184,6 +1561,13 @@ public class ThriftVassal {
       setJobidIsSet(true);
       this.nthreads = nthreads;
       setNthreadsIsSet(true);
+      this.nodePoolType = nodePoolType;
+      this.jumpRatio = jumpRatio;
+      setJumpRatioIsSet(true);
+      this.peers = peers;
+      this.typeIds = typeIds;
+      this.weight = weight;
+      setWeightIsSet(true);
     }
 
     /**
@@ -1205,6 +1589,25 @@ public class ThriftVassal {
       this.bestCost = other.bestCost;
       this.jobid = other.jobid;
       this.nthreads = other.nthreads;
+      if (other.isSetNodePoolType()) {
+        this.nodePoolType = other.nodePoolType;
+      }
+      this.jumpRatio = other.jumpRatio;
+      if (other.isSetPeers()) {
+        List<ThriftPeer> __this__peers = new ArrayList<ThriftPeer>();
+        for (ThriftPeer other_element : other.peers) {
+          __this__peers.add(new ThriftPeer(other_element));
+        }
+        this.peers = __this__peers;
+      }
+      if (other.isSetTypeIds()) {
+        List<ThriftTypeId> __this__typeIds = new ArrayList<ThriftTypeId>();
+        for (ThriftTypeId other_element : other.typeIds) {
+          __this__typeIds.add(new ThriftTypeId(other_element));
+        }
+        this.typeIds = __this__typeIds;
+      }
+      this.weight = other.weight;
     }
 
     public startJobTasks_args deepCopy() {
@@ -1221,6 +1624,13 @@ public class ThriftVassal {
       this.jobid = 0;
       setNthreadsIsSet(false);
       this.nthreads = 0;
+      this.nodePoolType = null;
+      setJumpRatioIsSet(false);
+      this.jumpRatio = 0.0;
+      this.peers = null;
+      this.typeIds = null;
+      setWeightIsSet(false);
+      this.weight = 0.0;
     }
 
     public int getNodeDataSize() {
@@ -1355,60 +1765,248 @@ public class ThriftVassal {
       __isset_bit_vector.set(__NTHREADS_ISSET_ID, value);
     }
 
-    public void setFieldValue(_Fields field, Object value) {
-      switch (field) {
-      case NODE_DATA:
-        if (value == null) {
-          unsetNodeData();
-        } else {
-          setNodeData((List<ThriftData>)value);
-        }
-        break;
-
-      case PROBLEM_DATA:
-        if (value == null) {
-          unsetProblemData();
-        } else {
-          setProblemData((ThriftData)value);
-        }
-        break;
+    public String getNodePoolType() {
+      return this.nodePoolType;
+    }
 
-      case BEST_COST:
-        if (value == null) {
-          unsetBestCost();
-        } else {
-          setBestCost((Double)value);
-        }
-        break;
+    public startJobTasks_args setNodePoolType(String nodePoolType) {
+      this.nodePoolType = nodePoolType;
+      return this;
+    }
 
-      case JOBID:
-        if (value == null) {
-          unsetJobid();
-        } else {
-          setJobid((Integer)value);
-        }
-        break;
+    public void unsetNodePoolType() {
+      this.nodePoolType = null;
+    }
 
-      case NTHREADS:
-        if (value == null) {
-          unsetNthreads();
-        } else {
-          setNthreads((Integer)value);
-        }
-        break;
+    /** Returns true if field nodePoolType is set (has been assigned a value) and false otherwise */
+    public boolean isSetNodePoolType() {
+      return this.nodePoolType != null;
+    }
 
+    public void setNodePoolTypeIsSet(boolean value) {
+      if (!value) {
+        this.nodePoolType = null;
       }
     }
 
-    public Object getFieldValue(_Fields field) {
-      switch (field) {
-      case NODE_DATA:
-        return getNodeData();
+    public double getJumpRatio() {
+      return this.jumpRatio;
+    }
 
-      case PROBLEM_DATA:
-        return getProblemData();
+    public startJobTasks_args setJumpRatio(double jumpRatio) {
+      this.jumpRatio = jumpRatio;
+      setJumpRatioIsSet(true);
+      return this;
+    }
 
-      case BEST_COST:
+    public void unsetJumpRatio() {
+      __isset_bit_vector.clear(__JUMPRATIO_ISSET_ID);
+    }
+
+    /** Returns true if field jumpRatio is set (has been assigned a value) and false otherwise */
+    public boolean isSetJumpRatio() {
+      return __isset_bit_vector.get(__JUMPRATIO_ISSET_ID);
+    }
+
+    public void setJumpRatioIsSet(boolean value) {
+      __isset_bit_vector.set(__JUMPRATIO_ISSET_ID, value);
+    }
+
+    public int getPeersSize() {
+      return (this.peers == null) ? 0 : this.peers.size();
+    }
+
+    public java.util.Iterator<ThriftPeer> getPeersIterator() {
+      return (this.peers == null) ? null : this.peers.iterator();
+    }
+
+    public void addToPeers(ThriftPeer elem) {
+      if (this.peers == null) {
+        this.peers = new ArrayList<ThriftPeer>();
+      }
+      this.peers.add(elem);
+    }
+
+    public List<ThriftPeer> getPeers() {
+      return this.peers;
+    }
+
+    public startJobTasks_args setPeers(List<ThriftPeer> peers) {
+      this.peers = peers;
+      return this;
+    }
+
+    public void unsetPeers() {
+      this.peers = null;
+    }
+
+    /** Returns true if field peers is set (has been assigned a value) and false otherwise */
+    public boolean isSetPeers() {
+      return this.peers != null;
+    }
+
+    public void setPeersIsSet(boolean value) {
+      if (!value) {
+        this.peers = null;
+      }
+    }
+
+    public int getTypeIdsSize() {
+      return (this.typeIds == null) ? 0 : this.typeIds.size();
+    }
+
+    public java.util.Iterator<ThriftTypeId> getTypeIdsIterator() {
+      return (this.typeIds == null) ? null : this.typeIds.iterator();
+    }
+
+    public void addToTypeIds(ThriftTypeId elem) {
+      if (this.typeIds == null) {
+        this.typeIds = new ArrayList<ThriftTypeId>();
+      }
+      this.typeIds.add(elem);
+    }
+
+    public List<ThriftTypeId> getTypeIds() {
+      return this.typeIds;
+    }
+
+    public startJobTasks_args setTypeIds(List<ThriftTypeId> typeIds) {
+      this.typeIds = typeIds;
+      return this;
+    }
+
+    public void unsetTypeIds() {
+      this.typeIds = null;
+    }
+
+    /** Returns true if field typeIds is set (has been assigned a value) and false otherwise */
+    public boolean isSetTypeIds() {
+      return this.typeIds != null;
+    }
+
+    public void setTypeIdsIsSet(boolean value) {
+      if (!value) {
+        this.typeIds = null;
+      }
+    }
+
+    public double getWeight() {
+      return this.weight;
+    }
+
+    public startJobTasks_args setWeight(double weight) {
+      this.weight = weight;
+      setWeightIsSet(true);
+      return this;
+    }
+
+    public void unsetWeight() {
+      __isset_bit_vector.clear(__WEIGHT_ISSET_ID);
+    }
+
+    /** Returns true if field weight is set (has been assigned a value) and false otherwise */
+    public boolean isSetWeight() {
+      return __isset_bit_vector.get(__WEIGHT_ISSET_ID);
+    }
+
+    public void setWeightIsSet(boolean value) {
+      __isset_bit_vector.set(__WEIGHT_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case NODE_DATA:
+        if (value == null) {
+          unsetNodeData();
+        } else {
+          setNodeData((List<ThriftData>)value);
+        }
+        break;
+
+      case PROBLEM_DATA:
+        if (value == null) {
+          unsetProblemData();
+        } else {
+          setProblemData((ThriftData)value);
+        }
+        break;
+
+      case BEST_COST:
+        if (value == null) {
+          unsetBestCost();
+        } else {
+          setBestCost((Double)value);
+        }
+        break;
+
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
+      case NTHREADS:
+        if (value == null) {
+          unsetNthreads();
+        } else {
+          setNthreads((Integer)value);
+        }
+        break;
+
+      case NODE_POOL_TYPE:
+        if (value == null) {
+          unsetNodePoolType();
+        } else {
+          setNodePoolType((String)value);
+        }
+        break;
+
+      case JUMP_RATIO:
+        if (value == null) {
+          unsetJumpRatio();
+        } else {
+          setJumpRatio((Double)value);
+        }
+        break;
+
+      case PEERS:
+        if (value == null) {
+          unsetPeers();
+        } else {
+          setPeers((List<ThriftPeer>)value);
+        }
+        break;
+
+      case TYPE_IDS:
+        if (value == null) {
+          unsetTypeIds();
+        } else {
+          setTypeIds((List<ThriftTypeId>)value);
+        }
+        break;
+
+      case WEIGHT:
+        if (value == null) {
+          unsetWeight();
+        } else {
+          setWeight((Double)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case NODE_DATA:
+        return getNodeData();
+
+      case PROBLEM_DATA:
+        return getProblemData();
+
+      case BEST_COST:
         return Double.valueOf(getBestCost());
 
       case JOBID:
@@ -1417,6 +2015,21 @@ public class ThriftVassal {
       case NTHREADS:
         return Integer.valueOf(getNthreads());
 
+      case NODE_POOL_TYPE:
+        return getNodePoolType();
+
+      case JUMP_RATIO:
+        return Double.valueOf(getJumpRatio());
+
+      case PEERS:
+        return getPeers();
+
+      case TYPE_IDS:
+        return getTypeIds();
+
+      case WEIGHT:
+        return Double.valueOf(getWeight());
+
       }
       throw new IllegalStateException();
     }
@@ -1438,6 +2051,16 @@ public class ThriftVassal {
         return isSetJobid();
       case NTHREADS:
         return isSetNthreads();
+      case NODE_POOL_TYPE:
+        return isSetNodePoolType();
+      case JUMP_RATIO:
+        return isSetJumpRatio();
+      case PEERS:
+        return isSetPeers();
+      case TYPE_IDS:
+        return isSetTypeIds();
+      case WEIGHT:
+        return isSetWeight();
       }
       throw new IllegalStateException();
     }
@@ -1500,6 +2123,51 @@ public class ThriftVassal {
           return false;
       }
 
+      boolean this_present_nodePoolType = true && this.isSetNodePoolType();
+      boolean that_present_nodePoolType = true && that.isSetNodePoolType();
+      if (this_present_nodePoolType || that_present_nodePoolType) {
+        if (!(this_present_nodePoolType && that_present_nodePoolType))
+          return false;
+        if (!this.nodePoolType.equals(that.nodePoolType))
+          return false;
+      }
+
+      boolean this_present_jumpRatio = true;
+      boolean that_present_jumpRatio = true;
+      if (this_present_jumpRatio || that_present_jumpRatio) {
+        if (!(this_present_jumpRatio && that_present_jumpRatio))
+          return false;
+        if (this.jumpRatio != that.jumpRatio)
+          return false;
+      }
+
+      boolean this_present_peers = true && this.isSetPeers();
+      boolean that_present_peers = true && that.isSetPeers();
+      if (this_present_peers || that_present_peers) {
+        if (!(this_present_peers && that_present_peers))
+          return false;
+        if (!this.peers.equals(that.peers))
+          return false;
+      }
+
+      boolean this_present_typeIds = true && this.isSetTypeIds();
+      boolean that_present_typeIds = true && that.isSetTypeIds();
+      if (this_present_typeIds || that_present_typeIds) {
+        if (!(this_present_typeIds && that_present_typeIds))
+          return false;
+        if (!this.typeIds.equals(that.typeIds))
+          return false;
+      }
+
+      boolean this_present_weight = true;
+      boolean that_present_weight = true;
+      if (this_present_weight || that_present_weight) {
+        if (!(this_present_weight && that_present_weight))
+          return false;
+        if (this.weight != that.weight)
+          return false;
+      }
+
       return true;
     }
 
@@ -1566,6 +2234,56 @@ public class ThriftVassal {
           return lastComparison;
         }
       }
+      lastComparison = Boolean.valueOf(isSetNodePoolType()).compareTo(typedOther.isSetNodePoolType());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetNodePoolType()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.nodePoolType, typedOther.nodePoolType);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetJumpRatio()).compareTo(typedOther.isSetJumpRatio());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJumpRatio()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jumpRatio, typedOther.jumpRatio);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetPeers()).compareTo(typedOther.isSetPeers());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetPeers()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.peers, typedOther.peers);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetTypeIds()).compareTo(typedOther.isSetTypeIds());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetTypeIds()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.typeIds, typedOther.typeIds);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetWeight()).compareTo(typedOther.isSetWeight());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetWeight()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.weight, typedOther.weight);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -1633,6 +2351,65 @@ public class ThriftVassal {
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
             }
             break;
+          case 6: // NODE_POOL_TYPE
+            if (field.type == org.apache.thrift.protocol.TType.STRING) {
+              this.nodePoolType = iprot.readString();
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 7: // JUMP_RATIO
+            if (field.type == org.apache.thrift.protocol.TType.DOUBLE) {
+              this.jumpRatio = iprot.readDouble();
+              setJumpRatioIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 8: // PEERS
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list3 = iprot.readListBegin();
+                this.peers = new ArrayList<ThriftPeer>(_list3.size);
+                for (int _i4 = 0; _i4 < _list3.size; ++_i4)
+                {
+                  ThriftPeer _elem5; // required
+                  _elem5 = new ThriftPeer();
+                  _elem5.read(iprot);
+                  this.peers.add(_elem5);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 9: // TYPE_IDS
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list6 = iprot.readListBegin();
+                this.typeIds = new ArrayList<ThriftTypeId>(_list6.size);
+                for (int _i7 = 0; _i7 < _list6.size; ++_i7)
+                {
+                  ThriftTypeId _elem8; // required
+                  _elem8 = new ThriftTypeId();
+                  _elem8.read(iprot);
+                  this.typeIds.add(_elem8);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 10: // WEIGHT
+            if (field.type == org.apache.thrift.protocol.TType.DOUBLE) {
+              this.weight = iprot.readDouble();
+              setWeightIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
         }
@@ -1652,9 +2429,9 @@ public class ThriftVassal {
         oprot.writeFieldBegin(NODE_DATA_FIELD_DESC);
         {
           oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.nodeData.size()));
-          for (ThriftData _iter3 : this.nodeData)
+          for (ThriftData _iter9 : this.nodeData)
           {
-            _iter3.write(oprot);
+            _iter9.write(oprot);
           }
           oprot.writeListEnd();
         }
@@ -1674,42 +2451,2526 @@ public class ThriftVassal {
       oprot.writeFieldBegin(NTHREADS_FIELD_DESC);
       oprot.writeI32(this.nthreads);
       oprot.writeFieldEnd();
+      if (this.nodePoolType != null) {
+        oprot.writeFieldBegin(NODE_POOL_TYPE_FIELD_DESC);
+        oprot.writeString(this.nodePoolType);
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldBegin(JUMP_RATIO_FIELD_DESC);
+      oprot.writeDouble(this.jumpRatio);
+      oprot.writeFieldEnd();
+      if (this.peers != null) {
+        oprot.writeFieldBegin(PEERS_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.peers.size()));
+          for (ThriftPeer _iter10 : this.peers)
+          {
+            _iter10.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      if (this.typeIds != null) {
+        oprot.writeFieldBegin(TYPE_IDS_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.typeIds.size()));
+          for (ThriftTypeId _iter11 : this.typeIds)
+          {
+            _iter11.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldBegin(WEIGHT_FIELD_DESC);
+      oprot.writeDouble(this.weight);
+      oprot.writeFieldEnd();
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("startJobTasks_args(");
+      boolean first = true;
+
+      sb.append("nodeData:");
+      if (this.nodeData == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.nodeData);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("problemData:");
+      if (this.problemData == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.problemData);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("bestCost:");
+      sb.append(this.bestCost);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("nthreads:");
+      sb.append(this.nthreads);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("nodePoolType:");
+      if (this.nodePoolType == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.nodePoolType);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("jumpRatio:");
+      sb.append(this.jumpRatio);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("peers:");
+      if (this.peers == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.peers);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("typeIds:");
+      if (this.typeIds == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.typeIds);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("weight:");
+      sb.append(this.weight);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class startJobTasks_result implements org.apache.thrift.TBase<startJobTasks_result, startJobTasks_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("startJobTasks_result");
+
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(startJobTasks_result.class, metaDataMap);
+    }
+
+    public startJobTasks_result() {
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public startJobTasks_result(startJobTasks_result other) {
+    }
+
+    public startJobTasks_result deepCopy() {
+      return new startJobTasks_result(this);
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof startJobTasks_result)
+        return this.equals((startJobTasks_result)that);
+      return false;
+    }
+
+    public boolean equals(startJobTasks_result that) {
+      if (that == null)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(startJobTasks_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      startJobTasks_result typedOther = (startJobTasks_result)other;
+
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("startJobTasks_result(");
+      boolean first = true;
+
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class stealWork_args implements org.apache.thrift.TBase<stealWork_args, stealWork_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("stealWork_args");
+
+    private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
+
+    public int jobid; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      JOBID((short)1, "jobid");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // JOBID
+            return JOBID;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __JOBID_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(stealWork_args.class, metaDataMap);
+    }
+
+    public stealWork_args() {
+    }
+
+    public stealWork_args(
+      int jobid)
+    {
+      this();
+      this.jobid = jobid;
+      setJobidIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public stealWork_args(stealWork_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.jobid = other.jobid;
+    }
+
+    public stealWork_args deepCopy() {
+      return new stealWork_args(this);
+    }
+
+    @Override
+    public void clear() {
+      setJobidIsSet(false);
+      this.jobid = 0;
+    }
+
+    public int getJobid() {
+      return this.jobid;
+    }
+
+    public stealWork_args setJobid(int jobid) {
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      return this;
+    }
+
+    public void unsetJobid() {
+      __isset_bit_vector.clear(__JOBID_ISSET_ID);
+    }
+
+    /** Returns true if field jobid is set (has been assigned a value) and false otherwise */
+    public boolean isSetJobid() {
+      return __isset_bit_vector.get(__JOBID_ISSET_ID);
+    }
+
+    public void setJobidIsSet(boolean value) {
+      __isset_bit_vector.set(__JOBID_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case JOBID:
+        return Integer.valueOf(getJobid());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case JOBID:
+        return isSetJobid();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof stealWork_args)
+        return this.equals((stealWork_args)that);
+      return false;
+    }
+
+    public boolean equals(stealWork_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_jobid = true;
+      boolean that_present_jobid = true;
+      if (this_present_jobid || that_present_jobid) {
+        if (!(this_present_jobid && that_present_jobid))
+          return false;
+        if (this.jobid != that.jobid)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(stealWork_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      stealWork_args typedOther = (stealWork_args)other;
+
+      lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJobid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jobid, typedOther.jobid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 1: // JOBID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.jobid = iprot.readI32();
+              setJobidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(JOBID_FIELD_DESC);
+      oprot.writeI32(this.jobid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("stealWork_args(");
+      boolean first = true;
+
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class stealWork_result implements org.apache.thrift.TBase<stealWork_result, stealWork_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("stealWork_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
+
+    public List<ThriftData> success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftData.class))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(stealWork_result.class, metaDataMap);
+    }
+
+    public stealWork_result() {
+    }
+
+    public stealWork_result(
+      List<ThriftData> success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public stealWork_result(stealWork_result other) {
+      if (other.isSetSuccess()) {
+        List<ThriftData> __this__success = new ArrayList<ThriftData>();
+        for (ThriftData other_element : other.success) {
+          __this__success.add(new ThriftData(other_element));
+        }
+        this.success = __this__success;
+      }
+    }
+
+    public stealWork_result deepCopy() {
+      return new stealWork_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    public java.util.Iterator<ThriftData> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(ThriftData elem) {
+      if (this.success == null) {
+        this.success = new ArrayList<ThriftData>();
+      }
+      this.success.add(elem);
+    }
+
+    public List<ThriftData> getSuccess() {
+      return this.success;
+    }
+
+    public stealWork_result setSuccess(List<ThriftData> success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((List<ThriftData>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof stealWork_result)
+        return this.equals((stealWork_result)that);
+      return false;
+    }
+
+    public boolean equals(stealWork_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(stealWork_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      stealWork_result typedOther = (stealWork_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list12 = iprot.readListBegin();
+                this.success = new ArrayList<ThriftData>(_list12.size);
+                for (int _i13 = 0; _i13 < _list12.size; ++_i13)
+                {
+                  ThriftData _elem14; // required
+                  _elem14 = new ThriftData();
+                  _elem14.read(iprot);
+                  this.success.add(_elem14);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.success.size()));
+          for (ThriftData _iter15 : this.success)
+          {
+            _iter15.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("stealWork_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class stealWorkFromPeer_args implements org.apache.thrift.TBase<stealWorkFromPeer_args, stealWorkFromPeer_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("stealWorkFromPeer_args");
+
+    private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
+    private static final org.apache.thrift.protocol.TField THIEFID_FIELD_DESC = new org.apache.thrift.protocol.TField("thiefid", org.apache.thrift.protocol.TType.I32, (short)2);
+    private static final org.apache.thrift.protocol.TField BEST_COST_FIELD_DESC = new org.apache.thrift.protocol.TField("bestCost", org.apache.thrift.protocol.TType.DOUBLE, (short)3);
+    private static final org.apache.thrift.protocol.TField LEASE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("leaseId", org.apache.thrift.protocol.TType.I64, (short)4);
+
+    public int jobid; // required
+    public int thiefid; // required
+    public double bestCost; // required
+    public long leaseId; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      JOBID((short)1, "jobid"),
+      THIEFID((short)2, "thiefid"),
+      BEST_COST((short)3, "bestCost"),
+      LEASE_ID((short)4, "leaseId");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // JOBID
+            return JOBID;
+          case 2: // THIEFID
+            return THIEFID;
+          case 3: // BEST_COST
+            return BEST_COST;
+          case 4: // LEASE_ID
+            return LEASE_ID;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __JOBID_ISSET_ID = 0;
+    private static final int __THIEFID_ISSET_ID = 1;
+    private static final int __BESTCOST_ISSET_ID = 2;
+    private static final int __LEASEID_ISSET_ID = 3;
+    private BitSet __isset_bit_vector = new BitSet(4);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.THIEFID, new org.apache.thrift.meta_data.FieldMetaData("thiefid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.BEST_COST, new org.apache.thrift.meta_data.FieldMetaData("bestCost", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.DOUBLE)));
+      tmpMap.put(_Fields.LEASE_ID, new org.apache.thrift.meta_data.FieldMetaData("leaseId", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(stealWorkFromPeer_args.class, metaDataMap);
+    }
+
+    public stealWorkFromPeer_args() {
+    }
+
+    public stealWorkFromPeer_args(
+      int jobid,
+      int thiefid,
+      double bestCost,
+      long leaseId)
+    {
+      this();
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      this.thiefid = thiefid;
+      setThiefidIsSet(true);
+      this.bestCost = bestCost;
+      setBestCostIsSet(true);
+      this.leaseId = leaseId;
+      setLeaseIdIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public stealWorkFromPeer_args(stealWorkFromPeer_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.jobid = other.jobid;
+      this.thiefid = other.thiefid;
+      this.bestCost = other.bestCost;
+      this.leaseId = other.leaseId;
+    }
+
+    public stealWorkFromPeer_args deepCopy() {
+      return new stealWorkFromPeer_args(this);
+    }
+
+    @Override
+    public void clear() {
+      setJobidIsSet(false);
+      this.jobid = 0;
+      setThiefidIsSet(false);
+      this.thiefid = 0;
+      setBestCostIsSet(false);
+      this.bestCost = 0.0;
+      setLeaseIdIsSet(false);
+      this.leaseId = 0;
+    }
+
+    public int getJobid() {
+      return this.jobid;
+    }
+
+    public stealWorkFromPeer_args setJobid(int jobid) {
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      return this;
+    }
+
+    public void unsetJobid() {
+      __isset_bit_vector.clear(__JOBID_ISSET_ID);
+    }
+
+    /** Returns true if field jobid is set (has been assigned a value) and false otherwise */
+    public boolean isSetJobid() {
+      return __isset_bit_vector.get(__JOBID_ISSET_ID);
+    }
+
+    public void setJobidIsSet(boolean value) {
+      __isset_bit_vector.set(__JOBID_ISSET_ID, value);
+    }
+
+    public int getThiefid() {
+      return this.thiefid;
+    }
+
+    public stealWorkFromPeer_args setThiefid(int thiefid) {
+      this.thiefid = thiefid;
+      setThiefidIsSet(true);
+      return this;
+    }
+
+    public void unsetThiefid() {
+      __isset_bit_vector.clear(__THIEFID_ISSET_ID);
+    }
+
+    /** Returns true if field thiefid is set (has been assigned a value) and false otherwise */
+    public boolean isSetThiefid() {
+      return __isset_bit_vector.get(__THIEFID_ISSET_ID);
+    }
+
+    public void setThiefidIsSet(boolean value) {
+      __isset_bit_vector.set(__THIEFID_ISSET_ID, value);
+    }
+
+    public double getBestCost() {
+      return this.bestCost;
+    }
+
+    public stealWorkFromPeer_args setBestCost(double bestCost) {
+      this.bestCost = bestCost;
+      setBestCostIsSet(true);
+      return this;
+    }
+
+    public void unsetBestCost() {
+      __isset_bit_vector.clear(__BESTCOST_ISSET_ID);
+    }
+
+    /** Returns true if field bestCost is set (has been assigned a value) and false otherwise */
+    public boolean isSetBestCost() {
+      return __isset_bit_vector.get(__BESTCOST_ISSET_ID);
+    }
+
+    public void setBestCostIsSet(boolean value) {
+      __isset_bit_vector.set(__BESTCOST_ISSET_ID, value);
+    }
+
+    public long getLeaseId() {
+      return this.leaseId;
+    }
+
+    public stealWorkFromPeer_args setLeaseId(long leaseId) {
+      this.leaseId = leaseId;
+      setLeaseIdIsSet(true);
+      return this;
+    }
+
+    public void unsetLeaseId() {
+      __isset_bit_vector.clear(__LEASEID_ISSET_ID);
+    }
+
+    /** Returns true if field leaseId is set (has been assigned a value) and false otherwise */
+    public boolean isSetLeaseId() {
+      return __isset_bit_vector.get(__LEASEID_ISSET_ID);
+    }
+
+    public void setLeaseIdIsSet(boolean value) {
+      __isset_bit_vector.set(__LEASEID_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
+      case THIEFID:
+        if (value == null) {
+          unsetThiefid();
+        } else {
+          setThiefid((Integer)value);
+        }
+        break;
+
+      case BEST_COST:
+        if (value == null) {
+          unsetBestCost();
+        } else {
+          setBestCost((Double)value);
+        }
+        break;
+
+      case LEASE_ID:
+        if (value == null) {
+          unsetLeaseId();
+        } else {
+          setLeaseId((Long)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case JOBID:
+        return Integer.valueOf(getJobid());
+
+      case THIEFID:
+        return Integer.valueOf(getThiefid());
+
+      case BEST_COST:
+        return Double.valueOf(getBestCost());
+
+      case LEASE_ID:
+        return Long.valueOf(getLeaseId());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case JOBID:
+        return isSetJobid();
+      case THIEFID:
+        return isSetThiefid();
+      case BEST_COST:
+        return isSetBestCost();
+      case LEASE_ID:
+        return isSetLeaseId();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof stealWorkFromPeer_args)
+        return this.equals((stealWorkFromPeer_args)that);
+      return false;
+    }
+
+    public boolean equals(stealWorkFromPeer_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_jobid = true;
+      boolean that_present_jobid = true;
+      if (this_present_jobid || that_present_jobid) {
+        if (!(this_present_jobid && that_present_jobid))
+          return false;
+        if (this.jobid != that.jobid)
+          return false;
+      }
+
+      boolean this_present_thiefid = true;
+      boolean that_present_thiefid = true;
+      if (this_present_thiefid || that_present_thiefid) {
+        if (!(this_present_thiefid && that_present_thiefid))
+          return false;
+        if (this.thiefid != that.thiefid)
+          return false;
+      }
+
+      boolean this_present_bestCost = true;
+      boolean that_present_bestCost = true;
+      if (this_present_bestCost || that_present_bestCost) {
+        if (!(this_present_bestCost && that_present_bestCost))
+          return false;
+        if (this.bestCost != that.bestCost)
+          return false;
+      }
+
+      boolean this_present_leaseId = true;
+      boolean that_present_leaseId = true;
+      if (this_present_leaseId || that_present_leaseId) {
+        if (!(this_present_leaseId && that_present_leaseId))
+          return false;
+        if (this.leaseId != that.leaseId)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(stealWorkFromPeer_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      stealWorkFromPeer_args typedOther = (stealWorkFromPeer_args)other;
+
+      lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJobid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jobid, typedOther.jobid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetThiefid()).compareTo(typedOther.isSetThiefid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetThiefid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.thiefid, typedOther.thiefid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetBestCost()).compareTo(typedOther.isSetBestCost());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetBestCost()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.bestCost, typedOther.bestCost);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSetLeaseId()).compareTo(typedOther.isSetLeaseId());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetLeaseId()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.leaseId, typedOther.leaseId);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 1: // JOBID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.jobid = iprot.readI32();
+              setJobidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 2: // THIEFID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.thiefid = iprot.readI32();
+              setThiefidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 3: // BEST_COST
+            if (field.type == org.apache.thrift.protocol.TType.DOUBLE) {
+              this.bestCost = iprot.readDouble();
+              setBestCostIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          case 4: // LEASE_ID
+            if (field.type == org.apache.thrift.protocol.TType.I64) {
+              this.leaseId = iprot.readI64();
+              setLeaseIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(JOBID_FIELD_DESC);
+      oprot.writeI32(this.jobid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(THIEFID_FIELD_DESC);
+      oprot.writeI32(this.thiefid);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(BEST_COST_FIELD_DESC);
+      oprot.writeDouble(this.bestCost);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(LEASE_ID_FIELD_DESC);
+      oprot.writeI64(this.leaseId);
+      oprot.writeFieldEnd();
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("stealWorkFromPeer_args(");
+      boolean first = true;
+
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("thiefid:");
+      sb.append(this.thiefid);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("bestCost:");
+      sb.append(this.bestCost);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("leaseId:");
+      sb.append(this.leaseId);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class stealWorkFromPeer_result implements org.apache.thrift.TBase<stealWorkFromPeer_result, stealWorkFromPeer_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("stealWorkFromPeer_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
+
+    public List<ThriftData> success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftData.class))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(stealWorkFromPeer_result.class, metaDataMap);
+    }
+
+    public stealWorkFromPeer_result() {
+    }
+
+    public stealWorkFromPeer_result(
+      List<ThriftData> success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public stealWorkFromPeer_result(stealWorkFromPeer_result other) {
+      if (other.isSetSuccess()) {
+        List<ThriftData> __this__success = new ArrayList<ThriftData>();
+        for (ThriftData other_element : other.success) {
+          __this__success.add(new ThriftData(other_element));
+        }
+        this.success = __this__success;
+      }
+    }
+
+    public stealWorkFromPeer_result deepCopy() {
+      return new stealWorkFromPeer_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    public java.util.Iterator<ThriftData> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(ThriftData elem) {
+      if (this.success == null) {
+        this.success = new ArrayList<ThriftData>();
+      }
+      this.success.add(elem);
+    }
+
+    public List<ThriftData> getSuccess() {
+      return this.success;
+    }
+
+    public stealWorkFromPeer_result setSuccess(List<ThriftData> success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((List<ThriftData>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof stealWorkFromPeer_result)
+        return this.equals((stealWorkFromPeer_result)that);
+      return false;
+    }
+
+    public boolean equals(stealWorkFromPeer_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(stealWorkFromPeer_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      stealWorkFromPeer_result typedOther = (stealWorkFromPeer_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list16 = iprot.readListBegin();
+                this.success = new ArrayList<ThriftData>(_list16.size);
+                for (int _i17 = 0; _i17 < _list16.size; ++_i17)
+                {
+                  ThriftData _elem18; // required
+                  _elem18 = new ThriftData();
+                  _elem18.read(iprot);
+                  this.success.add(_elem18);
+                }
+                iprot.readListEnd();
+              }
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.success.size()));
+          for (ThriftData _iter19 : this.success)
+          {
+            _iter19.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("stealWorkFromPeer_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class getNumSlots_args implements org.apache.thrift.TBase<getNumSlots_args, getNumSlots_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getNumSlots_args");
+
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getNumSlots_args.class, metaDataMap);
+    }
+
+    public getNumSlots_args() {
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getNumSlots_args(getNumSlots_args other) {
+    }
+
+    public getNumSlots_args deepCopy() {
+      return new getNumSlots_args(this);
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getNumSlots_args)
+        return this.equals((getNumSlots_args)that);
+      return false;
+    }
+
+    public boolean equals(getNumSlots_args that) {
+      if (that == null)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getNumSlots_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getNumSlots_args typedOther = (getNumSlots_args)other;
+
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getNumSlots_args(");
+      boolean first = true;
+
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class getNumSlots_result implements org.apache.thrift.TBase<getNumSlots_result, getNumSlots_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getNumSlots_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.I32, (short)0);
+
+    public int success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getNumSlots_result.class, metaDataMap);
+    }
+
+    public getNumSlots_result() {
+    }
+
+    public getNumSlots_result(
+      int success)
+    {
+      this();
+      this.success = success;
+      setSuccessIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getNumSlots_result(getNumSlots_result other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.success = other.success;
+    }
+
+    public getNumSlots_result deepCopy() {
+      return new getNumSlots_result(this);
+    }
+
+    @Override
+    public void clear() {
+      setSuccessIsSet(false);
+      this.success = 0;
+    }
+
+    public int getSuccess() {
+      return this.success;
+    }
+
+    public getNumSlots_result setSuccess(int success) {
+      this.success = success;
+      setSuccessIsSet(true);
+      return this;
+    }
+
+    public void unsetSuccess() {
+      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return Integer.valueOf(getSuccess());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getNumSlots_result)
+        return this.equals((getNumSlots_result)that);
+      return false;
+    }
+
+    public boolean equals(getNumSlots_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true;
+      boolean that_present_success = true;
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (this.success != that.success)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getNumSlots_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getNumSlots_result typedOther = (getNumSlots_result)other;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.success = iprot.readI32();
+              setSuccessIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      oprot.writeStructBegin(STRUCT_DESC);
+
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        oprot.writeI32(this.success);
+        oprot.writeFieldEnd();
+      }
+      oprot.writeFieldStop();
+      oprot.writeStructEnd();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("getNumSlots_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      sb.append(this.success);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+  }
+
+  public static class getVassalId_args implements org.apache.thrift.TBase<getVassalId_args, getVassalId_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getVassalId_args");
+
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getVassalId_args.class, metaDataMap);
+    }
+
+    public getVassalId_args() {
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public getVassalId_args(getVassalId_args other) {
+    }
+
+    public getVassalId_args deepCopy() {
+      return new getVassalId_args(this);
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof getVassalId_args)
+        return this.equals((getVassalId_args)that);
+      return false;
+    }
+
+    public boolean equals(getVassalId_args that) {
+      if (that == null)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    public int compareTo(getVassalId_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+      getVassalId_args typedOther = (getVassalId_args)other;
+
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      org.apache.thrift.protocol.TField field;
+      iprot.readStructBegin();
+      while (true)
+      {
+        field = iprot.readFieldBegin();
+        if (field.type == org.apache.thrift.protocol.TType.STOP) { 
+          break;
+        }
+        switch (field.id) {
+          default:
+            org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+        }
+        iprot.readFieldEnd();
+      }
+      iprot.readStructEnd();
+
+      // check for required fields of primitive type, which can't be checked in the validate method
+      validate();
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      validate();
+
+      oprot.writeStructBegin(STRUCT_DESC);
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("startJobTasks_args(");
+      StringBuilder sb = new StringBuilder("getVassalId_args(");
       boolean first = true;
 
-      sb.append("nodeData:");
-      if (this.nodeData == null) {
-        sb.append("null");
-      } else {
-        sb.append(this.nodeData);
-      }
-      first = false;
-      if (!first) sb.append(", ");
-      sb.append("problemData:");
-      if (this.problemData == null) {
-        sb.append("null");
-      } else {
-        sb.append(this.problemData);
-      }
-      first = false;
-      if (!first) sb.append(", ");
-      sb.append("bestCost:");
-      sb.append(this.bestCost);
-      first = false;
-      if (!first) sb.append(", ");
-      sb.append("jobid:");
-      sb.append(this.jobid);
-      first = false;
-      if (!first) sb.append(", ");
-      sb.append("nthreads:");
-      sb.append(this.nthreads);
-      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -1728,8 +4989,6 @@ public class ThriftVassal {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
-        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
-        __isset_bit_vector = new BitSet(1);
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
@@ -1738,14 +4997,16 @@ public class ThriftVassal {
 
   }
 
-  public static class startJobTasks_result implements org.apache.thrift.TBase<startJobTasks_result, startJobTasks_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("startJobTasks_result");
+  public static class getVassalId_result implements org.apache.thrift.TBase<getVassalId_result, getVassalId_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getVassalId_result");
 
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.I32, (short)0);
 
+    public int success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-;
+      SUCCESS((short)0, "success");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -1760,6 +5021,8 @@ public class ThriftVassal {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
           default:
             return null;
         }
@@ -1798,37 +5061,91 @@ public class ThriftVassal {
         return _fieldName;
       }
     }
+
+    // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(startJobTasks_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getVassalId_result.class, metaDataMap);
     }
 
-    public startJobTasks_result() {
+    public getVassalId_result() {
+    }
+
+    public getVassalId_result(
+      int success)
+    {
+      this();
+      this.success = success;
+      setSuccessIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public startJobTasks_result(startJobTasks_result other) {
+    public getVassalId_result(getVassalId_result other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.success = other.success;
     }
 
-    public startJobTasks_result deepCopy() {
-      return new startJobTasks_result(this);
+    public getVassalId_result deepCopy() {
+      return new getVassalId_result(this);
     }
 
     @Override
     public void clear() {
+      setSuccessIsSet(false);
+      this.success = 0;
+    }
+
+    public int getSuccess() {
+      return this.success;
+    }
+
+    public getVassalId_result setSuccess(int success) {
+      this.success = success;
+      setSuccessIsSet(true);
+      return this;
+    }
+
+    public void unsetSuccess() {
+      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
     }
 
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((Integer)value);
+        }
+        break;
+
       }
     }
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
+      case SUCCESS:
+        return Integer.valueOf(getSuccess());
+
       }
       throw new IllegalStateException();
     }
@@ -1840,6 +5157,8 @@ public class ThriftVassal {
       }
 
       switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
       }
       throw new IllegalStateException();
     }
@@ -1848,15 +5167,24 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof startJobTasks_result)
-        return this.equals((startJobTasks_result)that);
+      if (that instanceof getVassalId_result)
+        return this.equals((getVassalId_result)that);
       return false;
     }
 
-    public boolean equals(startJobTasks_result that) {
+    public boolean equals(getVassalId_result that) {
       if (that == null)
         return false;
 
+      boolean this_present_success = true;
+      boolean that_present_success = true;
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (this.success != that.success)
+          return false;
+      }
+
       return true;
     }
 
@@ -1865,14 +5193,24 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(startJobTasks_result other) {
+    public int compareTo(getVassalId_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      startJobTasks_result typedOther = (startJobTasks_result)other;
+      getVassalId_result typedOther = (getVassalId_result)other;
 
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -1890,6 +5228,14 @@ public class ThriftVassal {
           break;
         }
         switch (field.id) {
+          case 0: // SUCCESS
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.success = iprot.readI32();
+              setSuccessIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
         }
@@ -1904,15 +5250,23 @@ public class ThriftVassal {
     public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
       oprot.writeStructBegin(STRUCT_DESC);
 
+      if (this.isSetSuccess()) {
+        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+        oprot.writeI32(this.success);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("startJobTasks_result(");
+      StringBuilder sb = new StringBuilder("getVassalId_result(");
       boolean first = true;
 
+      sb.append("success:");
+      sb.append(this.success);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -1939,8 +5293,8 @@ public class ThriftVassal {
 
   }
 
-  public static class stealWork_args implements org.apache.thrift.TBase<stealWork_args, stealWork_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("stealWork_args");
+  public static class beginCheckpoint_args implements org.apache.thrift.TBase<beginCheckpoint_args, beginCheckpoint_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("beginCheckpoint_args");
 
     private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
 
@@ -2014,13 +5368,13 @@ public class ThriftVassal {
       tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(stealWork_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(beginCheckpoint_args.class, metaDataMap);
     }
 
-    public stealWork_args() {
+    public beginCheckpoint_args() {
     }
 
-    public stealWork_args(
+    public beginCheckpoint_args(
       int jobid)
     {
       this();
@@ -2031,14 +5385,14 @@ public class ThriftVassal {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public stealWork_args(stealWork_args other) {
+    public beginCheckpoint_args(beginCheckpoint_args other) {
       __isset_bit_vector.clear();
       __isset_bit_vector.or(other.__isset_bit_vector);
       this.jobid = other.jobid;
     }
 
-    public stealWork_args deepCopy() {
-      return new stealWork_args(this);
+    public beginCheckpoint_args deepCopy() {
+      return new beginCheckpoint_args(this);
     }
 
     @Override
@@ -2051,7 +5405,7 @@ public class ThriftVassal {
       return this.jobid;
     }
 
-    public stealWork_args setJobid(int jobid) {
+    public beginCheckpoint_args setJobid(int jobid) {
       this.jobid = jobid;
       setJobidIsSet(true);
       return this;
@@ -2109,12 +5463,12 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof stealWork_args)
-        return this.equals((stealWork_args)that);
+      if (that instanceof beginCheckpoint_args)
+        return this.equals((beginCheckpoint_args)that);
       return false;
     }
 
-    public boolean equals(stealWork_args that) {
+    public boolean equals(beginCheckpoint_args that) {
       if (that == null)
         return false;
 
@@ -2135,13 +5489,13 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(stealWork_args other) {
+    public int compareTo(beginCheckpoint_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      stealWork_args typedOther = (stealWork_args)other;
+      beginCheckpoint_args typedOther = (beginCheckpoint_args)other;
 
       lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
       if (lastComparison != 0) {
@@ -2202,7 +5556,7 @@ public class ThriftVassal {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("stealWork_args(");
+      StringBuilder sb = new StringBuilder("beginCheckpoint_args(");
       boolean first = true;
 
       sb.append("jobid:");
@@ -2236,16 +5590,14 @@ public class ThriftVassal {
 
   }
 
-  public static class stealWork_result implements org.apache.thrift.TBase<stealWork_result, stealWork_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("stealWork_result");
+  public static class beginCheckpoint_result implements org.apache.thrift.TBase<beginCheckpoint_result, beginCheckpoint_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("beginCheckpoint_result");
 
-    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
 
-    public List<ThriftData> success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-      SUCCESS((short)0, "success");
+;
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -2260,8 +5612,6 @@ public class ThriftVassal {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
-          case 0: // SUCCESS
-            return SUCCESS;
           default:
             return null;
         }
@@ -2292,116 +5642,45 @@ public class ThriftVassal {
         _fieldName = fieldName;
       }
 
-      public short getThriftFieldId() {
-        return _thriftId;
-      }
-
-      public String getFieldName() {
-        return _fieldName;
-      }
-    }
-
-    // isset id assignments
-
-    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
-    static {
-      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
-      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
-              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftData.class))));
-      metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(stealWork_result.class, metaDataMap);
-    }
-
-    public stealWork_result() {
-    }
-
-    public stealWork_result(
-      List<ThriftData> success)
-    {
-      this();
-      this.success = success;
-    }
-
-    /**
-     * Performs a deep copy on <i>other</i>.
-     */
-    public stealWork_result(stealWork_result other) {
-      if (other.isSetSuccess()) {
-        List<ThriftData> __this__success = new ArrayList<ThriftData>();
-        for (ThriftData other_element : other.success) {
-          __this__success.add(new ThriftData(other_element));
-        }
-        this.success = __this__success;
-      }
-    }
-
-    public stealWork_result deepCopy() {
-      return new stealWork_result(this);
-    }
-
-    @Override
-    public void clear() {
-      this.success = null;
-    }
-
-    public int getSuccessSize() {
-      return (this.success == null) ? 0 : this.success.size();
-    }
-
-    public java.util.Iterator<ThriftData> getSuccessIterator() {
-      return (this.success == null) ? null : this.success.iterator();
-    }
-
-    public void addToSuccess(ThriftData elem) {
-      if (this.success == null) {
-        this.success = new ArrayList<ThriftData>();
+      public short getThriftFieldId() {
+        return _thriftId;
       }
-      this.success.add(elem);
-    }
 
-    public List<ThriftData> getSuccess() {
-      return this.success;
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(beginCheckpoint_result.class, metaDataMap);
     }
 
-    public stealWork_result setSuccess(List<ThriftData> success) {
-      this.success = success;
-      return this;
+    public beginCheckpoint_result() {
     }
 
-    public void unsetSuccess() {
-      this.success = null;
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public beginCheckpoint_result(beginCheckpoint_result other) {
     }
 
-    /** Returns true if field success is set (has been assigned a value) and false otherwise */
-    public boolean isSetSuccess() {
-      return this.success != null;
+    public beginCheckpoint_result deepCopy() {
+      return new beginCheckpoint_result(this);
     }
 
-    public void setSuccessIsSet(boolean value) {
-      if (!value) {
-        this.success = null;
-      }
+    @Override
+    public void clear() {
     }
 
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
-      case SUCCESS:
-        if (value == null) {
-          unsetSuccess();
-        } else {
-          setSuccess((List<ThriftData>)value);
-        }
-        break;
-
       }
     }
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
-      case SUCCESS:
-        return getSuccess();
-
       }
       throw new IllegalStateException();
     }
@@ -2413,8 +5692,6 @@ public class ThriftVassal {
       }
 
       switch (field) {
-      case SUCCESS:
-        return isSetSuccess();
       }
       throw new IllegalStateException();
     }
@@ -2423,24 +5700,15 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof stealWork_result)
-        return this.equals((stealWork_result)that);
+      if (that instanceof beginCheckpoint_result)
+        return this.equals((beginCheckpoint_result)that);
       return false;
     }
 
-    public boolean equals(stealWork_result that) {
+    public boolean equals(beginCheckpoint_result that) {
       if (that == null)
         return false;
 
-      boolean this_present_success = true && this.isSetSuccess();
-      boolean that_present_success = true && that.isSetSuccess();
-      if (this_present_success || that_present_success) {
-        if (!(this_present_success && that_present_success))
-          return false;
-        if (!this.success.equals(that.success))
-          return false;
-      }
-
       return true;
     }
 
@@ -2449,24 +5717,14 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(stealWork_result other) {
+    public int compareTo(beginCheckpoint_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      stealWork_result typedOther = (stealWork_result)other;
+      beginCheckpoint_result typedOther = (beginCheckpoint_result)other;
 
-      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
-      if (lastComparison != 0) {
-        return lastComparison;
-      }
-      if (isSetSuccess()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, typedOther.success);
-        if (lastComparison != 0) {
-          return lastComparison;
-        }
-      }
       return 0;
     }
 
@@ -2484,24 +5742,6 @@ public class ThriftVassal {
           break;
         }
         switch (field.id) {
-          case 0: // SUCCESS
-            if (field.type == org.apache.thrift.protocol.TType.LIST) {
-              {
-                org.apache.thrift.protocol.TList _list4 = iprot.readListBegin();
-                this.success = new ArrayList<ThriftData>(_list4.size);
-                for (int _i5 = 0; _i5 < _list4.size; ++_i5)
-                {
-                  ThriftData _elem6; // required
-                  _elem6 = new ThriftData();
-                  _elem6.read(iprot);
-                  this.success.add(_elem6);
-                }
-                iprot.readListEnd();
-              }
-            } else { 
-              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
-            }
-            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
         }
@@ -2516,34 +5756,15 @@ public class ThriftVassal {
     public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
       oprot.writeStructBegin(STRUCT_DESC);
 
-      if (this.isSetSuccess()) {
-        oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
-        {
-          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.success.size()));
-          for (ThriftData _iter7 : this.success)
-          {
-            _iter7.write(oprot);
-          }
-          oprot.writeListEnd();
-        }
-        oprot.writeFieldEnd();
-      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("stealWork_result(");
+      StringBuilder sb = new StringBuilder("beginCheckpoint_result(");
       boolean first = true;
 
-      sb.append("success:");
-      if (this.success == null) {
-        sb.append("null");
-      } else {
-        sb.append(this.success);
-      }
-      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -2570,14 +5791,16 @@ public class ThriftVassal {
 
   }
 
-  public static class getNumSlots_args implements org.apache.thrift.TBase<getNumSlots_args, getNumSlots_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getNumSlots_args");
+  public static class checkpoint_args implements org.apache.thrift.TBase<checkpoint_args, checkpoint_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("checkpoint_args");
 
+    private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
 
+    public int jobid; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-;
+      JOBID((short)1, "jobid");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -2592,6 +5815,8 @@ public class ThriftVassal {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
+          case 1: // JOBID
+            return JOBID;
           default:
             return null;
         }
@@ -2630,37 +5855,91 @@ public class ThriftVassal {
         return _fieldName;
       }
     }
+
+    // isset id assignments
+    private static final int __JOBID_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getNumSlots_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(checkpoint_args.class, metaDataMap);
     }
 
-    public getNumSlots_args() {
+    public checkpoint_args() {
+    }
+
+    public checkpoint_args(
+      int jobid)
+    {
+      this();
+      this.jobid = jobid;
+      setJobidIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getNumSlots_args(getNumSlots_args other) {
+    public checkpoint_args(checkpoint_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.jobid = other.jobid;
     }
 
-    public getNumSlots_args deepCopy() {
-      return new getNumSlots_args(this);
+    public checkpoint_args deepCopy() {
+      return new checkpoint_args(this);
     }
 
     @Override
     public void clear() {
+      setJobidIsSet(false);
+      this.jobid = 0;
+    }
+
+    public int getJobid() {
+      return this.jobid;
+    }
+
+    public checkpoint_args setJobid(int jobid) {
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      return this;
+    }
+
+    public void unsetJobid() {
+      __isset_bit_vector.clear(__JOBID_ISSET_ID);
+    }
+
+    /** Returns true if field jobid is set (has been assigned a value) and false otherwise */
+    public boolean isSetJobid() {
+      return __isset_bit_vector.get(__JOBID_ISSET_ID);
+    }
+
+    public void setJobidIsSet(boolean value) {
+      __isset_bit_vector.set(__JOBID_ISSET_ID, value);
     }
 
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
       }
     }
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
+      case JOBID:
+        return Integer.valueOf(getJobid());
+
       }
       throw new IllegalStateException();
     }
@@ -2672,6 +5951,8 @@ public class ThriftVassal {
       }
 
       switch (field) {
+      case JOBID:
+        return isSetJobid();
       }
       throw new IllegalStateException();
     }
@@ -2680,15 +5961,24 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getNumSlots_args)
-        return this.equals((getNumSlots_args)that);
+      if (that instanceof checkpoint_args)
+        return this.equals((checkpoint_args)that);
       return false;
     }
 
-    public boolean equals(getNumSlots_args that) {
+    public boolean equals(checkpoint_args that) {
       if (that == null)
         return false;
 
+      boolean this_present_jobid = true;
+      boolean that_present_jobid = true;
+      if (this_present_jobid || that_present_jobid) {
+        if (!(this_present_jobid && that_present_jobid))
+          return false;
+        if (this.jobid != that.jobid)
+          return false;
+      }
+
       return true;
     }
 
@@ -2697,14 +5987,24 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(getNumSlots_args other) {
+    public int compareTo(checkpoint_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getNumSlots_args typedOther = (getNumSlots_args)other;
+      checkpoint_args typedOther = (checkpoint_args)other;
 
+      lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJobid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jobid, typedOther.jobid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -2722,6 +6022,14 @@ public class ThriftVassal {
           break;
         }
         switch (field.id) {
+          case 1: // JOBID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.jobid = iprot.readI32();
+              setJobidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
         }
@@ -2737,15 +6045,21 @@ public class ThriftVassal {
       validate();
 
       oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(JOBID_FIELD_DESC);
+      oprot.writeI32(this.jobid);
+      oprot.writeFieldEnd();
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getNumSlots_args(");
+      StringBuilder sb = new StringBuilder("checkpoint_args(");
       boolean first = true;
 
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -2764,6 +6078,8 @@ public class ThriftVassal {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
@@ -2772,12 +6088,12 @@ public class ThriftVassal {
 
   }
 
-  public static class getNumSlots_result implements org.apache.thrift.TBase<getNumSlots_result, getNumSlots_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getNumSlots_result");
+  public static class checkpoint_result implements org.apache.thrift.TBase<checkpoint_result, checkpoint_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("checkpoint_result");
 
-    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.I32, (short)0);
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
 
-    public int success; // required
+    public List<ThriftData> success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -2838,69 +6154,86 @@ public class ThriftVassal {
     }
 
     // isset id assignments
-    private static final int __SUCCESS_ISSET_ID = 0;
-    private BitSet __isset_bit_vector = new BitSet(1);
 
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftData.class))));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getNumSlots_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(checkpoint_result.class, metaDataMap);
     }
 
-    public getNumSlots_result() {
+    public checkpoint_result() {
     }
 
-    public getNumSlots_result(
-      int success)
+    public checkpoint_result(
+      List<ThriftData> success)
     {
       this();
       this.success = success;
-      setSuccessIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getNumSlots_result(getNumSlots_result other) {
-      __isset_bit_vector.clear();
-      __isset_bit_vector.or(other.__isset_bit_vector);
-      this.success = other.success;
+    public checkpoint_result(checkpoint_result other) {
+      if (other.isSetSuccess()) {
+        List<ThriftData> __this__success = new ArrayList<ThriftData>();
+        for (ThriftData other_element : other.success) {
+          __this__success.add(new ThriftData(other_element));
+        }
+        this.success = __this__success;
+      }
     }
 
-    public getNumSlots_result deepCopy() {
-      return new getNumSlots_result(this);
+    public checkpoint_result deepCopy() {
+      return new checkpoint_result(this);
     }
 
     @Override
     public void clear() {
-      setSuccessIsSet(false);
-      this.success = 0;
+      this.success = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    public java.util.Iterator<ThriftData> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(ThriftData elem) {
+      if (this.success == null) {
+        this.success = new ArrayList<ThriftData>();
+      }
+      this.success.add(elem);
     }
 
-    public int getSuccess() {
+    public List<ThriftData> getSuccess() {
       return this.success;
     }
 
-    public getNumSlots_result setSuccess(int success) {
+    public checkpoint_result setSuccess(List<ThriftData> success) {
       this.success = success;
-      setSuccessIsSet(true);
       return this;
     }
 
     public void unsetSuccess() {
-      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+      this.success = null;
     }
 
     /** Returns true if field success is set (has been assigned a value) and false otherwise */
     public boolean isSetSuccess() {
-      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+      return this.success != null;
     }
 
     public void setSuccessIsSet(boolean value) {
-      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
+      if (!value) {
+        this.success = null;
+      }
     }
 
     public void setFieldValue(_Fields field, Object value) {
@@ -2909,7 +6242,7 @@ public class ThriftVassal {
         if (value == null) {
           unsetSuccess();
         } else {
-          setSuccess((Integer)value);
+          setSuccess((List<ThriftData>)value);
         }
         break;
 
@@ -2919,7 +6252,7 @@ public class ThriftVassal {
     public Object getFieldValue(_Fields field) {
       switch (field) {
       case SUCCESS:
-        return Integer.valueOf(getSuccess());
+        return getSuccess();
 
       }
       throw new IllegalStateException();
@@ -2942,21 +6275,21 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getNumSlots_result)
-        return this.equals((getNumSlots_result)that);
+      if (that instanceof checkpoint_result)
+        return this.equals((checkpoint_result)that);
       return false;
     }
 
-    public boolean equals(getNumSlots_result that) {
+    public boolean equals(checkpoint_result that) {
       if (that == null)
         return false;
 
-      boolean this_present_success = true;
-      boolean that_present_success = true;
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
       if (this_present_success || that_present_success) {
         if (!(this_present_success && that_present_success))
           return false;
-        if (this.success != that.success)
+        if (!this.success.equals(that.success))
           return false;
       }
 
@@ -2968,13 +6301,13 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(getNumSlots_result other) {
+    public int compareTo(checkpoint_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getNumSlots_result typedOther = (getNumSlots_result)other;
+      checkpoint_result typedOther = (checkpoint_result)other;
 
       lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
       if (lastComparison != 0) {
@@ -3004,9 +6337,19 @@ public class ThriftVassal {
         }
         switch (field.id) {
           case 0: // SUCCESS
-            if (field.type == org.apache.thrift.protocol.TType.I32) {
-              this.success = iprot.readI32();
-              setSuccessIsSet(true);
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list20 = iprot.readListBegin();
+                this.success = new ArrayList<ThriftData>(_list20.size);
+                for (int _i21 = 0; _i21 < _list20.size; ++_i21)
+                {
+                  ThriftData _elem22; // required
+                  _elem22 = new ThriftData();
+                  _elem22.read(iprot);
+                  this.success.add(_elem22);
+                }
+                iprot.readListEnd();
+              }
             } else { 
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
             }
@@ -3027,7 +6370,14 @@ public class ThriftVassal {
 
       if (this.isSetSuccess()) {
         oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
-        oprot.writeI32(this.success);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.success.size()));
+          for (ThriftData _iter23 : this.success)
+          {
+            _iter23.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
         oprot.writeFieldEnd();
       }
       oprot.writeFieldStop();
@@ -3036,11 +6386,15 @@ public class ThriftVassal {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getNumSlots_result(");
+      StringBuilder sb = new StringBuilder("checkpoint_result(");
       boolean first = true;
 
       sb.append("success:");
-      sb.append(this.success);
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
       first = false;
       sb.append(")");
       return sb.toString();
@@ -3068,14 +6422,16 @@ public class ThriftVassal {
 
   }
 
-  public static class getVassalId_args implements org.apache.thrift.TBase<getVassalId_args, getVassalId_args._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getVassalId_args");
+  public static class drainJob_args implements org.apache.thrift.TBase<drainJob_args, drainJob_args._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("drainJob_args");
 
+    private static final org.apache.thrift.protocol.TField JOBID_FIELD_DESC = new org.apache.thrift.protocol.TField("jobid", org.apache.thrift.protocol.TType.I32, (short)1);
 
+    public int jobid; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-;
+      JOBID((short)1, "jobid");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -3090,6 +6446,8 @@ public class ThriftVassal {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
+          case 1: // JOBID
+            return JOBID;
           default:
             return null;
         }
@@ -3128,37 +6486,91 @@ public class ThriftVassal {
         return _fieldName;
       }
     }
+
+    // isset id assignments
+    private static final int __JOBID_ISSET_ID = 0;
+    private BitSet __isset_bit_vector = new BitSet(1);
+
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.JOBID, new org.apache.thrift.meta_data.FieldMetaData("jobid", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getVassalId_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(drainJob_args.class, metaDataMap);
     }
 
-    public getVassalId_args() {
+    public drainJob_args() {
+    }
+
+    public drainJob_args(
+      int jobid)
+    {
+      this();
+      this.jobid = jobid;
+      setJobidIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getVassalId_args(getVassalId_args other) {
+    public drainJob_args(drainJob_args other) {
+      __isset_bit_vector.clear();
+      __isset_bit_vector.or(other.__isset_bit_vector);
+      this.jobid = other.jobid;
     }
 
-    public getVassalId_args deepCopy() {
-      return new getVassalId_args(this);
+    public drainJob_args deepCopy() {
+      return new drainJob_args(this);
     }
 
     @Override
     public void clear() {
+      setJobidIsSet(false);
+      this.jobid = 0;
+    }
+
+    public int getJobid() {
+      return this.jobid;
+    }
+
+    public drainJob_args setJobid(int jobid) {
+      this.jobid = jobid;
+      setJobidIsSet(true);
+      return this;
+    }
+
+    public void unsetJobid() {
+      __isset_bit_vector.clear(__JOBID_ISSET_ID);
+    }
+
+    /** Returns true if field jobid is set (has been assigned a value) and false otherwise */
+    public boolean isSetJobid() {
+      return __isset_bit_vector.get(__JOBID_ISSET_ID);
+    }
+
+    public void setJobidIsSet(boolean value) {
+      __isset_bit_vector.set(__JOBID_ISSET_ID, value);
     }
 
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
+      case JOBID:
+        if (value == null) {
+          unsetJobid();
+        } else {
+          setJobid((Integer)value);
+        }
+        break;
+
       }
     }
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
+      case JOBID:
+        return Integer.valueOf(getJobid());
+
       }
       throw new IllegalStateException();
     }
@@ -3170,6 +6582,8 @@ public class ThriftVassal {
       }
 
       switch (field) {
+      case JOBID:
+        return isSetJobid();
       }
       throw new IllegalStateException();
     }
@@ -3178,15 +6592,24 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getVassalId_args)
-        return this.equals((getVassalId_args)that);
+      if (that instanceof drainJob_args)
+        return this.equals((drainJob_args)that);
       return false;
     }
 
-    public boolean equals(getVassalId_args that) {
+    public boolean equals(drainJob_args that) {
       if (that == null)
         return false;
 
+      boolean this_present_jobid = true;
+      boolean that_present_jobid = true;
+      if (this_present_jobid || that_present_jobid) {
+        if (!(this_present_jobid && that_present_jobid))
+          return false;
+        if (this.jobid != that.jobid)
+          return false;
+      }
+
       return true;
     }
 
@@ -3195,14 +6618,24 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(getVassalId_args other) {
+    public int compareTo(drainJob_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getVassalId_args typedOther = (getVassalId_args)other;
+      drainJob_args typedOther = (drainJob_args)other;
 
+      lastComparison = Boolean.valueOf(isSetJobid()).compareTo(typedOther.isSetJobid());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetJobid()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.jobid, typedOther.jobid);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -3220,6 +6653,14 @@ public class ThriftVassal {
           break;
         }
         switch (field.id) {
+          case 1: // JOBID
+            if (field.type == org.apache.thrift.protocol.TType.I32) {
+              this.jobid = iprot.readI32();
+              setJobidIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
         }
@@ -3235,15 +6676,21 @@ public class ThriftVassal {
       validate();
 
       oprot.writeStructBegin(STRUCT_DESC);
+      oprot.writeFieldBegin(JOBID_FIELD_DESC);
+      oprot.writeI32(this.jobid);
+      oprot.writeFieldEnd();
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getVassalId_args(");
+      StringBuilder sb = new StringBuilder("drainJob_args(");
       boolean first = true;
 
+      sb.append("jobid:");
+      sb.append(this.jobid);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -3262,6 +6709,8 @@ public class ThriftVassal {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bit_vector = new BitSet(1);
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
@@ -3270,12 +6719,12 @@ public class ThriftVassal {
 
   }
 
-  public static class getVassalId_result implements org.apache.thrift.TBase<getVassalId_result, getVassalId_result._Fields>, java.io.Serializable, Cloneable   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("getVassalId_result");
+  public static class drainJob_result implements org.apache.thrift.TBase<drainJob_result, drainJob_result._Fields>, java.io.Serializable, Cloneable   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("drainJob_result");
 
-    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.I32, (short)0);
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.LIST, (short)0);
 
-    public int success; // required
+    public List<ThriftData> success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -3336,69 +6785,86 @@ public class ThriftVassal {
     }
 
     // isset id assignments
-    private static final int __SUCCESS_ISSET_ID = 0;
-    private BitSet __isset_bit_vector = new BitSet(1);
 
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, ThriftData.class))));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(getVassalId_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(drainJob_result.class, metaDataMap);
     }
 
-    public getVassalId_result() {
+    public drainJob_result() {
     }
 
-    public getVassalId_result(
-      int success)
+    public drainJob_result(
+      List<ThriftData> success)
     {
       this();
       this.success = success;
-      setSuccessIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public getVassalId_result(getVassalId_result other) {
-      __isset_bit_vector.clear();
-      __isset_bit_vector.or(other.__isset_bit_vector);
-      this.success = other.success;
+    public drainJob_result(drainJob_result other) {
+      if (other.isSetSuccess()) {
+        List<ThriftData> __this__success = new ArrayList<ThriftData>();
+        for (ThriftData other_element : other.success) {
+          __this__success.add(new ThriftData(other_element));
+        }
+        this.success = __this__success;
+      }
     }
 
-    public getVassalId_result deepCopy() {
-      return new getVassalId_result(this);
+    public drainJob_result deepCopy() {
+      return new drainJob_result(this);
     }
 
     @Override
     public void clear() {
-      setSuccessIsSet(false);
-      this.success = 0;
+      this.success = null;
     }
 
-    public int getSuccess() {
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    public java.util.Iterator<ThriftData> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(ThriftData elem) {
+      if (this.success == null) {
+        this.success = new ArrayList<ThriftData>();
+      }
+      this.success.add(elem);
+    }
+
+    public List<ThriftData> getSuccess() {
       return this.success;
     }
 
-    public getVassalId_result setSuccess(int success) {
+    public drainJob_result setSuccess(List<ThriftData> success) {
       this.success = success;
-      setSuccessIsSet(true);
       return this;
     }
 
     public void unsetSuccess() {
-      __isset_bit_vector.clear(__SUCCESS_ISSET_ID);
+      this.success = null;
     }
 
     /** Returns true if field success is set (has been assigned a value) and false otherwise */
     public boolean isSetSuccess() {
-      return __isset_bit_vector.get(__SUCCESS_ISSET_ID);
+      return this.success != null;
     }
 
     public void setSuccessIsSet(boolean value) {
-      __isset_bit_vector.set(__SUCCESS_ISSET_ID, value);
+      if (!value) {
+        this.success = null;
+      }
     }
 
     public void setFieldValue(_Fields field, Object value) {
@@ -3407,7 +6873,7 @@ public class ThriftVassal {
         if (value == null) {
           unsetSuccess();
         } else {
-          setSuccess((Integer)value);
+          setSuccess((List<ThriftData>)value);
         }
         break;
 
@@ -3417,7 +6883,7 @@ public class ThriftVassal {
     public Object getFieldValue(_Fields field) {
       switch (field) {
       case SUCCESS:
-        return Integer.valueOf(getSuccess());
+        return getSuccess();
 
       }
       throw new IllegalStateException();
@@ -3440,21 +6906,21 @@ public class ThriftVassal {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof getVassalId_result)
-        return this.equals((getVassalId_result)that);
+      if (that instanceof drainJob_result)
+        return this.equals((drainJob_result)that);
       return false;
     }
 
-    public boolean equals(getVassalId_result that) {
+    public boolean equals(drainJob_result that) {
       if (that == null)
         return false;
 
-      boolean this_present_success = true;
-      boolean that_present_success = true;
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
       if (this_present_success || that_present_success) {
         if (!(this_present_success && that_present_success))
           return false;
-        if (this.success != that.success)
+        if (!this.success.equals(that.success))
           return false;
       }
 
@@ -3466,13 +6932,13 @@ public class ThriftVassal {
       return 0;
     }
 
-    public int compareTo(getVassalId_result other) {
+    public int compareTo(drainJob_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
 
       int lastComparison = 0;
-      getVassalId_result typedOther = (getVassalId_result)other;
+      drainJob_result typedOther = (drainJob_result)other;
 
       lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(typedOther.isSetSuccess());
       if (lastComparison != 0) {
@@ -3502,9 +6968,19 @@ public class ThriftVassal {
         }
         switch (field.id) {
           case 0: // SUCCESS
-            if (field.type == org.apache.thrift.protocol.TType.I32) {
-              this.success = iprot.readI32();
-              setSuccessIsSet(true);
+            if (field.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list24 = iprot.readListBegin();
+                this.success = new ArrayList<ThriftData>(_list24.size);
+                for (int _i25 = 0; _i25 < _list24.size; ++_i25)
+                {
+                  ThriftData _elem26; // required
+                  _elem26 = new ThriftData();
+                  _elem26.read(iprot);
+                  this.success.add(_elem26);
+                }
+                iprot.readListEnd();
+              }
             } else { 
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, field.type);
             }
@@ -3525,7 +7001,14 @@ public class ThriftVassal {
 
       if (this.isSetSuccess()) {
         oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
-        oprot.writeI32(this.success);
+        {
+          oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, this.success.size()));
+          for (ThriftData _iter27 : this.success)
+          {
+            _iter27.write(oprot);
+          }
+          oprot.writeListEnd();
+        }
         oprot.writeFieldEnd();
       }
       oprot.writeFieldStop();
@@ -3534,11 +7017,15 @@ public class ThriftVassal {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("getVassalId_result(");
+      StringBuilder sb = new StringBuilder("drainJob_result(");
       boolean first = true;
 
       sb.append("success:");
-      sb.append(this.success);
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
       first = false;
       sb.append(")");
       return sb.toString();
@@ -2,19 +2,45 @@ namespace java bnb.rpc
 
 struct ThriftData {
 	1:string className,
-	2:binary bytes
+	2:binary bytes,
+	3:i32 typeId
+}
+
+struct ThriftTypeId {
+	1:string className,
+	2:i32 typeId
+}
+
+struct ThriftPeer {
+	1:string hostname,
+	2:i32 port,
+	3:i32 vassalid
+}
+
+struct ThriftLoad {
+	1:i32 frontierSize,
+	2:i32 shallowestDepth,
+	3:double bestOpenBound
 }
 
 service ThriftVassal {
 	void updateBestSolCost(1:double bestCost, 2:i32 jobid),
-	void startJobTasks(1:list<ThriftData> nodeData, 2:ThriftData problemData, 3:double bestCost, 4:i32 jobid, 5:i32 nthreads),
+	void startJobTasks(1:list<ThriftData> nodeData, 2:ThriftData problemData, 3:double bestCost, 4:i32 jobid, 5:i32 nthreads, 6:string nodePoolType, 7:double jumpRatio, 8:list<ThriftPeer> peers, 9:list<ThriftTypeId> typeIds, 10:double weight),
 	list<ThriftData> stealWork(1:i32 jobid),
+	list<ThriftData> stealWorkFromPeer(1:i32 jobid, 2:i32 thiefid, 3:double bestCost, 4:i64 leaseId),
 	i32 getNumSlots(),
-	i32 getVassalId()
+	i32 getVassalId(),
+	void beginCheckpoint(1:i32 jobid),
+	list<ThriftData> checkpoint(1:i32 jobid),
+	list<ThriftData> drainJob(1:i32 jobid)
 }
 
 service ThriftLord {
 	void sendBestSolCost(1:double bestCost, 2:i32 jobid, 3:i32 vassalid, 4:ThriftData solution),
-	list<ThriftData> askForWork(1:i32 jobid, 2:i32 vassalid, 3:double bestCost),
-	void registerVassal(1:string hostname, 2:i32 port, 3:i32 vassalid)
+	list<ThriftData> askForWork(1:i32 jobid, 2:i32 vassalid, 3:double bestCost, 4:bool prefetch, 5:i64 leaseId, 6:ThriftLoad load),
+	void registerVassal(1:string hostname, 2:i32 port, 3:i32 vassalid),
+	void unregisterVassal(1:i32 vassalid),
+	bool heartbeat(1:i32 jobid, 2:i32 vassalid, 3:list<i64> liveLeases, 4:i64 maxLeaseReceived, 5:list<i64> failedLeases, 6:ThriftLoad load),
+	bool leaseWork(1:i32 jobid, 2:i32 donorid, 3:i32 thiefid, 4:i64 leaseId, 5:list<ThriftData> nodes),
+	i64 getTimeMicros()
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package bnb.lord;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.tsp.City;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+
+public class TestCheckpointFile {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		TspProblem problem = makeProblem();
+		File file = makeFile();
+		CheckpointFile checkpoints = new CheckpointFile(file);
+		Checkpoint first = new Checkpoint(3, 0, 1000, 250, makeNodes(problem, 2));
+		Checkpoint second = new Checkpoint(3, 1, 2000, 240, makeNodes(problem, 4));
+		checkpoints.append(first);
+		checkpoints.append(second);
+		assertSameCheckpoint(second, checkpoints.readLatest(problem));
+		checkpoints.close();
+
+		checkpoints = new CheckpointFile(file);
+		Assert.assertEquals(2, checkpoints.getNumCheckpoints());
+		assertSameCheckpoint(first, checkpoints.read(0, problem));
+		assertSameCheckpoint(second, checkpoints.readLatest(problem));
+		checkpoints.close();
+	}
+
+	/**
+	 * A record cut off partway through, as if we crashed while writing it, is ignored,
+	 * and the next checkpoint is written over it.
+	 */
+	@Test
+	public void testTruncatedTail() throws IOException {
+		TspProblem problem = makeProblem();
+		File file = makeFile();
+		CheckpointFile checkpoints = new CheckpointFile(file);
+		Checkpoint first = new Checkpoint(3, 0, 1000, 250, makeNodes(problem, 2));
+		checkpoints.append(first);
+		checkpoints.append(new Checkpoint(3, 1, 2000, 240, makeNodes(problem, 4)));
+		long end = checkpoints.getDataEnd();
+		checkpoints.close();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(end - 5);
+		raf.close();
+
+		checkpoints = new CheckpointFile(file);
+		Assert.assertEquals(1, checkpoints.getNumCheckpoints());
+		assertSameCheckpoint(first, checkpoints.readLatest(problem));
+		Checkpoint third = new Checkpoint(3, 2, 3000, 230, makeNodes(problem, 3));
+		checkpoints.append(third);
+		checkpoints.close();
+
+		checkpoints = new CheckpointFile(file);
+		Assert.assertEquals(2, checkpoints.getNumCheckpoints());
+		assertSameCheckpoint(third, checkpoints.readLatest(problem));
+		checkpoints.close();
+	}
+
+	@Test
+	public void testCrcMismatch() throws IOException {
+		TspProblem problem = makeProblem();
+		File file = makeFile();
+		CheckpointFile checkpoints = new CheckpointFile(file);
+		Checkpoint first = new Checkpoint(3, 0, 1000, 250, makeNodes(problem, 2));
+		checkpoints.append(first);
+		long secondStart = checkpoints.getDataEnd();
+		checkpoints.append(new Checkpoint(3, 1, 2000, 240, makeNodes(problem, 4)));
+		long secondEnd = checkpoints.getDataEnd();
+		checkpoints.close();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		long corrupt = (secondStart + secondEnd) / 2;
+		raf.seek(corrupt);
+		int b = raf.read();
+		raf.seek(corrupt);
+		raf.write(b ^ 0xff);
+		raf.close();
+
+		checkpoints = new CheckpointFile(file);
+		Assert.assertEquals(1, checkpoints.getNumCheckpoints());
+		assertSameCheckpoint(first, checkpoints.readLatest(problem));
+		checkpoints.close();
+	}
+
+	private static File makeFile() throws IOException {
+		File file = File.createTempFile("checkpoint", ".bnbc");
+		file.delete();
+		file.deleteOnExit();
+		new File(file.getPath() + ".idx").deleteOnExit();
+		return file;
+	}
+
+	private static TspProblem makeProblem() {
+		City[] cities = {new City(5, 10, 0), new City(5, 65, 1), new City(4, 5, 2),
+				new City(30, 12, 3), new City(18, 40, 4), new City(40, 33, 5)};
+		TspProblem problem = new TspProblem(cities);
+		problem.makeEdges();
+		return problem;
+	}
+
+	/**
+	 * The root and some of its children, evaluated.
+	 */
+	private static List<BnbNode> makeNodes(TspProblem problem, int numChildren) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remCities = new LinkedList<City>(Arrays.asList(cities).subList(1, cities.length));
+		TspNode root = new TspNode(cities[0], cities[0], 1, null, remCities, null, -1, problem);
+		root.evaluate(Double.MAX_VALUE);
+		List<BnbNode> nodes = new ArrayList<BnbNode>();
+		for (int i = 0; i < numChildren; i++) {
+			BnbNode child = root.nextChild(true);
+			child.evaluate(Double.MAX_VALUE);
+			nodes.add(child);
+		}
+		nodes.add(root);
+		return nodes;
+	}
+
+	private static void assertSameCheckpoint(Checkpoint expected, Checkpoint read) {
+		Assert.assertEquals(expected.getJobID(), read.getJobID());
+		Assert.assertEquals(expected.getSeq(), read.getSeq());
+		Assert.assertEquals(expected.getTimestamp(), read.getTimestamp());
+		Assert.assertEquals(expected.getBestCost(), read.getBestCost());
+		Assert.assertEquals(expected.getNodes().size(), read.getNodes().size());
+		for (int i = 0; i < expected.getNodes().size(); i++) {
+			Assert.assertTrue(Arrays.equals(expected.getNodes().get(i).toBytes(), read.getNodes().get(i).toBytes()));
+		}
+	}
+}
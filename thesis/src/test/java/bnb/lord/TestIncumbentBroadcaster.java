@@ -0,0 +1,78 @@
+package bnb.lord;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.rpc.RpcCallback;
+import bnb.stats.LordJobStats;
+
+public class TestIncumbentBroadcaster {
+
+	@Test
+	public void testPushesToVassalsThatDontHaveIt() throws InterruptedException {
+		CountDownLatch sent = new CountDownLatch(2);
+		RecordingVassal source = new RecordingVassal(0, sent);
+		RecordingVassal other1 = new RecordingVassal(1, sent);
+		RecordingVassal other2 = new RecordingVassal(2, sent);
+		IncumbentBroadcaster broadcaster = new IncumbentBroadcaster(1,
+				Arrays.<VassalProxy>asList(source, other1, other2), 300, new LordJobStats());
+
+		Assert.assertTrue(broadcaster.offer(250, 0));
+		Assert.assertEquals(250.0, broadcaster.getMinCost());
+		Assert.assertTrue(sent.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList(250.0), other1.costs);
+		Assert.assertEquals(Arrays.asList(250.0), other2.costs);
+		//it found the cost, so it already has it
+		Assert.assertTrue(source.costs.isEmpty());
+		broadcaster.shutdown();
+	}
+
+	@Test
+	public void testSkipsVassalsWithBetterCosts() throws InterruptedException {
+		CountDownLatch sent = new CountDownLatch(1);
+		RecordingVassal source = new RecordingVassal(0, sent);
+		RecordingVassal better = new RecordingVassal(1, sent);
+		RecordingVassal worse = new RecordingVassal(2, sent);
+		IncumbentBroadcaster broadcaster = new IncumbentBroadcaster(1,
+				Arrays.<VassalProxy>asList(source, better, worse), 300, new LordJobStats());
+		broadcaster.noteKnownCost(1, 200);
+
+		Assert.assertTrue(broadcaster.offer(250, 0));
+		Assert.assertTrue(sent.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList(250.0), worse.costs);
+		//a cost no better than the one we have goes nowhere
+		Assert.assertFalse(broadcaster.offer(260, 2));
+		broadcaster.shutdown();
+		Thread.sleep(50);
+		Assert.assertTrue(better.costs.isEmpty());
+		Assert.assertTrue(source.costs.isEmpty());
+		Assert.assertEquals(1, worse.costs.size());
+	}
+
+	/**
+	 * Remembers the costs sent to it and acks them right away.
+	 */
+	private static class RecordingVassal extends VassalProxy {
+		private final List<Double> costs = new CopyOnWriteArrayList<Double>();
+		private final CountDownLatch sent;
+
+		public RecordingVassal(int vassalId, CountDownLatch sent) {
+			super(vassalId);
+			this.sent = sent;
+		}
+
+		@Override
+		public void updateBestSolCostAsync(double bestCost, int jobid, RpcCallback callback) {
+			costs.add(bestCost);
+			callback.onComplete();
+			sent.countDown();
+		}
+	}
+}
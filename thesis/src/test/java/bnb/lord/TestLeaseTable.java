@@ -0,0 +1,115 @@
+package bnb.lord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.tsp.TspNode;
+
+public class TestLeaseTable {
+
+	private static final List<Long> NONE = Collections.<Long>emptyList();
+
+	@Test
+	public void testLeasesDoneWhenNotLive() {
+		LeaseTable table = new LeaseTable();
+		table.addVassal(1, 0);
+		table.grant(1, 0, makeNodes(2));
+		table.grant(1, 1, makeNodes(1));
+		table.grant(1, 2, makeNodes(1));
+		Assert.assertEquals(3, table.getNumLeases(1));
+
+		//lease 2 hasn't been received yet, so it isn't done even though it's not live
+		List<BnbNode> orphans = table.heartbeat(1, Arrays.asList(1L), 1, NONE, 10);
+		Assert.assertTrue(orphans.isEmpty());
+		Assert.assertEquals(2, table.getNumLeases(1));
+
+		table.heartbeat(1, NONE, 2, NONE, 20);
+		Assert.assertEquals(0, table.getNumLeases(1));
+	}
+
+	@Test
+	public void testFailedLeasesGivenBack() {
+		LeaseTable table = new LeaseTable();
+		table.addVassal(1, 0);
+		List<BnbNode> nodes = makeNodes(3);
+		table.grant(1, 5, nodes);
+
+		List<BnbNode> orphans = table.heartbeat(1, NONE, -1, Arrays.asList(5L), 10);
+		Assert.assertEquals(nodes, orphans);
+		Assert.assertEquals(0, table.getNumLeases(1));
+
+		//nodes that turn up late for a failed request aren't granted
+		Assert.assertTrue(table.grant(1, 6, makeNodes(1)));
+		table.heartbeat(1, NONE, -1, Arrays.asList(7L), 20);
+		Assert.assertFalse(table.grant(1, 7, makeNodes(1)));
+	}
+
+	@Test
+	public void testHeartbeatsWaitForSteals() {
+		LeaseTable table = new LeaseTable();
+		table.addVassal(1, 0);
+		table.grant(1, 0, makeNodes(1));
+
+		table.beginSteal(1);
+		table.heartbeat(1, NONE, 0, NONE, 10);
+		Assert.assertEquals(1, table.getNumLeases(1));
+		table.endSteal(1);
+		table.heartbeat(1, NONE, 0, NONE, 20);
+		Assert.assertEquals(0, table.getNumLeases(1));
+	}
+
+	@Test
+	public void testRevoke() {
+		LeaseTable table = new LeaseTable();
+		table.addVassal(1, 0);
+		table.addVassal(2, 0);
+		table.grant(1, 0, makeNodes(2));
+		table.grant(1, 1, makeNodes(3));
+		table.heartbeat(2, NONE, -1, NONE, 1000);
+
+		Assert.assertEquals(Arrays.asList(1), table.expired(1000, 500));
+		Assert.assertEquals(5, table.revoke(1).size());
+		Assert.assertTrue(table.isLost(1));
+		Assert.assertFalse(table.isLost(2));
+		Assert.assertEquals(1, table.getNumLost());
+
+		//anything more from a lost vassal is turned away
+		Assert.assertNull(table.revoke(1));
+		Assert.assertNull(table.heartbeat(1, NONE, 1, NONE, 1100));
+		Assert.assertFalse(table.grant(1, 2, makeNodes(1)));
+		Assert.assertTrue(table.expired(1100, 500).isEmpty());
+	}
+
+	@Test
+	public void testRelease() {
+		LeaseTable table = new LeaseTable();
+		Assert.assertTrue(table.addVassal(1, 0));
+		Assert.assertFalse(table.addVassal(1, 10));
+		table.grant(1, 0, makeNodes(2));
+
+		//a drained vassal gave its nodes back itself, so there's nothing to hand out
+		Assert.assertTrue(table.release(1));
+		Assert.assertEquals(0, table.getNumLeases(1));
+		Assert.assertNull(table.revoke(1));
+		Assert.assertFalse(table.release(1));
+		Assert.assertFalse(table.grant(1, 1, makeNodes(1)));
+
+		//and it can't come back into the same job
+		Assert.assertFalse(table.addVassal(1, 20));
+	}
+
+	private static List<BnbNode> makeNodes(int n) {
+		List<BnbNode> nodes = new ArrayList<BnbNode>();
+		for (int i = 0; i < n; i++) {
+			nodes.add(new TspNode());
+		}
+		return nodes;
+	}
+}
@@ -0,0 +1,71 @@
+package bnb.lord;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.rpc.TransportConfig;
+import bnb.vassal.LoadSummary;
+
+public class TestLoadIndex {
+
+	@Test
+	public void testRanksLargeFrontiersByBound() {
+		LoadIndex index = new LoadIndex();
+		VassalProxy unknown = proxy(1);
+		VassalProxy empty = proxy(2);
+		VassalProxy small = proxy(3);
+		VassalProxy bigWorseBound = proxy(4);
+		VassalProxy bigBestBound = proxy(5);
+		index.update(2, LoadSummary.EMPTY);
+		index.update(3, new LoadSummary(10, 3, 100));
+		index.update(4, new LoadSummary(100, 3, 200));
+		index.update(5, new LoadSummary(60, 5, 150));
+
+		List<VassalProxy> ranked = index.rankVictims(Arrays.asList(unknown, empty, small, bigWorseBound,
+				bigBestBound));
+		Assert.assertEquals(Arrays.asList(bigBestBound, bigWorseBound, small, unknown, empty), ranked);
+	}
+
+	@Test
+	public void testShallowerBreaksTies() {
+		LoadIndex index = new LoadIndex();
+		VassalProxy deep = proxy(1);
+		VassalProxy shallow = proxy(2);
+		index.update(1, new LoadSummary(50, 8, 100));
+		index.update(2, new LoadSummary(50, 4, 100));
+		Assert.assertEquals(Arrays.asList(shallow, deep), index.rankVictims(Arrays.asList(deep, shallow)));
+	}
+
+	@Test
+	public void testTookNodes() {
+		LoadIndex index = new LoadIndex();
+		index.update(1, new LoadSummary(5, 2, 100));
+		index.tookNodes(1, 3);
+		Assert.assertEquals(2, index.get(1).getFrontierSize());
+		index.tookNodes(1, 3);
+		Assert.assertEquals(0, index.get(1).getFrontierSize());
+		//nothing to take from a vassal we haven't heard from
+		index.tookNodes(2, 1);
+		Assert.assertNull(index.get(2));
+	}
+
+	@Test
+	public void testAggregate() {
+		LoadIndex index = new LoadIndex();
+		index.update(1, new LoadSummary(10, 6, 150));
+		index.update(2, new LoadSummary(5, -1, 120));
+		index.update(3, LoadSummary.EMPTY);
+		LoadSummary total = index.aggregate(2);
+		Assert.assertEquals(17, total.getFrontierSize());
+		Assert.assertEquals(6, total.getShallowestDepth());
+		Assert.assertEquals(120.0, total.getBestOpenBound());
+	}
+
+	private static VassalProxy proxy(int id) {
+		return new VassalProxy("localhost", -1, id, TransportConfig.DEFAULT);
+	}
+}
@@ -0,0 +1,106 @@
+package bnb.lord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.stats.LordJobStats;
+import bnb.tsp.SmallTsp;
+import bnb.tsp.TspProblem;
+import bnb.vassal.LoadSummary;
+import bnb.vassal.LordProxy;
+
+public class TestLordJobManager {
+
+	@Test
+	public void testDoneWhenGroupRunsOutWithoutParent() throws InterruptedException {
+		final LordJobManager jobManager = new LordJobManager(1, new LinkedList<BnbNode>(),
+				SmallTsp.makeProblem(), Arrays.<VassalProxy>asList(new OutOfWorkVassal(0), new OutOfWorkVassal(1)),
+				Double.MAX_VALUE, new LordJobStats());
+
+		//vassal 0 keeps looking while vassal 1 might still have work
+		final List<List<BnbNode>> result = new ArrayList<List<BnbNode>>();
+		Thread asker = new Thread() {
+			public void run() {
+				result.add(jobManager.askForWork(0, 1));
+			}
+		};
+		asker.start();
+		Thread.sleep(50);
+		Assert.assertFalse(jobManager.isDone());
+
+		Assert.assertTrue(jobManager.askForWork(1, 1).isEmpty());
+		asker.join(5000);
+		Assert.assertFalse(asker.isAlive());
+		Assert.assertTrue(result.get(0).isEmpty());
+		Assert.assertTrue(jobManager.isDone());
+	}
+
+	@Test
+	public void testAsksParentWhenGroupRunsOut() {
+		TspProblem problem = SmallTsp.makeProblem();
+		BnbNode root = SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		StubParent parent = new StubParent(Arrays.asList(root));
+		LordJobManager jobManager = new LordJobManager(1, new LinkedList<BnbNode>(), problem,
+				Arrays.<VassalProxy>asList(new OutOfWorkVassal(0)), Double.MAX_VALUE, new LordJobStats());
+		jobManager.setParent(new ParentLink(parent, 7, 3, problem, ParentLink.DEFAULT_HEARTBEAT_INTERVAL));
+
+		List<BnbNode> nodes = jobManager.askForWork(0, 1);
+		Assert.assertEquals(1, nodes.size());
+		Assert.assertEquals(1, parent.numAsks.get());
+		Assert.assertFalse(jobManager.isDone());
+
+		//the parent is out too, so we're done
+		Assert.assertTrue(jobManager.askForWork(0, 2).isEmpty());
+		Assert.assertEquals(2, parent.numAsks.get());
+		Assert.assertTrue(jobManager.isDone());
+	}
+
+	/**
+	 * Never has any work to give.
+	 */
+	private static class OutOfWorkVassal extends VassalProxy {
+		public OutOfWorkVassal(int vassalId) {
+			super(vassalId);
+		}
+
+		@Override
+		public List<BnbNode> stealWork(LordJobManager jobManager) {
+			return new LinkedList<BnbNode>();
+		}
+	}
+
+	/**
+	 * Hands out its nodes to the first ask that isn't a prefetch, and nothing after that.
+	 */
+	private static class StubParent extends LordProxy {
+		private final List<BnbNode> nodes;
+		private final AtomicInteger numAsks = new AtomicInteger();
+
+		public StubParent(List<BnbNode> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public List<BnbNode> askForWork(int jobid, int vassalid, Problem problem, double bestCost, boolean prefetch,
+				long leaseId, LoadSummary load) throws IOException {
+			Assert.assertEquals(7, jobid);
+			Assert.assertEquals(3, vassalid);
+			Assert.assertFalse(prefetch);
+			if (numAsks.getAndIncrement() == 0) {
+				return new LinkedList<BnbNode>(nodes);
+			}
+			return new LinkedList<BnbNode>();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package bnb.lord;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.tsp.SmallTsp;
+import bnb.tsp.TspProblem;
+import bnb.vassal.SimpleVassalNodePool;
+import bnb.vassal.StealPolicy;
+
+public class TestStarter {
+
+	@Test
+	public void testPiecesCoverTree() {
+		for (int parallelism = 1; parallelism <= 4; parallelism *= 2) {
+			TspProblem problem = SmallTsp.makeProblem();
+			Starter starter = new Starter(parallelism);
+			List<BnbNode> pieces = starter.startEvaluation(problem, Double.MAX_VALUE,
+					SmallTsp.makeRoot(problem), 8);
+			Assert.assertTrue(pieces.size() >= 8);
+
+			double bestCost = starter.getBestCost();
+			for (BnbNode piece : pieces) {
+				//solve each piece on its own, as the vassals would
+				bestCost = Math.min(bestCost, SmallTsp.solve(new SimpleVassalNodePool(),
+						piece.copyForTransfer(problem)));
+			}
+			Assert.assertEquals(SmallTsp.OPTIMAL_COST, bestCost);
+		}
+	}
+
+	@Test
+	public void testBiggestPiecesFirst() {
+		TspProblem problem = SmallTsp.makeProblem();
+		BnbNode root = SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		double rootWork = StealPolicy.estimateWork(root, Double.MAX_VALUE);
+		List<BnbNode> pieces = new Starter(2).startEvaluation(problem, Double.MAX_VALUE, root, 4);
+		double prevWork = Double.MAX_VALUE;
+		for (BnbNode piece : pieces) {
+			double work = StealPolicy.estimateWork(piece, Double.MAX_VALUE);
+			Assert.assertTrue(work <= rootWork / 4);
+			Assert.assertTrue(work <= prevWork);
+			prevWork = work;
+		}
+	}
+}
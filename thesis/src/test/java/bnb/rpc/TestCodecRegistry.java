@@ -0,0 +1,71 @@
+package bnb.rpc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.tsp.TspCodecs;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+
+public class TestCodecRegistry {
+
+	@Test
+	public void testLordsIdsReplaceOurOwn() {
+		CodecRegistry registry = new CodecRegistry();
+		TspCodecs.register(registry);
+		int nodeTypeId = registry.getTypeId(TspNode.class);
+		int problemTypeId = registry.getTypeId(TspProblem.class);
+
+		//the lord registered them the other way around
+		Map<String, Integer> lordTypeIds = new HashMap<String, Integer>();
+		lordTypeIds.put(TspNode.class.getName(), problemTypeId);
+		lordTypeIds.put(TspProblem.class.getName(), nodeTypeId);
+		registry.adoptTypeIds(lordTypeIds);
+		Assert.assertEquals(problemTypeId, registry.getTypeId(TspNode.class));
+		Assert.assertEquals(nodeTypeId, registry.getTypeId(TspProblem.class));
+		Assert.assertTrue(registry.newInstance(problemTypeId) instanceof TspNode);
+		Assert.assertTrue(registry.newInstance(nodeTypeId) instanceof TspProblem);
+	}
+
+	@Test
+	public void testAdoptingAgainKeepsIds() {
+		CodecRegistry registry = new CodecRegistry();
+		TspCodecs.register(registry);
+		Map<String, Integer> lordTypeIds = new HashMap<String, Integer>(registry.getTypeIds());
+		registry.adoptTypeIds(lordTypeIds);
+		//as a second job from the same lord would
+		registry.adoptTypeIds(lordTypeIds);
+		Assert.assertEquals(lordTypeIds, registry.getTypeIds());
+		Assert.assertTrue(registry.newInstance(lordTypeIds.get(TspNode.class.getName())) instanceof TspNode);
+	}
+
+	@Test
+	public void testRejectsConflictingIds() {
+		CodecRegistry registry = new CodecRegistry();
+		TspCodecs.register(registry);
+		Map<String, Integer> lordTypeIds = new HashMap<String, Integer>(registry.getTypeIds());
+		registry.adoptTypeIds(lordTypeIds);
+		int nodeTypeId = registry.getTypeId(TspNode.class);
+
+		Map<String, Integer> otherTypeIds = new HashMap<String, Integer>();
+		otherTypeIds.put(TspNode.class.getName(), nodeTypeId + 10);
+		try {
+			registry.adoptTypeIds(otherTypeIds);
+			Assert.fail("adopted a second type id for a class");
+		} catch (IllegalArgumentException ex) {
+		}
+		otherTypeIds.clear();
+		otherTypeIds.put(String.class.getName(), nodeTypeId);
+		try {
+			registry.adoptTypeIds(otherTypeIds);
+			Assert.fail("adopted a type id that's already another class's");
+		} catch (IllegalArgumentException ex) {
+		}
+		Assert.assertEquals(lordTypeIds, registry.getTypeIds());
+		Assert.assertTrue(registry.newInstance(nodeTypeId) instanceof TspNode);
+	}
+}
@@ -1,5 +1,7 @@
 package bnb.rpc;
 
+import junit.framework.Assert;
+
 import org.junit.Test;
 
 import bnb.BnbNode;
@@ -8,6 +10,7 @@ import bnb.tsp.TspNode;
 import bnb.tsp.TspProblem;
 
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,4 +33,96 @@ public class TestRpcUtil {
 		//read
 //		BnbNode readNode = RpcUtil.nodeFromThriftData(nodeData, problem);
 	}
+	
+	@Test
+	public void testReadTspNodeByTypeId() throws Exception {
+		TspProblem problem = makeProblem();
+		TspNode node = makeChild(problem);
+		//a registry of our own, so that the default one is left as other tests expect it
+		CodecRegistry registry = new CodecRegistry();
+		registry.register(TspNode.class, new ByteableFactory() {
+			@Override
+			public Byteable newInstance() {
+				return new TspNode();
+			}
+		});
+		
+		ThriftData nodeData = RpcUtil.toThriftData(node, registry);
+		Assert.assertTrue(nodeData.typeId > 0);
+		Assert.assertNull(nodeData.className);
+		assertSameNode(node, RpcUtil.nodeFromThriftData(nodeData, problem, registry));
+	}
+	
+	@Test
+	public void testReadTspNodeByClassName() throws Exception {
+		TspProblem problem = makeProblem();
+		TspNode node = makeChild(problem);
+		
+		ThriftData nodeData = new ThriftData();
+		nodeData.setClassName(TspNode.class.getName());
+		nodeData.setBytes(node.toBytes());
+		assertSameNode(node, RpcUtil.nodeFromThriftData(nodeData, problem));
+	}
+	
+	@Test
+	public void testReadUnregisteredTypeId() throws Exception {
+		TspProblem problem = makeProblem();
+		TspNode node = makeChild(problem);
+		
+		//as sent by a peer whose type ids we don't have
+		ThriftData nodeData = new ThriftData();
+		nodeData.setTypeId(Integer.MAX_VALUE);
+		nodeData.setBytes(node.toBytes());
+		try {
+			RpcUtil.nodeFromThriftData(nodeData, problem);
+			Assert.fail("read a node with an unregistered type id");
+		} catch (ClassNotFoundException ex) {
+			Assert.assertTrue(ex.getMessage().contains(String.valueOf(Integer.MAX_VALUE)));
+		}
+	}
+	
+	@Test
+	public void testReadTspNodeFromSlicedBuffer() throws Exception {
+		TspProblem problem = makeProblem();
+		TspNode node = makeChild(problem);
+		
+		//the node's bytes in the middle of a bigger array, as they are when a buffer is
+		//read out of a frame
+		byte[] bytes = node.toBytes();
+		byte[] frame = new byte[bytes.length + 10];
+		System.arraycopy(bytes, 0, frame, 7, bytes.length);
+		ByteBuffer buffer = ByteBuffer.wrap(frame, 7, bytes.length).slice();
+		
+		ThriftData nodeData = new ThriftData();
+		nodeData.setClassName(TspNode.class.getName());
+		nodeData.setBytes(buffer);
+		assertSameNode(node, RpcUtil.nodeFromThriftData(nodeData, problem));
+		//reading shouldn't use up the struct's buffer
+		Assert.assertEquals(bytes.length, nodeData.bytes.remaining());
+	}
+	
+	private static TspProblem makeProblem() {
+		City[] cities = {new City(5, 10, 0), new City(5, 65, 1), new City(4, 5, 2), 
+				new City(30, 12, 3), new City(18, 40, 4)};
+		TspProblem problem = new TspProblem(cities);
+		problem.makeEdges();
+		return problem;
+	}
+	
+	private static TspNode makeChild(TspProblem problem) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remCities = new LinkedList<City>(Arrays.asList(cities).subList(1, cities.length));
+		TspNode root = new TspNode(cities[0], cities[0], 1, null, remCities, null, -1, problem);
+		root.evaluate(Double.MAX_VALUE);
+		TspNode child = (TspNode)root.nextChild(true);
+		child.evaluate(Double.MAX_VALUE);
+		return child;
+	}
+	
+	private static void assertSameNode(TspNode expected, BnbNode read) {
+		Assert.assertTrue(read instanceof TspNode);
+		Assert.assertEquals(expected.getCity(), ((TspNode)read).getCity());
+		Assert.assertEquals(expected.getDepth(), read.getDepth());
+		Assert.assertTrue(Arrays.equals(expected.toBytes(), read.toBytes()));
+	}
 }
@@ -0,0 +1,32 @@
+package bnb.rpc;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TestTransportConfig {
+	@Test
+	public void testParse() {
+		TransportConfig config = TransportConfig.parse("binary");
+		Assert.assertFalse(config.isFramed());
+		Assert.assertFalse(config.isCompact());
+		Assert.assertEquals(TransportConfig.DEFAULT_MAX_CONNECTIONS, config.getMaxConnections());
+		
+		config = TransportConfig.parse("compact, async, 8");
+		Assert.assertTrue(config.isFramed());
+		Assert.assertTrue(config.isCompact());
+		Assert.assertTrue(config.isAsync());
+		Assert.assertEquals(8, config.getMaxConnections());
+		Assert.assertFalse(config.isNonblockingServer());
+		
+		config = TransportConfig.parse("nonblocking,workers=16");
+		Assert.assertTrue(config.isFramed());
+		Assert.assertTrue(config.isNonblockingServer());
+		Assert.assertEquals(16, config.getServerThreads());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testAsyncNeedsFraming() {
+		new TransportConfig(false, false, true, 1);
+	}
+}
@@ -0,0 +1,95 @@
+package bnb.sim;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.tsp.SmallTsp;
+import bnb.vassal.NodePoolType;
+
+public class TestSimulator {
+
+	@Test
+	public void testRoundTrip() {
+		RecordedTree tree = record();
+		RecordedTree read = new RecordedTree();
+		read.initFromBytes(tree.toBytes());
+		Assert.assertEquals(tree.size(), read.size());
+		Assert.assertEquals(tree.getUpperBound(), read.getUpperBound());
+		Assert.assertEquals(tree.getTotalEvalNanos(), read.getTotalEvalNanos());
+		for (int i = 0; i < tree.size(); i++) {
+			Assert.assertEquals(tree.getNumChildren(i), read.getNumChildren(i));
+			Assert.assertEquals(tree.getBound(i), read.getBound(i));
+		}
+	}
+	
+	@Test
+	public void testChildrenInOrder() {
+		RecordedTree tree = new RecordedTree(100);
+		tree.addNode(-1, 10, 1, 1, -1, 0, 0);
+		tree.addNode(0, 10, 2, 2, -1, 1, 0);
+		tree.addNode(1, 10, 3, 3, -1, 2, RecordedTree.SOLUTION | RecordedTree.LEAF);
+		tree.addNode(0, 10, 4, 4, -1, 1, RecordedTree.SOLUTION | RecordedTree.LEAF);
+		Assert.assertEquals(2, tree.getNumChildren(0));
+		Assert.assertEquals(1, tree.getChild(0, 0));
+		Assert.assertEquals(3, tree.getChild(0, 1));
+		Assert.assertEquals(2, tree.getChild(1, 0));
+		Assert.assertEquals(0, tree.getNumChildren(3));
+	}
+	
+	/**
+	 * One vassal with one thread should go through the tree just as it was recorded.
+	 */
+	@Test
+	public void testSerialReplayMatchesRecording() {
+		RecordedTree tree = record();
+		Simulator sim = new Simulator(tree);
+		sim.setRpcLatencyNanos(0);
+		SimReport report = sim.run();
+		Assert.assertEquals(tree.size(), report.getNodesEvaluated());
+		Assert.assertEquals(0, report.getUnrecordedNodes());
+		Assert.assertEquals(tree.getTotalEvalNanos(), report.getMakespanNanos());
+		//the root is evaluated before the task thread starts
+		double rootFraction = (double)tree.getEvalNanos(0) / tree.getTotalEvalNanos();
+		Assert.assertEquals(rootFraction, report.getIdleFraction(), 1e-9);
+		Assert.assertEquals(0, report.getSteals());
+	}
+	
+	@Test
+	public void testParallelReplayFindsOptimum() {
+		RecordedTree tree = record();
+		double best = new Simulator(tree).run().getBestCost();
+		for (NodePoolType type : NodePoolType.values()) {
+			Simulator sim = new Simulator(tree);
+			sim.setNumVassals(3);
+			sim.setNumThreads(2);
+			sim.setNodePoolType(type);
+			SimReport report = sim.run();
+			Assert.assertEquals(type.name(), best, report.getBestCost());
+			Assert.assertTrue(report.getNodesEvaluated() > 0);
+			Assert.assertTrue(report.getIdleFraction() >= 0 && report.getIdleFraction() < 1);
+		}
+	}
+	
+	@Test
+	public void testStealsSpreadWork() {
+		//a root with four children, each a leaf that takes a second
+		RecordedTree tree = new RecordedTree(Double.MAX_VALUE);
+		tree.addNode(-1, 0, 0, 0, -1, 0, 0);
+		for (int i = 0; i < 4; i++) {
+			tree.addNode(0, 1000000000L, 1, 1, -1, 1, RecordedTree.LEAF);
+		}
+		Simulator sim = new Simulator(tree);
+		sim.setNumVassals(4);
+		sim.setPrefetchWatermark(0);
+		SimReport report = sim.run();
+		Assert.assertEquals(5, report.getNodesEvaluated());
+		Assert.assertTrue(report.getSteals() >= 3);
+		//each leaf on its own vassal, plus a few messages
+		Assert.assertTrue(report.getMakespanNanos() < 1100000000L);
+	}
+	
+	private static RecordedTree record() {
+		return new TreeRecorder(Integer.MAX_VALUE).record(SmallTsp.makeRoot(SmallTsp.makeProblem(9)));
+	}
+}
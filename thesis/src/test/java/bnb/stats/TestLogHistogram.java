@@ -0,0 +1,73 @@
+package bnb.stats;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TestLogHistogram {
+	@Test
+	public void testBucketsCoverEveryValue() {
+		long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456789L, Long.MAX_VALUE};
+		for (long value : values) {
+			int index = LogHistogram.bucketIndex(value);
+			Assert.assertTrue(value <= LogHistogram.bucketUpperBound(index));
+			if (index > 0) {
+				Assert.assertTrue(value > LogHistogram.bucketUpperBound(index - 1));
+			}
+		}
+	}
+	
+	@Test
+	public void testPercentiles() {
+		LogHistogram hist = new LogHistogram();
+		Assert.assertEquals(0, hist.getValueAtPercentile(50));
+		for (int i = 1; i <= 1000; i++) {
+			hist.record(i);
+		}
+		Assert.assertEquals(1000, hist.getCount());
+		Assert.assertEquals(500500, hist.getSum());
+		Assert.assertEquals(1, hist.getMin());
+		Assert.assertEquals(1000, hist.getMax());
+		//within a sixteenth
+		long p50 = hist.getValueAtPercentile(50);
+		Assert.assertTrue(p50 >= 500 && p50 <= 500 + 500 / 16);
+		long p99 = hist.getValueAtPercentile(99);
+		Assert.assertTrue(p99 >= 990 && p99 <= 1000);
+		Assert.assertEquals(1000, hist.getValueAtPercentile(100));
+	}
+	
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		final LogHistogram hist = new LogHistogram();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						hist.record(j);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(40000, hist.getCount());
+		Assert.assertEquals(0, hist.getMin());
+		Assert.assertEquals(9999, hist.getMax());
+	}
+	
+	@Test
+	public void testEventRingKeepsMostRecent() {
+		EventRing ring = new EventRing(2, 4);
+		for (long i = 0; i < 6; i++) {
+			ring.record(i, i * 10);
+		}
+		Assert.assertEquals(6, ring.getNumRecorded());
+		Assert.assertEquals(Arrays.asList(2L, 3L, 4L, 5L), ring.getColumn(0));
+		Assert.assertEquals(Arrays.asList(20L, 30L, 40L, 50L), ring.getColumn(1));
+	}
+}
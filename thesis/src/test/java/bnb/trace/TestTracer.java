@@ -0,0 +1,104 @@
+package bnb.trace;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TestTracer {
+	@Test
+	public void testKeepsOnlyRecentSpans() throws IOException {
+		Tracer tracer = new Tracer(4);
+		tracer.enable(1);
+		for (int i = 0; i < 10; i++) {
+			tracer.end(Span.ASK_LORD, tracer.begin(Span.ASK_LORD), 1, 2, i);
+		}
+		String trace = write(tracer);
+		Assert.assertEquals(4, count(trace, "\"name\": \"" + Span.ASK_LORD.getDisplayName() + "\""));
+		Assert.assertFalse(trace.contains("\"nodes\": 5}"));
+		Assert.assertTrue(trace.contains("\"nodes\": 6}"));
+		Assert.assertTrue(trace.contains("\"nodes\": 9}"));
+	}
+	
+	@Test
+	public void testSamplesOnlySampledSpans() throws IOException {
+		Tracer tracer = new Tracer(1000);
+		Assert.assertEquals(-1, tracer.begin(Span.ASK_LORD));
+		tracer.enable(10);
+		for (int i = 0; i < 100; i++) {
+			tracer.end(Span.EVALUATE, tracer.begin(Span.EVALUATE), 1, 2);
+			tracer.end(Span.IDLE, tracer.begin(Span.IDLE), 1, 2);
+		}
+		String trace = write(tracer);
+		Assert.assertEquals(10, count(trace, "\"name\": \"" + Span.EVALUATE.getDisplayName() + "\""));
+		Assert.assertEquals(100, count(trace, "\"name\": \"" + Span.IDLE.getDisplayName() + "\""));
+	}
+	
+	@Test
+	public void testFlowIds() {
+		Assert.assertTrue(Tracer.flowId(0, 0) != 0);
+		Assert.assertTrue(Tracer.flowId(0, 1) != Tracer.flowId(1, 1));
+		Assert.assertTrue(Tracer.flowId(1, 0) != Tracer.flowId(0, 1));
+		Assert.assertEquals(Tracer.flowId(3, 7), Tracer.flowId(3, 7));
+	}
+	
+	@Test
+	public void testMergeShiftsByOffset() throws IOException {
+		Tracer lord = new Tracer(16);
+		lord.enable(1);
+		lord.setProcess(0, "lord");
+		Tracer vassal = new Tracer(16);
+		vassal.enable(1);
+		vassal.setProcess(1, "vassal0");
+		vassal.setClockOffset(1000000);
+		
+		Assert.assertEquals("{\"ph\": \"X\", \"ts\": 1500, \"dur\": 3}",
+				TraceMerger.shift("{\"ph\": \"X\", \"ts\": 500, \"dur\": 3}", 1000));
+		
+		long start = vassal.begin(Span.ASK_LORD);
+		vassal.end(Span.ASK_LORD, start, 1, 0, 5, 0, Tracer.flowId(0, 1));
+		lord.end(Span.LORD_ASK_FOR_WORK, lord.begin(Span.LORD_ASK_FOR_WORK), 1, 0, 5, 0, Tracer.flowId(0, 1));
+		File lordFile = writeTemp(lord);
+		File vassalFile = writeTemp(vassal);
+		StringWriter merged = new StringWriter();
+		TraceMerger.merge(new File[] {lordFile, vassalFile}, merged);
+		lordFile.delete();
+		vassalFile.delete();
+		
+		String trace = merged.toString();
+		Assert.assertTrue(trace.startsWith("{\"traceEvents\": ["));
+		Assert.assertTrue(trace.contains("\"ts\": " + (start + 1000000) + ","));
+		Assert.assertEquals(1, count(trace, "\"ph\": \"s\""));
+		Assert.assertEquals(1, count(trace, "\"ph\": \"f\""));
+		Assert.assertFalse(trace.contains("otherData"));
+	}
+	
+	private static String write(Tracer tracer) throws IOException {
+		StringWriter writer = new StringWriter();
+		tracer.writeTo(writer);
+		return writer.toString();
+	}
+	
+	private static File writeTemp(Tracer tracer) throws IOException {
+		File file = File.createTempFile("trace", ".json");
+		FileWriter writer = new FileWriter(file);
+		try {
+			tracer.writeTo(writer);
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+	
+	private static int count(String s, String sub) {
+		int n = 0;
+		for (int i = s.indexOf(sub); i >= 0; i = s.indexOf(sub, i + 1)) {
+			n++;
+		}
+		return n;
+	}
+}
@@ -0,0 +1,79 @@
+package bnb.tsp;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import bnb.BnbNode;
+import bnb.vassal.VassalNodePool;
+
+/**
+ * A TSP instance small enough for tests to solve in a moment, and a single threaded search
+ * to solve it with.
+ */
+public class SmallTsp {
+	//first 12 cities of eil51
+	private static final int[][] COORS = {
+		{37, 52}, {49, 49}, {52, 64}, {20, 26}, {40, 30}, {21, 47},
+		{17, 63}, {31, 62}, {52, 33}, {51, 21}, {42, 41}, {31, 32}
+	};
+	public static final double OPTIMAL_COST = 165;
+
+	public static TspProblem makeProblem() {
+		return makeProblem(COORS.length);
+	}
+
+	/**
+	 * Only the first numCities cities, for tests that want a smaller tree.
+	 */
+	public static TspProblem makeProblem(int numCities) {
+		City[] cities = new City[numCities];
+		for (int i = 0; i < numCities; i++) {
+			cities[i] = new City(COORS[i][0], COORS[i][1], i);
+		}
+		TspProblem problem = new TspProblem(cities);
+		problem.makeEdges();
+		return problem;
+	}
+
+	public static BnbNode makeRoot() {
+		return makeRoot(makeProblem());
+	}
+
+	public static BnbNode makeRoot(TspProblem problem) {
+		City[] cities = problem.getCities();
+		LinkedList<City> remainingCities = new LinkedList<City>();
+		remainingCities.addAll(Arrays.asList(cities).subList(1, cities.length));
+		return new TspNode(cities[0], cities[0], 1, null, remainingCities, null, -1, problem);
+	}
+
+	public static double solve(VassalNodePool pool) {
+		return solve(pool, makeRoot());
+	}
+
+	/**
+	 * Runs the same loop as TaskRunner on a single thread, with no starting upper bound.
+	 * The root is evaluated first unless it already has been.
+	 */
+	public static double solve(VassalNodePool pool, BnbNode root) {
+		double bestCost = Double.MAX_VALUE;
+		if (!root.isEvaluated()) {
+			root.evaluate(bestCost);
+		}
+		pool.post(root);
+		BnbNode node;
+		while ((node = pool.nextNode()) != null) {
+			node.evaluate(bestCost);
+			if (node.isSolution()) {
+				bestCost = Math.min(bestCost, node.getCost());
+				node.whenAllChildrenDone();
+				node.getParent().childDone();
+			} else if (!node.isLeaf()) {
+				pool.post(node);
+			} else {
+				node.whenAllChildrenDone();
+				node.getParent().childDone();
+			}
+		}
+		return bestCost;
+	}
+}
@@ -0,0 +1,87 @@
+package bnb.tsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.tsp.bench.TspBenchInputs;
+import bnb.tsp.run.ProblemGen;
+
+public class TestHeldKarpWorkspace {
+
+	private static TspBenchInputs makeInputs(String instance, int numCities) throws IOException {
+		City[] cities = ProblemGen.read(new File("../tsptests/" + instance + ".258"), numCities);
+		TspProblem problem = new TspProblem(cities);
+		problem.makeEdges();
+		return new TspBenchInputs(instance, problem, 64, 3);
+	}
+
+	/**
+	 * Bounds every sample both ways, from zero weights and from random ones, with no upper
+	 * bound, with the incumbent, and with one low enough to cut the bound off early, and
+	 * checks that the bounds, the weights they leave and the tours they find are the same.
+	 */
+	private static void checkSameAsHeldAndKarp(TspBenchInputs inputs) {
+		TspProblem problem = inputs.getProblem();
+		City[] cities = problem.getCities();
+		int numCities = problem.getNumCities();
+		HeldKarpWorkspace workspace = HeldKarpWorkspace.get();
+		Random rand = new Random(5);
+		for (int i = 0; i < inputs.getNumSamples(); i++) {
+			int[] path = inputs.getPath(i);
+			City start = cities[path[0]];
+			City end = cities[path[path.length - 1]];
+			int pathCost = inputs.pathCost(i);
+			double[] minCosts = {Integer.MAX_VALUE, inputs.getIncumbent(), pathCost + end.dist(start)};
+			for (double minCost : minCosts) {
+				for (int w = 0; w < 2; w++) {
+					int[] weights = new int[numCities];
+					if (w == 1) {
+						for (int c = 0; c < numCities; c++) {
+							weights[c] = rand.nextInt(20) - 10;
+						}
+						weights[start.id] = 0;
+						weights[end.id] = 0;
+					}
+					int[] expectedWeights = weights.clone();
+					List<City> expectedTour = new ArrayList<City>();
+					int expected = HeldAndKarp.bound(start, end, inputs.remainingVector(i), problem.getEdges(),
+							minCost, inputs.remainingCities(i), numCities, pathCost, expectedWeights, expectedTour);
+
+					int[] actualWeights = weights.clone();
+					int actual = workspace.bound(start, end, inputs.remainingVector(i), problem.getEdgeArrays(),
+							minCost, inputs.remainingCities(i), numCities, pathCost, actualWeights);
+					List<City> actualTour = new ArrayList<City>();
+					workspace.addTourTo(actualTour, cities);
+
+					Assert.assertEquals(expected, actual);
+					Assert.assertTrue(Arrays.equals(expectedWeights, actualWeights));
+					Assert.assertEquals(expectedTour, actualTour);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSameAsHeldAndKarp() throws IOException {
+		checkSameAsHeldAndKarp(makeInputs("eil51", 51));
+		checkSameAsHeldAndKarp(makeInputs("kroA100", 100));
+	}
+
+	/**
+	 * The workspace is sized for the biggest problem it's seen, and has to work on smaller
+	 * ones after.
+	 */
+	@Test
+	public void testSmallerProblemAfterBigger() throws IOException {
+		checkSameAsHeldAndKarp(makeInputs("eil76", 76));
+		checkSameAsHeldAndKarp(makeInputs("eil51", 20));
+	}
+}
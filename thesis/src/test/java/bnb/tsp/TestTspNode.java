@@ -0,0 +1,94 @@
+package bnb.tsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TestTspNode {
+	@Test
+	public void testCompactRoundTrip() {
+		TspProblem problem = SmallTsp.makeProblem();
+		for (TspNode node : makeNodes(problem)) {
+			byte[] bytes = node.toBytes();
+			TspNode read = new TspNode();
+			read.initFromBytes(bytes, problem);
+			Assert.assertTrue(Arrays.equals(bytes, read.toBytes()));
+			Assert.assertEquals(node.getCity(), read.getCity());
+			Assert.assertEquals(node.getDepth(), read.getDepth());
+		}
+	}
+	
+	/**
+	 * The compact format should build the same remaining cities, in the same order, as
+	 * buildSinglePathStructures does for the old one.
+	 */
+	@Test
+	public void testReadsLegacyFormat() {
+		TspProblem problem = SmallTsp.makeProblem();
+		for (TspNode node : makeNodes(problem)) {
+			TspNode legacyRead = new TspNode();
+			legacyRead.initFromBytes(node.toLegacyBytes(), problem);
+			TspNode compactRead = new TspNode();
+			compactRead.initFromBytes(node.toBytes(), problem);
+			Assert.assertTrue(Arrays.equals(node.toBytes(), legacyRead.toBytes()));
+			List<Integer> childIds = childIds(legacyRead);
+			Assert.assertFalse(childIds.isEmpty());
+			Assert.assertEquals(childIds, childIds(compactRead));
+		}
+	}
+	
+	@Test
+	public void testCopyForTransferMatchesDecode() {
+		TspProblem problem = SmallTsp.makeProblem();
+		for (TspNode node : makeNodes(problem)) {
+			TspNode copy = (TspNode)node.copyForTransfer(problem);
+			TspNode read = new TspNode();
+			read.initFromBytes(node.toBytes(), problem);
+			Assert.assertTrue(Arrays.equals(read.toBytes(), copy.toBytes()));
+			Assert.assertEquals(childIds(read), childIds(copy));
+		}
+	}
+
+	@Test
+	public void testCompactIsSmaller() {
+		for (TspNode node : makeNodes(SmallTsp.makeProblem())) {
+			Assert.assertTrue(node.toBytes().length < node.toLegacyBytes().length);
+		}
+	}
+	
+	/**
+	 * Evaluated nodes at a few depths, with some of their children explored.  Always
+	 * makes the same nodes.
+	 */
+	private static List<TspNode> makeNodes(TspProblem problem) {
+		TspNode root = (TspNode)SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		
+		List<TspNode> nodes = new ArrayList<TspNode>();
+		nodes.add(root);
+		TspNode node = root;
+		for (int depth = 0; depth < 3; depth++) {
+			TspNode child = (TspNode)node.nextChild(true);
+			node.nextChild(true);
+			child.evaluate(Double.MAX_VALUE);
+			nodes.add(child);
+			node = child;
+		}
+		return nodes;
+	}
+	
+	/**
+	 * Ids of the children the node has left to give out, in order.  Uses them up.
+	 */
+	private static List<Integer> childIds(TspNode node) {
+		List<Integer> ids = new ArrayList<Integer>();
+		while (node.hasNextChild()) {
+			ids.add(((TspNode)node.nextChild(true)).getCity().id);
+		}
+		return ids;
+	}
+}
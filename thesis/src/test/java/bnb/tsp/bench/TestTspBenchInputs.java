@@ -0,0 +1,90 @@
+package bnb.tsp.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.tsp.City;
+import bnb.tsp.HeldAndKarp;
+import bnb.tsp.TspNode;
+import bnb.tsp.TspProblem;
+import bnb.tsp.run.ProblemGen;
+
+public class TestTspBenchInputs {
+
+	private static TspBenchInputs makeInputs(long seed) throws IOException {
+		TspProblem problem = new TspProblem(ProblemGen.genCities(30));
+		problem.makeEdges();
+		return new TspBenchInputs("eil51-30", problem, 16, seed);
+	}
+
+	@Test
+	public void testSameSeedSameSamples() throws IOException {
+		TspBenchInputs inputs1 = makeInputs(7);
+		TspBenchInputs inputs2 = makeInputs(7);
+		Assert.assertEquals(inputs1.getIncumbent(), inputs2.getIncumbent());
+		for (int i = 0; i < inputs1.getNumSamples(); i++) {
+			Assert.assertTrue(Arrays.equals(inputs1.getPath(i), inputs2.getPath(i)));
+		}
+	}
+
+	@Test
+	public void testPathsAreValid() throws IOException {
+		TspBenchInputs inputs = makeInputs(7);
+		int numCities = inputs.getProblem().getNumCities();
+		for (int i = 0; i < inputs.getNumSamples(); i++) {
+			int[] path = inputs.getPath(i);
+			Assert.assertEquals(0, path[0]);
+			Assert.assertTrue(path.length >= 4);
+			Assert.assertTrue(path.length <= numCities - 3);
+			boolean[] seen = new boolean[numCities];
+			for (int id : path) {
+				Assert.assertFalse(seen[id]);
+				seen[id] = true;
+			}
+
+			TspNode node = inputs.makeNode(i);
+			Assert.assertFalse(node.isEvaluated());
+			Assert.assertEquals(path.length, node.getDepth());
+			Assert.assertEquals(path[path.length - 1], node.getCity().id);
+
+			TspNode evaluated = inputs.makeEvaluatedNode(i);
+			int numChildren = 0;
+			while (evaluated.hasNextChild()) {
+				evaluated.nextChild(true);
+				numChildren++;
+			}
+			Assert.assertEquals(numCities - path.length, numChildren);
+		}
+	}
+
+	/**
+	 * Evaluating a sample's node should come to the same bound as calling HeldAndKarp.bound
+	 * with the sample's inputs, so that the two benchmarks measure the same work.
+	 */
+	@Test
+	public void testEvaluateMatchesBound() throws IOException {
+		TspBenchInputs inputs = makeInputs(7);
+		TspProblem problem = inputs.getProblem();
+		City[] cities = problem.getCities();
+		int numCities = problem.getNumCities();
+		for (int i = 0; i < inputs.getNumSamples(); i++) {
+			int[] path = inputs.getPath(i);
+			City start = cities[path[0]];
+			City end = cities[path[path.length - 1]];
+			int pathCost = inputs.pathCost(i);
+			List<City> tour = new ArrayList<City>();
+			int bound = HeldAndKarp.bound(start, end, inputs.remainingVector(i), problem.getEdges(),
+					Integer.MAX_VALUE, inputs.remainingCities(i), numCities, pathCost, new int[numCities], tour);
+
+			TspNode node = inputs.makeNode(i);
+			node.evaluate(Integer.MAX_VALUE);
+			Assert.assertEquals((double)Math.max(bound, pathCost + end.dist(start)), node.getLowerBound());
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package bnb.vassal;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.tsp.SmallTsp;
+
+public class TestBestFirstVassalNodePool {
+
+	@Test
+	public void testSameCostAsDepthFirst() {
+		Assert.assertEquals(SmallTsp.OPTIMAL_COST, SmallTsp.solve(new SimpleVassalNodePool()));
+		Assert.assertEquals(SmallTsp.OPTIMAL_COST, SmallTsp.solve(new BestFirstVassalNodePool(1.0)));
+		Assert.assertEquals(SmallTsp.OPTIMAL_COST, SmallTsp.solve(new BestFirstVassalNodePool(1.1)));
+		Assert.assertEquals(SmallTsp.OPTIMAL_COST, SmallTsp.solve(new BestFirstVassalNodePool(Double.MAX_VALUE)));
+	}
+
+	@Test
+	public void testJumpsToBestBound() {
+		BestFirstVassalNodePool pool = new BestFirstVassalNodePool(1.0);
+		SmallTsp.solve(pool);
+		Assert.assertTrue(pool.getNumJumps() > 0);
+	}
+}
@@ -0,0 +1,105 @@
+package bnb.vassal;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.tsp.SmallTsp;
+
+public class TestEvaluationGate {
+	@Test
+	public void testPauseWaitsForRunnerToGetOut() throws InterruptedException {
+		final EvaluationGate gate = new EvaluationGate();
+		EvaluationGate.Slot slot = gate.register();
+		Assert.assertTrue(gate.tryEnter(slot));
+
+		final CountDownLatch paused = new CountDownLatch(1);
+		Thread pauser = new Thread() {
+			public void run() {
+				gate.pause();
+				paused.countDown();
+				gate.resume();
+			}
+		};
+		pauser.start();
+		Assert.assertFalse(paused.await(100, TimeUnit.MILLISECONDS));
+		gate.exit(slot);
+		Assert.assertTrue(paused.await(5, TimeUnit.SECONDS));
+		pauser.join();
+		Assert.assertTrue(gate.tryEnter(slot));
+	}
+
+	@Test
+	public void testRunnersWaitOutPause() throws InterruptedException {
+		final EvaluationGate gate = new EvaluationGate();
+		final EvaluationGate.Slot slot = gate.register();
+		gate.pause();
+		Assert.assertFalse(gate.tryEnter(slot));
+
+		final AtomicBoolean entered = new AtomicBoolean();
+		final CountDownLatch done = new CountDownLatch(2);
+		Thread runner = new Thread() {
+			public void run() {
+				gate.enter(slot);
+				entered.set(true);
+				gate.exit(slot);
+				done.countDown();
+			}
+		};
+		Thread receiver = new Thread() {
+			public void run() {
+				gate.enterShared();
+				gate.exitShared();
+				done.countDown();
+			}
+		};
+		runner.start();
+		receiver.start();
+		Assert.assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+		Assert.assertFalse(entered.get());
+		gate.resume();
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+		Assert.assertTrue(entered.get());
+	}
+
+	/**
+	 * A node out with a task runner isn't in the pool, so its lease comes from the slot,
+	 * until the report after it's let go.
+	 */
+	@Test
+	public void testLeasesOutAreKeptUntilNextReport() {
+		EvaluationGate gate = new EvaluationGate();
+		EvaluationGate.Slot slot = gate.register();
+		VassalNodePool pool = new WorkStealingVassalNodePool();
+		BnbNode node = SmallTsp.makeRoot(SmallTsp.makeProblem());
+		node.setLeaseId(7);
+		pool.post(node);
+
+		Assert.assertTrue(gate.tryEnter(slot));
+		Assert.assertSame(node, gate.nextNode(slot, pool));
+		gate.startLeaseReport();
+		Set<Long> live = new HashSet<Long>();
+		pool.addLiveLeases(live);
+		Assert.assertTrue(live.isEmpty());
+		gate.addLeasesOut(live);
+		Assert.assertTrue(live.contains(7L));
+
+		//let go of partway through a report, which still has to count it
+		gate.exit(slot);
+		live.clear();
+		gate.addLeasesOut(live);
+		Assert.assertTrue(live.contains(7L));
+
+		gate.startLeaseReport();
+		live.clear();
+		gate.addLeasesOut(live);
+		Assert.assertTrue(live.isEmpty());
+	}
+}
@@ -0,0 +1,54 @@
+package bnb.vassal;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.tsp.SmallTsp;
+
+public class TestLDSNodePool {
+	@Test
+	public void testSameCostAsDepthFirst() {
+		double expected = SmallTsp.solve(new SimpleVassalNodePool());
+		Assert.assertEquals(expected, SmallTsp.solve(new LDSNodePool(1)));
+		Assert.assertEquals(expected, SmallTsp.solve(new LDSNodePool(3)));
+	}
+	
+	@Test
+	public void testRaisesLimit() {
+		LDSNodePool pool = new LDSNodePool(2);
+		SmallTsp.solve(pool);
+		Assert.assertTrue(pool.getLimit() > 0);
+		Assert.assertEquals(0, pool.getLimit() % 2);
+		Assert.assertFalse(pool.hasNextNode());
+	}
+	
+	@Test
+	public void testStealsHighestBand() {
+		LDSNodePool pool = new LDSNodePool(1);
+		BnbNode root = SmallTsp.makeRoot();
+		root.evaluate(Double.MAX_VALUE);
+		pool.post(root);
+		//dive two levels.  the root and its first child get put aside with discrepancy 1
+		BnbNode child = pool.nextNode();
+		child.evaluate(Double.MAX_VALUE);
+		pool.post(child);
+		BnbNode grandchild = pool.nextNode();
+		grandchild.evaluate(Double.MAX_VALUE);
+		pool.post(grandchild);
+		
+		//the root's subtree is more than half the pool's work, so it goes alone
+		StealPolicy policy = new StealPolicy();
+		List<BnbNode> stolen = pool.stealNodes(policy);
+		Assert.assertEquals(1, stolen.size());
+		Assert.assertSame(root, stolen.get(0));
+		stolen = pool.stealNodes(policy);
+		Assert.assertEquals(1, stolen.size());
+		Assert.assertSame(child, stolen.get(0));
+		//the grandchild, within the limit, is left
+		Assert.assertTrue(pool.hasNextNode());
+	}
+}
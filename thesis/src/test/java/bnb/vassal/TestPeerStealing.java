@@ -0,0 +1,169 @@
+package bnb.vassal;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.Problem;
+import bnb.stats.VassalJobStats;
+import bnb.tsp.SmallTsp;
+import bnb.tsp.TspProblem;
+
+public class TestPeerStealing {
+
+	@Test
+	public void testStealsFromPeerBeforeLord() {
+		TspProblem problem = SmallTsp.makeProblem();
+		BnbNode root = SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		StubPeer peer = new StubPeer(1, Arrays.asList(root));
+		StubLord lord = new StubLord(true);
+		VassalJobManager jobManager = makeJobManager(new SimpleVassalNodePool(), problem, lord,
+				Arrays.<VassalPeerProxy>asList(peer));
+
+		Assert.assertTrue(jobManager.askForWork(null));
+		Assert.assertFalse(jobManager.isCompleted());
+		Assert.assertEquals(1, peer.numSteals);
+		Assert.assertEquals(0, lord.numAsks);
+		Assert.assertSame(root, jobManager.getNodePool().nextNode().getParent());
+		Assert.assertEquals(peer.lastLeaseId, root.getLeaseId());
+	}
+
+	@Test
+	public void testFallsBackToLordWhenPeersAreOut() {
+		TspProblem problem = SmallTsp.makeProblem();
+		StubPeer peer1 = new StubPeer(1, new LinkedList<BnbNode>());
+		StubPeer peer2 = new StubPeer(2, new LinkedList<BnbNode>());
+		StubLord lord = new StubLord(true);
+		VassalJobManager jobManager = makeJobManager(new SimpleVassalNodePool(), problem, lord,
+				Arrays.<VassalPeerProxy>asList(peer1, peer2));
+
+		Assert.assertTrue(jobManager.askForWork(null));
+		Assert.assertEquals(1, peer1.numSteals);
+		Assert.assertEquals(1, peer2.numSteals);
+		Assert.assertEquals(1, lord.numAsks);
+		//the lord had nothing either
+		Assert.assertTrue(jobManager.isCompleted());
+	}
+
+	@Test
+	public void testDonationIsLeasedWithLord() {
+		TspProblem problem = SmallTsp.makeProblem();
+		StubLord lord = new StubLord(true);
+		VassalJobManager jobManager = makeJobManager(makeDivedPool(problem), problem, lord,
+				new LinkedList<VassalPeerProxy>());
+		int sizeBefore = jobManager.getNodePool().size();
+
+		List<BnbNode> donated = jobManager.donateToPeer(5, 42);
+		Assert.assertFalse(donated.isEmpty());
+		Assert.assertEquals(5, lord.lastThiefId);
+		Assert.assertEquals(42, lord.lastLeaseId);
+		Assert.assertEquals(donated.size(), lord.lastNumLeased);
+		Assert.assertEquals(sizeBefore - donated.size(), jobManager.getNodePool().size());
+	}
+
+	@Test
+	public void testDonationGoesBackWhenLordRefuses() {
+		TspProblem problem = SmallTsp.makeProblem();
+		StubLord lord = new StubLord(false);
+		VassalJobManager jobManager = makeJobManager(makeDivedPool(problem), problem, lord,
+				new LinkedList<VassalPeerProxy>());
+		int sizeBefore = jobManager.getNodePool().size();
+
+		Assert.assertTrue(jobManager.donateToPeer(5, 42).isEmpty());
+		Assert.assertTrue(lord.lastNumLeased > 0);
+		Assert.assertEquals(sizeBefore, jobManager.getNodePool().size());
+	}
+
+	@Test
+	public void testLeaseReportFindsReceivedWork() {
+		TspProblem problem = SmallTsp.makeProblem();
+		VassalJobManager jobManager = makeJobManager(new SimpleVassalNodePool(), problem, new StubLord(true),
+				new LinkedList<VassalPeerProxy>());
+		BnbNode root = SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		jobManager.receiveWork(9, Arrays.asList(root));
+
+		LeaseReport report = jobManager.makeLeaseReport();
+		Assert.assertEquals(9, report.getMaxLeaseReceived());
+		Assert.assertEquals(Arrays.asList(9L), report.getLiveLeases());
+		Assert.assertEquals(1, report.getLoad().getFrontierSize());
+	}
+
+	private static VassalJobManager makeJobManager(VassalNodePool pool, Problem problem, LordProxy lord,
+			List<VassalPeerProxy> peers) {
+		return new VassalJobManager(Double.MAX_VALUE, pool, problem, lord, new VassalJobStats(), 0, 1, peers,
+				0);
+	}
+
+	/**
+	 * A pool that's gone a few levels down, so there are open nodes to give away.
+	 */
+	private static VassalNodePool makeDivedPool(TspProblem problem) {
+		SimpleVassalNodePool pool = new SimpleVassalNodePool();
+		BnbNode root = SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		pool.post(root);
+		for (int i = 0; i < 3; i++) {
+			BnbNode child = pool.nextNode();
+			child.evaluate(Double.MAX_VALUE);
+			pool.post(child);
+		}
+		return pool;
+	}
+
+	private static class StubPeer extends VassalPeerProxy {
+		private final List<BnbNode> nodes;
+		private int numSteals;
+		private long lastLeaseId = -1;
+
+		public StubPeer(int vassalId, List<BnbNode> nodes) {
+			super(new PeerAddress("localhost", -1, vassalId));
+			this.nodes = nodes;
+		}
+
+		@Override
+		public List<BnbNode> stealWork(VassalJobManager jobManager, double bestCost, long leaseId) {
+			numSteals++;
+			lastLeaseId = leaseId;
+			return new LinkedList<BnbNode>(nodes);
+		}
+	}
+
+	/**
+	 * Has no work of its own, and takes or refuses leases for donated nodes.
+	 */
+	private static class StubLord extends LordProxy {
+		private final boolean acceptLeases;
+		private int numAsks;
+		private int lastThiefId = -1;
+		private long lastLeaseId = -1;
+		private int lastNumLeased;
+
+		public StubLord(boolean acceptLeases) {
+			this.acceptLeases = acceptLeases;
+		}
+
+		@Override
+		public List<BnbNode> askForWork(int jobid, int vassalid, Problem problem, double bestCost, boolean prefetch,
+				long leaseId, LoadSummary load) {
+			numAsks++;
+			return new LinkedList<BnbNode>();
+		}
+
+		@Override
+		public boolean leaseWork(int jobid, int donorid, int thiefid, long leaseId, List<BnbNode> nodes)
+				throws IOException {
+			lastThiefId = thiefid;
+			lastLeaseId = leaseId;
+			lastNumLeased = nodes.size();
+			return acceptLeases;
+		}
+	}
+}
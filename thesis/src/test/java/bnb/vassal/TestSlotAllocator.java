@@ -0,0 +1,48 @@
+package bnb.vassal;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TestSlotAllocator {
+
+	@Test
+	public void testSplitsByWeight() {
+		int[] threads = SlotAllocator.divide(8, new double[] {1, 3}, new int[] {8, 8}, new boolean[2]);
+		Assert.assertTrue(Arrays.equals(new int[] {2, 6}, threads));
+
+		//ties go to the older job
+		threads = SlotAllocator.divide(5, new double[] {1, 1}, new int[] {5, 5}, new boolean[2]);
+		Assert.assertTrue(Arrays.equals(new int[] {3, 2}, threads));
+	}
+
+	@Test
+	public void testEveryJobGetsAThread() {
+		int[] threads = SlotAllocator.divide(2, new double[] {1, 10, 1}, new int[] {2, 2, 2}, new boolean[3]);
+		Assert.assertTrue(Arrays.equals(new int[] {1, 1, 1}, threads));
+	}
+
+	@Test
+	public void testStarvingJobsLendThreads() {
+		boolean[] starving = new boolean[] {true, false};
+		int[] threads = SlotAllocator.divide(8, new double[] {1, 1}, new int[] {8, 8}, starving);
+		Assert.assertTrue(Arrays.equals(new int[] {1, 7}, threads));
+
+		//nobody to lend to
+		starving = new boolean[] {true, true};
+		threads = SlotAllocator.divide(8, new double[] {1, 1}, new int[] {8, 8}, starving);
+		Assert.assertTrue(Arrays.equals(new int[] {4, 4}, threads));
+	}
+
+	@Test
+	public void testMaxThreads() {
+		int[] threads = SlotAllocator.divide(8, new double[] {1, 1}, new int[] {2, 8}, new boolean[2]);
+		Assert.assertTrue(Arrays.equals(new int[] {2, 6}, threads));
+
+		//slots are left idle rather than going over
+		threads = SlotAllocator.divide(8, new double[] {1}, new int[] {3}, new boolean[1]);
+		Assert.assertTrue(Arrays.equals(new int[] {3}, threads));
+	}
+}
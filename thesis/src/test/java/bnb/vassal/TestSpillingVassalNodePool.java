@@ -0,0 +1,131 @@
+package bnb.vassal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.rpc.ThriftData;
+import bnb.tsp.SmallTsp;
+import bnb.tsp.TspProblem;
+
+public class TestSpillingVassalNodePool {
+
+	@Test
+	public void testSameCostWhenSpilling() throws IOException {
+		double expected = SmallTsp.solve(new SimpleVassalNodePool());
+		Assert.assertEquals(expected, solveSpilling(new SimpleVassalNodePool()));
+		Assert.assertEquals(expected, solveSpilling(new BestFirstVassalNodePool(1.0)));
+		Assert.assertEquals(expected, solveSpilling(new LDSNodePool(2)));
+	}
+
+	@Test
+	public void testSpillsPastBudget() throws IOException {
+		TspProblem problem = SmallTsp.makeProblem();
+		SpillingVassalNodePool pool = new SpillingVassalNodePool(new BestFirstVassalNodePool(1.0), problem, 8,
+				new SpillArena(1024 * 1024, null));
+		SmallTsp.solve(pool, SmallTsp.makeRoot(problem));
+		Assert.assertTrue(pool.getTotalSpilled() > 0);
+		Assert.assertEquals(pool.getTotalSpilled(), pool.getTotalRestored());
+		Assert.assertEquals(0, pool.getNumSpilled());
+		Assert.assertFalse(pool.hasNextNode());
+		pool.close();
+	}
+
+	@Test
+	public void testArenaWrapsAround() throws IOException {
+		TspProblem problem = SmallTsp.makeProblem();
+		List<BnbNode> nodes = makeChildren(problem);
+		int batchBytes = 0;
+		for (BnbNode node : nodes) {
+			batchBytes += 8 + 4 + node.toBytes().length;
+		}
+		//room for two batches and a bit
+		SpillArena arena = new SpillArena(batchBytes * 2 + batchBytes / 2, null);
+		Assert.assertTrue(arena.push(nodes));
+		Assert.assertTrue(arena.push(nodes));
+		Assert.assertFalse(arena.push(nodes));
+
+		//freeing the oldest makes room at the front
+		List<BnbNode> oldest = arena.popOldest(problem);
+		Assert.assertEquals(nodes.size(), oldest.size());
+		Assert.assertTrue(arena.push(nodes));
+		Assert.assertEquals(2, arena.getNumBatches());
+
+		Set<Long> leaseIds = new HashSet<Long>();
+		arena.addLeaseIds(leaseIds);
+		Assert.assertEquals(nodes.size(), leaseIds.size());
+
+		List<BnbNode> newest = arena.popNewest(problem);
+		for (int i = 0; i < nodes.size(); i++) {
+			Assert.assertEquals(nodes.get(i).getLeaseId(), newest.get(i).getLeaseId());
+			Assert.assertEquals(nodes.get(i).getLowerBound(), newest.get(i).getLowerBound());
+		}
+		arena.close();
+	}
+
+	/**
+	 * A pinned batch keeps its bytes after it's been taken back, until it's unpinned.
+	 */
+	@Test
+	public void testPinnedBatchesAreNotOverwritten() throws IOException {
+		TspProblem problem = SmallTsp.makeProblem();
+		List<BnbNode> nodes = makeChildren(problem);
+		int batchBytes = 0;
+		for (BnbNode node : nodes) {
+			batchBytes += 8 + 4 + node.toBytes().length;
+		}
+		SpillArena arena = new SpillArena(batchBytes * 2 + batchBytes / 2, null);
+		Assert.assertTrue(arena.push(nodes));
+		Assert.assertTrue(arena.push(nodes));
+		SpillArena.Pin pin = arena.pin();
+		Assert.assertEquals(nodes.size() * 2, pin.getNumNodes());
+
+		arena.popOldest(problem);
+		Assert.assertFalse(arena.push(nodes));
+		List<ThriftData> copied = arena.copyPinned(pin);
+		Assert.assertEquals(nodes.size() * 2, copied.size());
+		for (int i = 0; i < copied.size(); i++) {
+			BnbNode node = nodes.get(i % nodes.size());
+			byte[] bytes = new byte[copied.get(i).bytes.remaining()];
+			copied.get(i).bytes.duplicate().get(bytes);
+			Assert.assertTrue(Arrays.equals(node.toBytes(), bytes));
+		}
+
+		arena.unpin(pin);
+		Assert.assertTrue(arena.push(nodes));
+		arena.close();
+	}
+
+	private static double solveSpilling(VassalNodePool pool) throws IOException {
+		TspProblem problem = SmallTsp.makeProblem();
+		SpillingVassalNodePool spilling = new SpillingVassalNodePool(pool, problem, 4,
+				new SpillArena(1024 * 1024, null));
+		double cost = SmallTsp.solve(spilling, SmallTsp.makeRoot(problem));
+		spilling.close();
+		return cost;
+	}
+
+	/**
+	 * The root's children, evaluated, with a lease each.
+	 */
+	private static List<BnbNode> makeChildren(TspProblem problem) {
+		BnbNode root = SmallTsp.makeRoot(problem);
+		root.evaluate(Double.MAX_VALUE);
+		List<BnbNode> children = new ArrayList<BnbNode>();
+		while (root.hasNextChild()) {
+			BnbNode child = root.nextChild(true);
+			child.evaluate(Double.MAX_VALUE);
+			child.setLeaseId(children.size() + 1);
+			children.add(child);
+		}
+		return children;
+	}
+}
@@ -0,0 +1,52 @@
+package bnb.vassal;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bnb.BnbNode;
+import bnb.tsp.SmallTsp;
+
+public class TestStealPolicy {
+	
+	@Test
+	public void testLearnsMinStealableSize() {
+		StealPolicy policy = new StealPolicy(4, StealPolicy.DEFAULT_MAX_BATCH_SIZE);
+		Assert.assertEquals(-1.0, policy.getMinStealableSize());
+		policy.reportEvaluations(10, 10 * 1000000L);
+		Assert.assertEquals(-1.0, policy.getMinStealableSize());
+		policy.reportStealLatency(5);
+		//4 * 5ms / 1ms
+		Assert.assertEquals(20.0, policy.getMinStealableSize(), .0001);
+	}
+	
+	@Test
+	public void testBatchFromSimplePool() {
+		SimpleVassalNodePool pool = new SimpleVassalNodePool();
+		BnbNode root = SmallTsp.makeRoot();
+		root.evaluate(Double.MAX_VALUE);
+		pool.post(root);
+		//dive three levels
+		for (int i = 0; i < 3; i++) {
+			BnbNode child = pool.nextNode();
+			child.evaluate(Double.MAX_VALUE);
+			pool.post(child);
+		}
+		
+		StealPolicy policy = new StealPolicy(1, StealPolicy.DEFAULT_MAX_BATCH_SIZE);
+		policy.reportEvaluations(1, 1000000L);
+		policy.reportStealLatency(1);
+		//subtrees shrink as we go down, so the root holds more than half of the work
+		//and goes alone
+		List<BnbNode> stolen = pool.stealNodes(policy);
+		Assert.assertEquals(1, stolen.size());
+		Assert.assertSame(root, stolen.get(0));
+		Assert.assertTrue(pool.hasNextNode());
+		
+		//nothing is worth stealing if stealing takes forever
+		policy.reportStealLatency(Long.MAX_VALUE / 1000000L);
+		Assert.assertTrue(pool.stealNodes(policy).isEmpty());
+	}
+}
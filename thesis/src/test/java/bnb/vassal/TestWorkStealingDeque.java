@@ -0,0 +1,105 @@
+package bnb.vassal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TestWorkStealingDeque {
+	@Test
+	public void testPopIsLifoAndStealIsFifo() {
+		WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+		for (int i = 0; i < 5; i++) {
+			deque.push(i);
+		}
+		Assert.assertEquals(5, deque.size());
+		Assert.assertEquals(Integer.valueOf(4), deque.pop());
+		Assert.assertEquals(Integer.valueOf(0), deque.steal());
+		Assert.assertEquals(Integer.valueOf(3), deque.pop());
+		Assert.assertEquals(Integer.valueOf(1), deque.steal());
+		Assert.assertEquals(Integer.valueOf(2), deque.pop());
+		Assert.assertNull(deque.pop());
+		Assert.assertNull(deque.steal());
+		Assert.assertTrue(deque.isEmpty());
+	}
+
+	@Test
+	public void testGrow() {
+		WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			deque.push(i);
+			if (i % 3 == 0) {
+				deque.steal();
+			}
+		}
+		int prev = Integer.MAX_VALUE;
+		Integer elem;
+		while ((elem = deque.pop()) != null) {
+			Assert.assertTrue(elem < prev);
+			prev = elem;
+		}
+	}
+
+	@Test
+	public void testConcurrentStealsTakeEachElementOnce() throws InterruptedException {
+		final int numElems = 100000;
+		final WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+		final ConcurrentHashMap<Integer, Boolean> taken = new ConcurrentHashMap<Integer, Boolean>();
+		final AtomicInteger numTaken = new AtomicInteger();
+		final AtomicInteger numDuplicates = new AtomicInteger();
+		final Thread owner = new Thread() {
+			public void run() {
+				for (int i = 0; i < numElems; i++) {
+					deque.push(i);
+					if (i % 2 == 0) {
+						take(deque.pop());
+					}
+				}
+				Integer elem;
+				while ((elem = deque.pop()) != null) {
+					take(elem);
+				}
+			}
+
+			private void take(Integer elem) {
+				if (elem != null) {
+					record(elem, taken, numTaken, numDuplicates);
+				}
+			}
+		};
+		Thread[] thieves = new Thread[3];
+		for (int i = 0; i < thieves.length; i++) {
+			thieves[i] = new Thread() {
+				public void run() {
+					while (owner.isAlive() || !deque.isEmpty()) {
+						Integer elem = deque.steal();
+						if (elem != null) {
+							record(elem, taken, numTaken, numDuplicates);
+						}
+					}
+				}
+			};
+		}
+		owner.start();
+		for (Thread thief : thieves) {
+			thief.start();
+		}
+		owner.join();
+		for (Thread thief : thieves) {
+			thief.join();
+		}
+		Assert.assertEquals(0, numDuplicates.get());
+		Assert.assertEquals(numElems, numTaken.get());
+	}
+
+	private static void record(Integer elem, ConcurrentHashMap<Integer, Boolean> taken,
+			AtomicInteger numTaken, AtomicInteger numDuplicates) {
+		if (taken.putIfAbsent(elem, Boolean.TRUE) != null) {
+			numDuplicates.incrementAndGet();
+		} else {
+			numTaken.incrementAndGet();
+		}
+	}
+}